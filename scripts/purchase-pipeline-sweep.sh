@@ -0,0 +1,92 @@
+#!/usr/bin/env bash
+# ==============================================
+# PURCHASE PIPELINE SWEEP
+# ==============================================
+# Compares group-committed purchases (app.purchase-pipeline.enabled=true)
+# with one transaction per purchase. Starts the app once per mode, runs the
+# purchase load test at each rate against it and collects purchase
+# throughput and p50/p99/p99.9 per mode and rate.
+#
+# Usage:
+#   scripts/purchase-pipeline-sweep.sh [rate ...]   (default: 100 200 400 800 1600)
+#
+# Environment:
+#   APP_JAR          jar to start (default: target/e-commerce-0.0.1-SNAPSHOT.jar)
+#   JAVA_OPTS        extra JVM flags for the app
+#   SERVER_PORT      port to start on (default: 8080)
+#   LOAD_DURATION    measured time per rate (default: PT2M)
+#   LOAD_WARMUP      warmup per rate (default: PT30S)
+#   DB_*             database settings, shared by the app and the load test
+#
+# Every run is also appended to target/load-test.csv. The rows of this sweep
+# go to target/purchase-pipeline-sweep-<timestamp>.csv; copy the numbers
+# into docs/purchase-pipeline-results.md together with the machine and
+# database they were measured on.
+
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+if (( $# > 0 )); then
+  RATES=("$@")
+else
+  RATES=(100 200 400 800 1600)
+fi
+APP_JAR="${APP_JAR:-$ROOT_DIR/target/e-commerce-0.0.1-SNAPSHOT.jar}"
+SERVER_PORT="${SERVER_PORT:-8080}"
+DURATION="${LOAD_DURATION:-PT2M}"
+WARMUP="${LOAD_WARMUP:-PT30S}"
+OUT_DIR="$ROOT_DIR/target"
+SWEEP_ID="$(date -u +%Y%m%dT%H%M%SZ)"
+SWEEP="$OUT_DIR/purchase-pipeline-sweep-${SWEEP_ID}.csv"
+HEALTH_URL="http://localhost:${SERVER_PORT}/actuator/health"
+
+if [[ ! -f "$APP_JAR" ]]; then
+  echo "Jar not found: $APP_JAR (run ./mvnw package first)" >&2
+  exit 1
+fi
+
+mkdir -p "$OUT_DIR"
+for mode in per-purchase pipeline; do
+  enabled=false
+  [[ "$mode" == pipeline ]] && enabled=true
+  log="$OUT_DIR/purchase-pipeline-${mode}.log"
+
+  # shellcheck disable=SC2086
+  SPRING_PROFILES_ACTIVE=loadtest PURCHASE_PIPELINE_ENABLED=$enabled \
+      java ${JAVA_OPTS:-} -jar "$APP_JAR" --server.port="$SERVER_PORT" \
+      > "$log" 2>&1 &
+  pid=$!
+  until curl -sf "$HEALTH_URL" | grep -q '"status":"UP"'; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Application exited while starting ($mode), see $log" >&2
+      exit 1
+    fi
+    sleep 0.2
+  done
+
+  for rate in "${RATES[@]}"; do
+    echo "== $mode at $rate sessions/s"
+    # Every session purchases; gates only report here, so a saturated rate
+    # still leaves its row and the sweep goes on
+    "$ROOT_DIR/mvnw" -q -f "$ROOT_DIR/pom.xml" -Pload-test -DskipTests verify \
+        -Dload.base-url="http://localhost:${SERVER_PORT}" \
+        -Dload.rate="$rate" -Dload.conversion-rate=1 \
+        -Dload.duration="$DURATION" -Dload.warmup="$WARMUP" \
+        -Dload.label="${mode}-${SWEEP_ID}" \
+        || echo "Load test gates failed for $mode at $rate, row kept" >&2
+  done
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
+
+# Columns of target/load-test.csv: 2 rate, 5 purchase_rps, 6-8 purchase
+# p50/p99/p99.9, 10 errors, 11 violations, 12 label
+echo "mode,rate,purchase_rps,purchase_p50_ms,purchase_p99_ms,purchase_p999_ms,errors,violations" \
+    > "$SWEEP"
+awk -F, -v id="-${SWEEP_ID}" '$12 ~ id"$" {
+  sub(id"$", "", $12)
+  print $12 "," $2 "," $5 "," $6 "," $7 "," $8 "," $10 "," $11
+}' "$OUT_DIR/load-test.csv" >> "$SWEEP"
+column -s, -t < "$SWEEP"
+echo "Written to $SWEEP"
@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# ==============================================
+# STARTUP BENCHMARK
+# ==============================================
+# Measures the time from JVM launch until /actuator/health first answers UP.
+#
+# Usage:
+#   scripts/startup-benchmark.sh [runs]
+#
+# Environment:
+#   APP_JAR               jar to start (default: target/e-commerce-0.0.1-SNAPSHOT.jar)
+#   JAVA_OPTS             extra JVM flags, e.g. for the CDS build:
+#                         "-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true"
+#   SERVER_PORT           port to start on (default: 8080)
+#   STARTUP_BASELINE_MS   if set, fail when the median is slower than the baseline
+#   STARTUP_TOLERANCE_PCT allowed slowdown over the baseline (default: 10)
+#
+# Each run is appended to target/startup-benchmark.csv so results can be
+# compared across commits.
+
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${1:-5}"
+APP_JAR="${APP_JAR:-$ROOT_DIR/target/e-commerce-0.0.1-SNAPSHOT.jar}"
+SERVER_PORT="${SERVER_PORT:-8080}"
+TOLERANCE="${STARTUP_TOLERANCE_PCT:-10}"
+OUT_DIR="$ROOT_DIR/target"
+RESULTS="$OUT_DIR/startup-benchmark.csv"
+HEALTH_URL="http://localhost:${SERVER_PORT}/actuator/health"
+
+if [[ ! -f "$APP_JAR" ]]; then
+  echo "Jar not found: $APP_JAR (run ./mvnw package first)" >&2
+  exit 1
+fi
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+mkdir -p "$OUT_DIR"
+timings=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  # shellcheck disable=SC2086
+  java ${JAVA_OPTS:-} -jar "$APP_JAR" --server.port="$SERVER_PORT" \
+      > "$OUT_DIR/startup-run-${run}.log" 2>&1 &
+  pid=$!
+
+  until curl -sf "$HEALTH_URL" | grep -q '"status":"UP"'; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Application exited during run $run, see $OUT_DIR/startup-run-${run}.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( $(now_ms) - start ))
+  timings+=("$elapsed")
+  echo "Run $run: ${elapsed} ms"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
+
+median=$(printf '%s\n' "${timings[@]}" | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+echo "Median time to healthy: ${median} ms over ${RUNS} runs"
+
+if [[ ! -f "$RESULTS" ]]; then
+  echo "timestamp,commit,java_opts,runs,median_ms" > "$RESULTS"
+fi
+echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$(git -C "$ROOT_DIR" rev-parse --short HEAD 2>/dev/null || echo unknown),\"${JAVA_OPTS:-}\",${RUNS},${median}" >> "$RESULTS"
+
+if [[ -n "${STARTUP_BASELINE_MS:-}" ]]; then
+  limit=$(( STARTUP_BASELINE_MS * (100 + TOLERANCE) / 100 ))
+  if (( median > limit )); then
+    echo "Startup regression: ${median} ms > ${limit} ms (baseline ${STARTUP_BASELINE_MS} ms + ${TOLERANCE}%)" >&2
+    exit 1
+  fi
+fi
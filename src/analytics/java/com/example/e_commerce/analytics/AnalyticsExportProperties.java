@@ -0,0 +1,21 @@
+package com.example.e_commerce.analytics;
+
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "app.analytics-export")
+public record AnalyticsExportProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("data/analytics") Path directory,
+        // Days not exported yet (e.g. while the app was down) are caught up
+        // this far back
+        @DefaultValue("7") int backfillDays,
+        // Buffered in memory before a row group is written out
+        @DefaultValue("64MB") DataSize rowGroupSize,
+        @DefaultValue("SNAPPY") CompressionCodecName compression,
+        @DefaultValue("10000") int fetchSize) {
+}
@@ -0,0 +1,4 @@
+package com.example.e_commerce.analytics;
+
+public record Column(String name, ColumnType type) {
+}
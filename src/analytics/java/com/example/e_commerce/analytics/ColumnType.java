@@ -0,0 +1,14 @@
+package com.example.e_commerce.analytics;
+
+public enum ColumnType {
+  LONG,
+  INT,
+  // Fixed-point with two decimals, stored as cents
+  AMOUNT,
+  // LocalDateTime as microseconds, without a time zone
+  TIMESTAMP,
+  // Mostly unique strings, written without a dictionary
+  STRING,
+  // Low-cardinality strings, stored once per row group plus a code per row
+  DICTIONARY
+}
@@ -0,0 +1,152 @@
+package com.example.e_commerce.analytics;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Writes a Parquet file in memory bounded by one row group, so any Parquet
+// reader (Spark, DuckDB, pyarrow) can scan the export. Every column is
+// optional. AMOUNT is DECIMAL(18, 2) over the cents and TIMESTAMP a local
+// timestamp in microseconds. Parquet dictionary-encodes columns by default;
+// STRING columns, which hold mostly unique values, skip it. The target
+// appears atomically on commit.
+public class ColumnarFileWriter implements Closeable {
+  private final Path target;
+  private final Path temp;
+  private final List<Column> columns;
+  private final SimpleGroupFactory groups;
+  private final ParquetWriter<Group> writer;
+
+  private long rowCount;
+  private boolean closed;
+  private boolean committed;
+
+  public ColumnarFileWriter(Path target, List<Column> columns,
+                            long rowGroupBytes,
+                            CompressionCodecName compression)
+          throws IOException {
+    if (rowGroupBytes <= 0) {
+      throw new IllegalArgumentException("Row group size must be > 0");
+    }
+    this.target = target;
+    this.columns = List.copyOf(columns);
+    Path dir = target.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    this.temp = Files.createTempFile(dir, target.getFileName().toString(),
+            ".tmp");
+    MessageType schema = schema(columns);
+    this.groups = new SimpleGroupFactory(schema);
+    ExampleParquetWriter.Builder builder = ExampleParquetWriter
+            .builder(new LocalOutputFile(temp))
+            .withType(schema)
+            .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+            .withRowGroupSize(rowGroupBytes)
+            .withCompressionCodec(compression);
+    for (Column column : columns) {
+      if (column.type() == ColumnType.STRING) {
+        builder.withDictionaryEncoding(column.name(), false);
+      }
+    }
+    this.writer = builder.build();
+  }
+
+  // One value per column, in column order; null is allowed everywhere.
+  // Expects Long/Integer, BigDecimal, LocalDateTime or String by type.
+  public void addRow(Object... values) throws IOException {
+    if (values.length != columns.size()) {
+      throw new IllegalArgumentException("Expected " + columns.size() +
+              " values, got " + values.length);
+    }
+    Group row = groups.newGroup();
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      if (value == null) {
+        continue;
+      }
+      switch (columns.get(i).type()) {
+        case LONG -> row.add(i, ((Number) value).longValue());
+        case INT -> row.add(i, ((Number) value).intValue());
+        case AMOUNT -> row.add(i, ((BigDecimal) value)
+                .setScale(2, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact());
+        case TIMESTAMP -> row.add(i, micros((LocalDateTime) value));
+        case STRING, DICTIONARY -> row.add(i, (String) value);
+      }
+    }
+    writer.write(row);
+    rowCount++;
+  }
+
+  public long rowCount() {
+    return rowCount;
+  }
+
+  public void commit() throws IOException {
+    closed = true;
+    writer.close();
+    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    committed = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!committed) {
+      try {
+        if (!closed) {
+          closed = true;
+          writer.close();
+        }
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+
+  static MessageType schema(List<Column> columns) {
+    Types.MessageTypeBuilder message = Types.buildMessage();
+    for (Column column : columns) {
+      switch (column.type()) {
+        case LONG -> message.optional(PrimitiveTypeName.INT64)
+                .named(column.name());
+        case INT -> message.optional(PrimitiveTypeName.INT32)
+                .named(column.name());
+        case AMOUNT -> message.optional(PrimitiveTypeName.INT64)
+                .as(LogicalTypeAnnotation.decimalType(2, 18))
+                .named(column.name());
+        case TIMESTAMP -> message.optional(PrimitiveTypeName.INT64)
+                .as(LogicalTypeAnnotation.timestampType(false,
+                        LogicalTypeAnnotation.TimeUnit.MICROS))
+                .named(column.name());
+        case STRING, DICTIONARY -> message.optional(PrimitiveTypeName.BINARY)
+                .as(LogicalTypeAnnotation.stringType())
+                .named(column.name());
+      }
+    }
+    return message.named("row");
+  }
+
+  private static long micros(LocalDateTime time) {
+    return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 +
+            time.getNano() / 1_000;
+  }
+}
@@ -0,0 +1,173 @@
+package com.example.e_commerce.analytics;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Writes the orders closed on a day (delivered, cancelled or refunded) and
+// their items to one Parquet file each, so analytics can scan the files
+// instead of the primary. Rows stream from a server-side cursor straight
+// into the writer, which holds at most one row group in memory. Both files
+// are read in one REPEATABLE READ transaction, so they hold the same orders
+// even while statuses keep changing.
+// An order refunded after delivery shows up again in the later day's file
+// with its final status; readers keep the latest row per order id.
+@Component
+@Workload(WorkloadClass.ADMIN)
+public class OrderAnalyticsExporter {
+  private static final Logger log =
+          LoggerFactory.getLogger(OrderAnalyticsExporter.class);
+
+  static final List<Column> ORDER_COLUMNS = List.of(
+          new Column("id", ColumnType.LONG),
+          new Column("order_number", ColumnType.STRING),
+          new Column("user_id", ColumnType.LONG),
+          new Column("status", ColumnType.DICTIONARY),
+          new Column("total_amount", ColumnType.AMOUNT),
+          new Column("created_at", ColumnType.TIMESTAMP),
+          new Column("closed_at", ColumnType.TIMESTAMP),
+          new Column("paid_at", ColumnType.TIMESTAMP),
+          new Column("shipped_at", ColumnType.TIMESTAMP),
+          new Column("delivered_at", ColumnType.TIMESTAMP));
+
+  // category is the product's category at export time
+  static final List<Column> ITEM_COLUMNS = List.of(
+          new Column("id", ColumnType.LONG),
+          new Column("order_id", ColumnType.LONG),
+          new Column("product_id", ColumnType.LONG),
+          new Column("category", ColumnType.DICTIONARY),
+          new Column("quantity", ColumnType.INT),
+          new Column("price_at_purchase", ColumnType.AMOUNT),
+          new Column("subtotal", ColumnType.AMOUNT),
+          new Column("created_at", ColumnType.TIMESTAMP));
+
+  // Matches the partial index from V7
+  private static final String CLOSED_ON_DAY =
+          "o.status IN ('DELIVERED', 'CANCELLED', 'REFUNDED') " +
+          "AND o.updated_at >= ? AND o.updated_at < ?";
+
+  private static final String ORDERS_SQL = "SELECT o.id, o.order_number, " +
+          "o.user_id, o.status, o.total_amount, o.created_at, " +
+          "o.updated_at, o.paid_at, o.shipped_at, o.delivered_at " +
+          "FROM orders o WHERE " + CLOSED_ON_DAY + " ORDER BY o.id";
+
+  private static final String ITEMS_SQL = "SELECT oi.id, oi.order_id, " +
+          "oi.product_id, p.category, oi.quantity, oi.price_at_purchase, " +
+          "oi.subtotal, oi.created_at " +
+          "FROM orders o " +
+          "JOIN order_items oi ON oi.order_id = o.id " +
+          "AND oi.created_at = o.created_at " +
+          "LEFT JOIN products p ON p.id = oi.product_id " +
+          "WHERE " + CLOSED_ON_DAY + " ORDER BY oi.order_id, oi.id";
+
+  private final AnalyticsExportProperties properties;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public OrderAnalyticsExporter(AnalyticsExportProperties properties,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager) {
+    this.properties = properties;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(properties.fetchSize());
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setIsolationLevel(
+            TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  @Scheduled(cron = "${app.analytics-export.cron:0 15 3 * * *}")
+  public void exportPendingDays() {
+    if (!properties.enabled()) {
+      return;
+    }
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    for (int i = properties.backfillDays() - 1; i >= 0; i--) {
+      LocalDate day = yesterday.minusDays(i);
+      if (Files.exists(ordersFile(day))) {
+        continue;
+      }
+      try {
+        exportDay(day);
+      } catch (RuntimeException e) {
+        log.warn("Analytics export for {} failed", day, e);
+      }
+    }
+  }
+
+  // Items go first: the orders file is what marks a day as exported.
+  // PostgreSQL only uses a cursor for fetchSize inside a transaction.
+  public long exportDay(LocalDate day) {
+    Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+    Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+    long[] counts = transactionTemplate.execute(status -> new long[]{
+            export(itemsFile(day), ITEM_COLUMNS, ITEMS_SQL, from, to,
+                    rs -> new Object[]{rs.getLong(1), rs.getLong(2),
+                            rs.getLong(3), rs.getString(4), rs.getInt(5),
+                            rs.getBigDecimal(6), rs.getBigDecimal(7),
+                            time(rs, 8)}),
+            export(ordersFile(day), ORDER_COLUMNS, ORDERS_SQL, from, to,
+                    rs -> new Object[]{rs.getLong(1), rs.getString(2),
+                            rs.getLong(3), rs.getString(4),
+                            rs.getBigDecimal(5), time(rs, 6), time(rs, 7),
+                            time(rs, 8), time(rs, 9), time(rs, 10)})});
+    log.info("Exported {} closed orders and {} items for {}", counts[1],
+            counts[0], day);
+    return counts[1];
+  }
+
+  public Path ordersFile(LocalDate day) {
+    return properties.directory().resolve("orders-" + day + ".parquet");
+  }
+
+  public Path itemsFile(LocalDate day) {
+    return properties.directory().resolve("order-items-" + day + ".parquet");
+  }
+
+  private long export(Path target, List<Column> columns, String sql,
+                      Timestamp from, Timestamp to, RowMapper mapper) {
+    try (ColumnarFileWriter writer = new ColumnarFileWriter(target, columns,
+            properties.rowGroupSize().toBytes(), properties.compression())) {
+      jdbcTemplate.query(sql, rs -> {
+        try {
+          writer.addRow(mapper.map(rs));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, from, to);
+      writer.commit();
+      return writer.rowCount();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static LocalDateTime time(ResultSet rs, int column)
+          throws SQLException {
+    Timestamp timestamp = rs.getTimestamp(column);
+    return timestamp != null ? timestamp.toLocalDateTime() : null;
+  }
+
+  private interface RowMapper {
+    Object[] map(ResultSet rs) throws SQLException;
+  }
+}
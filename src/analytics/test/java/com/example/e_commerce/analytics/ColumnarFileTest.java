@@ -0,0 +1,185 @@
+package com.example.e_commerce.analytics;
+
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarFileTest {
+  private static final List<Column> COLUMNS = List.of(
+          new Column("id", ColumnType.LONG),
+          new Column("status", ColumnType.DICTIONARY),
+          new Column("amount", ColumnType.AMOUNT),
+          new Column("quantity", ColumnType.INT),
+          new Column("number", ColumnType.STRING),
+          new Column("shipped_at", ColumnType.TIMESTAMP));
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should write every column type as its Parquet type")
+  void shouldWriteParquetTypes() throws IOException {
+    Path file = tempDir.resolve("orders.parquet");
+    LocalDateTime shipped = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+    try (ColumnarFileWriter writer = writer(file, 1 << 20)) {
+      writer.addRow(42L, "DELIVERED", new BigDecimal("1299.99"), 3,
+              "ORD-äö-1", shipped);
+      writer.addRow(7L, "CANCELLED", new BigDecimal("-5.5"), -1,
+              "ORD-2", LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1_000));
+      writer.commit();
+    }
+
+    try (ParquetFileReader reader = ParquetFileReader.open(
+            new LocalInputFile(file))) {
+      MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+      assertEquals(LogicalTypeAnnotation.decimalType(2, 18),
+              schema.getType("amount").getLogicalTypeAnnotation());
+      assertEquals(LogicalTypeAnnotation.timestampType(false,
+                      LogicalTypeAnnotation.TimeUnit.MICROS),
+              schema.getType("shipped_at").getLogicalTypeAnnotation());
+      assertEquals(LogicalTypeAnnotation.stringType(),
+              schema.getType("status").getLogicalTypeAnnotation());
+      assertEquals(2, reader.getRecordCount());
+    }
+    List<Group> rows = read(file);
+    assertEquals(42, rows.get(0).getLong("id", 0));
+    assertEquals("DELIVERED", rows.get(0).getString("status", 0));
+    assertEquals(129_999, rows.get(0).getLong("amount", 0));
+    assertEquals(-550, rows.get(1).getLong("amount", 0));
+    assertEquals(-1, rows.get(1).getInteger("quantity", 0));
+    assertEquals("ORD-äö-1", rows.get(0).getString("number", 0));
+    assertEquals(1_709_296_215_123_456L, rows.get(0).getLong("shipped_at", 0));
+    assertEquals(-999_999, rows.get(1).getLong("shipped_at", 0));
+  }
+
+  @Test
+  @DisplayName("Should keep nulls in every column")
+  void shouldKeepNulls() throws IOException {
+    Path file = tempDir.resolve("nulls.parquet");
+    try (ColumnarFileWriter writer = writer(file, 1 << 20)) {
+      for (int i = 0; i < 20; i++) {
+        boolean empty = i % 3 == 0;
+        writer.addRow(i == 5 ? null : (long) i, empty ? null : "PAID",
+                empty ? null : BigDecimal.ONE, empty ? null : i,
+                empty ? null : "ORD", null);
+      }
+      writer.commit();
+    }
+
+    List<Group> rows = read(file);
+    assertEquals(0, rows.get(5).getFieldRepetitionCount("id"));
+    assertEquals(6, rows.get(6).getLong("id", 0));
+    for (int i = 0; i < 20; i++) {
+      boolean empty = i % 3 == 0;
+      Group row = rows.get(i);
+      assertEquals(empty ? 0 : 1, row.getFieldRepetitionCount("status"));
+      assertEquals(empty ? 0 : 1, row.getFieldRepetitionCount("amount"));
+      if (!empty) {
+        assertEquals("PAID", row.getString("status", 0));
+        assertEquals(100, row.getLong("amount", 0));
+        assertEquals("ORD", row.getString("number", 0));
+      }
+      assertEquals(0, row.getFieldRepetitionCount("shipped_at"));
+    }
+  }
+
+  @Test
+  @DisplayName("Should start a new row group once one is full")
+  void shouldSplitRowGroups() throws IOException {
+    Path file = tempDir.resolve("groups.parquet");
+    try (ColumnarFileWriter writer = writer(file, 16 * 1024)) {
+      for (int i = 0; i < 20_000; i++) {
+        writer.addRow((long) i * 3, i % 2 == 0 ? "DELIVERED" : "REFUNDED",
+                new BigDecimal(i).movePointLeft(2), i, "ORD-" + i,
+                LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i));
+      }
+      writer.commit();
+    }
+
+    try (ParquetFileReader reader = ParquetFileReader.open(
+            new LocalInputFile(file))) {
+      assertEquals(20_000, reader.getRecordCount());
+      assertTrue(reader.getRowGroups().size() > 1);
+    }
+    List<Group> rows = read(file);
+    Group last = rows.get(19_999);
+    assertEquals(19_999 * 3, last.getLong("id", 0));
+    assertEquals("REFUNDED", last.getString("status", 0));
+    assertEquals(19_999, last.getLong("amount", 0));
+    assertEquals("ORD-19999", last.getString("number", 0));
+  }
+
+  @Test
+  @DisplayName("Should write a readable file without rows")
+  void shouldWriteEmptyFile() throws IOException {
+    Path file = tempDir.resolve("empty.parquet");
+    try (ColumnarFileWriter writer = writer(file, 1 << 20)) {
+      writer.commit();
+    }
+
+    try (ParquetFileReader reader = ParquetFileReader.open(
+            new LocalInputFile(file))) {
+      assertEquals(ColumnarFileWriter.schema(COLUMNS),
+              reader.getFooter().getFileMetaData().getSchema());
+      assertEquals(0, reader.getRecordCount());
+    }
+  }
+
+  @Test
+  @DisplayName("Should leave nothing behind when not committed")
+  void shouldLeaveNothingWhenNotCommitted() throws IOException {
+    Path file = tempDir.resolve("aborted.parquet");
+    try (ColumnarFileWriter writer = writer(file, 1 << 20)) {
+      writer.addRow(1L, "DELIVERED", BigDecimal.TEN, 1, "ORD-1", null);
+    }
+
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  private static ColumnarFileWriter writer(Path file, long rowGroupBytes)
+          throws IOException {
+    return new ColumnarFileWriter(file, COLUMNS, rowGroupBytes,
+            CompressionCodecName.SNAPPY);
+  }
+
+  private static List<Group> read(Path file) throws IOException {
+    List<Group> rows = new ArrayList<>();
+    try (ParquetFileReader reader = ParquetFileReader.open(
+            new LocalInputFile(file))) {
+      MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+      PageReadStore rowGroup;
+      while ((rowGroup = reader.readNextRowGroup()) != null) {
+        RecordReader<Group> records = new ColumnIOFactory()
+                .getColumnIO(schema)
+                .getRecordReader(rowGroup, new GroupRecordConverter(schema));
+        for (long i = 0; i < rowGroup.getRowCount(); i++) {
+          rows.add(records.read());
+        }
+      }
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,185 @@
+package com.example.e_commerce.diagnostics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Cost of InstrumentedDataSource per statement, against an in-memory driver
+// so the database does not hide it. Compare "raw" with "instrumented": the
+// difference is the overhead added to every query, to be read against a
+// PostgreSQL round trip of 100us or more.
+//
+//   ./mvnw -Pbenchmark -DskipTests verify -Dbenchmark.include=SqlInstrumentation
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SqlInstrumentationBenchmark {
+  private static final String SQL = "select p1_0.id, p1_0.name from products " +
+          "p1_0 where p1_0.category=? and p1_0.active=? order by p1_0.id";
+
+  // Rows per result set, each read through two column getters
+  @Param({"1", "20"})
+  int rows;
+
+  private SqlDiagnostics diagnostics;
+  private Connection raw;
+  private Connection instrumented;
+
+  @Setup
+  public void setUp() throws SQLException {
+    diagnostics = new SqlDiagnostics(new SqlDiagnosticsProperties(true,
+            Duration.ofMillis(200), 10, 1000, 50, List.of("password", "email")));
+    DataSource driver = new InMemoryDataSource(rows);
+    raw = driver.getConnection();
+    instrumented = new InstrumentedDataSource(driver, diagnostics)
+            .getConnection();
+  }
+
+  @Setup(Level.Iteration)
+  public void beginRequest() {
+    diagnostics.beginRequest();
+  }
+
+  @TearDown(Level.Iteration)
+  public void endRequest() {
+    diagnostics.endRequest("benchmark");
+  }
+
+  @Benchmark
+  public void raw(Blackhole blackhole) throws SQLException {
+    query(raw, blackhole);
+  }
+
+  @Benchmark
+  public void instrumented(Blackhole blackhole) throws SQLException {
+    query(instrumented, blackhole);
+  }
+
+  private static void query(Connection connection, Blackhole blackhole)
+          throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+      statement.setString(1, "Books");
+      statement.setBoolean(2, true);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          blackhole.consume(resultSet.getLong(1));
+          blackhole.consume(resultSet.getString(2));
+        }
+      }
+    }
+  }
+
+  // Just enough of a JDBC driver for the query above
+  private static final class InMemoryDataSource implements DataSource {
+    private final int rows;
+
+    InMemoryDataSource(int rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public Connection getConnection() {
+      return proxy(Connection.class, (proxy, method, args) ->
+              switch (method.getName()) {
+                case "prepareStatement" -> statement();
+                case "close" -> null;
+                default -> throw new UnsupportedOperationException(
+                        method.getName());
+              });
+    }
+
+    private PreparedStatement statement() {
+      return proxy(PreparedStatement.class, (proxy, method, args) ->
+              switch (method.getName()) {
+                case "executeQuery" -> resultSet();
+                case "setString", "setBoolean", "close" -> null;
+                default -> throw new UnsupportedOperationException(
+                        method.getName());
+              });
+    }
+
+    private ResultSet resultSet() {
+      int[] position = {0};
+      return proxy(ResultSet.class, (proxy, method, args) ->
+              switch (method.getName()) {
+                case "next" -> ++position[0] <= rows;
+                case "getLong" -> (long) position[0];
+                case "getString" -> "Product";
+                case "close" -> null;
+                default -> throw new UnsupportedOperationException(
+                        method.getName());
+              });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type,
+                               java.lang.reflect.InvocationHandler handler) {
+      return (T) Proxy.newProxyInstance(type.getClassLoader(),
+              new Class<?>[] {type}, handler);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+      return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+      return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+      return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+      return Logger.getGlobal();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+      throw new SQLException("Not a wrapper");
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// A page of the product list read as entities and as ProductSummary
+// projections. Rows are kept as UTF-8 column bytes and decoded per page the
+// way the JDBC driver does, descriptions 200-2000 characters long. Loading
+// an entity also builds the array of loaded values Hibernate keeps per
+// managed entity for dirty checking; its EntityEntry and key bookkeeping is
+// left out, so the entity side is a lower bound. Heap per page is
+// gc.alloc.rate.norm of the load benchmarks: entities stay reachable until
+// the transaction ends, summaries are the response itself. The serialize
+// benchmarks write a loaded page with Spring's Jackson settings.
+//
+//   ./mvnw -Pbenchmark -DskipTests verify -Dbenchmark.include=ProductListing
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ProductListingBenchmark {
+  private static final int ROWS = 4096;
+  private static final int ID = 0;
+  private static final int NAME = 1;
+  private static final int DESCRIPTION = 2;
+  private static final int PRICE = 3;
+  private static final int STOCK = 4;
+  private static final int SKU = 5;
+  private static final int CATEGORY = 6;
+  private static final int ACTIVE = 7;
+  private static final int CREATED_AT = 8;
+  private static final int UPDATED_AT = 9;
+
+  @Param({"20", "100"})
+  public int pageSize;
+
+  private final SplittableRandom random = new SplittableRandom(13);
+  private final ObjectMapper objectMapper = JsonMapper.builder()
+          .findAndAddModules()
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build();
+  private final List<byte[][]> rows = new ArrayList<>();
+  private List<Product> entityPage;
+  private List<ProductSummary> summaryPage;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0);
+    for (int i = 0; i < ROWS; i++) {
+      LocalDateTime updated = created.plusMinutes(random.nextInt(500_000));
+      rows.add(new byte[][]{
+              bytes(Integer.toString(i + 1)),
+              bytes("Product " + i + " " + words(3)),
+              bytes(words(16 + random.nextInt(145))),
+              bytes(random.nextInt(1, 100_000) + "." +
+                      (10 + random.nextInt(90))),
+              bytes(Integer.toString(random.nextInt(10) < 8
+                      ? random.nextInt(1, 500) : 0)),
+              bytes("SKU-" + (100_000 + i)),
+              bytes("category-" + random.nextInt(200)),
+              bytes("t"),
+              bytes(created.toString()),
+              bytes(updated.toString())});
+    }
+    entityPage = loadEntities().entities();
+    summaryPage = loadSummaries();
+  }
+
+  @Benchmark
+  public LoadedPage loadEntities() {
+    int start = start();
+    List<Product> page = new ArrayList<>(pageSize);
+    List<Object[]> loadedState = new ArrayList<>(pageSize);
+    for (int i = start; i < start + pageSize; i++) {
+      byte[][] row = rows.get(i);
+      // Stock has no setter; Hibernate writes the field directly
+      Product product = new Product(text(row[NAME]), text(row[DESCRIPTION]),
+              new BigDecimal(text(row[PRICE])),
+              Integer.parseInt(text(row[STOCK])), text(row[SKU]),
+              text(row[CATEGORY]), true);
+      product.setId(Long.parseLong(text(row[ID])));
+      product.setActive(text(row[ACTIVE]).equals("t"));
+      product.setCreatedAt(LocalDateTime.parse(text(row[CREATED_AT])));
+      product.setUpdatedAt(LocalDateTime.parse(text(row[UPDATED_AT])));
+      loadedState.add(new Object[]{product.getName(),
+              product.getDescription(), product.getPrice(),
+              product.getStockQuantity(), product.getSku(),
+              product.getCategory(), product.isActive(),
+              product.getCreatedAt(), product.getUpdatedAt()});
+      page.add(product);
+    }
+    return new LoadedPage(page, loadedState);
+  }
+
+  @Benchmark
+  public List<ProductSummary> loadSummaries() {
+    int start = start();
+    List<ProductSummary> page = new ArrayList<>(pageSize);
+    for (int i = start; i < start + pageSize; i++) {
+      byte[][] row = rows.get(i);
+      page.add(new ProductSummary(Long.parseLong(text(row[ID])),
+              text(row[SKU]), text(row[NAME]),
+              new BigDecimal(text(row[PRICE])),
+              Integer.parseInt(text(row[STOCK])) > 0, text(row[CATEGORY]),
+              text(row[ACTIVE]).equals("t")));
+    }
+    return page;
+  }
+
+  @Benchmark
+  public byte[] serializeEntities() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(entityPage);
+  }
+
+  @Benchmark
+  public byte[] serializeSummaries() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(summaryPage);
+  }
+
+  private int start() {
+    int start = next;
+    next = (next + pageSize) % (ROWS - pageSize);
+    return start;
+  }
+
+  private String words(int count) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      text.append(i == 0 ? "" : " ")
+              .append("lorem ipsum dolor".substring(random.nextInt(12)));
+    }
+    return text.toString();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String text(byte[] column) {
+    return new String(column, StandardCharsets.UTF_8);
+  }
+
+  public record LoadedPage(List<Product> entities, List<Object[]> loadedState) {
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.e_commerce.ranking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of recording one order line and of reading a category's top 10 with
+// the production settings (12 x 5 minute buckets, 200 counters). "read" is
+// the cached path every page view takes; "rerank" is the merge that runs at
+// most once per refresh interval and category.
+//
+//   ./mvnw -Pbenchmark -DskipTests verify -Dbenchmark.include=BestSeller
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class BestSellerBenchmark {
+  private static final long BUCKET_MILLIS = 5 * 60_000;
+
+  private final SplittableRandom random = new SplittableRandom(3);
+  private SlidingTopK cached;
+  private SlidingTopK uncached;
+  private long now;
+
+  @Setup
+  public void setUp() {
+    cached = new SlidingTopK(12, BUCKET_MILLIS, 200, 50, Long.MAX_VALUE);
+    uncached = new SlidingTopK(12, BUCKET_MILLIS, 200, 50, 0);
+    // One hour of traffic over a 5,000 product category
+    for (now = 0; now < 12 * BUCKET_MILLIS; now += 100) {
+      long product = product();
+      cached.offer(product, 1, now);
+      uncached.offer(product, 1, now);
+    }
+    cached.top(10, now);
+  }
+
+  @Benchmark
+  public void record() {
+    cached.offer(product(), 1, now);
+  }
+
+  @Benchmark
+  public List<HeavyHitter> read() {
+    return cached.top(10, now);
+  }
+
+  @Benchmark
+  public List<HeavyHitter> rerank() {
+    return uncached.top(10, now);
+  }
+
+  private long product() {
+    double u = random.nextDouble();
+    return 1 + (long) (u * u * u * 5_000);
+  }
+}
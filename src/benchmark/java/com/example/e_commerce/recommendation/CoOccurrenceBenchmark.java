@@ -0,0 +1,129 @@
+package com.example.e_commerce.recommendation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Update throughput and memory per product of CoOccurrenceMatrix against the
+// boxed Map<Long, Map<Long, Integer>> it replaces. The boxed variant keeps no
+// top-K lists, so its update cost is a lower bound. Memory is printed once
+// per fork at setup: measured heap growth for both, plus the matrix's own
+// estimate.
+//
+//   ./mvnw -Pbenchmark -DskipTests verify -Dbenchmark.include=CoOccurrence
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+public class CoOccurrenceBenchmark {
+  private static final int ORDERS = 1 << 16;
+
+  @Param({"10000", "100000"})
+  int products;
+
+  // Distinct products per order, typical baskets are small
+  @Param({"4"})
+  int itemsPerOrder;
+
+  private long[][] orders;
+  private CoOccurrenceMatrix matrix;
+  private Map<Long, Map<Long, Integer>> boxed;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(42);
+    orders = new long[ORDERS][];
+    for (int i = 0; i < ORDERS; i++) {
+      orders[i] = LongStream.generate(() -> popularProduct(random))
+              .distinct()
+              .limit(itemsPerOrder)
+              .toArray();
+    }
+
+    long before = usedHeap();
+    matrix = new CoOccurrenceMatrix(20, 50, products);
+    for (int round = 0; round < 8; round++) {
+      Arrays.stream(orders).forEach(matrix::addOrder);
+    }
+    long primitiveBytes = usedHeap() - before;
+
+    before = usedHeap();
+    boxed = new HashMap<>();
+    for (int round = 0; round < 8; round++) {
+      Arrays.stream(orders).forEach(order -> addBoxed(boxed, order));
+    }
+    long boxedBytes = usedHeap() - before;
+
+    System.out.printf("%n%d products with pairs, %d pairs%n",
+            matrix.productCount(), matrix.pairCount());
+    System.out.printf("bytes/product: matrix %d measured, %d estimated; " +
+                    "boxed maps %d measured%n",
+            primitiveBytes / matrix.productCount(),
+            matrix.memoryBytes() / matrix.productCount(),
+            boxedBytes / boxed.size());
+  }
+
+  @Benchmark
+  public long[] primitive() {
+    return matrix.addOrder(nextOrder());
+  }
+
+  @Benchmark
+  public Map<Long, Map<Long, Integer>> boxed() {
+    addBoxed(boxed, nextOrder());
+    return boxed;
+  }
+
+  @Benchmark
+  public Neighbours read() {
+    return matrix.neighbours(nextOrder()[0]);
+  }
+
+  private long[] nextOrder() {
+    return orders[next++ & (ORDERS - 1)];
+  }
+
+  // Skewed popularity: a small share of the catalog is in most baskets
+  private long popularProduct(SplittableRandom random) {
+    double u = random.nextDouble();
+    return 1 + (long) (u * u * u * products);
+  }
+
+  private static void addBoxed(Map<Long, Map<Long, Integer>> counts,
+                               long[] order) {
+    for (long a : order) {
+      Map<Long, Integer> row = counts.computeIfAbsent(a, k -> new HashMap<>());
+      for (long b : order) {
+        if (a != b) {
+          row.merge(b, 1, Integer::sum);
+        }
+      }
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
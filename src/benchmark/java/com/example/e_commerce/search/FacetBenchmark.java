@@ -0,0 +1,83 @@
+package com.example.e_commerce.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Uncached facet searches over 1M products in 200 categories of skewed
+// size, 85% in stock and 95% active, with the default price bands. Each
+// search computes the matches, their first page, and counts for every
+// category and band. "move" puts a product in another category and band,
+// the most expensive kind of edit.
+//
+//   ./mvnw -Pbenchmark -DskipTests verify -Dbenchmark.include=Facet
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class FacetBenchmark {
+  private static final int PRODUCTS = 1_000_000;
+
+  private final SplittableRandom random = new SplittableRandom(5);
+  private FacetIndex index;
+
+  @Setup
+  public void setUp() {
+    index = new FacetIndex(List.of(10, 25, 50, 100, 250, 500, 1000).stream()
+            .map(BigDecimal::valueOf)
+            .toList());
+    for (int id = 1; id <= PRODUCTS; id++) {
+      index.put(new FacetedProduct(id, category(), price(),
+              random.nextInt(100) < 85 ? 1 + random.nextInt(50) : 0,
+              random.nextInt(100) < 95));
+    }
+  }
+
+  @Benchmark
+  public FacetResult everything() {
+    return index.search(new FacetFilter(null, Set.of(), false, false), 20);
+  }
+
+  @Benchmark
+  public FacetResult largeCategoryInStock() {
+    return index.search(new FacetFilter("category-3", Set.of(), true, false),
+            20);
+  }
+
+  @Benchmark
+  public FacetResult smallCategoryTwoBands() {
+    return index.search(new FacetFilter("category-120", Set.of(2, 3), true,
+            false), 20);
+  }
+
+  @Benchmark
+  public boolean move() {
+    return index.put(new FacetedProduct(1 + random.nextInt(PRODUCTS),
+            category(), price(), 5, true));
+  }
+
+  // Half-normal: a few large categories and a long tail
+  private String category() {
+    double draw = Math.abs(random.nextGaussian()) * 40;
+    return "category-" + (int) Math.min(199, draw);
+  }
+
+  private BigDecimal price() {
+    return BigDecimal.valueOf(random.nextInt(200_000), 2);
+  }
+}
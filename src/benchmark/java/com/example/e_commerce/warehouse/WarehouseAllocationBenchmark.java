@@ -0,0 +1,121 @@
+package com.example.e_commerce.warehouse;
+
+import com.example.e_commerce.exception.InsufficientStockException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory part of an allocation: routing an address and picking the
+// warehouses for its lines. 5 countries with 50 states each, a route per
+// country, state and 3-digit postal prefix; each warehouse holds 30% of
+// 20k products, 0-20 units each. Orders that cannot be covered count too,
+// they cost the most. The SQL around it is measured by the load test.
+//
+//   ./mvnw -Pbenchmark -DskipTests verify -Dbenchmark.include=Warehouse
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class WarehouseAllocationBenchmark {
+  private static final int PRODUCTS = 20_000;
+  private static final int COUNTRIES = 5;
+  private static final int STATES = 50;
+  private static final int ORDERS = 4096;
+
+  @Param({"5", "25", "100"})
+  public int warehouses;
+
+  @Param({"1", "4", "16"})
+  public int linesPerOrder;
+
+  private final SplittableRandom random = new SplittableRandom(11);
+  private WarehouseRoutingTable table;
+  private final Map<Long, int[]> stock = new HashMap<>();
+  private final List<Order> orders = new ArrayList<>();
+  private int next;
+
+  @Setup
+  public void setUp() {
+    List<WarehouseSite> sites = new ArrayList<>();
+    List<RegionRoute> routes = new ArrayList<>();
+    for (int w = 0; w < warehouses; w++) {
+      sites.add(new WarehouseSite(w + 1, "W" + w, random.nextInt(10)));
+    }
+    for (int c = 0; c < COUNTRIES; c++) {
+      String country = "country-" + c;
+      routes.add(new RegionRoute(country, null, null, site(), 0));
+      routes.add(new RegionRoute(country, null, null, site(), 1));
+      for (int s = 0; s < STATES; s++) {
+        routes.add(new RegionRoute(country, "state-" + s, null, site(), 0));
+      }
+      for (int prefix = 100; prefix < 1000; prefix += 7) {
+        routes.add(new RegionRoute(country, null, Integer.toString(prefix),
+                site(), 0));
+      }
+    }
+    table = WarehouseRoutingTable.build(sites, routes);
+
+    for (long product = 1; product <= PRODUCTS; product++) {
+      int[] levels = new int[table.size()];
+      for (int site = 0; site < levels.length; site++) {
+        levels[site] = random.nextInt(10) < 3 ? random.nextInt(21) : 0;
+      }
+      stock.put(product, levels);
+    }
+    for (int i = 0; i < ORDERS; i++) {
+      List<AllocationLine> lines = new ArrayList<>();
+      for (int line = 0; line < linesPerOrder; line++) {
+        lines.add(new AllocationLine(1 + random.nextInt(PRODUCTS),
+                1 + random.nextInt(3)));
+      }
+      orders.add(new Order("country-" + random.nextInt(COUNTRIES + 1),
+              "state-" + random.nextInt(STATES),
+              Integer.toString(10_000 + random.nextInt(90_000)), lines));
+    }
+  }
+
+  @Benchmark
+  public int allocate() {
+    Order order = orders.get(next++ & (ORDERS - 1));
+    int[] candidates = table.candidates(order.country(), order.state(),
+            order.postalCode());
+    try {
+      return WarehouseAllocator.allocate(candidates, order.lines(), stock)
+              .size();
+    } catch (InsufficientStockException e) {
+      return -1;
+    }
+  }
+
+  @Benchmark
+  public int[] route() {
+    Order order = orders.get(next++ & (ORDERS - 1));
+    return table.candidates(order.country(), order.state(),
+            order.postalCode());
+  }
+
+  private long site() {
+    return 1 + random.nextInt(warehouses);
+  }
+
+  private record Order(String country, String state, String postalCode,
+                       List<AllocationLine> lines) {
+  }
+}
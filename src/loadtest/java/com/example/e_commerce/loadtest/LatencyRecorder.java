@@ -0,0 +1,45 @@
+package com.example.e_commerce.loadtest;
+
+import java.util.Arrays;
+
+// Keeps every sample; a release run is at most a few hundred thousand
+// requests, so exact percentiles are cheaper than getting a histogram right
+public class LatencyRecorder {
+  private long[] samples = new long[1024];
+  private int count;
+  private long errors;
+
+  public synchronized void record(long nanos) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, count * 2);
+    }
+    samples[count++] = nanos;
+  }
+
+  public synchronized void recordError() {
+    errors++;
+  }
+
+  public synchronized Summary summarize(double seconds) {
+    long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    return new Summary(count, errors, count / seconds,
+            percentile(sorted, 50), percentile(sorted, 95),
+            percentile(sorted, 99), percentile(sorted, 99.9),
+            count == 0 ? 0 : sorted[count - 1] / 1e6);
+  }
+
+  // Nearest-rank percentile in milliseconds
+  static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+    return sorted[Math.max(0, rank - 1)] / 1e6;
+  }
+
+  public record Summary(long count, long errors, double throughput,
+                        double p50, double p95, double p99, double p999,
+                        double max) {
+  }
+}
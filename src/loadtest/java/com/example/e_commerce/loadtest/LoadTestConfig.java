@@ -0,0 +1,68 @@
+package com.example.e_commerce.loadtest;
+
+import java.time.Duration;
+
+// Read from -Dload.* system properties; database defaults match
+// application.properties so the harness checks the app's own database
+public record LoadTestConfig(String baseUrl,
+                             String jdbcUrl,
+                             String dbUsername,
+                             String dbPassword,
+                             // New shopper sessions per second (open loop)
+                             double arrivalRate,
+                             Duration warmup,
+                             Duration duration,
+                             int products,
+                             int users,
+                             int initialStock,
+                             double zipfExponent,
+                             int browsePerSession,
+                             // Share of sessions that go on to purchase
+                             double conversionRate,
+                             int maxQuantity,
+                             int maxInFlight,
+                             Duration requestTimeout,
+                             // Release gates; a negative p99 limit disables it
+                             double maxErrorRate,
+                             double maxPurchaseP99Millis,
+                             boolean cleanup,
+                             // Tells runs apart in load-test.csv, such as
+                             // per-request vs pipeline purchases
+                             String label) {
+
+  public static LoadTestConfig fromSystemProperties() {
+    String jdbcUrl = "jdbc:postgresql://" + env("DB_HOST", "localhost") + ":" +
+            env("DB_PORT", "5432") + "/" + env("DB_NAME", "ecommerce_db");
+    return new LoadTestConfig(
+            property("load.base-url", "http://localhost:8080"),
+            property("load.jdbc-url", jdbcUrl),
+            property("load.db-username", env("DB_USERNAME", "postgres")),
+            property("load.db-password", env("DB_PASSWORD", "")),
+            Double.parseDouble(property("load.rate", "50")),
+            Duration.parse(property("load.warmup", "PT15S")),
+            Duration.parse(property("load.duration", "PT60S")),
+            Integer.parseInt(property("load.products", "1000")),
+            Integer.parseInt(property("load.users", "200")),
+            Integer.parseInt(property("load.initial-stock", "50")),
+            Double.parseDouble(property("load.zipf-exponent", "1.1")),
+            Integer.parseInt(property("load.browse-per-session", "3")),
+            Double.parseDouble(property("load.conversion-rate", "0.3")),
+            Integer.parseInt(property("load.max-quantity", "3")),
+            Integer.parseInt(property("load.max-in-flight", "2000")),
+            Duration.parse(property("load.request-timeout", "PT10S")),
+            Double.parseDouble(property("load.max-error-rate", "0.01")),
+            Double.parseDouble(property("load.max-purchase-p99-ms", "-1")),
+            Boolean.parseBoolean(property("load.cleanup", "true")),
+            property("load.label", ""));
+  }
+
+  private static String property(String name, String defaultValue) {
+    String value = System.getProperty(name);
+    return value == null || value.isBlank() ? defaultValue : value;
+  }
+
+  private static String env(String name, String defaultValue) {
+    String value = System.getenv(name);
+    return value == null || value.isBlank() ? defaultValue : value;
+  }
+}
@@ -0,0 +1,436 @@
+package com.example.e_commerce.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+// Drives browse -> add to cart -> purchase sessions over HTTP against a
+// locally running app, then checks in PostgreSQL that no product was sold
+// beyond its stock. Purchases take stock through StockLedger under each
+// product's advisory take lock, so the check reads the ledger level
+// (snapshot plus later movements) against the units in order_items.
+// Sessions arrive open loop (Poisson) at a fixed rate, and the first
+// request of each is timed from its scheduled start, so a stalled server
+// shows up in the percentiles instead of slowing the generator.
+//
+//   SPRING_PROFILES_ACTIVE=loadtest ./mvnw spring-boot:run
+//   ./mvnw -Pload-test -DskipTests verify -Dload.rate=100 -Dload.duration=PT2M
+public class PurchaseLoadTest {
+  private static final String RESULTS_HEADER = "timestamp,rate,duration," +
+          "purchases,purchase_rps,purchase_p50_ms,purchase_p99_ms," +
+          "purchase_p999_ms,browse_p99_ms,errors,violations,label";
+
+  private final LoadTestConfig config;
+  private final HttpClient client;
+  private final ZipfDistribution popularity;
+  private final String runId;
+
+  private final LatencyRecorder browse = new LatencyRecorder();
+  private final LatencyRecorder addToCart = new LatencyRecorder();
+  private final LatencyRecorder purchase = new LatencyRecorder();
+  private final LongAdder soldOut = new LongAdder();
+  private final LongAdder rejectedArrivals = new LongAdder();
+  private final LongAdder acknowledgedOrders = new LongAdder();
+
+  private long[] productIds;
+  private long[] userIds;
+  // Units the app confirmed with 201, per product index
+  private AtomicIntegerArray acknowledgedUnits;
+
+  public PurchaseLoadTest(LoadTestConfig config) {
+    this.config = config;
+    this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    this.popularity = new ZipfDistribution(config.products(),
+            config.zipfExponent());
+    this.runId = Long.toString(System.currentTimeMillis(), 36);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new PurchaseLoadTest(LoadTestConfig.fromSystemProperties()).run();
+  }
+
+  public void run() throws Exception {
+    checkAppIsUp();
+    try (Connection connection = DriverManager.getConnection(
+            config.jdbcUrl(), config.dbUsername(), config.dbPassword())) {
+      seed(connection);
+      try {
+        generateLoad();
+        double seconds = config.duration().toMillis() / 1000.0;
+        Map<String, LatencyRecorder.Summary> summaries = new HashMap<>();
+        summaries.put("browse", browse.summarize(seconds));
+        summaries.put("add-to-cart", addToCart.summarize(seconds));
+        summaries.put("purchase", purchase.summarize(seconds));
+        printSummaries(summaries);
+
+        StockCheck stockCheck = checkStock(connection);
+        stockCheck.print();
+        appendResults(summaries, stockCheck);
+        enforceGates(summaries, stockCheck);
+      } finally {
+        if (config.cleanup()) {
+          cleanup(connection);
+        }
+      }
+    }
+  }
+
+  private void checkAppIsUp() throws IOException, InterruptedException {
+    HttpResponse<String> health = client.send(HttpRequest.newBuilder(
+                    URI.create(config.baseUrl() + "/actuator/health")).build(),
+            HttpResponse.BodyHandlers.ofString());
+    if (health.statusCode() != 200) {
+      throw new IllegalStateException("App at " + config.baseUrl() +
+              " is not healthy: " + health.statusCode() + " " + health.body());
+    }
+  }
+
+  // Products and users of this run carry the run id, so concurrent or
+  // earlier data never enters the stock check
+  private void seed(Connection connection) throws SQLException {
+    productIds = insertReturningIds(connection, """
+            INSERT INTO products (name, description, price, stock_quantity,
+                                  sku, category, active, created_at, updated_at)
+            SELECT 'Load test product ' || g, 'Generated by PurchaseLoadTest',
+                   9.99, ?, ? || g, 'loadtest', TRUE, now(), now()
+            FROM generate_series(1, ?) AS g
+            RETURNING id
+            """, config.initialStock(), "LT-" + runId + "-", config.products());
+    userIds = insertReturningIds(connection, """
+            INSERT INTO users (email, password_hash, first_name, last_name,
+                               role, active, created_at, last_login_at)
+            SELECT ? || g || '@loadtest.invalid', 'not-a-hash', 'Load', 'Test',
+                   'CUSTOMER', TRUE, now(), now()
+            FROM generate_series(1, ?) AS g
+            RETURNING id
+            """, "lt-" + runId + "-", config.users());
+    acknowledgedUnits = new AtomicIntegerArray(productIds.length);
+    System.out.printf("Seeded %d products (stock %d each) and %d users, " +
+            "run %s%n", productIds.length, config.initialStock(),
+            userIds.length, runId);
+  }
+
+  private void generateLoad() {
+    Semaphore inFlight = new Semaphore(config.maxInFlight());
+    long meanGapNanos = (long) (1e9 / config.arrivalRate());
+    long start = System.nanoTime();
+    long measureFrom = start + config.warmup().toNanos();
+    long end = measureFrom + config.duration().toNanos();
+    RandomGenerator random = ThreadLocalRandom.current();
+
+    System.out.printf("Running %.1f sessions/s for %s after a %s warmup%n",
+            config.arrivalRate(), config.duration(), config.warmup());
+    try (ExecutorService sessions =
+                 Executors.newVirtualThreadPerTaskExecutor()) {
+      long next = start;
+      while (next < end) {
+        long wait;
+        while ((wait = next - System.nanoTime()) > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        long scheduledAt = next;
+        boolean measured = scheduledAt >= measureFrom;
+        if (inFlight.tryAcquire()) {
+          sessions.submit(() -> {
+            try {
+              session(scheduledAt, measured);
+            } finally {
+              inFlight.release();
+            }
+          });
+        } else if (measured) {
+          // The server is so far behind that the generator would block
+          rejectedArrivals.increment();
+        }
+        next += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+      }
+    }
+  }
+
+  private void session(long scheduledAt, boolean measured) {
+    RandomGenerator random = ThreadLocalRandom.current();
+    long startedAt = scheduledAt;
+    int product = 0;
+    for (int i = 0; i < config.browsePerSession(); i++) {
+      product = popularity.sample(random);
+      if (send(summaryRequest(product), browse, startedAt, measured) != 200) {
+        return;
+      }
+      startedAt = System.nanoTime();
+    }
+
+    // There is no server-side cart yet: adding to it re-reads price and
+    // stock, as the storefront does before showing the cart
+    if (send(summaryRequest(product), addToCart, startedAt, measured) != 200 ||
+            random.nextDouble() >= config.conversionRate()) {
+      return;
+    }
+
+    int quantity = 1 + random.nextInt(config.maxQuantity());
+    long userId = userIds[random.nextInt(userIds.length)];
+    HttpRequest request = HttpRequest.newBuilder(URI.create(config.baseUrl() +
+                    "/api/products/" + productIds[product] + "/purchase"))
+            .timeout(config.requestTimeout())
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":" +
+                    userId + ",\"quantity\":" + quantity + "}"))
+            .build();
+    int status = send(request, purchase, System.nanoTime(), measured);
+    if (status == 201) {
+      acknowledgedUnits.addAndGet(product, quantity);
+      acknowledgedOrders.increment();
+    } else if (status == 409 && measured) {
+      soldOut.increment();
+    }
+  }
+
+  private HttpRequest summaryRequest(int product) {
+    return HttpRequest.newBuilder(URI.create(config.baseUrl() +
+                    "/api/products/" + productIds[product] + "/summary"))
+            .timeout(config.requestTimeout())
+            .build();
+  }
+
+  // 2xx and 409 (sold out) are answers; anything else counts as an error
+  private int send(HttpRequest request, LatencyRecorder recorder,
+                   long startedAt, boolean measured) {
+    int status;
+    try {
+      status = client.send(request, HttpResponse.BodyHandlers.discarding())
+              .statusCode();
+    } catch (IOException e) {
+      status = -1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return -1;
+    }
+    if (measured) {
+      if (status / 100 == 2 || status == 409) {
+        recorder.record(System.nanoTime() - startedAt);
+      } else {
+        recorder.recordError();
+      }
+    }
+    return status;
+  }
+
+  private StockCheck checkStock(Connection connection) throws SQLException {
+    List<String> violations = new ArrayList<>();
+    long unitsSold = 0;
+    Map<Long, Integer> indexById = new HashMap<>();
+    for (int i = 0; i < productIds.length; i++) {
+      indexById.put(productIds[i], i);
+    }
+
+    try (PreparedStatement statement = connection.prepareStatement("""
+            SELECT p.id,
+                   COALESCE(s.quantity, p.stock_quantity) +
+                   COALESCE((SELECT SUM(m.quantity) FROM stock_movements m
+                             WHERE m.product_id = p.id
+                               AND m.id > COALESCE(s.last_movement_id, 0)), 0),
+                   COALESCE(SUM(oi.quantity), 0)
+            FROM products p
+            LEFT JOIN stock_snapshots s ON s.product_id = p.id
+            LEFT JOIN order_items oi ON oi.product_id = p.id
+            WHERE p.id = ANY (?)
+            GROUP BY p.id, p.stock_quantity, s.quantity, s.last_movement_id
+            """)) {
+      statement.setArray(1, idArray(connection, productIds));
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          long id = rs.getLong(1);
+          int stock = rs.getInt(2);
+          long sold = rs.getLong(3);
+          unitsSold += sold;
+          if (stock < 0 || sold > config.initialStock()) {
+            violations.add("product " + id + " oversold: " + sold +
+                    " sold of " + config.initialStock() + ", stock " + stock);
+          } else if (config.initialStock() - stock != sold) {
+            violations.add("product " + id + " stock " + stock +
+                    " does not match " + sold + " units in order_items");
+          }
+          int acknowledged = acknowledgedUnits.get(indexById.get(id));
+          if (acknowledged > sold) {
+            violations.add("product " + id + ": " + acknowledged +
+                    " units confirmed to clients, only " + sold + " stored");
+          }
+        }
+      }
+    }
+
+    long storedOrders;
+    try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT count(*) FROM orders WHERE user_id = ANY (?)")) {
+      statement.setArray(1, idArray(connection, userIds));
+      try (ResultSet rs = statement.executeQuery()) {
+        rs.next();
+        storedOrders = rs.getLong(1);
+      }
+    }
+    return new StockCheck(storedOrders, acknowledgedOrders.sum(), unitsSold,
+            violations);
+  }
+
+  private void cleanup(Connection connection) throws SQLException {
+    Array products = idArray(connection, productIds);
+    Array users = idArray(connection, userIds);
+    delete(connection, "DELETE FROM order_items WHERE product_id = ANY (?)",
+            products);
+    delete(connection, "DELETE FROM orders WHERE user_id = ANY (?)", users);
+    delete(connection, "DELETE FROM stock_movements " +
+            "WHERE product_id = ANY (?)", products);
+    delete(connection, "DELETE FROM stock_snapshots " +
+            "WHERE product_id = ANY (?)", products);
+    delete(connection, "DELETE FROM products WHERE id = ANY (?)", products);
+    delete(connection, "DELETE FROM users WHERE id = ANY (?)", users);
+  }
+
+  private static void delete(Connection connection, String sql, Array ids)
+          throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setArray(1, ids);
+      statement.executeUpdate();
+    }
+  }
+
+  private void printSummaries(Map<String, LatencyRecorder.Summary> summaries) {
+    System.out.printf("%n%-12s %9s %7s %9s %9s %9s %9s %9s %9s%n", "operation",
+            "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms",
+            "p99.9 ms", "max ms");
+    for (String operation : List.of("browse", "add-to-cart", "purchase")) {
+      LatencyRecorder.Summary s = summaries.get(operation);
+      System.out.printf(Locale.ROOT,
+              "%-12s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+              operation, s.count(), s.errors(), s.throughput(), s.p50(),
+              s.p95(), s.p99(), s.p999(), s.max());
+    }
+    System.out.printf("Purchases rejected as sold out: %d, arrivals dropped " +
+            "by the generator: %d%n", soldOut.sum(), rejectedArrivals.sum());
+  }
+
+  // Appended to target/load-test.csv so runs can be compared across releases
+  private void appendResults(Map<String, LatencyRecorder.Summary> summaries,
+                             StockCheck stockCheck) throws IOException {
+    Path results = Path.of("target", "load-test.csv");
+    Files.createDirectories(results.getParent());
+    if (Files.exists(results) && !RESULTS_HEADER.equals(firstLine(results))) {
+      // Written with other columns: keep those rows, but under their own
+      // header
+      Files.move(results, results.resolveSibling(
+              "load-test-" + System.currentTimeMillis() + ".csv"));
+    }
+    if (Files.notExists(results)) {
+      Files.writeString(results, RESULTS_HEADER + "\n");
+    }
+    LatencyRecorder.Summary p = summaries.get("purchase");
+    long errors = summaries.values().stream()
+            .mapToLong(LatencyRecorder.Summary::errors).sum();
+    Files.writeString(results, String.format(Locale.ROOT,
+            "%s,%.1f,%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d,%d,%s%n", Instant.now(),
+            config.arrivalRate(), config.duration(), p.count(), p.throughput(),
+            p.p50(), p.p99(), p.p999(), summaries.get("browse").p99(), errors,
+            stockCheck.violations().size(), config.label()),
+            StandardOpenOption.APPEND);
+  }
+
+  private static String firstLine(Path file) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file)) {
+      return reader.readLine();
+    }
+  }
+
+  private void enforceGates(Map<String, LatencyRecorder.Summary> summaries,
+                            StockCheck stockCheck) {
+    List<String> failures = new ArrayList<>(stockCheck.violations());
+    long requests = 0;
+    long errors = rejectedArrivals.sum();
+    for (LatencyRecorder.Summary summary : summaries.values()) {
+      requests += summary.count() + summary.errors();
+      errors += summary.errors();
+    }
+    if (requests > 0 && (double) errors / requests > config.maxErrorRate()) {
+      failures.add("error rate " + errors + "/" + requests + " above " +
+              config.maxErrorRate());
+    }
+    double p99 = summaries.get("purchase").p99();
+    if (config.maxPurchaseP99Millis() >= 0 &&
+            p99 > config.maxPurchaseP99Millis()) {
+      failures.add("purchase p99 " + p99 + " ms above " +
+              config.maxPurchaseP99Millis() + " ms");
+    }
+    if (!failures.isEmpty()) {
+      throw new IllegalStateException("Load test failed:\n  " +
+              String.join("\n  ", failures));
+    }
+  }
+
+  private static long[] insertReturningIds(Connection connection, String sql,
+                                           Object... parameters)
+          throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
+      }
+      List<Long> ids = new ArrayList<>();
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          ids.add(rs.getLong(1));
+        }
+      }
+      return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+  }
+
+  private static Array idArray(Connection connection, long[] ids)
+          throws SQLException {
+    Long[] boxed = new Long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      boxed[i] = ids[i];
+    }
+    return connection.createArrayOf("bigint", boxed);
+  }
+
+  private record StockCheck(long storedOrders, long acknowledgedOrders,
+                            long unitsSold, List<String> violations) {
+    void print() {
+      System.out.printf("%nOversell check: %d orders stored, %d confirmed " +
+                      "to clients, %d units sold%n", storedOrders,
+              acknowledgedOrders, unitsSold);
+      if (violations.isEmpty()) {
+        System.out.println("No product sold beyond its stock");
+      } else {
+        violations.forEach(v -> System.out.println("VIOLATION: " + v));
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.e_commerce.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Ranks 0..n-1 with P(rank k) proportional to 1 / (k + 1)^exponent, so a few
+// products take most of the traffic, as on a real storefront
+public class ZipfDistribution {
+  private final double[] cumulative;
+
+  public ZipfDistribution(int n, double exponent) {
+    if (n < 1) {
+      throw new IllegalArgumentException("n must be at least 1");
+    }
+    cumulative = new double[n];
+    double sum = 0;
+    for (int k = 0; k < n; k++) {
+      sum += 1.0 / Math.pow(k + 1, exponent);
+      cumulative[k] = sum;
+    }
+    for (int k = 0; k < n; k++) {
+      cumulative[k] /= sum;
+    }
+  }
+
+  public int sample(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+  }
+}
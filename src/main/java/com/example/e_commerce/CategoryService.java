@@ -0,0 +1,44 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.dto.CategorySummary;
+import com.example.e_commerce.model.Category;
+import com.example.e_commerce.repository.CategoryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+// All reads here are served from the second-level cache once warm: listings
+// from the query cache, rows from the category region and children from the
+// category-children collection region
+@Service
+@Transactional(readOnly = true)
+@Workload(WorkloadClass.BROWSING)
+public class CategoryService {
+  private final CategoryRepository categoryRepository;
+
+  public CategoryService(CategoryRepository categoryRepository) {
+    this.categoryRepository = categoryRepository;
+  }
+
+  public List<CategorySummary> listActive(boolean rootsOnly) {
+    return (rootsOnly
+            ? categoryRepository.findActiveRoots()
+            : categoryRepository.findByActiveTrueOrderByNameAsc()).stream()
+            .map(CategorySummary::from)
+            .toList();
+  }
+
+  public Optional<List<CategorySummary>> findChildren(Long id) {
+    return categoryRepository.findById(id).map(category ->
+            category.getSubcategories().stream()
+                    .filter(Category::isActive)
+                    .sorted(Comparator.comparing(Category::getName))
+                    .map(CategorySummary::from)
+                    .toList());
+  }
+}
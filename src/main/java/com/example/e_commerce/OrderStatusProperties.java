@@ -0,0 +1,9 @@
+package com.example.e_commerce;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.order-status")
+public record OrderStatusProperties(
+        @DefaultValue("1000") int chunkSize) {
+}
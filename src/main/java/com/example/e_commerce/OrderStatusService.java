@@ -0,0 +1,178 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.dto.OrderTransitionReject;
+import com.example.e_commerce.dto.OrderTransitionResult;
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.stock.StockChange;
+import com.example.e_commerce.stock.StockLedger;
+import com.example.e_commerce.warehouse.WarehouseAllocationService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Warehouse status changes for many orders at once. Each chunk is one
+// UPDATE guarded by the states the target may be reached from, so the
+// database enforces the OrderStatus state machine even against concurrent
+// changes; orders the guard skipped are looked up and reported one by one.
+// Cancelled or refunded orders that never shipped give their units back in
+// the same transaction.
+@Lazy
+@Service
+@Workload(WorkloadClass.ADMIN)
+public class OrderStatusService {
+  private static final Set<OrderStatus> UNSHIPPED = EnumSet.of(
+          OrderStatus.PENDING, OrderStatus.PAYMENT_PROCESSING,
+          OrderStatus.PAID);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final StockLedger stockLedger;
+  private final WarehouseAllocationService allocationService;
+  private final OrderStatusProperties properties;
+
+  public OrderStatusService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            StockLedger stockLedger,
+                            WarehouseAllocationService allocationService,
+                            OrderStatusProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.stockLedger = stockLedger;
+    this.allocationService = allocationService;
+    this.properties = properties;
+  }
+
+  public OrderTransitionResult transition(Collection<Long> orderIds,
+                                          OrderStatus target) {
+    List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+    List<OrderTransitionReject> rejected = new ArrayList<>();
+    int updated = 0;
+    for (int from = 0; from < ids.size(); from += properties.chunkSize()) {
+      List<Long> chunk = ids.subList(from,
+              Math.min(from + properties.chunkSize(), ids.size()));
+      Integer chunkUpdated = transactionTemplate.execute(status ->
+              applyChunk(chunk, target, rejected));
+      updated += chunkUpdated != null ? chunkUpdated : 0;
+    }
+    return new OrderTransitionResult(updated, rejected);
+  }
+
+  private int applyChunk(List<Long> chunk, OrderStatus target,
+                         List<OrderTransitionReject> rejected) {
+    Set<OrderStatus> allowedFrom = target.allowedPrevious();
+    Map<Long, OrderStatus> updated = allowedFrom.isEmpty()
+            ? Map.of() : update(chunk, target, allowedFrom);
+    if (target == OrderStatus.CANCELLED || target == OrderStatus.REFUNDED) {
+      returnStock(updated.entrySet().stream()
+              .filter(order -> UNSHIPPED.contains(order.getValue()))
+              .map(Map.Entry::getKey)
+              .toList());
+    }
+    if (updated.size() == chunk.size()) {
+      return updated.size();
+    }
+
+    List<Long> skipped = chunk.stream()
+            .filter(id -> !updated.containsKey(id))
+            .toList();
+    Map<Long, OrderStatus> current = currentStatuses(skipped);
+    for (Long id : skipped) {
+      OrderStatus status = current.get(id);
+      rejected.add(status == null
+              ? new OrderTransitionReject(id, null, "Order not found")
+              : new OrderTransitionReject(id, status,
+                      "Order cannot go from " + status + " to " + target));
+    }
+    return updated.size();
+  }
+
+  // Updated orders with the status each had before
+  private Map<Long, OrderStatus> update(List<Long> ids, OrderStatus target,
+                                       Set<OrderStatus> allowedFrom) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    StringBuilder sql = new StringBuilder(
+            "UPDATE orders o SET status = ?, updated_at = ?");
+    List<Object> args = new ArrayList<>(ids.size() + allowedFrom.size() + 3);
+    args.add(target.name());
+    args.add(now);
+    String milestone = milestoneColumn(target);
+    if (milestone != null) {
+      sql.append(", ").append(milestone).append(" = ?");
+      args.add(now);
+    }
+    sql.append(" FROM (SELECT id, created_at, status FROM orders")
+            .append(" WHERE id IN (").append(placeholders(ids.size()))
+            .append(") AND status IN (")
+            .append(placeholders(allowedFrom.size()))
+            .append(") FOR UPDATE) old")
+            .append(" WHERE o.id = old.id AND o.created_at = old.created_at")
+            .append(" RETURNING o.id, old.status");
+    args.addAll(ids);
+    allowedFrom.forEach(status -> args.add(status.name()));
+    Map<Long, OrderStatus> previous = new LinkedHashMap<>();
+    jdbcTemplate.query(sql.toString(), rs -> {
+      previous.put(rs.getLong(1), OrderStatus.valueOf(rs.getString(2)));
+    }, args.toArray());
+    return previous;
+  }
+
+  // Units go back to the ledger, and to the warehouses already holding them
+  // for an allocated order, referenced by the order they came from
+  private void returnStock(List<Long> orderIds) {
+    if (orderIds.isEmpty()) {
+      return;
+    }
+    List<StockChange> returns = new ArrayList<>();
+    jdbcTemplate.query("""
+            SELECT order_id, product_id, SUM(quantity) FROM order_items
+            WHERE order_id = ANY (?)
+            GROUP BY order_id, product_id
+            """, rs -> {
+      returns.add(new StockChange(rs.getLong(2), rs.getInt(3),
+              StockMovementType.RETURN, rs.getLong(1)));
+    }, (Object) orderIds.toArray(Long[]::new));
+    stockLedger.putAll(returns);
+    allocationService.release(orderIds);
+  }
+
+  private Map<Long, OrderStatus> currentStatuses(List<Long> ids) {
+    Map<Long, OrderStatus> statuses = new HashMap<>();
+    jdbcTemplate.query("SELECT id, status FROM orders WHERE id IN (" +
+                    placeholders(ids.size()) + ")",
+            rs -> {
+              statuses.put(rs.getLong(1), OrderStatus.valueOf(rs.getString(2)));
+            }, ids.toArray());
+    return statuses;
+  }
+
+  // Column names come from this switch only, never from the request
+  private static String milestoneColumn(OrderStatus target) {
+    return switch (target) {
+      case PAID -> "paid_at";
+      case SHIPPED -> "shipped_at";
+      case DELIVERED -> "delivered_at";
+      default -> null;
+    };
+  }
+
+  private static String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+}
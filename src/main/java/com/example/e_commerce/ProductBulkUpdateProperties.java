@@ -0,0 +1,9 @@
+package com.example.e_commerce;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.bulk-update")
+public record ProductBulkUpdateProperties(
+        @DefaultValue("1000") int chunkSize) {
+}
@@ -0,0 +1,173 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.config.CacheNames;
+import com.example.e_commerce.dto.BulkUpdateResult;
+import com.example.e_commerce.dto.CategoryRepriceRequest;
+import com.example.e_commerce.dto.ProductUpdateRow;
+import com.example.e_commerce.snapshot.CatalogSnapshotStore;
+import com.example.e_commerce.stock.StockLedger;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Admin bulk updates that never load Product entities: every chunk is a
+// single set-based statement in its own short transaction. Because no entity
+// is touched, @PreUpdate does not run and updated_at is set in the SQL.
+// Stock levels are not written here but appended to the stock ledger as
+// adjustments, in the same transaction as the chunk.
+@Lazy
+@Service
+@Workload(WorkloadClass.ADMIN)
+public class ProductBulkUpdateService {
+  private static final String REPRICE_CHUNK_SQL = """
+          UPDATE products SET price = GREATEST(ROUND(price * ?, 2), 0.01),
+                              updated_at = ?
+          WHERE id IN (SELECT id FROM products
+                       WHERE category = ? AND id > ?
+                       ORDER BY id LIMIT ?)
+          RETURNING id
+          """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final CacheManager cacheManager;
+  private final CatalogSnapshotStore snapshotStore;
+  private final StockLedger stockLedger;
+  private final ProductBulkUpdateProperties properties;
+
+  public ProductBulkUpdateService(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  CacheManager cacheManager,
+                                  CatalogSnapshotStore snapshotStore,
+                                  StockLedger stockLedger,
+                                  ProductBulkUpdateProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.cacheManager = cacheManager;
+    this.snapshotStore = snapshotStore;
+    this.stockLedger = stockLedger;
+    this.properties = properties;
+  }
+
+  public BulkUpdateResult repriceCategory(CategoryRepriceRequest request) {
+    BigDecimal factor = BigDecimal.ONE.add(request.percentChange()
+            .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP));
+    int updated = 0;
+    long lastId = 0;
+
+    // Keyset over the primary key so each chunk is an index range scan
+    while (true) {
+      long afterId = lastId;
+      List<Long> ids = transactionTemplate.execute(status ->
+              jdbcTemplate.queryForList(REPRICE_CHUNK_SQL, Long.class, factor,
+                      Timestamp.valueOf(LocalDateTime.now()),
+                      request.category(), afterId, properties.chunkSize()));
+      if (ids == null || ids.isEmpty()) {
+        break;
+      }
+      evictProducts(ids);
+      updated += ids.size();
+      lastId = ids.stream().mapToLong(Long::longValue).max().orElse(lastId);
+      if (ids.size() < properties.chunkSize()) {
+        break;
+      }
+    }
+    return new BulkUpdateResult(updated, List.of());
+  }
+
+  public BulkUpdateResult applyRows(List<ProductUpdateRow> rows) {
+    // Later rows for the same SKU win, as if they had been applied in order
+    Map<String, ProductUpdateRow> bySku = new LinkedHashMap<>();
+    rows.forEach(row -> bySku.put(row.sku(), row));
+    List<ProductUpdateRow> distinctRows = new ArrayList<>(bySku.values());
+
+    int updated = 0;
+    List<String> unknownSkus = new ArrayList<>();
+    for (int from = 0; from < distinctRows.size();
+         from += properties.chunkSize()) {
+      List<ProductUpdateRow> chunk = distinctRows.subList(from,
+              Math.min(from + properties.chunkSize(), distinctRows.size()));
+      List<Map<String, Object>> matched =
+              transactionTemplate.execute(status -> updateChunk(chunk));
+      if (matched == null) {
+        continue;
+      }
+
+      Set<String> matchedSkus = new HashSet<>();
+      List<Long> ids = new ArrayList<>(matched.size());
+      for (Map<String, Object> row : matched) {
+        matchedSkus.add((String) row.get("sku"));
+        ids.add(((Number) row.get("id")).longValue());
+      }
+      evictProducts(ids);
+      updated += matched.size();
+      chunk.stream()
+              .map(ProductUpdateRow::sku)
+              .filter(sku -> !matchedSkus.contains(sku))
+              .forEach(unknownSkus::add);
+    }
+    return new BulkUpdateResult(updated, unknownSkus);
+  }
+
+  private List<Map<String, Object>> updateChunk(List<ProductUpdateRow> chunk) {
+    StringBuilder sql = new StringBuilder("""
+            UPDATE products AS p
+            SET price = COALESCE(v.price, p.price), updated_at = ?
+            FROM (VALUES\s""");
+    List<Object> args = new ArrayList<>(chunk.size() * 2 + 1);
+    args.add(Timestamp.valueOf(LocalDateTime.now()));
+    for (int i = 0; i < chunk.size(); i++) {
+      ProductUpdateRow row = chunk.get(i);
+      sql.append(i == 0 ? "" : ", ")
+              .append("(CAST(? AS varchar), CAST(? AS numeric))");
+      args.add(row.sku());
+      args.add(row.price());
+    }
+    sql.append("""
+            ) AS v(sku, price)
+            WHERE p.sku = v.sku
+            RETURNING p.id, p.sku
+            """);
+    List<Map<String, Object>> matched =
+            jdbcTemplate.queryForList(sql.toString(), args.toArray());
+
+    Map<String, Long> idsBySku = new HashMap<>();
+    matched.forEach(row -> idsBySku.put((String) row.get("sku"),
+            ((Number) row.get("id")).longValue()));
+    Map<Long, Integer> stockTargets = new HashMap<>();
+    for (ProductUpdateRow row : chunk) {
+      Long id = idsBySku.get(row.sku());
+      if (id != null && row.stockQuantity() != null) {
+        stockTargets.put(id, row.stockQuantity());
+      }
+    }
+    stockLedger.adjustTo(stockTargets);
+    return matched;
+  }
+
+  private void evictProducts(Collection<Long> ids) {
+    snapshotStore.invalidateProducts(ids);
+    Cache cache = cacheManager.getCache(CacheNames.PRODUCTS);
+    if (cache != null) {
+      ids.forEach(cache::evict);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.config.CacheNames;
+import com.example.e_commerce.dto.ProductSummary;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.snapshot.CatalogSnapshotStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Workload(WorkloadClass.BROWSING)
+public class ProductQueryService {
+  private final ProductRepository productRepository;
+  private final CatalogSnapshotStore snapshotStore;
+  private final Counter snapshotReads;
+  private final Counter databaseReads;
+
+  public ProductQueryService(ProductRepository productRepository,
+                             CatalogSnapshotStore snapshotStore,
+                             MeterRegistry meterRegistry) {
+    this.productRepository = productRepository;
+    this.snapshotStore = snapshotStore;
+    // catalog.reads{source=database} is the read load that reaches PostgreSQL
+    this.snapshotReads = meterRegistry.counter("catalog.reads",
+            "source", "snapshot");
+    this.databaseReads = meterRegistry.counter("catalog.reads",
+            "source", "database");
+  }
+
+  @Cacheable(cacheNames = CacheNames.PRODUCTS, key = "#id")
+  public Optional<ProductSummary> findSummary(Long id) {
+    Optional<ProductSummary> fromSnapshot = snapshotStore.findProduct(id);
+    if (fromSnapshot.isPresent()) {
+      snapshotReads.increment();
+      return fromSnapshot;
+    }
+    databaseReads.increment();
+    return productRepository.findById(id).map(ProductSummary::from);
+  }
+
+  // List views read projections, never entities; a read-only transaction
+  // also keeps Hibernate from flushing at the end
+  @Transactional(readOnly = true)
+  public List<ProductSummary> listActive(String category, long afterId,
+                                         int limit) {
+    return category == null
+            ? productRepository.findActiveSummaries(afterId, Limit.of(limit))
+            : productRepository.findActiveSummariesInCategory(category,
+                    afterId, Limit.of(limit));
+  }
+
+  // In the order of ids, as for a page of facet or search results; unknown
+  // and inactive products are left out
+  @Transactional(readOnly = true)
+  public List<ProductSummary> findSummaries(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, ProductSummary> byId = productRepository
+            .findActiveSummariesById(ids).stream()
+            .collect(Collectors.toMap(ProductSummary::id,
+                    Function.identity()));
+    return ids.stream()
+            .distinct()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .toList();
+  }
+}
@@ -1,25 +1,81 @@
 package com.example.e_commerce;
 
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.event.OrderPlacedEvent;
+import com.example.e_commerce.exception.AddressNotFoundException;
+import com.example.e_commerce.exception.ProductNotFoundException;
+import com.example.e_commerce.model.Address;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.OrderItem;
 import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.AddressRepository;
+import com.example.e_commerce.repository.OrderRepository;
 import com.example.e_commerce.repository.ProductRepository;
-import jakarta.validation.Valid;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ProductService {
-  private ProductRepository productRepository;
+  private final ProductRepository productRepository;
+  private final UserRepository userRepository;
+  private final AddressRepository addressRepository;
+  private final OrderRepository orderRepository;
+  private final StockLedger stockLedger;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public ProductService() {}
-
-  public ProductService(ProductRepository productRepository) {
+  public ProductService(ProductRepository productRepository,
+                        UserRepository userRepository,
+                        AddressRepository addressRepository,
+                        OrderRepository orderRepository,
+                        StockLedger stockLedger,
+                        ApplicationEventPublisher eventPublisher) {
     this.productRepository = productRepository;
+    this.userRepository = userRepository;
+    this.addressRepository = addressRepository;
+    this.orderRepository = orderRepository;
+    this.stockLedger = stockLedger;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Transactional
+  @Workload(WorkloadClass.CHECKOUT)
+  public Order purchaseProduct(Long productId, Long userId, int quantity) {
+    return purchaseProduct(productId, userId, quantity, null);
   }
 
+  // The order is written before the stock is taken: the ledger holds the
+  // product's take lock until commit, so the less work after it the better.
+  // Without stock the whole transaction, order included, rolls back. The
+  // shipping address, when given, must be one of the buyer's; orders
+  // without one cannot be allocated to a warehouse.
   @Transactional
-  public Order purchaseProduct(@Valid Long productId, Long userId,
-                               int quantity) {
-    Product product = productRepository.findByIdWithLock(productId)
-            .orElseThrow();
+  @Workload(WorkloadClass.CHECKOUT)
+  public Order purchaseProduct(Long productId, Long userId, int quantity,
+                               Long shippingAddressId) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be greater than 0");
+    }
+    Product product = productRepository.findById(productId)
+            .filter(Product::isActive)
+            .orElseThrow(() -> new ProductNotFoundException(productId));
+
+    Address shippingAddress = shippingAddressId == null ? null
+            : addressRepository.findByIdForUser(shippingAddressId, userId)
+                    .orElseThrow(() ->
+                            new AddressNotFoundException(shippingAddressId));
+
+    Order order = new Order(userRepository.getReferenceById(userId),
+            shippingAddress, null);
+    order.addItem(new OrderItem(product, quantity, product.getPrice()));
+    Order saved = orderRepository.save(order);
+    stockLedger.take(productId, quantity, StockMovementType.PURCHASE,
+            saved.getId());
+    eventPublisher.publishEvent(OrderPlacedEvent.from(saved));
+    return saved;
   }
 }
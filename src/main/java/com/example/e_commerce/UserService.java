@@ -0,0 +1,92 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.auth.EmailLookup;
+import com.example.e_commerce.auth.LoginActivityRecorder;
+import com.example.e_commerce.auth.PasswordHasher;
+import com.example.e_commerce.dto.LoginRequest;
+import com.example.e_commerce.dto.RegistrationRequest;
+import com.example.e_commerce.enums.UserRole;
+import com.example.e_commerce.exception.EmailAlreadyRegisteredException;
+import com.example.e_commerce.exception.InvalidCredentialsException;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+public class UserService {
+  private final UserRepository userRepository;
+  private final EmailLookup emailLookup;
+  private final PasswordHasher passwordHasher;
+  private final LoginActivityRecorder loginActivityRecorder;
+  // Checked against when there is no user, so that costs a hash as well
+  private final String dummyHash;
+
+  public UserService(UserRepository userRepository, EmailLookup emailLookup,
+                     PasswordHasher passwordHasher,
+                     LoginActivityRecorder loginActivityRecorder) {
+    this.userRepository = userRepository;
+    this.emailLookup = emailLookup;
+    this.passwordHasher = passwordHasher;
+    this.loginActivityRecorder = loginActivityRecorder;
+    this.dummyHash = passwordHasher.hash(UUID.randomUUID().toString());
+  }
+
+  @Transactional
+  public User register(RegistrationRequest request) {
+    String email = EmailLookup.normalize(request.email());
+    // Asked every time: the Bloom filter may not have heard of a registration
+    // on another node yet. The unique constraint still catches concurrent
+    // registrations
+    if (userRepository.existsByEmail(email)) {
+      throw new EmailAlreadyRegisteredException(email);
+    }
+
+    User user = new User(request.firstName(), request.lastName(), email,
+            request.phoneNumber(), passwordHasher.hash(request.password()),
+            UserRole.CUSTOMER, true);
+    try {
+      userRepository.saveAndFlush(user);
+    } catch (DataIntegrityViolationException e) {
+      throw new EmailAlreadyRegisteredException(email);
+    }
+
+    Long userId = user.getId();
+    TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+              @Override
+              public void afterCommit() {
+                emailLookup.recordRegistration(email, userId);
+              }
+            });
+    return user;
+  }
+
+  // Read-only: lastLoginAt is written behind in batches, not per login
+  @Transactional(readOnly = true)
+  public User authenticate(LoginRequest request) {
+    String email = EmailLookup.normalize(request.email());
+    // Unknown emails are rejected by the Bloom filter without a query, but
+    // still pay for a password check: PBKDF2 dominates the response time,
+    // which would otherwise tell registered emails from unknown ones
+    User user = emailLookup.findUserId(email, userRepository::findIdByEmail)
+            .flatMap(userRepository::findById)
+            .filter(User::isActive)
+            .orElse(null);
+    if (user == null) {
+      passwordHasher.matches(request.password(), dummyHash);
+      throw new InvalidCredentialsException();
+    }
+    if (!passwordHasher.matches(request.password(), user.getPasswordHash())) {
+      throw new InvalidCredentialsException();
+    }
+    loginActivityRecorder.record(user.getId(), LocalDateTime.now());
+    return user;
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.e_commerce.auth;
+
+import com.example.e_commerce.invalidation.CacheInvalidationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+// Front for email lookups during registration and login. The Bloom filter
+// answers "definitely unknown" without touching the database; emails that
+// may exist go through a bounded email -> user id cache. Users registered on
+// other nodes reach the filter through the users NOTIFY trigger; without
+// cache invalidation nothing would, so the filter is not built at all.
+@Component
+public class EmailLookup {
+  private static final Logger log = LoggerFactory.getLogger(EmailLookup.class);
+
+  private final EmailLookupProperties properties;
+  private final boolean filterEnabled;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Cache<String, Long> userIdsByEmail;
+
+  // null until the first build finishes; every email "might exist" until then
+  private volatile BloomFilter filter;
+  // Filter being built; registrations during the build are recorded here too
+  private volatile BloomFilter pending;
+
+  public EmailLookup(EmailLookupProperties properties,
+                     CacheInvalidationProperties invalidationProperties,
+                     DataSource dataSource,
+                     TransactionTemplate transactionTemplate,
+                     MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.filterEnabled = invalidationProperties.enabled();
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(10_000);
+    this.transactionTemplate = transactionTemplate;
+    this.userIdsByEmail = Caffeine.newBuilder()
+            .maximumSize(properties.cacheSize())
+            .expireAfterWrite(properties.cacheTtl())
+            .build();
+    meterRegistry.gauge("email.lookup.filter.bytes", this,
+            lookup -> lookup.filter != null ? lookup.filter.memoryBytes() : 0);
+  }
+
+  public static String normalize(String email) {
+    return email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    if (!filterEnabled) {
+      log.info("Email Bloom filter disabled with cache invalidation");
+      return;
+    }
+    long users = Optional.ofNullable(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM users", Long.class)).orElse(0L);
+    BloomFilter next = new BloomFilter(
+            Math.max(properties.expectedInsertions(), users * 2),
+            properties.falsePositiveRate());
+    pending = next;
+
+    // Read-only transaction so the driver streams by fetch size
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+            "SELECT email FROM users",
+            rs -> {
+              next.put(normalize(rs.getString(1)));
+            }));
+
+    filter = next;
+    pending = null;
+    log.info("Email Bloom filter built for {} users ({} KB, {} hashes)",
+            users, next.memoryBytes() / 1024, next.hashCount());
+  }
+
+  // False means no user has this (normalized) email
+  public boolean mightExist(String normalizedEmail) {
+    BloomFilter current = filter;
+    return current == null || current.mightContain(normalizedEmail);
+  }
+
+  // Call after the registering transaction has committed
+  public void recordRegistration(String normalizedEmail, Long userId) {
+    BloomFilter current = filter;
+    if (current != null) {
+      current.put(normalizedEmail);
+    }
+    BloomFilter building = pending;
+    if (building != null) {
+      building.put(normalizedEmail);
+    }
+    userIdsByEmail.put(normalizedEmail, userId);
+  }
+
+  public Optional<Long> findUserId(String normalizedEmail,
+                                   Function<String, Optional<Long>> loader) {
+    if (!mightExist(normalizedEmail)) {
+      return Optional.empty();
+    }
+    Long cached = userIdsByEmail.getIfPresent(normalizedEmail);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    Optional<Long> loaded = loader.apply(normalizedEmail);
+    loaded.ifPresent(id -> userIdsByEmail.put(normalizedEmail, id));
+    return loaded;
+  }
+
+  public void evict(String normalizedEmail) {
+    userIdsByEmail.invalidate(normalizedEmail);
+  }
+
+  // Drops whatever emails these users were cached under, for deleted users
+  // and changed emails
+  public void evictUsers(Collection<Long> userIds) {
+    Set<Long> ids = new HashSet<>(userIds);
+    userIdsByEmail.asMap().values().removeIf(ids::contains);
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.e_commerce.auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.email-lookup")
+public record EmailLookupProperties(
+        // Filter is sized for max(expected-insertions, 2 x current users)
+        @DefaultValue("1000000") long expectedInsertions,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("100000") long cacheSize,
+        @DefaultValue("PT30M") Duration cacheTtl) {
+}
@@ -0,0 +1,12 @@
+package com.example.e_commerce.auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.login-activity")
+public record LoginActivityProperties(
+        @DefaultValue("PT10S") Duration flushInterval,
+        @DefaultValue("1000") int batchSize) {
+}
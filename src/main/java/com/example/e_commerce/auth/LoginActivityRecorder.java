@@ -0,0 +1,110 @@
+package com.example.e_commerce.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Write-behind for users.last_login_at. Logins only update an in-memory map
+// that keeps the latest timestamp per user; a scheduled flush writes all of
+// them with one UPDATE ... FROM (VALUES ...) per batch. On shutdown the
+// remaining entries are flushed after the web server has stopped taking
+// requests (server.shutdown=graceful) and before the DataSource closes.
+@Component
+public class LoginActivityRecorder implements SmartLifecycle {
+  private static final Logger log =
+          LoggerFactory.getLogger(LoginActivityRecorder.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final LoginActivityProperties properties;
+  private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+  private volatile boolean running;
+
+  public LoginActivityRecorder(JdbcTemplate jdbcTemplate,
+                               LoginActivityProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+  }
+
+  public void record(Long userId, LocalDateTime loginAt) {
+    pending.merge(userId, loginAt,
+            (current, next) -> next.isAfter(current) ? next : current);
+  }
+
+  public int pendingUsers() {
+    return pending.size();
+  }
+
+  @Scheduled(fixedDelayString = "${app.login-activity.flush-interval:PT10S}")
+  public void flush() {
+    List<Map.Entry<Long, LocalDateTime>> batch =
+            new ArrayList<>(properties.batchSize());
+    for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+      // Only take the entry if no newer login replaced it meanwhile
+      if (pending.remove(entry.getKey(), entry.getValue())) {
+        batch.add(Map.entry(entry.getKey(), entry.getValue()));
+      }
+      if (batch.size() == properties.batchSize()) {
+        write(batch);
+        batch = new ArrayList<>(properties.batchSize());
+      }
+    }
+    if (!batch.isEmpty()) {
+      write(batch);
+    }
+  }
+
+  private void write(List<Map.Entry<Long, LocalDateTime>> batch) {
+    StringBuilder sql = new StringBuilder(
+            "UPDATE users AS u SET last_login_at = v.login_at FROM (VALUES ");
+    Object[] args = new Object[batch.size() * 2];
+    for (int i = 0; i < batch.size(); i++) {
+      sql.append(i == 0 ? "" : ", ")
+              .append("(CAST(? AS bigint), CAST(? AS timestamp))");
+      args[i * 2] = batch.get(i).getKey();
+      args[i * 2 + 1] = Timestamp.valueOf(batch.get(i).getValue());
+    }
+    // The guard keeps an older buffered login from overwriting a newer one
+    sql.append(") AS v(id, login_at) WHERE u.id = v.id " +
+            "AND u.last_login_at < v.login_at");
+
+    try {
+      jdbcTemplate.update(sql.toString(), args);
+    } catch (RuntimeException e) {
+      log.warn("Failed to flush last login for {} users, will retry",
+              batch.size(), e);
+      batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    flush();
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Stopped after the web server lifecycles (DEFAULT_PHASE - 1024/-2048)
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+}
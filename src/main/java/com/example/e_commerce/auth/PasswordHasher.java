@@ -0,0 +1,53 @@
+package com.example.e_commerce.auth;
+
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// PBKDF2-HMAC-SHA256, stored as "pbkdf2$<iterations>$<salt>$<hash>"
+@Component
+public class PasswordHasher {
+  private static final int ITERATIONS = 210_000;
+  private static final int SALT_BYTES = 16;
+  private static final int KEY_BITS = 256;
+
+  private final SecureRandom random = new SecureRandom();
+
+  public String hash(String password) {
+    byte[] salt = new byte[SALT_BYTES];
+    random.nextBytes(salt);
+    return "pbkdf2$" + ITERATIONS + "$" + encode(salt) + "$" +
+            encode(derive(password, salt, ITERATIONS));
+  }
+
+  public boolean matches(String password, String stored) {
+    String[] parts = stored.split("\\$");
+    if (parts.length != 4 || !parts[0].equals("pbkdf2")) {
+      return false;
+    }
+    byte[] expected = Base64.getDecoder().decode(parts[3]);
+    byte[] actual = derive(password, Base64.getDecoder().decode(parts[2]),
+            Integer.parseInt(parts[1]));
+    return MessageDigest.isEqual(expected, actual);
+  }
+
+  private static byte[] derive(String password, byte[] salt, int iterations) {
+    try {
+      return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+              .generateSecret(new PBEKeySpec(password.toCharArray(), salt,
+                      iterations, KEY_BITS))
+              .getEncoded();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("PBKDF2 is not available", e);
+    }
+  }
+
+  private static String encode(byte[] bytes) {
+    return Base64.getEncoder().withoutPadding().encodeToString(bytes);
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.e_commerce.bulkhead;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Replaces Boot's single Hikari pool with one pool per workload class.
+// Every pool starts from the spring.datasource.hikari settings; sizes come
+// from app.bulkheads.pools and are adjusted at runtime by BulkheadPools.
+// Pools report hikaricp.* metrics tagged pool=bulkhead-<class>.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.bulkheads", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+  @Bean
+  @ConfigurationProperties(prefix = "spring.datasource.hikari")
+  public HikariConfig bulkheadPoolDefaults() {
+    return new HikariConfig();
+  }
+
+  @Bean(destroyMethod = "close")
+  BulkheadPools bulkheadPools(DataSourceProperties dataSourceProperties,
+                              HikariConfig bulkheadPoolDefaults,
+                              BulkheadProperties properties,
+                              MeterRegistry meterRegistry) {
+    Map<WorkloadClass, BulkheadPool> pools = new EnumMap<>(WorkloadClass.class);
+    for (WorkloadClass workload : WorkloadClass.values()) {
+      pools.put(workload, createPool(workload, dataSourceProperties,
+              bulkheadPoolDefaults, properties, meterRegistry));
+    }
+    return new BulkheadPools(pools);
+  }
+
+  @Bean
+  public DataSource dataSource(BulkheadPools bulkheadPools) {
+    return new WorkloadRoutingDataSource(bulkheadPools);
+  }
+
+  // Ordered before the transaction advisor, which takes the connection
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor workloadAdvisor() {
+    ComposablePointcut pointcut = new ComposablePointcut(
+            new AnnotationMatchingPointcut(Workload.class, true))
+            .union(AnnotationMatchingPointcut.forMethodAnnotation(
+                    Workload.class));
+    DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut,
+            new WorkloadInterceptor());
+    advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return advisor;
+  }
+
+  private static BulkheadPool createPool(WorkloadClass workload,
+                                         DataSourceProperties database,
+                                         HikariConfig defaults,
+                                         BulkheadProperties properties,
+                                         MeterRegistry meterRegistry) {
+    BulkheadProperties.Pool size = properties.pool(workload);
+    // Like Boot's own pool, connects on first use rather than here
+    HikariDataSource pool = new HikariDataSource();
+    defaults.copyStateTo(pool);
+    pool.setJdbcUrl(database.determineUrl());
+    pool.setUsername(database.determineUsername());
+    pool.setPassword(database.determinePassword());
+    pool.setDriverClassName(database.determineDriverClassName());
+    pool.setPoolName("bulkhead-" + workload.name().toLowerCase());
+    pool.setMinimumIdle(size.minSize());
+    pool.setMaximumPoolSize(size.minSize());
+    pool.setMetricsTrackerFactory(
+            new MicrometerMetricsTrackerFactory(meterRegistry));
+    PoolSizer sizer = new PoolSizer(size.minSize(), size.maxSize(),
+            properties.resizeStep(), properties.targetWait().toNanos(),
+            properties.shrinkAfter());
+    return new BulkheadPool(workload, pool, sizer, meterRegistry);
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.e_commerce.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// One workload class's Hikari pool, with the time callers spend waiting for
+// its connections
+class BulkheadPool {
+  private static final Logger log = LoggerFactory.getLogger(BulkheadPool.class);
+
+  private final WorkloadClass workload;
+  private final HikariDataSource dataSource;
+  private final PoolSizer sizer;
+  private final Timer waitTimer;
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder acquisitions = new LongAdder();
+
+  BulkheadPool(WorkloadClass workload, HikariDataSource dataSource,
+               PoolSizer sizer, MeterRegistry meterRegistry) {
+    this.workload = workload;
+    this.dataSource = dataSource;
+    this.sizer = sizer;
+    String tag = workload.name().toLowerCase();
+    this.waitTimer = meterRegistry.timer("bulkhead.connection.wait",
+            "workload", tag);
+    meterRegistry.gauge("bulkhead.pool.max.size",
+            Tags.of("workload", tag), dataSource,
+            HikariDataSource::getMaximumPoolSize);
+  }
+
+  WorkloadClass workload() {
+    return workload;
+  }
+
+  HikariDataSource dataSource() {
+    return dataSource;
+  }
+
+  // Timeouts count too, with the full time waited
+  Connection getConnection() throws SQLException {
+    long start = System.nanoTime();
+    try {
+      return dataSource.getConnection();
+    } finally {
+      long waited = System.nanoTime() - start;
+      waitTimer.record(waited, TimeUnit.NANOSECONDS);
+      waitNanos.add(waited);
+      acquisitions.increment();
+    }
+  }
+
+  // Called once per resize interval; the wait is averaged since the last
+  // call. Hikari applies a smaller maximum as in-use connections return.
+  void resize() {
+    long count = acquisitions.sumThenReset();
+    long total = waitNanos.sumThenReset();
+    long meanWait = count > 0 ? total / count : 0;
+    int busy = 0;
+    if (dataSource.getHikariPoolMXBean() != null) {
+      busy = dataSource.getHikariPoolMXBean().getActiveConnections() +
+              dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection();
+    }
+    int current = dataSource.getMaximumPoolSize();
+    int next = sizer.nextSize(current, meanWait, busy);
+    if (next != current) {
+      dataSource.getHikariConfigMXBean().setMaximumPoolSize(next);
+      log.info("Resized {} connection pool from {} to {} (mean wait {} us)",
+              workload, current, next, meanWait / 1_000);
+    }
+  }
+
+  void close() {
+    dataSource.close();
+  }
+}
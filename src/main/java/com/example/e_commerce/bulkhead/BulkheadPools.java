@@ -0,0 +1,33 @@
+package com.example.e_commerce.bulkhead;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collection;
+import java.util.Map;
+
+// The pools behind WorkloadRoutingDataSource, resized on a schedule
+class BulkheadPools {
+  private final Map<WorkloadClass, BulkheadPool> pools;
+
+  BulkheadPools(Map<WorkloadClass, BulkheadPool> pools) {
+    this.pools = Map.copyOf(pools);
+  }
+
+  BulkheadPool get(WorkloadClass workload) {
+    return pools.get(workload);
+  }
+
+  Collection<BulkheadPool> all() {
+    return pools.values();
+  }
+
+  @Scheduled(fixedDelayString = "${app.bulkheads.resize-interval:PT10S}",
+          initialDelayString = "${app.bulkheads.resize-interval:PT10S}")
+  public void resize() {
+    pools.values().forEach(BulkheadPool::resize);
+  }
+
+  void close() {
+    pools.values().forEach(BulkheadPool::close);
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.e_commerce.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.bulkheads")
+public record BulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        Map<WorkloadClass, Pool> pools,
+        @DefaultValue("PT10S") Duration resizeInterval,
+        // A pool grows while connections take longer than this to get
+        @DefaultValue("PT0.005S") Duration targetWait,
+        @DefaultValue("2") int resizeStep,
+        // Calm resize intervals in a row before a pool shrinks
+        @DefaultValue("6") int shrinkAfter) {
+  private static final Pool UNCONFIGURED = new Pool(1, 2);
+
+  public BulkheadProperties {
+    pools = pools != null ? Map.copyOf(pools) : Map.of();
+  }
+
+  public Pool pool(WorkloadClass workload) {
+    return pools.getOrDefault(workload, UNCONFIGURED);
+  }
+
+  // The pool is sized adaptively between the two, starting at minSize
+  public record Pool(int minSize, int maxSize) {
+    public Pool {
+      if (minSize < 1 || maxSize < minSize) {
+        throw new IllegalArgumentException(
+                "Pool sizes must satisfy 1 <= min-size <= max-size");
+      }
+    }
+  }
+}
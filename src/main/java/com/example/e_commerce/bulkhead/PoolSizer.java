@@ -0,0 +1,48 @@
+package com.example.e_commerce.bulkhead;
+
+// Picks a pool's next maximum size from the connection wait measured over
+// the last resize interval. Grows as soon as waits exceed the target;
+// shrinks only after several calm intervals with spare connections, so a
+// pool does not flap between sizes under a steady load.
+class PoolSizer {
+  private final int minSize;
+  private final int maxSize;
+  private final int step;
+  private final long targetWaitNanos;
+  private final int shrinkAfter;
+  private int calmIntervals;
+
+  PoolSizer(int minSize, int maxSize, int step, long targetWaitNanos,
+            int shrinkAfter) {
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.step = Math.max(1, step);
+    this.targetWaitNanos = targetWaitNanos;
+    this.shrinkAfter = shrinkAfter;
+  }
+
+  // busy is the connections in use plus the threads waiting for one, as
+  // sampled now
+  int nextSize(int current, long meanWaitNanos, int busy) {
+    if (meanWaitNanos > targetWaitNanos) {
+      calmIntervals = 0;
+      return clamp(current + step);
+    }
+    // Well under the target and nobody would miss the connections
+    boolean calm = meanWaitNanos * 4 <= targetWaitNanos &&
+            busy <= current - step;
+    if (!calm) {
+      calmIntervals = 0;
+      return clamp(current);
+    }
+    if (++calmIntervals < shrinkAfter) {
+      return clamp(current);
+    }
+    calmIntervals = 0;
+    return clamp(current - step);
+  }
+
+  private int clamp(int size) {
+    return Math.max(minSize, Math.min(maxSize, size));
+  }
+}
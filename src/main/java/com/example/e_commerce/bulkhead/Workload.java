@@ -0,0 +1,17 @@
+package com.example.e_commerce.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Runs the annotated method (or every public method of the annotated class)
+// on the connection pool of its workload class. A transaction already open
+// when the method is entered keeps its connection.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+  WorkloadClass value();
+}
@@ -0,0 +1,11 @@
+package com.example.e_commerce.bulkhead;
+
+// Each class gets its own connection pool (see BulkheadConfig). DEFAULT is
+// everything not annotated with @Workload: startup, migrations, listeners
+// and most background jobs.
+public enum WorkloadClass {
+  CHECKOUT,
+  BROWSING,
+  ADMIN,
+  DEFAULT
+}
@@ -0,0 +1,29 @@
+package com.example.e_commerce.bulkhead;
+
+// The workload class of the code running on the current thread
+final class WorkloadContext {
+  private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+  private WorkloadContext() {
+  }
+
+  static WorkloadClass current() {
+    WorkloadClass workload = CURRENT.get();
+    return workload != null ? workload : WorkloadClass.DEFAULT;
+  }
+
+  // Returns what to hand back to restore() when the method exits
+  static WorkloadClass enter(WorkloadClass workload) {
+    WorkloadClass previous = CURRENT.get();
+    CURRENT.set(workload);
+    return previous;
+  }
+
+  static void restore(WorkloadClass previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.e_commerce.bulkhead;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+// Applied outside the transaction interceptor, so the workload class is set
+// before the transaction takes its connection
+class WorkloadInterceptor implements MethodInterceptor {
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Workload workload = find(invocation);
+    if (workload == null) {
+      return invocation.proceed();
+    }
+    WorkloadClass previous = WorkloadContext.enter(workload.value());
+    try {
+      return invocation.proceed();
+    } finally {
+      WorkloadContext.restore(previous);
+    }
+  }
+
+  // The method's own annotation wins over its class's
+  private static Workload find(MethodInvocation invocation) {
+    Class<?> targetClass = invocation.getThis() != null
+            ? AopUtils.getTargetClass(invocation.getThis())
+            : invocation.getMethod().getDeclaringClass();
+    Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(),
+            targetClass);
+    Workload workload = AnnotatedElementUtils.findMergedAnnotation(method,
+            Workload.class);
+    return workload != null ? workload
+            : AnnotatedElementUtils.findMergedAnnotation(targetClass,
+                    Workload.class);
+  }
+}
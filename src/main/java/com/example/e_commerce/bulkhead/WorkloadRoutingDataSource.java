@@ -0,0 +1,34 @@
+package com.example.e_commerce.bulkhead;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+// The application's DataSource: hands out connections from the pool of the
+// workload class running on the calling thread, so a burst of admin or
+// browsing work waits on its own pool instead of starving checkout
+class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+  private final BulkheadPools pools;
+
+  WorkloadRoutingDataSource(BulkheadPools pools) {
+    this.pools = pools;
+    Map<Object, Object> targets = new HashMap<>();
+    pools.all().forEach(pool -> targets.put(pool.workload(),
+            pool.dataSource()));
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(pools.get(WorkloadClass.DEFAULT).dataSource());
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return WorkloadContext.current();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return pools.get(WorkloadContext.current()).getConnection();
+  }
+}
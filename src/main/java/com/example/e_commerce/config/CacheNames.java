@@ -0,0 +1,13 @@
+package com.example.e_commerce.config;
+
+public final class CacheNames {
+  public static final String PRODUCTS = "products";
+
+  // Hibernate second-level cache regions, sized in app.second-level-cache
+  public static final String CATEGORY = "category";
+  public static final String CATEGORY_CHILDREN = "category-children";
+  public static final String CATEGORY_LISTINGS = "category-listings";
+
+  private CacheNames() {
+  }
+}
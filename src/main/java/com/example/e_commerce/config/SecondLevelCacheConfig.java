@@ -0,0 +1,55 @@
+package com.example.e_commerce.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+
+// Hibernate's second-level cache runs on Caffeine through JCache. Regions are
+// created here, one per app.second-level-cache.regions entry, so each gets
+// its own size and TTL; Hibernate is handed this CacheManager directly.
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager(
+          SecondLevelCacheProperties properties) {
+    // Not the shared Caching provider: each application context (tests start
+    // several) must own its regions instead of replacing another's
+    CachingProvider provider = new CaffeineCachingProvider();
+    CacheManager cacheManager = provider.getCacheManager(
+            provider.getDefaultURI(),
+            SecondLevelCacheConfig.class.getClassLoader());
+    properties.regions().forEach((name, region) ->
+            cacheManager.createCache(name, configuration(region)));
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheManager(
+          CacheManager hibernateCacheManager) {
+    return hibernateProperties -> hibernateProperties.put(
+            ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+  }
+
+  private static CaffeineConfiguration<Object, Object> configuration(
+          SecondLevelCacheProperties.Region region) {
+    CaffeineConfiguration<Object, Object> configuration =
+            new CaffeineConfiguration<>();
+    if (region.maxSize() != null) {
+      configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+    }
+    if (region.ttl() != null) {
+      configuration.setExpireAfterWrite(
+              OptionalLong.of(region.ttl().toNanos()));
+    }
+    configuration.setStatisticsEnabled(true);
+    return configuration;
+  }
+}
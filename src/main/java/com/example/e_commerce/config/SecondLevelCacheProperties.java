@@ -0,0 +1,18 @@
+package com.example.e_commerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.second-level-cache")
+public record SecondLevelCacheProperties(Map<String, Region> regions) {
+
+  public SecondLevelCacheProperties {
+    regions = regions != null ? regions : Map.of();
+  }
+
+  // Leave maxSize or ttl unset for no bound, as the timestamps region needs
+  public record Region(Long maxSize, Duration ttl) {
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.e_commerce.controller;
+
+import com.example.e_commerce.OrderStatusService;
+import com.example.e_commerce.dto.OrderTransitionRequest;
+import com.example.e_commerce.dto.OrderTransitionResult;
+import com.example.e_commerce.dto.ShipmentResponse;
+import com.example.e_commerce.warehouse.WarehouseAllocationService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Lazy
+@RestController
+@RequestMapping("/api/admin/orders")
+public class AdminOrderController {
+  private final OrderStatusService orderStatusService;
+  private final WarehouseAllocationService allocationService;
+
+  public AdminOrderController(OrderStatusService orderStatusService,
+                              WarehouseAllocationService allocationService) {
+    this.orderStatusService = orderStatusService;
+    this.allocationService = allocationService;
+  }
+
+  @PostMapping("/status")
+  public OrderTransitionResult transition(
+          @Valid @RequestBody OrderTransitionRequest request) {
+    return orderStatusService.transition(request.orderIds(),
+            request.targetStatus());
+  }
+
+  // Picks the shipping warehouses; repeating it returns the same shipments
+  @PostMapping("/{id}/allocation")
+  public List<ShipmentResponse> allocate(@PathVariable Long id) {
+    return allocationService.allocate(id);
+  }
+
+  @GetMapping("/{id}/allocation")
+  public List<ShipmentResponse> allocation(@PathVariable Long id) {
+    return allocationService.allocation(id);
+  }
+}
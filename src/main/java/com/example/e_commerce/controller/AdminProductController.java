@@ -0,0 +1,72 @@
+package com.example.e_commerce.controller;
+
+import com.example.e_commerce.ProductBulkUpdateService;
+import com.example.e_commerce.dto.BulkUpdateResult;
+import com.example.e_commerce.dto.CategoryRepriceRequest;
+import com.example.e_commerce.dto.ProductUpdateRow;
+import com.example.e_commerce.dto.StockLevel;
+import com.example.e_commerce.dto.StockMovementRequest;
+import com.example.e_commerce.stock.StockLedger;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Lazy
+@RestController
+@RequestMapping("/api/admin/products")
+@Validated
+public class AdminProductController {
+  private final ProductBulkUpdateService bulkUpdateService;
+  private final StockLedger stockLedger;
+
+  public AdminProductController(ProductBulkUpdateService bulkUpdateService,
+                                StockLedger stockLedger) {
+    this.bulkUpdateService = bulkUpdateService;
+    this.stockLedger = stockLedger;
+  }
+
+  @PostMapping("/reprice")
+  public BulkUpdateResult repriceCategory(
+          @Valid @RequestBody CategoryRepriceRequest request) {
+    return bulkUpdateService.repriceCategory(request);
+  }
+
+  @PostMapping("/bulk-update")
+  public BulkUpdateResult bulkUpdate(
+          @RequestBody @NotEmpty List<@Valid ProductUpdateRow> rows) {
+    return bulkUpdateService.applyRows(rows);
+  }
+
+  @PostMapping("/{id}/stock-movements")
+  public StockLevel recordStockMovement(
+          @PathVariable Long id,
+          @Valid @RequestBody StockMovementRequest request) {
+    stockLedger.adjust(id, request.type(), request.quantity());
+    return new StockLevel(id, stockLedger.available(id), LocalDateTime.now());
+  }
+
+  // Without at, the current level
+  @GetMapping("/{id}/stock")
+  public StockLevel getStockLevel(
+          @PathVariable Long id,
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime at) {
+    if (at == null) {
+      return new StockLevel(id, stockLedger.available(id), LocalDateTime.now());
+    }
+    return new StockLevel(id, stockLedger.levelAt(id, at), at);
+  }
+}
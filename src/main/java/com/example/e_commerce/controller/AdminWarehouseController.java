@@ -0,0 +1,52 @@
+package com.example.e_commerce.controller;
+
+import com.example.e_commerce.dto.WarehouseStockRequest;
+import com.example.e_commerce.warehouse.WarehouseAllocationService;
+import com.example.e_commerce.warehouse.WarehouseDirectory;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Lazy
+@RestController
+@RequestMapping("/api/admin/warehouses")
+@Validated
+public class AdminWarehouseController {
+  private final WarehouseAllocationService allocationService;
+  private final WarehouseDirectory directory;
+
+  public AdminWarehouseController(WarehouseAllocationService allocationService,
+                                  WarehouseDirectory directory) {
+    this.allocationService = allocationService;
+    this.directory = directory;
+  }
+
+  @PutMapping("/{id}/stock")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void setStock(
+          @PathVariable Long id,
+          @RequestBody @NotEmpty List<@Valid WarehouseStockRequest> levels) {
+    allocationService.setStock(id, levels.stream().collect(Collectors.toMap(
+            WarehouseStockRequest::productId, WarehouseStockRequest::quantity,
+            (first, last) -> last)));
+  }
+
+  // Picks up warehouse or route changes before the next scheduled refresh
+  @PostMapping("/refresh")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void refresh() {
+    directory.refresh();
+  }
+}
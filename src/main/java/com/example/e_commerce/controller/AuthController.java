@@ -0,0 +1,34 @@
+package com.example.e_commerce.controller;
+
+import com.example.e_commerce.UserService;
+import com.example.e_commerce.dto.LoginRequest;
+import com.example.e_commerce.dto.RegistrationRequest;
+import com.example.e_commerce.dto.UserResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+  private final UserService userService;
+
+  public AuthController(UserService userService) {
+    this.userService = userService;
+  }
+
+  @PostMapping("/register")
+  @ResponseStatus(HttpStatus.CREATED)
+  public UserResponse register(@Valid @RequestBody RegistrationRequest request) {
+    return UserResponse.from(userService.register(request));
+  }
+
+  @PostMapping("/login")
+  public UserResponse login(@Valid @RequestBody LoginRequest request) {
+    return UserResponse.from(userService.authenticate(request));
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.e_commerce.controller;
+
+import com.example.e_commerce.export.CatalogExportService;
+import com.example.e_commerce.export.ExportFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/products")
+public class CatalogExportController {
+  private final CatalogExportService exportService;
+
+  public CatalogExportController(CatalogExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  // GET /api/products/export?format=CSV, gzip when the client accepts it
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export(
+          @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                  defaultValue = "") String acceptEncoding) {
+    boolean gzip = acceptEncoding.contains("gzip");
+
+    StreamingResponseBody body = out -> {
+      if (gzip) {
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192)) {
+          exportService.export(format, gzipOut);
+        }
+      } else {
+        exportService.export(format, out);
+      }
+    };
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, format.getContentType())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"catalog." +
+                            format.getFileExtension() + "\"");
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.e_commerce.controller;
+
+import com.example.e_commerce.CategoryService;
+import com.example.e_commerce.dto.CategorySummary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categories")
+public class CategoryController {
+  private final CategoryService categoryService;
+
+  public CategoryController(CategoryService categoryService) {
+    this.categoryService = categoryService;
+  }
+
+  @GetMapping
+  public List<CategorySummary> list(
+          @RequestParam(defaultValue = "false") boolean rootsOnly) {
+    return categoryService.listActive(rootsOnly);
+  }
+
+  @GetMapping("/{id}/children")
+  public ResponseEntity<List<CategorySummary>> children(@PathVariable Long id) {
+    return ResponseEntity.of(categoryService.findChildren(id));
+  }
+}
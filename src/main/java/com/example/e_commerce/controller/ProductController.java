@@ -0,0 +1,138 @@
+package com.example.e_commerce.controller;
+
+import com.example.e_commerce.ProductQueryService;
+import com.example.e_commerce.ProductService;
+import com.example.e_commerce.dto.BestSeller;
+import com.example.e_commerce.dto.FacetResponse;
+import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.dto.ProductRecommendation;
+import com.example.e_commerce.dto.ProductSummary;
+import com.example.e_commerce.dto.PurchaseRequest;
+import com.example.e_commerce.dto.Suggestion;
+import com.example.e_commerce.purchase.PurchasePipeline;
+import com.example.e_commerce.ranking.BestSellerRanking;
+import com.example.e_commerce.recommendation.CoOccurrenceEngine;
+import com.example.e_commerce.search.FacetFilter;
+import com.example.e_commerce.search.ProductAutocomplete;
+import com.example.e_commerce.search.ProductFacets;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/products")
+@Validated
+public class ProductController {
+  private final ProductQueryService productQueryService;
+  private final ProductService productService;
+  private final CoOccurrenceEngine coOccurrenceEngine;
+  private final BestSellerRanking bestSellerRanking;
+  private final ProductAutocomplete productAutocomplete;
+  private final ProductFacets productFacets;
+  private final PurchasePipeline purchasePipeline;
+
+  public ProductController(ProductQueryService productQueryService,
+                           ProductService productService,
+                           CoOccurrenceEngine coOccurrenceEngine,
+                           BestSellerRanking bestSellerRanking,
+                           ProductAutocomplete productAutocomplete,
+                           ProductFacets productFacets,
+                           PurchasePipeline purchasePipeline) {
+    this.productQueryService = productQueryService;
+    this.productService = productService;
+    this.coOccurrenceEngine = coOccurrenceEngine;
+    this.bestSellerRanking = bestSellerRanking;
+    this.productAutocomplete = productAutocomplete;
+    this.productFacets = productFacets;
+    this.purchasePipeline = purchasePipeline;
+  }
+
+  // Pages in id order: pass the last id of a page as after for the next one
+  @GetMapping
+  public List<ProductSummary> list(
+          @RequestParam(required = false) String category,
+          @RequestParam(defaultValue = "0") @Min(0) long after,
+          @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+    return productQueryService.listActive(category, after, limit);
+  }
+
+  // Summaries for a page of ids from facets or autocomplete, in that order
+  @GetMapping("/summaries")
+  public List<ProductSummary> summaries(
+          @RequestParam("id") @Size(max = 100) List<Long> ids) {
+    return productQueryService.findSummaries(ids);
+  }
+
+  @GetMapping("/facets")
+  public FacetResponse facets(
+          @RequestParam(required = false) String category,
+          @RequestParam(name = "band", required = false) Set<Integer> bands,
+          @RequestParam(defaultValue = "false") boolean inStock,
+          @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+    FacetFilter filter = new FacetFilter(category, bands, inStock, false);
+    return FacetResponse.from(productFacets.search(filter, limit),
+            productFacets.priceBands());
+  }
+
+  @GetMapping("/autocomplete")
+  public List<Suggestion> autocomplete(
+          @RequestParam("q") @Size(max = 100) String query,
+          @RequestParam(defaultValue = "10") @Min(1) @Max(20) int limit) {
+    return productAutocomplete.complete(query, limit).stream()
+            .map(Suggestion::from)
+            .toList();
+  }
+
+  @GetMapping("/best-sellers")
+  public List<BestSeller> bestSellers(
+          @RequestParam String category,
+          @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+    return bestSellerRanking.top(category, limit, System.currentTimeMillis())
+            .stream()
+            .map(BestSeller::from)
+            .toList();
+  }
+
+  @GetMapping("/{id}/summary")
+  public ResponseEntity<ProductSummary> getSummary(@PathVariable Long id) {
+    return ResponseEntity.of(productQueryService.findSummary(id));
+  }
+
+  @GetMapping("/{id}/frequently-bought-together")
+  public List<ProductRecommendation> frequentlyBoughtTogether(
+          @PathVariable Long id,
+          @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+    return ProductRecommendation.from(coOccurrenceEngine.neighbours(id), limit);
+  }
+
+  // With the purchase pipeline on, the response goes out once the batch
+  // holding the order has committed
+  @PostMapping("/{id}/purchase")
+  @ResponseStatus(HttpStatus.CREATED)
+  public CompletableFuture<OrderResponse> purchase(
+          @PathVariable Long id, @Valid @RequestBody PurchaseRequest request) {
+    if (purchasePipeline.isEnabled()) {
+      return purchasePipeline.submit(id, request.userId(), request.quantity(),
+              request.shippingAddressId()).thenApply(OrderResponse::from);
+    }
+    return CompletableFuture.completedFuture(OrderResponse.from(
+            productService.purchaseProduct(id, request.userId(),
+                    request.quantity(), request.shippingAddressId())));
+  }
+}
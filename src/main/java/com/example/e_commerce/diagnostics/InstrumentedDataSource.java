@@ -0,0 +1,201 @@
+package com.example.e_commerce.diagnostics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+// Times every statement executed through the pool, Hibernate's and
+// JdbcTemplate's alike, and counts the rows read from its result sets.
+// Calls that are not executions go straight to the driver objects; the
+// extra cost per statement is a clock read and a map lookup.
+public class InstrumentedDataSource extends DelegatingDataSource {
+  private final SqlDiagnostics diagnostics;
+
+  public InstrumentedDataSource(DataSource target, SqlDiagnostics diagnostics) {
+    super(target);
+    this.diagnostics = diagnostics;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password)
+          throws SQLException {
+    return wrap(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  Connection wrap(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(
+            InstrumentedDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection));
+  }
+
+  private static Object call(Object proxy, Object target, Method method,
+                             Object[] args) throws Throwable {
+    // Identity is the wrapper's, not the driver object's behind it
+    if (method.getDeclaringClass() == Object.class) {
+      return switch (method.getName()) {
+        case "equals" -> proxy == args[0];
+        case "hashCode" -> System.identityHashCode(proxy);
+        default -> target.toString();
+      };
+    }
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+
+    ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable {
+      Object result = call(proxy, target, method, args);
+      return switch (method.getName()) {
+        case "prepareStatement" -> statement(PreparedStatement.class,
+                (Statement) result, (String) args[0]);
+        case "prepareCall" -> statement(CallableStatement.class,
+                (Statement) result, (String) args[0]);
+        case "createStatement" -> statement(Statement.class,
+                (Statement) result, null);
+        default -> result;
+      };
+    }
+
+    private Object statement(Class<? extends Statement> type,
+                             Statement statement, String sql) {
+      return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+              new Class<?>[] {type}, new StatementHandler(statement, sql));
+    }
+  }
+
+  private class StatementHandler implements InvocationHandler {
+    private final Statement target;
+    private final String preparedSql;
+    private Object[] parameters;
+    private int parameterCount;
+    // Shape of the last execution, for result sets fetched afterwards
+    private QueryShapeStats currentStats;
+    // Statement.addBatch(sql): the batch is recorded under its last statement
+    private String batchSql = "<batch>";
+
+    StatementHandler(Statement target, String preparedSql) {
+      this.target = target;
+      this.preparedSql = preparedSql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable {
+      String name = method.getName();
+      if (name.startsWith("set") && args != null && args.length >= 2 &&
+              args[0] instanceof Integer index && preparedSql != null) {
+        remember(index, name.equals("setNull") ? null : args[1]);
+        return call(proxy, target, method, args);
+      }
+      if (name.equals("clearParameters")) {
+        parameterCount = 0;
+      } else if (name.equals("addBatch") && args != null) {
+        batchSql = (String) args[0];
+      }
+      if (!name.startsWith("execute")) {
+        Object result = call(proxy, target, method, args);
+        return name.equals("getResultSet") && result != null
+                ? resultSet((ResultSet) result, currentStats) : result;
+      }
+
+      String sql = preparedSql != null ? preparedSql
+              : args != null ? (String) args[0] : batchSql;
+      QueryShapeStats stats = diagnostics.statsFor(sql);
+      long start = System.nanoTime();
+      try {
+        Object result = call(proxy, target, method, args);
+        currentStats = stats;
+        if (result instanceof ResultSet resultSet) {
+          return resultSet(resultSet, stats);
+        }
+        if (result instanceof Integer updated) {
+          diagnostics.recordRows(stats, updated);
+        }
+        return result;
+      } finally {
+        diagnostics.recordExecution(stats, sql, System.nanoTime() - start,
+                preparedSql != null ? parameters : null, parameterCount);
+      }
+    }
+
+    private void remember(int index, Object value) {
+      if (parameters == null) {
+        parameters = new Object[Math.max(8, index)];
+      } else if (index > parameters.length) {
+        parameters = Arrays.copyOf(parameters,
+                Math.max(index, parameters.length * 2));
+      }
+      parameters[index - 1] = value;
+      parameterCount = Math.max(parameterCount, index);
+    }
+
+    private ResultSet resultSet(ResultSet resultSet, QueryShapeStats stats) {
+      return (ResultSet) Proxy.newProxyInstance(
+              InstrumentedDataSource.class.getClassLoader(),
+              new Class<?>[] {ResultSet.class},
+              new ResultSetHandler(resultSet, stats));
+    }
+  }
+
+  private class ResultSetHandler implements InvocationHandler {
+    private final ResultSet target;
+    private final QueryShapeStats stats;
+    private long rows;
+    private boolean recorded;
+
+    ResultSetHandler(ResultSet target, QueryShapeStats stats) {
+      this.target = target;
+      this.stats = stats;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable {
+      Object result = call(proxy, target, method, args);
+      switch (method.getName()) {
+        case "next" -> {
+          if ((Boolean) result) {
+            rows++;
+          }
+        }
+        case "close" -> {
+          if (!recorded && stats != null) {
+            recorded = true;
+            diagnostics.recordRows(stats, rows);
+          }
+        }
+        default -> {
+        }
+      }
+      return result;
+    }
+  }
+}
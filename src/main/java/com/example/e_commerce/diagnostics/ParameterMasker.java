@@ -0,0 +1,263 @@
+package com.example.e_commerce.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Renders bind parameters for the slow-query log. Each ? is matched to the
+// column it binds to (col = ?, col IN (?, ...), INSERT column lists and
+// VALUES ... AS v(cols) aliases); values for sensitive columns are masked, and
+// so are strings whose column cannot be determined.
+public class ParameterMasker {
+  static final String MASK = "****";
+
+  private final List<String> sensitiveColumns;
+
+  public ParameterMasker(List<String> sensitiveColumns) {
+    this.sensitiveColumns = sensitiveColumns.stream()
+            .map(name -> name.toLowerCase(Locale.ROOT))
+            .toList();
+  }
+
+  public String render(String sql, Object[] parameters, int count) {
+    List<String> columns = bindColumns(sql);
+    StringBuilder out = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        out.append(", ");
+      }
+      Object value = parameters[i];
+      String column = i < columns.size() ? columns.get(i) : null;
+      if (value == null) {
+        out.append("null");
+      } else if (column != null ? isSensitive(column)
+              : value instanceof CharSequence) {
+        out.append(MASK);
+      } else if (value instanceof CharSequence) {
+        out.append('\'').append(value).append('\'');
+      } else {
+        out.append(value);
+      }
+    }
+    return out.append(']').toString();
+  }
+
+  boolean isSensitive(String column) {
+    String name = column.toLowerCase(Locale.ROOT);
+    for (String sensitive : sensitiveColumns) {
+      if (name.contains(sensitive)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Column for every placeholder in order, null where it cannot be told
+  static List<String> bindColumns(String sql) {
+    List<String> tokens = tokenize(sql);
+    List<String> columns = new ArrayList<>();
+    for (int i = 0; i < tokens.size(); i++) {
+      if (!tokens.get(i).equals("?")) {
+        continue;
+      }
+      String column = valuesColumn(tokens, i);
+      if (column == null) {
+        column = comparedColumn(tokens, i);
+      }
+      columns.add(column);
+    }
+    return columns;
+  }
+
+  // col = ?, col <> ?, col LIKE ?, col IN (?, ?)
+  private static String comparedColumn(List<String> tokens, int index) {
+    int i = index - 1;
+    while (i >= 0 && (tokens.get(i).equals("?") || tokens.get(i).equals(","))) {
+      i--;
+    }
+    if (i >= 1 && tokens.get(i).equals("(") &&
+            tokens.get(i - 1).equalsIgnoreCase("in")) {
+      return identifier(tokens, i - 2);
+    }
+    i = index - 1;
+    if (i >= 1 && isComparison(tokens.get(i))) {
+      return identifier(tokens, i - 1);
+    }
+    return null;
+  }
+
+  // Position inside VALUES (...) tuples, named by the INSERT column list or
+  // by an AS alias(cols) list after the VALUES clause
+  private static String valuesColumn(List<String> tokens, int index) {
+    int[] enclosing = enclosingParen(tokens, index);
+    // CAST(? AS type) is one element of the tuple around it
+    while (enclosing[0] >= 1 &&
+            tokens.get(enclosing[0] - 1).equalsIgnoreCase("cast")) {
+      enclosing = enclosingParen(tokens, enclosing[0] - 1);
+    }
+    int tupleStart = enclosing[0];
+    int position = enclosing[1];
+    if (tupleStart < 1) {
+      return null;
+    }
+    // Walk back over earlier tuples to the VALUES keyword
+    int i = tupleStart - 1;
+    while (i >= 0 && tokens.get(i).equals(",")) {
+      i = matchingOpen(tokens, i - 1) - 1;
+    }
+    if (i < 0 || !tokens.get(i).equalsIgnoreCase("values")) {
+      return null;
+    }
+
+    List<String> names = insertColumns(tokens, i);
+    if (names.isEmpty()) {
+      names = aliasColumns(tokens, tupleStart);
+    }
+    return position < names.size() ? names.get(position) : null;
+  }
+
+  // {index of the unclosed ( before index, commas between them at its level}
+  private static int[] enclosingParen(List<String> tokens, int index) {
+    int depth = 0;
+    int commas = 0;
+    for (int i = index - 1; i >= 0; i--) {
+      String token = tokens.get(i);
+      if (token.equals(")")) {
+        depth++;
+      } else if (token.equals("(")) {
+        if (depth == 0) {
+          return new int[] {i, commas};
+        }
+        depth--;
+      } else if (depth == 0 && token.equals(",")) {
+        commas++;
+      }
+    }
+    return new int[] {-1, commas};
+  }
+
+  private static List<String> insertColumns(List<String> tokens, int values) {
+    if (values < 1 || !tokens.get(values - 1).equals(")")) {
+      return List.of();
+    }
+    int open = matchingOpen(tokens, values - 1);
+    if (open < 2 || !tokens.get(open - 2).equalsIgnoreCase("into")) {
+      return List.of();
+    }
+    return names(tokens, open + 1, values - 1);
+  }
+
+  private static List<String> aliasColumns(List<String> tokens, int tupleStart) {
+    int depth = 0;
+    for (int i = tupleStart; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      if (token.equals("(")) {
+        depth++;
+      } else if (token.equals(")")) {
+        depth--;
+        // The derived table closes below the tuples: ) AS v(cols)
+        if (depth < 0) {
+          int alias = i + 1;
+          if (alias < tokens.size() && tokens.get(alias).equalsIgnoreCase("as")) {
+            alias++;
+          }
+          if (alias + 1 < tokens.size() && tokens.get(alias + 1).equals("(")) {
+            int close = alias + 2;
+            while (close < tokens.size() && !tokens.get(close).equals(")")) {
+              close++;
+            }
+            return names(tokens, alias + 2, close);
+          }
+          return List.of();
+        }
+      }
+    }
+    return List.of();
+  }
+
+  private static List<String> names(List<String> tokens, int from, int to) {
+    List<String> names = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      if (!tokens.get(i).equals(",")) {
+        names.add(unqualified(tokens.get(i)));
+      }
+    }
+    return names;
+  }
+
+  private static int matchingOpen(List<String> tokens, int close) {
+    int depth = 0;
+    for (int i = close; i >= 0; i--) {
+      if (tokens.get(i).equals(")")) {
+        depth++;
+      } else if (tokens.get(i).equals("(") && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static String identifier(List<String> tokens, int index) {
+    if (index < 0) {
+      return null;
+    }
+    String token = tokens.get(index);
+    char first = token.charAt(0);
+    return Character.isLetter(first) || first == '_' || first == '"'
+            ? unqualified(token) : null;
+  }
+
+  private static String unqualified(String name) {
+    return name.substring(name.lastIndexOf('.') + 1).replace("\"", "");
+  }
+
+  private static boolean isComparison(String token) {
+    return switch (token.toLowerCase(Locale.ROOT)) {
+      case "=", "<>", "!=", "<", ">", "<=", ">=", "like", "ilike" -> true;
+      default -> false;
+    };
+  }
+
+  // Identifiers (with dots), ?, single-char punctuation and comparison
+  // operators; string literals are skipped
+  private static List<String> tokenize(String sql) {
+    List<String> tokens = new ArrayList<>();
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '\'') {
+        i++;
+        while (i < length) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        i++;
+        tokens.add("'");
+      } else if (Character.isLetterOrDigit(c) || c == '_' || c == '"') {
+        int start = i;
+        while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) ||
+                "_.\"$".indexOf(sql.charAt(i)) >= 0)) {
+          i++;
+        }
+        tokens.add(sql.substring(start, i));
+      } else if ("<>!".indexOf(c) >= 0 && i + 1 < length &&
+              "=>".indexOf(sql.charAt(i + 1)) >= 0) {
+        tokens.add(sql.substring(i, i + 2));
+        i += 2;
+      } else {
+        tokens.add(String.valueOf(c));
+        i++;
+      }
+    }
+    return tokens;
+  }
+}
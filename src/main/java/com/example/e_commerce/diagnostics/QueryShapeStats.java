@@ -0,0 +1,34 @@
+package com.example.e_commerce.diagnostics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters for one statement shape; updated concurrently without locking
+class QueryShapeStats {
+  final String shape;
+  final LongAdder executions = new LongAdder();
+  final LongAdder totalNanos = new LongAdder();
+  final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+  final LongAdder rows = new LongAdder();
+  final LongAdder slowExecutions = new LongAdder();
+  final LongAdder nPlusOneRequests = new LongAdder();
+
+  QueryShapeStats(String shape) {
+    this.shape = shape;
+  }
+
+  void recordExecution(long nanos) {
+    executions.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  void reset() {
+    executions.reset();
+    totalNanos.reset();
+    maxNanos.reset();
+    rows.reset();
+    slowExecutions.reset();
+    nPlusOneRequests.reset();
+  }
+}
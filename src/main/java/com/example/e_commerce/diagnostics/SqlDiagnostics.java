@@ -0,0 +1,154 @@
+package com.example.e_commerce.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-shape statement statistics fed by the JDBC wrappers in
+// InstrumentedDataSource, plus N+1 detection for the request running on the
+// current thread (scoped by SqlDiagnosticsFilter).
+@Component
+public class SqlDiagnostics {
+  private static final Logger log = LoggerFactory.getLogger(SqlDiagnostics.class);
+
+  static final String OTHER_SHAPE = "<other>";
+  private static final int RECENT_N_PLUS_ONE = 50;
+
+  private final SqlDiagnosticsProperties properties;
+  private final ParameterMasker masker;
+  private final long slowNanos;
+
+  private final ConcurrentHashMap<String, QueryShapeStats> shapes =
+          new ConcurrentHashMap<>();
+  // Raw SQL -> shape; JdbcTemplate and Hibernate reuse the same strings
+  private final ConcurrentHashMap<String, QueryShapeStats> bySql =
+          new ConcurrentHashMap<>();
+  private final ThreadLocal<Map<QueryShapeStats, int[]>> requestCounts =
+          new ThreadLocal<>();
+  private final Deque<SqlStatsReport.NPlusOne> recentNPlusOne =
+          new ArrayDeque<>();
+  private volatile Instant since = Instant.now();
+
+  public SqlDiagnostics(SqlDiagnosticsProperties properties) {
+    this.properties = properties;
+    this.masker = new ParameterMasker(properties.maskedColumns());
+    this.slowNanos = properties.slowQueryThreshold().toNanos();
+  }
+
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  QueryShapeStats statsFor(String sql) {
+    QueryShapeStats stats = bySql.get(sql);
+    if (stats != null) {
+      return stats;
+    }
+    if (bySql.size() >= properties.maxShapes() * 4) {
+      bySql.clear();
+    }
+    String shape = SqlShapes.normalize(sql);
+    stats = shapes.get(shape);
+    if (stats == null) {
+      stats = shapes.size() < properties.maxShapes()
+              ? shapes.computeIfAbsent(shape, QueryShapeStats::new)
+              : shapes.computeIfAbsent(OTHER_SHAPE, QueryShapeStats::new);
+    }
+    bySql.put(sql, stats);
+    return stats;
+  }
+
+  void recordExecution(QueryShapeStats stats, String sql, long nanos,
+                       Object[] parameters, int parameterCount) {
+    stats.recordExecution(nanos);
+
+    Map<QueryShapeStats, int[]> counts = requestCounts.get();
+    if (counts != null) {
+      counts.computeIfAbsent(stats, s -> new int[1])[0]++;
+    }
+
+    if (nanos >= slowNanos) {
+      stats.slowExecutions.increment();
+      log.warn("Slow query ({} ms): {} parameters={}", nanos / 1_000_000,
+              stats.shape, parameters == null ? "[]"
+                      : masker.render(sql, parameters, parameterCount));
+    }
+  }
+
+  void recordRows(QueryShapeStats stats, long rows) {
+    stats.rows.add(rows);
+  }
+
+  void beginRequest() {
+    requestCounts.set(new HashMap<>());
+  }
+
+  void endRequest(String request) {
+    Map<QueryShapeStats, int[]> counts = requestCounts.get();
+    requestCounts.remove();
+    if (counts == null) {
+      return;
+    }
+    counts.forEach((stats, count) -> {
+      if (count[0] >= properties.nPlusOneThreshold() && isSelect(stats.shape)) {
+        stats.nPlusOneRequests.increment();
+        log.warn("Possible N+1 in {}: {} executions of {}", request, count[0],
+                stats.shape);
+        synchronized (recentNPlusOne) {
+          if (recentNPlusOne.size() == RECENT_N_PLUS_ONE) {
+            recentNPlusOne.removeFirst();
+          }
+          recentNPlusOne.addLast(new SqlStatsReport.NPlusOne(Instant.now(),
+                  request, stats.shape, count[0]));
+        }
+      }
+    });
+  }
+
+  public SqlStatsReport report(Map<String, Object> hibernate) {
+    List<SqlStatsReport.Shape> top = shapes.values().stream()
+            .filter(stats -> stats.executions.sum() > 0)
+            .sorted(Comparator.comparingLong(
+                    (QueryShapeStats stats) -> stats.totalNanos.sum()).reversed())
+            .limit(properties.reportSize())
+            .map(SqlDiagnostics::toShape)
+            .toList();
+    List<SqlStatsReport.NPlusOne> recent;
+    synchronized (recentNPlusOne) {
+      recent = List.copyOf(recentNPlusOne);
+    }
+    return new SqlStatsReport(since,
+            properties.slowQueryThreshold().toMillis(), top, recent, hibernate);
+  }
+
+  public void reset() {
+    shapes.values().forEach(QueryShapeStats::reset);
+    synchronized (recentNPlusOne) {
+      recentNPlusOne.clear();
+    }
+    since = Instant.now();
+  }
+
+  private static SqlStatsReport.Shape toShape(QueryShapeStats stats) {
+    long executions = stats.executions.sum();
+    double totalMillis = stats.totalNanos.sum() / 1e6;
+    return new SqlStatsReport.Shape(stats.shape, executions, totalMillis,
+            stats.maxNanos.get() / 1e6, totalMillis / executions,
+            stats.rows.sum(), stats.slowExecutions.sum(),
+            stats.nPlusOneRequests.sum());
+  }
+
+  private static boolean isSelect(String shape) {
+    return shape.regionMatches(true, 0, "select", 0, 6) ||
+            shape.regionMatches(true, 0, "with", 0, 4);
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.e_commerce.diagnostics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps the pool once it is initialized; Flyway, JPA and JdbcTemplate all
+// receive the instrumented DataSource
+@Component
+public class SqlDiagnosticsDataSourcePostProcessor implements BeanPostProcessor {
+  // Resolved lazily so this post-processor does not initialize it early
+  private final ObjectProvider<SqlDiagnostics> diagnostics;
+
+  public SqlDiagnosticsDataSourcePostProcessor(
+          ObjectProvider<SqlDiagnostics> diagnostics) {
+    this.diagnostics = diagnostics;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource &&
+            !(bean instanceof InstrumentedDataSource)) {
+      SqlDiagnostics sqlDiagnostics = diagnostics.getObject();
+      if (sqlDiagnostics.isEnabled()) {
+        return new InstrumentedDataSource(dataSource, sqlDiagnostics);
+      }
+    }
+    return bean;
+  }
+}
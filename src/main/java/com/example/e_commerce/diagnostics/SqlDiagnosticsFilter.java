@@ -0,0 +1,45 @@
+package com.example.e_commerce.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Counts statements per shape for the duration of one request so repeated
+// lazy loads (N+1) show up against the route that caused them
+@Component
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+  private final SqlDiagnostics diagnostics;
+
+  public SqlDiagnosticsFilter(SqlDiagnostics diagnostics) {
+    this.diagnostics = diagnostics;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !diagnostics.isEnabled() ||
+            request.getRequestURI().startsWith("/actuator");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain)
+          throws ServletException, IOException {
+    diagnostics.beginRequest();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      // The route pattern, not the URI, so ids do not multiply entries
+      Object pattern = request.getAttribute(
+              HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      diagnostics.endRequest(request.getMethod() + " " +
+              (pattern != null ? pattern : request.getRequestURI()));
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.e_commerce.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.sql-diagnostics")
+public record SqlDiagnosticsProperties(
+        @DefaultValue("true") boolean enabled,
+        // Statements at or above this are logged with masked parameters
+        @DefaultValue("200ms") Duration slowQueryThreshold,
+        // Same SELECT shape this many times in one request is reported as N+1
+        @DefaultValue("10") int nPlusOneThreshold,
+        // Distinct shapes tracked; further shapes are counted under "<other>"
+        @DefaultValue("1000") int maxShapes,
+        // Shapes returned by the actuator endpoint, by total time
+        @DefaultValue("50") int reportSize,
+        // Parameters bound to columns containing any of these are masked
+        @DefaultValue({"password", "email", "first_name", "last_name", "phone",
+                "street", "postal_code"})
+        List<String> maskedColumns) {
+}
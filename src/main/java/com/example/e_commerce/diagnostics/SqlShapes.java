@@ -0,0 +1,89 @@
+package com.example.e_commerce.diagnostics;
+
+import java.util.regex.Pattern;
+
+// Reduces a SQL string to its shape: literals become ?, whitespace and
+// comments are collapsed, and IN lists and repeated VALUES tuples are folded,
+// so statements that differ only in data or batch size share one entry.
+public final class SqlShapes {
+  private static final Pattern PLACEHOLDER_LIST =
+          Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+  private static final Pattern REPEATED_TUPLES = Pattern.compile(
+          "(\\((?:[^()]|\\([^()]*\\))*\\))(?:\\s*,\\s*\\1)+");
+
+  private SqlShapes() {
+  }
+
+  public static String normalize(String sql) {
+    StringBuilder out = new StringBuilder(Math.min(sql.length(), 1024));
+    int length = sql.length();
+    boolean pendingSpace = false;
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        pendingSpace = out.length() > 0;
+        i++;
+        continue;
+      }
+      if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+        while (i < length && sql.charAt(i) != '\n') {
+          i++;
+        }
+        pendingSpace = out.length() > 0;
+        continue;
+      }
+      if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 2;
+        pendingSpace = out.length() > 0;
+        continue;
+      }
+      if (pendingSpace) {
+        out.append(' ');
+        pendingSpace = false;
+      }
+      if (c == '\'') {
+        // '' inside a literal is an escaped quote
+        i++;
+        while (i < length) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        i++;
+        out.append('?');
+        continue;
+      }
+      if (Character.isDigit(c) && !endsWithIdentifier(out)) {
+        while (i < length && (Character.isDigit(sql.charAt(i)) ||
+                sql.charAt(i) == '.')) {
+          i++;
+        }
+        out.append('?');
+        continue;
+      }
+      out.append(c);
+      i++;
+    }
+
+    String shape = PLACEHOLDER_LIST.matcher(out).replaceAll("?, ...");
+    if (shape.contains("), (") || shape.contains("),(")) {
+      shape = REPEATED_TUPLES.matcher(shape).replaceAll("$1, ...");
+    }
+    return shape;
+  }
+
+  private static boolean endsWithIdentifier(StringBuilder out) {
+    if (out.length() == 0) {
+      return false;
+    }
+    char last = out.charAt(out.length() - 1);
+    return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.e_commerce.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET /actuator/sqlstats: slowest statement shapes, recent N+1 patterns and
+// Hibernate session factory statistics. DELETE resets all counters.
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+  private final SqlDiagnostics diagnostics;
+  private final Statistics statistics;
+
+  public SqlStatsEndpoint(SqlDiagnostics diagnostics,
+                          EntityManagerFactory entityManagerFactory) {
+    this.diagnostics = diagnostics;
+    this.statistics = entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+  }
+
+  @ReadOperation
+  public SqlStatsReport report() {
+    return diagnostics.report(hibernateStatistics());
+  }
+
+  @DeleteOperation
+  public void reset() {
+    diagnostics.reset();
+    statistics.clear();
+  }
+
+  private Map<String, Object> hibernateStatistics() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("enabled", statistics.isStatisticsEnabled());
+    if (!statistics.isStatisticsEnabled()) {
+      return result;
+    }
+    result.put("sessionsOpened", statistics.getSessionOpenCount());
+    result.put("transactions", statistics.getTransactionCount());
+    result.put("preparedStatements", statistics.getPrepareStatementCount());
+    // Entity and collection fetches are the lazy loads behind most N+1s
+    result.put("entityLoads", statistics.getEntityLoadCount());
+    result.put("entityFetches", statistics.getEntityFetchCount());
+    result.put("collectionLoads", statistics.getCollectionLoadCount());
+    result.put("collectionFetches", statistics.getCollectionFetchCount());
+    result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+    result.put("secondLevelCacheMisses",
+            statistics.getSecondLevelCacheMissCount());
+    result.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+    result.put("queries", queryStatistics());
+    return result;
+  }
+
+  // Per JPQL/HQL query as written in the repositories
+  private List<Map<String, Object>> queryStatistics() {
+    return Arrays.stream(statistics.getQueries())
+            .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+            .sorted(Comparator.comparingLong(
+                    (Map.Entry<String, QueryStatistics> entry) ->
+                            entry.getValue().getExecutionTotalTime()).reversed())
+            .limit(50)
+            .map(entry -> {
+              QueryStatistics query = entry.getValue();
+              Map<String, Object> row = new LinkedHashMap<>();
+              row.put("query", entry.getKey());
+              row.put("executions", query.getExecutionCount());
+              row.put("totalMillis", query.getExecutionTotalTime());
+              row.put("maxMillis", query.getExecutionMaxTime());
+              row.put("rows", query.getExecutionRowCount());
+              return row;
+            })
+            .toList();
+  }
+}
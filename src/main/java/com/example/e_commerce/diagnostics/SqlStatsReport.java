@@ -0,0 +1,21 @@
+package com.example.e_commerce.diagnostics;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record SqlStatsReport(Instant since,
+                             long slowQueryThresholdMillis,
+                             List<Shape> shapes,
+                             List<NPlusOne> recentNPlusOne,
+                             Map<String, Object> hibernate) {
+
+  public record Shape(String sql, long executions, double totalMillis,
+                      double maxMillis, double meanMillis, long rows,
+                      long slowExecutions, long nPlusOneRequests) {
+  }
+
+  public record NPlusOne(Instant detectedAt, String request, String sql,
+                         int executions) {
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.ranking.HeavyHitter;
+
+// unitsSold may overcount by the sketch's error; at least guaranteedUnits
+// were sold in the window
+public record BestSeller(long productId, long unitsSold,
+                         long guaranteedUnits) {
+  public static BestSeller from(HeavyHitter hitter) {
+    return new BestSeller(hitter.item(), hitter.count(),
+            hitter.guaranteedCount());
+  }
+}
@@ -0,0 +1,6 @@
+package com.example.e_commerce.dto;
+
+import java.util.List;
+
+public record BulkUpdateResult(int updated, List<String> unknownSkus) {
+}
@@ -0,0 +1,18 @@
+package com.example.e_commerce.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+// percentChange=10 raises every price in the category by 10%, -5 lowers it
+public record CategoryRepriceRequest(
+        @NotBlank(message = "Category cannot be blank")
+        String category,
+
+        @NotNull(message = "Percent change cannot be null")
+        @DecimalMin(value = "-99.99",
+                message = "Percent change must be greater than -100")
+        BigDecimal percentChange) {
+}
@@ -0,0 +1,14 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.model.Category;
+
+public record CategorySummary(Long id, String name, Long parentCategoryId,
+                              boolean active) {
+  // getId() on the lazy parent proxy does not initialize it
+  public static CategorySummary from(Category category) {
+    return new CategorySummary(category.getId(), category.getName(),
+            category.getParentCategory() != null
+                    ? category.getParentCategory().getId() : null,
+            category.isActive());
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.search.FacetResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// productIds is the first page in id order; the counts cover every match
+public record FacetResponse(long total, List<Long> productIds,
+                            Map<String, Long> categories,
+                            List<PriceBand> priceBands, long inStock) {
+  // maxPrice is exclusive and null for the last, open-ended band
+  public record PriceBand(int band, BigDecimal minPrice, BigDecimal maxPrice,
+                          long count) {
+  }
+
+  public static FacetResponse from(FacetResult result,
+                                   List<BigDecimal> bandBounds) {
+    List<PriceBand> bands = new ArrayList<>();
+    for (int i = 0; i < result.bandCounts().size(); i++) {
+      bands.add(new PriceBand(i,
+              i == 0 ? BigDecimal.ZERO : bandBounds.get(i - 1),
+              i < bandBounds.size() ? bandBounds.get(i) : null,
+              result.bandCounts().get(i)));
+    }
+    return new FacetResponse(result.total(), result.productIds(),
+            result.categoryCounts(), bands, result.inStockCount());
+  }
+}
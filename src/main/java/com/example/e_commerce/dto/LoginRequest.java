@@ -0,0 +1,11 @@
+package com.example.e_commerce.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record LoginRequest(
+        @NotBlank(message = "Email cannot be blank")
+        String email,
+
+        @NotBlank(message = "Password cannot be blank")
+        String password) {
+}
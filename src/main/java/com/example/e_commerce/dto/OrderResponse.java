@@ -0,0 +1,15 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderResponse(Long id, String orderNumber, OrderStatus status,
+                            BigDecimal totalAmount, LocalDateTime createdAt) {
+  public static OrderResponse from(Order order) {
+    return new OrderResponse(order.getId(), order.getOrderNumber(),
+            order.getStatus(), order.getTotalAmount(), order.getCreatedAt());
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.enums.OrderStatus;
+
+// currentStatus is null when the order does not exist
+public record OrderTransitionReject(Long orderId, OrderStatus currentStatus,
+                                    String reason) {
+}
@@ -0,0 +1,17 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.enums.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record OrderTransitionRequest(
+        @NotEmpty(message = "Order ids cannot be empty")
+        @Size(max = 100000, message = "At most 100000 orders per request")
+        List<@NotNull Long> orderIds,
+
+        @NotNull(message = "Target status cannot be null")
+        OrderStatus targetStatus) {
+}
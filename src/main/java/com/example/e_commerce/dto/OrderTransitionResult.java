@@ -0,0 +1,7 @@
+package com.example.e_commerce.dto;
+
+import java.util.List;
+
+public record OrderTransitionResult(int updated,
+                                    List<OrderTransitionReject> rejected) {
+}
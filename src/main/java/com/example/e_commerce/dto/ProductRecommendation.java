@@ -0,0 +1,19 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.recommendation.Neighbours;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record ProductRecommendation(long productId, float score) {
+  public static List<ProductRecommendation> from(Neighbours neighbours,
+                                                 int limit) {
+    int size = Math.min(limit, neighbours.size());
+    List<ProductRecommendation> recommendations = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      recommendations.add(new ProductRecommendation(neighbours.productId(i),
+              neighbours.score(i)));
+    }
+    return recommendations;
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.model.Product;
+
+import java.math.BigDecimal;
+
+// Catalog read model: what list and detail views need, without description
+public record ProductSummary(Long id, String sku, String name, BigDecimal price,
+                             boolean inStock, String category,
+                             boolean active) {
+  public static ProductSummary from(Product product) {
+    return new ProductSummary(product.getId(), product.getSku(),
+            product.getName(), product.getPrice(),
+            product.getStockQuantity() > 0, product.getCategory(),
+            product.isActive());
+  }
+}
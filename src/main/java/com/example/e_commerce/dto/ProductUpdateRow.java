@@ -0,0 +1,19 @@
+package com.example.e_commerce.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import java.math.BigDecimal;
+
+// A null price or stockQuantity leaves that column unchanged
+public record ProductUpdateRow(
+        @NotBlank(message = "SKU cannot be blank")
+        String sku,
+
+        @DecimalMin(value = "0.01", message = "Price must be greater then 0")
+        BigDecimal price,
+
+        @Min(value = 0, message = "Stock quantity cannot be negative")
+        Integer stockQuantity) {
+}
@@ -0,0 +1,17 @@
+package com.example.e_commerce.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record PurchaseRequest(
+        @NotNull(message = "User id cannot be null")
+        Long userId,
+
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Max(value = 1000, message = "Quantity must be at most 1000")
+        int quantity,
+
+        // One of the user's addresses; needed to ship from a warehouse
+        Long shippingAddressId) {
+}
@@ -0,0 +1,30 @@
+package com.example.e_commerce.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record RegistrationRequest(
+        @NotBlank(message = "Email cannot be blank")
+        @Email
+        @Size(max = 255)
+        String email,
+
+        @NotBlank(message = "Password cannot be blank")
+        @Size(min = 8, max = 128,
+                message = "Password must be between 8 and 128 characters")
+        String password,
+
+        @NotBlank(message = "First name cannot be blank")
+        @Size(min = 3, max = 100,
+                message = "First name must be between 3 and 100 characters")
+        String firstName,
+
+        @NotBlank(message = "Last name cannot be blank")
+        @Size(min = 3, max = 100,
+                message = "Last name must be between 3 and 100 characters")
+        String lastName,
+
+        @Size(max = 20, message = "Phone number must be less than 20 numbers")
+        String phoneNumber) {
+}
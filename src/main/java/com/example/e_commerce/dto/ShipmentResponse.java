@@ -0,0 +1,9 @@
+package com.example.e_commerce.dto;
+
+import java.util.List;
+
+public record ShipmentResponse(long warehouseId, String warehouseCode,
+                               List<Line> lines) {
+  public record Line(long productId, int quantity) {
+  }
+}
@@ -0,0 +1,6 @@
+package com.example.e_commerce.dto;
+
+import java.time.LocalDateTime;
+
+public record StockLevel(long productId, int quantity, LocalDateTime at) {
+}
@@ -0,0 +1,29 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.enums.StockMovementType;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Set;
+
+// A manual stock change. Restocks and returns add stock, adjustments are
+// signed; purchases and reservations only come from their own flows.
+public record StockMovementRequest(
+        @NotNull(message = "Movement type cannot be null")
+        StockMovementType type,
+
+        int quantity) {
+  private static final Set<StockMovementType> MANUAL = Set.of(
+          StockMovementType.RESTOCK, StockMovementType.RETURN,
+          StockMovementType.ADJUSTMENT);
+
+  @AssertTrue(message = "Only RESTOCK, RETURN and ADJUSTMENT can be recorded")
+  public boolean isManual() {
+    return type == null || MANUAL.contains(type);
+  }
+
+  @AssertTrue(message = "Quantity must be positive, or non-zero for ADJUSTMENT")
+  public boolean isQuantityValid() {
+    return type == StockMovementType.ADJUSTMENT ? quantity != 0 : quantity > 0;
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.search.IndexedProduct;
+
+public record Suggestion(long productId, String name, String sku) {
+  public static Suggestion from(IndexedProduct product) {
+    return new Suggestion(product.id(), product.name(), product.sku());
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.e_commerce.dto;
+
+import com.example.e_commerce.enums.UserRole;
+import com.example.e_commerce.model.User;
+
+public record UserResponse(Long id, String email, String firstName,
+                           String lastName, UserRole role) {
+  public static UserResponse from(User user) {
+    return new UserResponse(user.getId(), user.getEmail(),
+            user.getFirstName(), user.getLastName(), user.getRole());
+  }
+}
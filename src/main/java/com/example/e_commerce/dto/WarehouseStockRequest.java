@@ -0,0 +1,13 @@
+package com.example.e_commerce.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// An absolute level, as counted in the warehouse
+public record WarehouseStockRequest(
+        @NotNull(message = "Product id cannot be null")
+        Long productId,
+
+        @Min(value = 0, message = "Quantity cannot be negative")
+        int quantity) {
+}
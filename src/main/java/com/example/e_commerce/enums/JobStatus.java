@@ -0,0 +1,8 @@
+package com.example.e_commerce.enums;
+
+// Succeeded jobs are deleted, so there is no status for them
+public enum JobStatus {
+  PENDING,
+  RUNNING,
+  FAILED
+}
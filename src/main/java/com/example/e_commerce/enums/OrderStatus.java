@@ -0,0 +1,58 @@
+package com.example.e_commerce.enums;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// PENDING -> PAYMENT_PROCESSING -> PAID -> SHIPPED -> DELIVERED, with
+// cancellation before payment and refunds after it. A failed payment goes
+// back to PENDING. CANCELLED and REFUNDED are final.
+public enum OrderStatus {
+  PENDING,
+  PAYMENT_PROCESSING,
+  PAID,
+  SHIPPED,
+  DELIVERED,
+  CANCELLED,
+  REFUNDED;
+
+  private static final Map<OrderStatus, Set<OrderStatus>> NEXT =
+          new EnumMap<>(OrderStatus.class);
+  private static final Map<OrderStatus, Set<OrderStatus>> PREVIOUS =
+          new EnumMap<>(OrderStatus.class);
+
+  static {
+    NEXT.put(PENDING, EnumSet.of(PAYMENT_PROCESSING, CANCELLED));
+    NEXT.put(PAYMENT_PROCESSING, EnumSet.of(PAID, PENDING, CANCELLED));
+    NEXT.put(PAID, EnumSet.of(SHIPPED, REFUNDED));
+    NEXT.put(SHIPPED, EnumSet.of(DELIVERED, REFUNDED));
+    NEXT.put(DELIVERED, EnumSet.of(REFUNDED));
+    NEXT.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+    NEXT.put(REFUNDED, EnumSet.noneOf(OrderStatus.class));
+
+    for (OrderStatus status : values()) {
+      PREVIOUS.put(status, EnumSet.noneOf(OrderStatus.class));
+    }
+    NEXT.forEach((from, targets) ->
+            targets.forEach(to -> PREVIOUS.get(to).add(from)));
+  }
+
+  public boolean canTransitionTo(OrderStatus target) {
+    return NEXT.get(this).contains(target);
+  }
+
+  public Set<OrderStatus> allowedNext() {
+    return Collections.unmodifiableSet(NEXT.get(this));
+  }
+
+  // States an order may be in to move to this one
+  public Set<OrderStatus> allowedPrevious() {
+    return Collections.unmodifiableSet(PREVIOUS.get(this));
+  }
+
+  public boolean isFinal() {
+    return NEXT.get(this).isEmpty();
+  }
+}
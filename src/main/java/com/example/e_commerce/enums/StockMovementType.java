@@ -0,0 +1,12 @@
+package com.example.e_commerce.enums;
+
+// Purchases and reservations take stock, the others give it back. An
+// adjustment is signed: it moves stock to a counted or imported level.
+public enum StockMovementType {
+  PURCHASE,
+  RESERVATION,
+  RELEASE,
+  RESTOCK,
+  RETURN,
+  ADJUSTMENT
+}
@@ -0,0 +1,26 @@
+package com.example.e_commerce.event;
+
+import com.example.e_commerce.model.Order;
+
+import java.util.List;
+
+// Published inside the transaction that saved the order; listeners that act
+// on committed data use @TransactionalEventListener(AFTER_COMMIT)
+public record OrderPlacedEvent(Long orderId, Long userId, List<Line> lines) {
+  public static OrderPlacedEvent from(Order order) {
+    return new OrderPlacedEvent(order.getId(),
+            order.getUser() != null ? order.getUser().getId() : null,
+            order.getOrderItems().stream()
+                    .map(item -> new Line(item.getProduct().getId(),
+                            item.getProduct().getCategory(),
+                            item.getQuantity()))
+                    .toList());
+  }
+
+  public long[] productIds() {
+    return lines.stream().mapToLong(Line::productId).toArray();
+  }
+
+  public record Line(long productId, String category, int quantity) {
+  }
+}
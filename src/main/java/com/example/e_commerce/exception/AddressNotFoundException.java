@@ -0,0 +1,11 @@
+package com.example.e_commerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class AddressNotFoundException extends RuntimeException {
+  public AddressNotFoundException(Long addressId) {
+    super("Address " + addressId + " does not exist for this user");
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.e_commerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EmailAlreadyRegisteredException extends RuntimeException {
+  public EmailAlreadyRegisteredException(String email) {
+    super("Email " + email + " is already registered");
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.e_commerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+  public InsufficientStockException(Long productId, int requested) {
+    super("Not enough stock for product " + productId + " (requested " +
+            requested + ")");
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.e_commerce.exception;
+
+import com.example.e_commerce.enums.OrderStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidOrderTransitionException extends RuntimeException {
+  public InvalidOrderTransitionException(OrderStatus from, OrderStatus to) {
+    super("Order cannot go from " + from + " to " + to);
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.e_commerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class MissingShippingAddressException extends RuntimeException {
+  public MissingShippingAddressException(Long orderId) {
+    super("Order " + orderId + " has no shipping address to ship to");
+  }
+}
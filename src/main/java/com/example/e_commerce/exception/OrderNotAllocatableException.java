@@ -0,0 +1,13 @@
+package com.example.e_commerce.exception;
+
+import com.example.e_commerce.enums.OrderStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderNotAllocatableException extends RuntimeException {
+  public OrderNotAllocatableException(Long orderId, OrderStatus status) {
+    super("Order " + orderId + " is " + status +
+            ", only PAID orders are allocated to warehouses");
+  }
+}
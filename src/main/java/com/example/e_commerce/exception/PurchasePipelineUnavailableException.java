@@ -0,0 +1,11 @@
+package com.example.e_commerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PurchasePipelineUnavailableException extends RuntimeException {
+  public PurchasePipelineUnavailableException(String reason) {
+    super("Purchase could not be queued: " + reason);
+  }
+}
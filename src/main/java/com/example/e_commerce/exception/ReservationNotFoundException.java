@@ -0,0 +1,12 @@
+package com.example.e_commerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReservationNotFoundException extends RuntimeException {
+  public ReservationNotFoundException(Long reservationId) {
+    super("Stock reservation " + reservationId +
+            " does not exist or has already expired");
+  }
+}
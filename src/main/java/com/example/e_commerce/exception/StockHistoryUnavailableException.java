@@ -0,0 +1,15 @@
+package com.example.e_commerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDateTime;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class StockHistoryUnavailableException extends RuntimeException {
+  public StockHistoryUnavailableException(LocalDateTime at,
+                                          LocalDateTime oldest) {
+    super("Stock history before " + oldest + " is no longer kept (asked " +
+            "for " + at + ")");
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.e_commerce.export;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+// Checked at startup: clearEvery is a divisor and fetchSize 0 would make
+// the driver read the whole table into memory
+@Validated
+@ConfigurationProperties(prefix = "app.export")
+public record CatalogExportProperties(
+        // Rows the JDBC driver pulls per round trip from the server cursor
+        @DefaultValue("500") @Positive int fetchSize,
+        // Persistence context is cleared (and output flushed) every N rows
+        @DefaultValue("1000") @Positive int clearEvery) {
+}
@@ -0,0 +1,79 @@
+package com.example.e_commerce.export;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.stock.StockLedger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Streams the whole catalog from a forward-only server-side cursor. Heap use
+// is bounded by fetchSize + clearEvery rows, independent of catalog size.
+@Service
+@Workload(WorkloadClass.ADMIN)
+public class CatalogExportService {
+  // Stock as the ledger has it; products.stock_quantity trails it until the
+  // next compaction
+  private static final String EXPORT_SQL = "SELECT {p.*}, " +
+          StockLedger.LEVEL + " AS ledger_stock FROM products p " +
+          StockLedger.LEVEL_JOIN + "ORDER BY p.id";
+
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+  private final CatalogExportProperties properties;
+
+  public CatalogExportService(EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              CatalogExportProperties properties) {
+    this.entityManager = entityManager;
+    this.objectMapper = objectMapper;
+    this.properties = properties;
+  }
+
+  // PostgreSQL only uses a cursor for fetchSize inside a transaction
+  @Transactional(readOnly = true)
+  public long export(ExportFormat format, OutputStream out) throws IOException {
+    Session session = entityManager.unwrap(Session.class);
+    long rows = 0;
+
+    try (ProductRowWriter writer = createWriter(format, out);
+         ScrollableResults<Object[]> products = session
+                 .createNativeQuery(EXPORT_SQL, Object[].class)
+                 .addEntity("p", Product.class)
+                 .addScalar("ledger_stock", StandardBasicTypes.INTEGER)
+                 .setReadOnly(true)
+                 .setFetchSize(properties.fetchSize())
+                 .setCacheable(false)
+                 .scroll(ScrollMode.FORWARD_ONLY)) {
+      writer.writeHeader();
+      while (products.next()) {
+        Object[] row = products.get();
+        writer.write((Product) row[0], (Integer) row[1]);
+        if (++rows % properties.clearEvery() == 0) {
+          // Drop the exported entities so the persistence context stays small
+          session.clear();
+          writer.flush();
+        }
+      }
+      writer.flush();
+    }
+    return rows;
+  }
+
+  private ProductRowWriter createWriter(ExportFormat format, OutputStream out)
+          throws IOException {
+    return switch (format) {
+      case NDJSON -> new NdjsonProductRowWriter(objectMapper.getFactory(), out);
+      case CSV -> new CsvProductRowWriter(out);
+    };
+  }
+}
@@ -0,0 +1,88 @@
+package com.example.e_commerce.export;
+
+import com.example.e_commerce.model.Product;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// RFC 4180 CSV: fields containing separators, quotes or line breaks are
+// quoted and embedded quotes are doubled
+public class CsvProductRowWriter implements ProductRowWriter {
+  private static final String HEADER =
+          "id,sku,name,description,price,stockQuantity,category,active,updatedAt";
+
+  private final Writer writer;
+
+  public CsvProductRowWriter(OutputStream out) {
+    this.writer = new BufferedWriter(
+            new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+  }
+
+  @Override
+  public void writeHeader() throws IOException {
+    writer.write(HEADER);
+    writer.write("\r\n");
+  }
+
+  @Override
+  public void write(Product product, int stockQuantity) throws IOException {
+    writer.write(String.valueOf(product.getId()));
+    writer.write(',');
+    writeField(product.getSku());
+    writer.write(',');
+    writeField(product.getName());
+    writer.write(',');
+    writeField(product.getDescription());
+    writer.write(',');
+    writer.write(product.getPrice() != null
+            ? product.getPrice().toPlainString() : "");
+    writer.write(',');
+    writer.write(String.valueOf(stockQuantity));
+    writer.write(',');
+    writeField(product.getCategory());
+    writer.write(',');
+    writer.write(String.valueOf(product.isActive()));
+    writer.write(',');
+    writeField(product.getUpdatedAt() != null
+            ? product.getUpdatedAt().toString() : null);
+    writer.write("\r\n");
+  }
+
+  private void writeField(String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        writer.write('"');
+      }
+      writer.write(c);
+    }
+    writer.write('"');
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.flush();
+  }
+}
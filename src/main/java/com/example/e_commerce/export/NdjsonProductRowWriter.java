@@ -0,0 +1,53 @@
+package com.example.e_commerce.export;
+
+import com.example.e_commerce.model.Product;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Uses the streaming generator directly so no intermediate Map or tree is
+// built per product
+public class NdjsonProductRowWriter implements ProductRowWriter {
+  private final JsonGenerator generator;
+
+  public NdjsonProductRowWriter(JsonFactory jsonFactory, OutputStream out)
+          throws IOException {
+    this.generator = jsonFactory.createGenerator(out);
+    this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  @Override
+  public void writeHeader() {
+    // NDJSON has no header
+  }
+
+  @Override
+  public void write(Product product, int stockQuantity) throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", product.getId());
+    generator.writeStringField("sku", product.getSku());
+    generator.writeStringField("name", product.getName());
+    generator.writeStringField("description", product.getDescription());
+    generator.writeNumberField("price", product.getPrice());
+    generator.writeNumberField("stockQuantity", stockQuantity);
+    generator.writeStringField("category", product.getCategory());
+    generator.writeBooleanField("active", product.isActive());
+    generator.writeStringField("updatedAt",
+            product.getUpdatedAt() != null
+                    ? product.getUpdatedAt().toString() : null);
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+
+  @Override
+  public void flush() throws IOException {
+    generator.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.e_commerce.export;
+
+import com.example.e_commerce.model.Product;
+
+import java.io.IOException;
+
+// Writes one product per row straight to the response; implementations must
+// not buffer more than the current row
+public interface ProductRowWriter extends AutoCloseable {
+  void writeHeader() throws IOException;
+
+  // stockQuantity is the ledger level, which the entity's copy may trail
+  void write(Product product, int stockQuantity) throws IOException;
+
+  void flush() throws IOException;
+
+  @Override
+  void close() throws IOException;
+}
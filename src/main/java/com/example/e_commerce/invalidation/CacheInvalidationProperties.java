@@ -0,0 +1,18 @@
+package com.example.e_commerce.invalidation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.cache-invalidation")
+public record CacheInvalidationProperties(
+        @DefaultValue("true") boolean enabled,
+        // Must match the channel used by the notify_cache_invalidation trigger
+        @DefaultValue("cache_invalidation") String channel,
+        @DefaultValue("PT1S") Duration pollTimeout,
+        @DefaultValue("PT5S") Duration reconnectDelay,
+        @DefaultValue("PT0.1S") Duration coalesceWindow,
+        // More distinct ids than this in one window drops the whole table
+        @DefaultValue("10000") int maxCoalescedIds) {
+}
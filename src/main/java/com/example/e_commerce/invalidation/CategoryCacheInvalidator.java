@@ -0,0 +1,50 @@
+package com.example.e_commerce.invalidation;
+
+import com.example.e_commerce.config.CacheNames;
+import com.example.e_commerce.model.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Component
+public class CategoryCacheInvalidator implements InvalidationHandler {
+  private static final String SUBCATEGORIES_ROLE =
+          Category.class.getName() + ".subcategories";
+
+  private final Cache cache;
+
+  public CategoryCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+    this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+  }
+
+  @Override
+  public String table() {
+    return "category";
+  }
+
+  // The notification does not say which parent a row moved from or to, so
+  // all children collections and listings go along with the row itself
+  @Override
+  public void invalidate(long id) {
+    cache.evictEntityData(Category.class, id);
+    cache.evictCollectionData(SUBCATEGORIES_ROLE);
+    cache.evictQueryRegion(CacheNames.CATEGORY_LISTINGS);
+  }
+
+  @Override
+  public void invalidate(Collection<Long> ids) {
+    ids.forEach(id -> cache.evictEntityData(Category.class, id));
+    cache.evictCollectionData(SUBCATEGORIES_ROLE);
+    cache.evictQueryRegion(CacheNames.CATEGORY_LISTINGS);
+  }
+
+  @Override
+  public void invalidateAll() {
+    cache.evictEntityData(Category.class);
+    cache.evictCollectionData(SUBCATEGORIES_ROLE);
+    cache.evictQueryRegion(CacheNames.CATEGORY_LISTINGS);
+  }
+}
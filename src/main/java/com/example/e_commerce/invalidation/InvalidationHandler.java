@@ -0,0 +1,20 @@
+package com.example.e_commerce.invalidation;
+
+import java.util.Collection;
+
+// Evicts locally cached state for one table when another node (or this one)
+// changes rows in it
+public interface InvalidationHandler {
+  String table();
+
+  void invalidate(long id);
+
+  // Every id changed within one coalescing window, each listed once
+  default void invalidate(Collection<Long> ids) {
+    ids.forEach(this::invalidate);
+  }
+
+  // Called after the listener reconnects: notifications sent while it was
+  // away are lost, so everything cached for the table is suspect
+  void invalidateAll();
+}
@@ -0,0 +1,106 @@
+package com.example.e_commerce.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Collects '<table>:<id>' notifications for a short window, so a burst of
+// writes to the same rows (a bulk update, a busy product) costs each node
+// one eviction per row. A table with more distinct ids than maxIds in one
+// window, or an unparsable id, is invalidated as a whole instead.
+// Only used by the listener thread.
+class NotificationCoalescer {
+  private static final Logger log =
+          LoggerFactory.getLogger(NotificationCoalescer.class);
+
+  private final long windowNanos;
+  private final int maxIds;
+  private final Map<String, Set<Long>> idsByTable = new HashMap<>();
+  private final Set<String> wholeTables = new HashSet<>();
+  private long firstAddedAt;
+
+  NotificationCoalescer(Duration window, int maxIds) {
+    this.windowNanos = window.toNanos();
+    this.maxIds = maxIds;
+  }
+
+  void add(String payload, long nanoTime) {
+    int separator = payload.indexOf(':');
+    if (separator <= 0) {
+      log.debug("Ignoring cache invalidation {}", payload);
+      return;
+    }
+    if (isEmpty()) {
+      firstAddedAt = nanoTime;
+    }
+    String table = payload.substring(0, separator);
+    if (wholeTables.contains(table)) {
+      return;
+    }
+    long id;
+    try {
+      id = Long.parseLong(payload.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      invalidateWhole(table);
+      return;
+    }
+    Set<Long> ids = idsByTable.computeIfAbsent(table,
+            key -> new LinkedHashSet<>());
+    ids.add(id);
+    if (ids.size() > maxIds) {
+      invalidateWhole(table);
+    }
+  }
+
+  boolean isEmpty() {
+    return idsByTable.isEmpty() && wholeTables.isEmpty();
+  }
+
+  // How long the oldest buffered notification may still wait, 0 when due
+  long nanosUntilDue(long nanoTime) {
+    return Math.max(0, firstAddedAt + windowNanos - nanoTime);
+  }
+
+  void flushTo(Map<String, InvalidationHandler> handlers) {
+    wholeTables.forEach(table -> {
+      InvalidationHandler handler = handlers.get(table);
+      if (handler != null) {
+        run(table, handler::invalidateAll);
+      }
+    });
+    idsByTable.forEach((table, ids) -> {
+      InvalidationHandler handler = handlers.get(table);
+      if (handler == null) {
+        log.debug("Ignoring cache invalidations for {}", table);
+      } else {
+        run(table, () -> handler.invalidate(ids));
+      }
+    });
+    clear();
+  }
+
+  void clear() {
+    idsByTable.clear();
+    wholeTables.clear();
+  }
+
+  private void invalidateWhole(String table) {
+    idsByTable.remove(table);
+    wholeTables.add(table);
+  }
+
+  // One failing handler must not stop the others, or the listener
+  private static void run(String table, Runnable invalidation) {
+    try {
+      invalidation.run();
+    } catch (RuntimeException e) {
+      log.warn("Cache invalidation for {} failed", table, e);
+    }
+  }
+}
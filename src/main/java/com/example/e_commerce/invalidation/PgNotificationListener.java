@@ -0,0 +1,142 @@
+package com.example.e_commerce.invalidation;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Cross-node cache invalidation over PostgreSQL LISTEN/NOTIFY. Triggers
+// publish '<table>:<id>' on the channel after each committed write; every
+// node listens on its own connection, outside the pool, because LISTEN
+// holds it for the lifetime of the application. Notifications are coalesced
+// for app.cache-invalidation.coalesce-window before the handlers run.
+@Component
+@ConditionalOnProperty(prefix = "app.cache-invalidation", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class PgNotificationListener implements SmartLifecycle {
+  private static final Logger log =
+          LoggerFactory.getLogger(PgNotificationListener.class);
+
+  private final DataSourceProperties dataSourceProperties;
+  private final CacheInvalidationProperties properties;
+  private final Map<String, InvalidationHandler> handlers;
+  private final NotificationCoalescer coalescer;
+  private volatile boolean running;
+  private Thread worker;
+
+  public PgNotificationListener(DataSourceProperties dataSourceProperties,
+                                CacheInvalidationProperties properties,
+                                List<InvalidationHandler> handlers) {
+    this.dataSourceProperties = dataSourceProperties;
+    this.properties = properties;
+    this.handlers = handlers.stream().collect(Collectors.toMap(
+            InvalidationHandler::table, Function.identity()));
+    this.coalescer = new NotificationCoalescer(properties.coalesceWindow(),
+            properties.maxCoalescedIds());
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    worker = new Thread(this::run, "pg-cache-invalidation");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (worker != null) {
+      worker.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void run() {
+    boolean reconnect = false;
+    while (running) {
+      try (Connection connection = connect()) {
+        // Anything sent while disconnected was missed, drop it all. This
+        // also covers whatever was still buffered when the connection died.
+        if (reconnect) {
+          coalescer.clear();
+          handlers.values().forEach(InvalidationHandler::invalidateAll);
+        }
+        reconnect = true;
+        listen(connection);
+      } catch (SQLException e) {
+        if (running) {
+          log.warn("Cache invalidation listener lost its connection, " +
+                  "reconnecting in {}", properties.reconnectDelay(), e);
+        }
+      }
+      sleep();
+    }
+  }
+
+  private Connection connect() throws SQLException {
+    Connection connection = DriverManager.getConnection(
+            dataSourceProperties.determineUrl(),
+            dataSourceProperties.determineUsername(),
+            dataSourceProperties.determinePassword());
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("LISTEN " + properties.channel());
+    } catch (SQLException e) {
+      connection.close();
+      throw e;
+    }
+    log.info("Listening for cache invalidations on channel {}",
+            properties.channel());
+    return connection;
+  }
+
+  private void listen(Connection connection) throws SQLException {
+    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+    long pollMillis = properties.pollTimeout().toMillis();
+    while (running) {
+      // Wait no longer than the oldest buffered notification may; 0 would
+      // block until the next notification
+      long timeoutMillis = coalescer.isEmpty() ? pollMillis
+              : coalescer.nanosUntilDue(System.nanoTime()) / 1_000_000;
+      PGNotification[] notifications = pgConnection.getNotifications(
+              (int) Math.max(1, timeoutMillis));
+      if (notifications != null) {
+        for (PGNotification notification : notifications) {
+          coalescer.add(notification.getParameter(), System.nanoTime());
+        }
+      }
+      if (!coalescer.isEmpty() &&
+              coalescer.nanosUntilDue(System.nanoTime()) == 0) {
+        coalescer.flushTo(handlers);
+      }
+    }
+  }
+
+  private void sleep() {
+    if (!running) {
+      return;
+    }
+    try {
+      Thread.sleep(properties.reconnectDelay());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.e_commerce.invalidation;
+
+import com.example.e_commerce.config.CacheNames;
+import com.example.e_commerce.search.FacetedProduct;
+import com.example.e_commerce.search.ProductAutocomplete;
+import com.example.e_commerce.search.ProductFacets;
+import com.example.e_commerce.snapshot.CatalogSnapshotStore;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Keeps this node's product state in step with writes made anywhere: the
+// cached summaries are evicted and the search indexes are patched from the
+// rows as they are now. Bulk updates and stock compaction bypass JPA, so on
+// the node that ran them this is also how the indexes hear about them.
+@Component
+public class ProductCacheInvalidator implements InvalidationHandler {
+  private final CacheManager cacheManager;
+  private final CatalogSnapshotStore snapshotStore;
+  private final JdbcTemplate jdbcTemplate;
+  private final ProductAutocomplete autocomplete;
+  private final ProductFacets facets;
+
+  public ProductCacheInvalidator(CacheManager cacheManager,
+                                 CatalogSnapshotStore snapshotStore,
+                                 JdbcTemplate jdbcTemplate,
+                                 ProductAutocomplete autocomplete,
+                                 ProductFacets facets) {
+    this.cacheManager = cacheManager;
+    this.snapshotStore = snapshotStore;
+    this.jdbcTemplate = jdbcTemplate;
+    this.autocomplete = autocomplete;
+    this.facets = facets;
+  }
+
+  @Override
+  public String table() {
+    return "products";
+  }
+
+  @Override
+  public void invalidate(long id) {
+    invalidate(List.of(id));
+  }
+
+  // One query for the whole window, however many products it touched
+  @Override
+  public void invalidate(Collection<Long> ids) {
+    snapshotStore.invalidateProducts(ids);
+    Cache cache = cacheManager.getCache(CacheNames.PRODUCTS);
+    if (cache != null) {
+      ids.forEach(cache::evict);
+    }
+    Set<Long> deleted = new HashSet<>(ids);
+    jdbcTemplate.query("""
+            SELECT id, name, sku, category, price, stock_quantity, active
+            FROM products WHERE id = ANY (?)
+            """, rs -> {
+      long id = rs.getLong("id");
+      boolean active = rs.getBoolean("active");
+      deleted.remove(id);
+      autocomplete.upsert(id, rs.getString("name"), rs.getString("sku"),
+              active);
+      facets.upsert(new FacetedProduct(id, rs.getString("category"),
+              rs.getBigDecimal("price"), rs.getInt("stock_quantity"),
+              active));
+    }, (Object) ids.toArray(Long[]::new));
+    deleted.forEach(id -> {
+      autocomplete.remove(id);
+      facets.remove(id);
+    });
+  }
+
+  @Override
+  public void invalidateAll() {
+    snapshotStore.invalidateAllProducts();
+    Cache cache = cacheManager.getCache(CacheNames.PRODUCTS);
+    if (cache != null) {
+      cache.clear();
+    }
+    autocomplete.rebuild();
+    facets.rebuild();
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.e_commerce.invalidation;
+
+import com.example.e_commerce.auth.EmailLookup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+// Tells this node's email lookup about users registered, deleted or given a
+// new email anywhere, so its Bloom filter does not turn away someone who
+// signed up through another node.
+@Component
+public class UserEmailInvalidator implements InvalidationHandler {
+  private final EmailLookup emailLookup;
+  private final JdbcTemplate jdbcTemplate;
+
+  public UserEmailInvalidator(EmailLookup emailLookup,
+                              JdbcTemplate jdbcTemplate) {
+    this.emailLookup = emailLookup;
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public String table() {
+    return "users";
+  }
+
+  @Override
+  public void invalidate(long id) {
+    invalidate(List.of(id));
+  }
+
+  @Override
+  public void invalidate(Collection<Long> ids) {
+    emailLookup.evictUsers(ids);
+    jdbcTemplate.query("SELECT id, email FROM users WHERE id = ANY (?)",
+            rs -> {
+              emailLookup.recordRegistration(
+                      EmailLookup.normalize(rs.getString("email")),
+                      rs.getLong("id"));
+            }, (Object) ids.toArray(Long[]::new));
+  }
+
+  @Override
+  public void invalidateAll() {
+    emailLookup.rebuild();
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.e_commerce.job;
+
+// attempts includes the current one; waited is how long the job was due
+// before a worker claimed it
+record ClaimedJob(long id, String type, String payload, int priority,
+                  int attempts, int maxAttempts, double waitedSeconds) {
+}
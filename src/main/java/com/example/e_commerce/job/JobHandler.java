@@ -0,0 +1,10 @@
+package com.example.e_commerce.job;
+
+// Runs the jobs of one type, outside any transaction. Delivery is at least
+// once: a job may run again if its worker dies before recording the result,
+// so handlers must tolerate repeats. Throwing schedules a retry.
+public interface JobHandler<P> {
+  JobType<P> type();
+
+  void handle(P payload) throws Exception;
+}
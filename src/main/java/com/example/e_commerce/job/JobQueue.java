@@ -0,0 +1,170 @@
+package com.example.e_commerce.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The jobs table. enqueue() joins the caller's transaction, so a job exists
+// exactly when the change that caused it committed. Claims, results and
+// lease recovery are single autocommit statements; all times come from the
+// database clock so nodes agree on what is due.
+@Service
+public class JobQueue {
+  private static final String INSERT_SQL = """
+          INSERT INTO jobs (type, payload, priority, status, attempts,
+                            max_attempts, run_at, created_at)
+          VALUES (?, ?, ?, 'PENDING', 0, ?,
+                  localtimestamp + make_interval(secs => ?), localtimestamp)
+          RETURNING id
+          """;
+  // The batch is locked by the subquery, skipping rows other workers hold
+  private static final String CLAIM_SQL = """
+          UPDATE jobs j
+          SET status = 'RUNNING', attempts = j.attempts + 1, locked_by = ?,
+              locked_until = localtimestamp + make_interval(secs => ?)
+          FROM (SELECT id FROM jobs
+                WHERE status = 'PENDING' AND run_at <= localtimestamp
+                ORDER BY priority DESC, run_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED) due
+          WHERE j.id = due.id
+          RETURNING j.id, j.type, j.payload, j.priority, j.attempts,
+                    j.max_attempts,
+                    EXTRACT(EPOCH FROM localtimestamp - j.run_at)
+          """;
+  private static final String RETRY_SQL = """
+          UPDATE jobs
+          SET status = 'PENDING', last_error = ?, locked_by = NULL,
+              locked_until = NULL,
+              run_at = localtimestamp + make_interval(secs => ?)
+          WHERE id = ? AND locked_by = ?
+          """;
+  private static final String FAIL_SQL = """
+          UPDATE jobs
+          SET status = 'FAILED', last_error = ?, locked_by = NULL,
+              locked_until = NULL, finished_at = localtimestamp
+          WHERE id = ? AND locked_by = ?
+          """;
+  // The attempt of a worker that died counts; the job waits no backoff
+  private static final String RESCUE_SQL = """
+          UPDATE jobs
+          SET status = CASE WHEN attempts >= max_attempts
+                            THEN 'FAILED' ELSE 'PENDING' END,
+              finished_at = CASE WHEN attempts >= max_attempts
+                                 THEN localtimestamp END,
+              last_error = 'Lease held by ' || locked_by || ' expired',
+              locked_by = NULL, locked_until = NULL
+          WHERE status = 'RUNNING' AND locked_until < localtimestamp
+          """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final ReentrantLock arrivalLock = new ReentrantLock();
+  private final Condition arrived = arrivalLock.newCondition();
+
+  public JobQueue(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+  }
+
+  public <P> long enqueue(JobType<P> type, P payload) {
+    return enqueue(type, payload, Duration.ZERO);
+  }
+
+  public <P> long enqueue(JobType<P> type, P payload, Duration delay) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Cannot serialize payload of " +
+              type.name(), e);
+    }
+    Long id = jdbcTemplate.queryForObject(INSERT_SQL, Long.class,
+            type.name(), json, type.priority(), type.maxAttempts(),
+            seconds(delay));
+    // Local workers start on it right away instead of at their next poll
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+              new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                  signalArrival();
+                }
+              });
+    } else {
+      signalArrival();
+    }
+    return id;
+  }
+
+  List<ClaimedJob> claim(String workerId, int batchSize, Duration lease) {
+    List<ClaimedJob> jobs = jdbcTemplate.query(CLAIM_SQL,
+            (rs, rowNum) -> new ClaimedJob(rs.getLong(1), rs.getString(2),
+                    rs.getString(3), rs.getInt(4), rs.getInt(5), rs.getInt(6),
+                    rs.getDouble(7)),
+            workerId, seconds(lease), batchSize);
+    // RETURNING does not keep the subquery's order
+    return jobs.stream()
+            .sorted(Comparator.comparingInt(ClaimedJob::priority).reversed()
+                    .thenComparingLong(ClaimedJob::id))
+            .toList();
+  }
+
+  void complete(Collection<Long> ids, String workerId) {
+    if (!ids.isEmpty()) {
+      jdbcTemplate.update("DELETE FROM jobs WHERE id = ANY (?) " +
+              "AND locked_by = ?", ids.toArray(Long[]::new), workerId);
+    }
+  }
+
+  void retry(long id, String workerId, String error, Duration delay) {
+    jdbcTemplate.update(RETRY_SQL, error, seconds(delay), id, workerId);
+  }
+
+  void fail(long id, String workerId, String error) {
+    jdbcTemplate.update(FAIL_SQL, error, id, workerId);
+  }
+
+  int rescueExpiredLeases() {
+    return jdbcTemplate.update(RESCUE_SQL);
+  }
+
+  <P> P payload(ClaimedJob job, JobType<P> type) throws JsonProcessingException {
+    return objectMapper.readValue(job.payload(), type.payloadType());
+  }
+
+  // Lock and condition rather than wait/notify, which would pin a virtual
+  // thread to its carrier
+  void awaitArrival(Duration timeout) throws InterruptedException {
+    arrivalLock.lock();
+    try {
+      arrived.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } finally {
+      arrivalLock.unlock();
+    }
+  }
+
+  void signalArrival() {
+    arrivalLock.lock();
+    try {
+      arrived.signalAll();
+    } finally {
+      arrivalLock.unlock();
+    }
+  }
+
+  private static double seconds(Duration duration) {
+    return duration.toNanos() / 1e9;
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.e_commerce.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.jobs")
+public record JobQueueProperties(
+        // Whether this node runs workers; enqueueing always works
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("4") int workers,
+        @DefaultValue("true") boolean virtualThreads,
+        @DefaultValue("10") int batchSize,
+        // Idle workers look for due jobs this often, or sooner when this
+        // node enqueues one
+        @DefaultValue("PT1S") Duration pollInterval,
+        // A claimed batch not finished by then is given to another worker
+        @DefaultValue("PT5M") Duration lease,
+        @DefaultValue("PT10S") Duration initialBackoff,
+        @DefaultValue("PT1H") Duration maxBackoff,
+        @DefaultValue("PT30S") Duration shutdownTimeout) {
+}
@@ -0,0 +1,12 @@
+package com.example.e_commerce.job;
+
+// A kind of job and the payload it carries, serialized as JSON. Higher
+// priority jobs are claimed first among those due.
+public record JobType<P>(String name, Class<P> payloadType, int priority,
+                         int maxAttempts) {
+  public JobType {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be >= 1");
+    }
+  }
+}
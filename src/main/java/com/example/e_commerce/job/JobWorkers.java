@@ -0,0 +1,194 @@
+package com.example.e_commerce.job;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Worker threads that claim due jobs in batches and run them through the
+// JobHandler for their type. A failed job is retried after an exponential
+// backoff until it runs out of attempts and is left as FAILED. Per job type
+// it records jobs.execution (by outcome) and jobs.latency, the time a job
+// waited after it was due.
+@Component
+public class JobWorkers implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(JobWorkers.class);
+
+  private final JobQueue jobQueue;
+  private final JobQueueProperties properties;
+  private final Map<String, JobHandler<?>> handlers;
+  private final MeterRegistry meterRegistry;
+  // Workers of all nodes share the table; ids tell their leases apart
+  private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+  private final List<Thread> threads = new ArrayList<>();
+  private volatile boolean running;
+
+  public JobWorkers(JobQueue jobQueue, JobQueueProperties properties,
+                    List<JobHandler<?>> handlers, MeterRegistry meterRegistry) {
+    this.jobQueue = jobQueue;
+    this.properties = properties;
+    this.handlers = handlers.stream().collect(Collectors.toMap(
+            handler -> handler.type().name(), Function.identity()));
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    if (!properties.enabled()) {
+      return;
+    }
+    ThreadFactory factory = properties.virtualThreads()
+            ? Thread.ofVirtual().name("job-worker-", 0).factory()
+            : Thread.ofPlatform().name("job-worker-", 0).daemon().factory();
+    for (int i = 0; i < properties.workers(); i++) {
+      String workerId = nodeId + "-" + i;
+      Thread thread = factory.newThread(() -> work(workerId));
+      threads.add(thread);
+      thread.start();
+    }
+    log.info("Started {} job workers for {}", threads.size(),
+            handlers.keySet());
+  }
+
+  // Lets the current batches finish, within shutdownTimeout, before the
+  // DataSource closes
+  @Override
+  public void stop() {
+    running = false;
+    jobQueue.signalArrival();
+    long deadline = System.nanoTime() +
+            properties.shutdownTimeout().toNanos();
+    for (Thread thread : threads) {
+      try {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 ||
+                !thread.join(Duration.ofNanos(remaining))) {
+          thread.interrupt();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    threads.clear();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Stopped after the web server lifecycles, like the login recorder
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+
+  @Scheduled(fixedDelayString = "${app.jobs.rescue-interval:PT1M}")
+  public void rescueExpiredLeases() {
+    if (!properties.enabled()) {
+      return;
+    }
+    int rescued = jobQueue.rescueExpiredLeases();
+    if (rescued > 0) {
+      log.warn("Released {} jobs whose worker lease expired", rescued);
+    }
+  }
+
+  // Claims and runs one batch, returning how many jobs it had
+  int processBatch(String workerId) {
+    List<ClaimedJob> jobs = jobQueue.claim(workerId, properties.batchSize(),
+            properties.lease());
+    List<Long> succeeded = new ArrayList<>(jobs.size());
+    for (ClaimedJob job : jobs) {
+      meterRegistry.timer("jobs.latency", "type", job.type())
+              .record(Math.max(0, (long) (job.waitedSeconds() * 1e9)),
+                      TimeUnit.NANOSECONDS);
+      long start = System.nanoTime();
+      String outcome = run(job, workerId);
+      meterRegistry.timer("jobs.execution", "type", job.type(),
+              "outcome", outcome)
+              .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      if (outcome.equals("success")) {
+        succeeded.add(job.id());
+      }
+    }
+    jobQueue.complete(succeeded, workerId);
+    return jobs.size();
+  }
+
+  // base * 2^(attempt - 1), capped at maxBackoff
+  static Duration backoff(int attempt, Duration base, Duration max) {
+    int doublings = Math.min(Math.max(attempt - 1, 0), 30);
+    Duration delay = base.multipliedBy(1L << doublings);
+    return delay.compareTo(max) > 0 ? max : delay;
+  }
+
+  private String run(ClaimedJob job, String workerId) {
+    JobHandler<?> handler = handlers.get(job.type());
+    try {
+      if (handler == null) {
+        // Possibly a type only newer nodes know about; give it to them
+        throw new IllegalStateException("No handler for job type " +
+                job.type());
+      }
+      handle(handler, job);
+      return "success";
+    } catch (Exception e) {
+      String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+      if (job.attempts() >= job.maxAttempts()) {
+        log.error("Job {} ({}) failed for good after {} attempts", job.id(),
+                job.type(), job.attempts(), e);
+        jobQueue.fail(job.id(), workerId, error);
+        return "failed";
+      }
+      Duration delay = backoff(job.attempts(), properties.initialBackoff(),
+              properties.maxBackoff());
+      log.warn("Job {} ({}) failed, attempt {} of {}, retrying in {}",
+              job.id(), job.type(), job.attempts(), job.maxAttempts(), delay,
+              e);
+      jobQueue.retry(job.id(), workerId, error, delay);
+      return "retry";
+    }
+  }
+
+  private <P> void handle(JobHandler<P> handler, ClaimedJob job)
+          throws Exception {
+    handler.handle(jobQueue.payload(job, handler.type()));
+  }
+
+  private void work(String workerId) {
+    while (running) {
+      try {
+        if (processBatch(workerId) == 0) {
+          jobQueue.awaitArrival(properties.pollInterval());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        // Typically the database being unreachable; try again later
+        log.warn("Job worker {} failed to claim or record jobs", workerId, e);
+        try {
+          Thread.sleep(properties.pollInterval().toMillis());
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+}
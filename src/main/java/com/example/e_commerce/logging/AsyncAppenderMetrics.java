@@ -0,0 +1,43 @@
+package com.example.e_commerce.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+// Publishes logging.async.dropped and logging.async.queue.depth for every
+// DroppingAsyncAppender configured in logback-spring.xml
+@Component
+public class AsyncAppenderMetrics implements MeterBinder {
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+      return;
+    }
+    for (Logger logger : context.getLoggerList()) {
+      Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders();
+      while (it.hasNext()) {
+        if (it.next() instanceof DroppingAsyncAppender appender) {
+          FunctionCounter.builder("logging.async.dropped", appender,
+                          DroppingAsyncAppender::getDroppedCount)
+                  .tag("appender", appender.getName())
+                  .description("Log events dropped because the queue was full")
+                  .register(registry);
+          Gauge.builder("logging.async.queue.depth", appender,
+                          DroppingAsyncAppender::getQueueDepth)
+                  .tag("appender", appender.getName())
+                  .register(registry);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package com.example.e_commerce.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Async appender that does not make request threads wait for the disk.
+// Events go into a bounded array-backed ring; when it is full, INFO and
+// below are dropped and counted. WARN and above are never dropped: the
+// logging thread waits up to maxBlockMillis for room and otherwise writes
+// the event itself, out of order with what is still queued. A single worker
+// drains the ring in batches into the attached appenders.
+public class DroppingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+  private final AppenderAttachableImpl<ILoggingEvent> appenders =
+          new AppenderAttachableImpl<>();
+  private final LongAdder dropped = new LongAdder();
+
+  private int queueSize = 8192;
+  private int maxBatchSize = 256;
+  private int maxFlushTimeMillis = 1000;
+  private int maxBlockMillis = 100;
+  private boolean includeCallerData;
+
+  private ArrayBlockingQueue<ILoggingEvent> queue;
+  private Thread worker;
+
+  public void setQueueSize(int queueSize) {
+    this.queueSize = queueSize;
+  }
+
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public void setMaxFlushTimeMillis(int maxFlushTimeMillis) {
+    this.maxFlushTimeMillis = maxFlushTimeMillis;
+  }
+
+  public void setMaxBlockMillis(int maxBlockMillis) {
+    this.maxBlockMillis = maxBlockMillis;
+  }
+
+  public void setIncludeCallerData(boolean includeCallerData) {
+    this.includeCallerData = includeCallerData;
+  }
+
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  public int getQueueDepth() {
+    return queue != null ? queue.size() : 0;
+  }
+
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  @Override
+  public void start() {
+    if (isStarted()) {
+      return;
+    }
+    if (queueSize < 1) {
+      addError("Invalid queue size [" + queueSize + "]");
+      return;
+    }
+    queue = new ArrayBlockingQueue<>(queueSize);
+    super.start();
+    worker = new Thread(this::drain, "logback-async-" + getName());
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    // Capture thread-bound data before the event leaves this thread
+    event.prepareForDeferredProcessing();
+    if (includeCallerData) {
+      event.getCallerData();
+    }
+    if (queue.offer(event)) {
+      return;
+    }
+    if (!event.getLevel().isGreaterOrEqual(Level.WARN)) {
+      dropped.increment();
+      return;
+    }
+    try {
+      if (queue.offer(event, maxBlockMillis, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    appenders.appendLoopOnAppenders(event);
+  }
+
+  private void drain() {
+    List<ILoggingEvent> batch = new ArrayList<>(maxBatchSize);
+    while (isStarted() || !queue.isEmpty()) {
+      try {
+        ILoggingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        for (ILoggingEvent event : batch) {
+          appenders.appendLoopOnAppenders(event);
+        }
+        batch.clear();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (!isStarted()) {
+      return;
+    }
+    super.stop();
+    try {
+      // Give the worker a bounded amount of time to write what is queued
+      worker.join(maxFlushTimeMillis);
+      if (worker.isAlive()) {
+        addWarn("Worker did not finish within " + maxFlushTimeMillis +
+                "ms, " + queue.size() + " events discarded");
+        worker.interrupt();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (getDroppedCount() > 0) {
+      addInfo("Dropped " + getDroppedCount() + " events because the queue was full");
+    }
+    appenders.detachAndStopAllAppenders();
+  }
+
+  @Override
+  public void addAppender(Appender<ILoggingEvent> appender) {
+    appenders.addAppender(appender);
+  }
+
+  @Override
+  public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+    return appenders.iteratorForAppenders();
+  }
+
+  @Override
+  public Appender<ILoggingEvent> getAppender(String name) {
+    return appenders.getAppender(name);
+  }
+
+  @Override
+  public boolean isAttached(Appender<ILoggingEvent> appender) {
+    return appenders.isAttached(appender);
+  }
+
+  @Override
+  public void detachAndStopAllAppenders() {
+    appenders.detachAndStopAllAppenders();
+  }
+
+  @Override
+  public boolean detachAppender(Appender<ILoggingEvent> appender) {
+    return appenders.detachAppender(appender);
+  }
+
+  @Override
+  public boolean detachAppender(String name) {
+    return appenders.detachAppender(name);
+  }
+}
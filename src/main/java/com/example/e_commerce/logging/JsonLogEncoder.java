@@ -0,0 +1,174 @@
+package com.example.e_commerce.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+
+// One JSON object per line:
+// {"timestamp":"...","level":"INFO","thread":"...","logger":"...",
+//  "message":"...","mdc":{...},"exception":"..."}
+//
+// UTF-8 bytes are written straight into a per-thread buffer that is reused
+// across events, and the second-resolution timestamp prefix is cached, so
+// the only allocation per event is the returned byte[] (plus the formatted
+// message, which logback itself produces).
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+  private static final byte[] EMPTY = new byte[0];
+  private static final DateTimeFormatter SECONDS =
+          DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")
+                  .withZone(ZoneOffset.UTC);
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  // Buffers that grew past this size are not kept for the next event
+  private int maxRetainedBufferSize = 64 * 1024;
+
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+  public void setMaxRetainedBufferSize(int maxRetainedBufferSize) {
+    this.maxRetainedBufferSize = maxRetainedBufferSize;
+  }
+
+  @Override
+  public byte[] headerBytes() {
+    return EMPTY;
+  }
+
+  @Override
+  public byte[] footerBytes() {
+    return EMPTY;
+  }
+
+  @Override
+  public byte[] encode(ILoggingEvent event) {
+    State s = state.get();
+    s.length = 0;
+
+    s.ascii("{\"timestamp\":\"");
+    s.timestamp(event.getTimeStamp());
+    s.ascii("\",\"level\":\"").ascii(event.getLevel().levelStr);
+    s.ascii("\",\"thread\":");
+    s.string(event.getThreadName());
+    s.ascii(",\"logger\":");
+    s.string(event.getLoggerName());
+    s.ascii(",\"message\":");
+    s.string(event.getFormattedMessage());
+
+    Map<String, String> mdc = event.getMDCPropertyMap();
+    if (mdc != null && !mdc.isEmpty()) {
+      s.ascii(",\"mdc\":{");
+      boolean first = true;
+      for (Map.Entry<String, String> entry : mdc.entrySet()) {
+        if (!first) {
+          s.put((byte) ',');
+        }
+        first = false;
+        s.string(entry.getKey());
+        s.put((byte) ':');
+        s.string(entry.getValue());
+      }
+      s.put((byte) '}');
+    }
+
+    IThrowableProxy throwable = event.getThrowableProxy();
+    if (throwable != null) {
+      s.ascii(",\"exception\":");
+      s.string(ThrowableProxyUtil.asString(throwable));
+    }
+    s.ascii("}\n");
+
+    byte[] result = Arrays.copyOf(s.buffer, s.length);
+    if (s.buffer.length > maxRetainedBufferSize) {
+      state.remove();
+    }
+    return result;
+  }
+
+  private static final class State {
+    private byte[] buffer = new byte[1024];
+    private int length;
+    private long cachedSecond = Long.MIN_VALUE;
+    private byte[] cachedSecondBytes;
+
+    private State put(byte b) {
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      buffer[length++] = b;
+      return this;
+    }
+
+    private State ascii(String value) {
+      for (int i = 0; i < value.length(); i++) {
+        put((byte) value.charAt(i));
+      }
+      return this;
+    }
+
+    private void timestamp(long millis) {
+      long second = Math.floorDiv(millis, 1000);
+      if (second != cachedSecond) {
+        cachedSecond = second;
+        cachedSecondBytes = SECONDS.format(Instant.ofEpochSecond(second))
+                .getBytes(StandardCharsets.US_ASCII);
+      }
+      for (byte b : cachedSecondBytes) {
+        put(b);
+      }
+      int ms = (int) Math.floorMod(millis, 1000);
+      put((byte) '.');
+      put((byte) ('0' + ms / 100));
+      put((byte) ('0' + ms / 10 % 10));
+      put((byte) ('0' + ms % 10));
+      put((byte) 'Z');
+    }
+
+    // JSON string literal, escaped and UTF-8 encoded in one pass
+    private void string(String value) {
+      if (value == null) {
+        ascii("null");
+        return;
+      }
+      put((byte) '"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '"' || c == '\\') {
+          put((byte) '\\').put((byte) c);
+        } else if (c == '\n') {
+          put((byte) '\\').put((byte) 'n');
+        } else if (c == '\r') {
+          put((byte) '\\').put((byte) 'r');
+        } else if (c == '\t') {
+          put((byte) '\\').put((byte) 't');
+        } else if (c < 0x20) {
+          ascii("\\u00").put((byte) HEX[c >> 4]).put((byte) HEX[c & 0xf]);
+        } else if (c < 0x80) {
+          put((byte) c);
+        } else if (c < 0x800) {
+          put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length() &&
+                Character.isLowSurrogate(value.charAt(i + 1))) {
+          int cp = Character.toCodePoint(c, value.charAt(++i));
+          put((byte) (0xf0 | cp >> 18))
+                  .put((byte) (0x80 | cp >> 12 & 0x3f))
+                  .put((byte) (0x80 | cp >> 6 & 0x3f))
+                  .put((byte) (0x80 | cp & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+          put((byte) '?');
+        } else {
+          put((byte) (0xe0 | c >> 12))
+                  .put((byte) (0x80 | c >> 6 & 0x3f))
+                  .put((byte) (0x80 | c & 0x3f));
+        }
+      }
+      put((byte) '"');
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.e_commerce.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.logging.sampling")
+public record LogSamplingProperties(
+        // Fraction of matching requests that log at DEBUG, 0.01 = 1%
+        @DefaultValue("0.01") double rate,
+        @DefaultValue({"/api/orders/**", "/api/products/*/purchase"})
+        List<String> paths) {
+}
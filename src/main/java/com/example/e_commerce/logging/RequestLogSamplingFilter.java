@@ -0,0 +1,52 @@
+package com.example.e_commerce.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Marks a random sample of purchase requests so SampledDebugTurboFilter
+// lets their DEBUG logs through
+@Component
+public class RequestLogSamplingFilter extends OncePerRequestFilter {
+  private final LogSamplingProperties properties;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  public RequestLogSamplingFilter(LogSamplingProperties properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (properties.rate() <= 0) {
+      return true;
+    }
+    String path = request.getRequestURI();
+    return properties.paths().stream()
+            .noneMatch(pattern -> pathMatcher.match(pattern, path));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain)
+          throws ServletException, IOException {
+    if (ThreadLocalRandom.current().nextDouble() >= properties.rate()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    MDC.put(SampledDebugTurboFilter.MDC_KEY, "true");
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(SampledDebugTurboFilter.MDC_KEY);
+    }
+  }
+}
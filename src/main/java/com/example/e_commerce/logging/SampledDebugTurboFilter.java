@@ -0,0 +1,32 @@
+package com.example.e_commerce.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+// Lets DEBUG/TRACE from our own packages through for requests that
+// RequestLogSamplingFilter picked for sampling, regardless of the configured
+// logger level. For INFO and above, or unsampled requests, it stays out of
+// the way and costs one level comparison (plus an MDC read for debug calls).
+public class SampledDebugTurboFilter extends TurboFilter {
+  public static final String MDC_KEY = "logSampled";
+
+  private String loggerPrefix = "com.example.e_commerce";
+
+  public void setLoggerPrefix(String loggerPrefix) {
+    this.loggerPrefix = loggerPrefix;
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level,
+                            String format, Object[] params, Throwable t) {
+    if (level == null || level.levelInt >= Level.INFO_INT ||
+            !logger.getName().startsWith(loggerPrefix)) {
+      return FilterReply.NEUTRAL;
+    }
+    return MDC.get(MDC_KEY) != null ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+  }
+}
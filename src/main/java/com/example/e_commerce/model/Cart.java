@@ -1,4 +1,4 @@
 package com.example.e_commerce.model;
 
-public class Card {
+public class Cart {
 }
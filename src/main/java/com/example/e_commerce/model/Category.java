@@ -1,16 +1,25 @@
 package com.example.e_commerce.model;
 
+import com.example.e_commerce.config.CacheNames;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+// Read on nearly every catalog request and changed rarely, so rows live in
+// the second-level cache; other nodes are told to evict through
+// CategoryCacheInvalidator
 @Entity
 @Table(name = "category")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+        region = CacheNames.CATEGORY)
 public class Category {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,11 +35,22 @@ public class Category {
   @Size(max = 500, message = "Description must be max 500 characters")
   private String description;
 
-  @ManyToOne
+  // Lazy: the parent resolves from the category region, not a join
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(nullable = true)
   private Category parentCategory;
 
-  @OneToMany(mappedBy = "category")
+  @OneToMany(mappedBy = "parentCategory")
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+          region = CacheNames.CATEGORY_CHILDREN)
+  private List<Category> subcategories = new ArrayList<>();
+
+  // Product.category holds the category name, not a foreign key: products
+  // may name a category that has no row, so no constraint is generated
+  @OneToMany(fetch = FetchType.LAZY)
+  @JoinColumn(name = "category", referencedColumnName = "name",
+          insertable = false, updatable = false,
+          foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
   private List<Product> products = new ArrayList<>();
 
   @Column(nullable = false, columnDefinition = "boolean default true")
@@ -82,6 +102,14 @@ public class Category {
     this.parentCategory = parentCategory;
   }
 
+  public List<Category> getSubcategories() {
+    return subcategories;
+  }
+
+  public void setSubcategories(List<Category> subcategories) {
+    this.subcategories = subcategories;
+  }
+
   public List<Product> getProducts() {
     return products;
   }
@@ -118,7 +146,6 @@ public class Category {
             ", description=" + description + '\'' +
             ", parentsCategoryId=" +
             (parentCategory != null ? parentCategory.getId() : null) +
-            ", products=" + products +
             ", active=" + active +
             "}";
   }
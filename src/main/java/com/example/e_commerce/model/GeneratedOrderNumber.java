@@ -0,0 +1,15 @@
+package com.example.e_commerce.model;
+
+import org.hibernate.annotations.ValueGenerationType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Order.orderNumber is filled in when the order is inserted
+@ValueGenerationType(generatedBy = OrderNumberGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+@interface GeneratedOrderNumber {
+}
@@ -0,0 +1,129 @@
+package com.example.e_commerce.model;
+
+import com.example.e_commerce.enums.JobStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// A row of the background job queue. Rows are only written, claimed and
+// deleted by JobQueue, with SQL.
+@Entity
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_pending",
+                columnList = "priority DESC, run_at, id"),
+        @Index(name = "idx_jobs_running_locked_until",
+                columnList = "locked_until")})
+public class Job {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 100)
+  private String type;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String payload;
+
+  @Column(nullable = false)
+  private int priority;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private JobStatus status;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(nullable = false)
+  private int maxAttempts;
+
+  @Column(nullable = false)
+  private LocalDateTime runAt;
+
+  @Column(length = 100)
+  private String lockedBy;
+
+  private LocalDateTime lockedUntil;
+
+  @Column(columnDefinition = "TEXT")
+  private String lastError;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  private LocalDateTime finishedAt;
+
+  protected Job() {
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getPayload() {
+    return payload;
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  public JobStatus getStatus() {
+    return status;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public LocalDateTime getRunAt() {
+    return runAt;
+  }
+
+  public String getLockedBy() {
+    return lockedBy;
+  }
+
+  public LocalDateTime getLockedUntil() {
+    return lockedUntil;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public LocalDateTime getFinishedAt() {
+    return finishedAt;
+  }
+
+  @Override
+  public String toString() {
+    return "Job{id=" + id + ", type='" + type + "', status=" + status +
+            ", attempts=" + attempts + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Job that)) return false;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+}
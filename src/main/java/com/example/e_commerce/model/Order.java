@@ -1,4 +1,255 @@
 package com.example.e_commerce.model;
 
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.exception.InvalidOrderTransitionException;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Stored in a table range-partitioned by created_at (see V2 migration), so
+// created_at is set once and never changes
+@Entity
+@Table(name = "orders")
 public class Order {
+  private static final DateTimeFormatter ORDER_NUMBER_DATE =
+          DateTimeFormatter.ofPattern("yyyyMMdd");
+  private static final String ORDER_NUMBER_CHARS =
+          "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+  // Numbers from before V10 had 5 random characters, so these never equal one
+  private static final int ORDER_NUMBER_MIN_DIGITS = 6;
+
+  // A sequence rather than identity: the id is known before the insert,
+  // which is what the order number is derived from
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id")
+  @SequenceGenerator(name = "orders_id", sequenceName = "orders_id_seq",
+          allocationSize = 50)
+  private Long id;
+
+  // Format: ORD-YYYYMMDD-XXXXXX, the creation date and the id in base 32, so
+  // no two orders share a number
+  @Column(nullable = false, updatable = false, length = 30)
+  @GeneratedOrderNumber
+  private String orderNumber;
+
+  @NotNull(message = "User cannot be null")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(nullable = false)
+  private User user;
+
+  @OneToMany(mappedBy = "order", cascade = CascadeType.ALL,
+          orphanRemoval = true)
+  private List<OrderItem> orderItems = new ArrayList<>();
+
+  @NotNull(message = "Status cannot be null")
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 30)
+  private OrderStatus status = OrderStatus.PENDING;
+
+  @NotNull(message = "Total amount cannot be null")
+  @DecimalMin(value = "0.00", message = "Total amount cannot be negative")
+  @Column(nullable = false, precision = 12, scale = 2)
+  private BigDecimal totalAmount = BigDecimal.ZERO;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  private Address shippingAddress;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  private Address billingAddress;
+
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(nullable = false)
+  private LocalDateTime updatedAt;
+
+  private LocalDateTime paidAt;
+
+  private LocalDateTime shippedAt;
+
+  private LocalDateTime deliveredAt;
+
+  public Order() {
+  }
+
+  public Order(User user, Address shippingAddress, Address billingAddress) {
+    this.user = user;
+    this.shippingAddress = shippingAddress;
+    this.billingAddress = billingAddress;
+  }
+
+  // Moves along the OrderStatus state machine and stamps the milestone
+  public void transitionTo(OrderStatus target) {
+    if (!status.canTransitionTo(target)) {
+      throw new InvalidOrderTransitionException(status, target);
+    }
+    LocalDateTime now = LocalDateTime.now();
+    switch (target) {
+      case PAID -> paidAt = now;
+      case SHIPPED -> shippedAt = now;
+      case DELIVERED -> deliveredAt = now;
+      default -> {
+      }
+    }
+    status = target;
+  }
+
+  public void addItem(OrderItem item) {
+    item.setOrder(this);
+    orderItems.add(item);
+    totalAmount = totalAmount.add(item.getSubtotal());
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getOrderNumber() {
+    return orderNumber;
+  }
+
+  public void setOrderNumber(String orderNumber) {
+    this.orderNumber = orderNumber;
+  }
+
+  public User getUser() {
+    return user;
+  }
+
+  public void setUser(User user) {
+    this.user = user;
+  }
+
+  public List<OrderItem> getOrderItems() {
+    return orderItems;
+  }
+
+  public void setOrderItems(List<OrderItem> orderItems) {
+    this.orderItems = orderItems;
+  }
+
+  public OrderStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(OrderStatus status) {
+    this.status = status;
+  }
+
+  public BigDecimal getTotalAmount() {
+    return totalAmount;
+  }
+
+  public void setTotalAmount(BigDecimal totalAmount) {
+    this.totalAmount = totalAmount;
+  }
+
+  public Address getShippingAddress() {
+    return shippingAddress;
+  }
+
+  public void setShippingAddress(Address shippingAddress) {
+    this.shippingAddress = shippingAddress;
+  }
+
+  public Address getBillingAddress() {
+    return billingAddress;
+  }
+
+  public void setBillingAddress(Address billingAddress) {
+    this.billingAddress = billingAddress;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public LocalDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(LocalDateTime updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public LocalDateTime getPaidAt() {
+    return paidAt;
+  }
+
+  public void setPaidAt(LocalDateTime paidAt) {
+    this.paidAt = paidAt;
+  }
+
+  public LocalDateTime getShippedAt() {
+    return shippedAt;
+  }
+
+  public void setShippedAt(LocalDateTime shippedAt) {
+    this.shippedAt = shippedAt;
+  }
+
+  public LocalDateTime getDeliveredAt() {
+    return deliveredAt;
+  }
+
+  public void setDeliveredAt(LocalDateTime deliveredAt) {
+    this.deliveredAt = deliveredAt;
+  }
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+    updatedAt = createdAt;
+    // Items live in the same monthly partition as their order
+    orderItems.forEach(item -> item.setCreatedAt(createdAt));
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    updatedAt = LocalDateTime.now();
+  }
+
+  static String orderNumber(LocalDateTime createdAt, long id) {
+    StringBuilder suffix = new StringBuilder();
+    for (long rest = id; rest > 0 || suffix.length() < ORDER_NUMBER_MIN_DIGITS;
+         rest >>>= 5) {
+      suffix.append(ORDER_NUMBER_CHARS.charAt((int) (rest & 31)));
+    }
+    return "ORD-" + ORDER_NUMBER_DATE.format(createdAt) + "-" +
+            suffix.reverse();
+  }
+
+  @Override
+  public String toString() {
+    return "Order{id=" + id + ", orderNumber=" + orderNumber + '\'' +
+            ", status=" + status + ", totalAmount=" + totalAmount +
+            ", createdAt=" + createdAt + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Order order)) return false;
+    return Objects.equals(id, order.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
 }
@@ -0,0 +1,138 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "order_items")
+public class OrderItem {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(nullable = false)
+  private Order order;
+
+  @NotNull(message = "Product cannot be null")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(nullable = false)
+  private Product product;
+
+  @Min(value = 1, message = "Quantity must be at least 1")
+  @Column(nullable = false)
+  private int quantity;
+
+  @NotNull(message = "Price at purchase cannot be null")
+  @DecimalMin(value = "0.01", message = "Price must be greater then 0")
+  @Column(nullable = false, precision = 10, scale = 2)
+  private BigDecimal priceAtPurchase;
+
+  @NotNull(message = "Subtotal cannot be null")
+  @Column(nullable = false, precision = 12, scale = 2)
+  private BigDecimal subtotal;
+
+  // Same value as the order's createdAt, it is the partition key
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  public OrderItem() {
+  }
+
+  public OrderItem(Product product, int quantity, BigDecimal priceAtPurchase) {
+    this.product = product;
+    this.quantity = quantity;
+    this.priceAtPurchase = priceAtPurchase;
+    this.subtotal = priceAtPurchase.multiply(BigDecimal.valueOf(quantity));
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Order getOrder() {
+    return order;
+  }
+
+  public void setOrder(Order order) {
+    this.order = order;
+  }
+
+  public Product getProduct() {
+    return product;
+  }
+
+  public void setProduct(Product product) {
+    this.product = product;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(int quantity) {
+    this.quantity = quantity;
+  }
+
+  public BigDecimal getPriceAtPurchase() {
+    return priceAtPurchase;
+  }
+
+  public void setPriceAtPurchase(BigDecimal priceAtPurchase) {
+    this.priceAtPurchase = priceAtPurchase;
+  }
+
+  public BigDecimal getSubtotal() {
+    return subtotal;
+  }
+
+  public void setSubtotal(BigDecimal subtotal) {
+    this.subtotal = subtotal;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  @PrePersist
+  protected void onCreate() {
+    if (createdAt == null) {
+      createdAt = order != null && order.getCreatedAt() != null
+              ? order.getCreatedAt() : LocalDateTime.now();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "OrderItem{id=" + id + ", productId=" +
+            (product != null ? product.getId() : null) + ", quantity=" +
+            quantity + ", priceAtPurchase=" + priceAtPurchase +
+            ", subtotal=" + subtotal + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof OrderItem that)) return false;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.e_commerce.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+// Runs as the insert executes, after @PrePersist set createdAt and the
+// sequence assigned the id
+public class OrderNumberGenerator implements BeforeExecutionGenerator {
+  @Override
+  public Object generate(SharedSessionContractImplementor session,
+                         Object owner, Object currentValue,
+                         EventType eventType) {
+    if (currentValue != null) {
+      return currentValue;
+    }
+    Order order = (Order) owner;
+    return Order.orderNumber(order.getCreatedAt(), order.getId());
+  }
+
+  @Override
+  public EnumSet<EventType> getEventTypes() {
+    return EventTypeSets.INSERT_ONLY;
+  }
+}
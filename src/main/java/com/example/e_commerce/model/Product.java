@@ -1,5 +1,6 @@
 package com.example.e_commerce.model;
 
+import com.example.e_commerce.search.ProductIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -9,6 +10,7 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "products")
+@EntityListeners(ProductIndexListener.class)
 public class Product {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,7 +33,9 @@ public class Product {
 
   @NotNull(message = "Stock quantity cannot be null")
   @Min(value = 0, message = "Stock quantity cannot be negative")
-  @Column(nullable = false)
+  // Initial stock on insert; after that the stock ledger owns it and the
+  // compactor writes it back, so saving a stale entity must not overwrite it
+  @Column(nullable = false, updatable = false)
   private int stockQuantity;
 
   // Stock Keeping Unit
@@ -103,10 +107,6 @@ public class Product {
     return stockQuantity;
   }
 
-  public void setStockQuantity(int stockQuantity) {
-    this.stockQuantity = stockQuantity;
-  }
-
   public String getSku() {
     return sku;
   }
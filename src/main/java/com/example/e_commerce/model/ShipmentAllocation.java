@@ -0,0 +1,79 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Units of one order line shipped from one warehouse. An order split across
+// warehouses has rows for each; inserted by WarehouseAllocationService.
+// order_id has no foreign key, orders is partitioned by created_at.
+@Entity
+@Table(name = "shipment_allocations", indexes = @Index(
+        name = "idx_shipment_allocations_order_id", columnList = "order_id"))
+public class ShipmentAllocation {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "order_id", nullable = false)
+  private Long orderId;
+
+  @Column(name = "warehouse_id", nullable = false)
+  private Long warehouseId;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Column(nullable = false)
+  private int quantity;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  protected ShipmentAllocation() {
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getOrderId() {
+    return orderId;
+  }
+
+  public Long getWarehouseId() {
+    return warehouseId;
+  }
+
+  public Long getProductId() {
+    return productId;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  @Override
+  public String toString() {
+    return "ShipmentAllocation{id=" + id + ", orderId=" + orderId +
+            ", warehouseId=" + warehouseId + ", productId=" + productId +
+            ", quantity=" + quantity + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof ShipmentAllocation that)) return false;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.e_commerce.model;
+
+import com.example.e_commerce.enums.StockMovementType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// One signed change to a product's stock. Rows are only ever inserted (by
+// StockLedger) and deleted once compacted and older than the retention
+// window. product_id has no foreign key on purpose: checking it would
+// share-lock the product row on every append.
+@Entity
+@Table(name = "stock_movements", indexes = @Index(
+        name = "idx_stock_movements_product_id_id",
+        columnList = "product_id, id"))
+public class StockMovement {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Column(nullable = false)
+  private int quantity;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private StockMovementType type;
+
+  // The order or reservation behind the movement, if any
+  private Long referenceId;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  protected StockMovement() {
+  }
+
+  public StockMovement(Long productId, int quantity, StockMovementType type,
+                       Long referenceId) {
+    this.productId = productId;
+    this.quantity = quantity;
+    this.type = type;
+    this.referenceId = referenceId;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getProductId() {
+    return productId;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public StockMovementType getType() {
+    return type;
+  }
+
+  public Long getReferenceId() {
+    return referenceId;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+
+  @Override
+  public String toString() {
+    return "StockMovement{id=" + id + ", productId=" + productId +
+            ", quantity=" + quantity + ", type=" + type + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof StockMovement that)) return false;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+}
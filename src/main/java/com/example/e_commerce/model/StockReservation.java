@@ -0,0 +1,120 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @NotNull(message = "Product cannot be null")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(nullable = false)
+  private Product product;
+
+  @NotNull(message = "User cannot be null")
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(nullable = false)
+  private User user;
+
+  @Min(value = 1, message = "Reserved quantity must be at least 1")
+  @Column(nullable = false)
+  private int quantity;
+
+  @NotNull(message = "Expiry time cannot be null")
+  @Column(nullable = false)
+  private LocalDateTime expiresAt;
+
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  public StockReservation() {
+  }
+
+  public StockReservation(Product product, User user, int quantity,
+                          LocalDateTime expiresAt) {
+    this.product = product;
+    this.user = user;
+    this.quantity = quantity;
+    this.expiresAt = expiresAt;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Product getProduct() {
+    return product;
+  }
+
+  public void setProduct(Product product) {
+    this.product = product;
+  }
+
+  public User getUser() {
+    return user;
+  }
+
+  public void setUser(User user) {
+    this.user = user;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(int quantity) {
+    this.quantity = quantity;
+  }
+
+  public LocalDateTime getExpiresAt() {
+    return expiresAt;
+  }
+
+  public void setExpiresAt(LocalDateTime expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+
+  @Override
+  public String toString() {
+    return "StockReservation{id=" + id + ", productId=" +
+            (product != null ? product.getId() : null) + ", quantity=" +
+            quantity + ", expiresAt=" + expiresAt + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof StockReservation that)) return false;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// A product's stock after every movement up to lastMovementId, written by
+// the compactor. Current stock is this plus the movements after it.
+@Entity
+@Table(name = "stock_snapshots")
+public class StockSnapshot {
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(nullable = false)
+  private int quantity;
+
+  @Column(nullable = false)
+  private long lastMovementId;
+
+  @Column(nullable = false)
+  private LocalDateTime takenAt;
+
+  protected StockSnapshot() {
+  }
+
+  public Long getProductId() {
+    return productId;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public long getLastMovementId() {
+    return lastMovementId;
+  }
+
+  public LocalDateTime getTakenAt() {
+    return takenAt;
+  }
+
+  @Override
+  public String toString() {
+    return "StockSnapshot{productId=" + productId + ", quantity=" + quantity +
+            ", lastMovementId=" + lastMovementId + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof StockSnapshot that)) return false;
+    return Objects.equals(productId, that.productId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(productId);
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+// Where orders ship from. Routing and stock live in WarehouseRoute and
+// WarehouseStock; WarehouseDirectory keeps all of it in memory.
+@Entity
+@Table(name = "warehouses")
+public class Warehouse {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, unique = true, length = 20)
+  private String code;
+
+  @Column(nullable = false, length = 100)
+  private String name;
+
+  @Column(nullable = false, length = 100)
+  private String country;
+
+  // Orders no route covers go to the highest priority warehouse first
+  @Column(nullable = false)
+  private int priority;
+
+  @Column(nullable = false)
+  private boolean active = true;
+
+  protected Warehouse() {
+  }
+
+  public Warehouse(String code, String name, String country, int priority) {
+    this.code = code;
+    this.name = name;
+    this.country = country;
+    this.priority = priority;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getCountry() {
+    return country;
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+
+  @Override
+  public String toString() {
+    return "Warehouse{id=" + id + ", code='" + code + "', priority=" +
+            priority + ", active=" + active + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Warehouse that)) return false;
+    return Objects.equals(code, that.code);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(code);
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+// Sends a region to a warehouse: a whole country, or a state or postal code
+// prefix within it. Lower preference is tried first within the region.
+@Entity
+@Table(name = "warehouse_routes")
+public class WarehouseRoute {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 100)
+  private String country;
+
+  @Column(length = 200)
+  private String state;
+
+  @Column(length = 10)
+  private String postalPrefix;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(nullable = false)
+  private Warehouse warehouse;
+
+  @Column(nullable = false)
+  private int preference;
+
+  protected WarehouseRoute() {
+  }
+
+  public WarehouseRoute(String country, String state, String postalPrefix,
+                        Warehouse warehouse, int preference) {
+    if (state != null && postalPrefix != null) {
+      throw new IllegalArgumentException(
+              "A route is narrowed by state or by postal prefix, not both");
+    }
+    this.country = country;
+    this.state = state;
+    this.postalPrefix = postalPrefix;
+    this.warehouse = warehouse;
+    this.preference = preference;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getCountry() {
+    return country;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public String getPostalPrefix() {
+    return postalPrefix;
+  }
+
+  public Warehouse getWarehouse() {
+    return warehouse;
+  }
+
+  public int getPreference() {
+    return preference;
+  }
+
+  @Override
+  public String toString() {
+    return "WarehouseRoute{id=" + id + ", country='" + country +
+            "', state='" + state + "', postalPrefix='" + postalPrefix +
+            "', preference=" + preference + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof WarehouseRoute that)) return false;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+}
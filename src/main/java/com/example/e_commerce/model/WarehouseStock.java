@@ -0,0 +1,62 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Units of a product held by one warehouse. Written with plain SQL by
+// WarehouseAllocationService; the entity only describes the table.
+@Entity
+@Table(name = "warehouse_stock", indexes = @Index(
+        name = "idx_warehouse_stock_product_id", columnList = "product_id"))
+@IdClass(WarehouseStock.Key.class)
+public class WarehouseStock {
+  @Id
+  @Column(name = "warehouse_id")
+  private Long warehouseId;
+
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  @Column(nullable = false)
+  private int quantity;
+
+  protected WarehouseStock() {
+  }
+
+  public Long getWarehouseId() {
+    return warehouseId;
+  }
+
+  public Long getProductId() {
+    return productId;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  @Override
+  public String toString() {
+    return "WarehouseStock{warehouseId=" + warehouseId + ", productId=" +
+            productId + ", quantity=" + quantity + "}";
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof WarehouseStock that)) return false;
+    return Objects.equals(warehouseId, that.warehouseId) &&
+            Objects.equals(productId, that.productId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(warehouseId, productId);
+  }
+
+  public record Key(Long warehouseId, Long productId) implements Serializable {
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.e_commerce.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.notifications")
+public record NotificationProperties(
+        @DefaultValue("false") boolean emailEnabled,
+        @DefaultValue("orders@example.com") String from) {
+}
@@ -0,0 +1,5 @@
+package com.example.e_commerce.notification;
+
+// Job payload: the order is read when the email is sent
+public record OrderConfirmation(long orderId) {
+}
@@ -0,0 +1,82 @@
+package com.example.e_commerce.notification;
+
+import com.example.e_commerce.event.OrderPlacedEvent;
+import com.example.e_commerce.job.JobHandler;
+import com.example.e_commerce.job.JobQueue;
+import com.example.e_commerce.job.JobType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Order confirmation emails go through the job queue: checkout only inserts
+// the job as part of its transaction, and a worker talks to the SMTP server
+// once the order has committed. A repeated job can send the email twice.
+@Component
+public class OrderConfirmationEmailJob implements JobHandler<OrderConfirmation> {
+  static final JobType<OrderConfirmation> TYPE = new JobType<>(
+          "order-confirmation-email", OrderConfirmation.class, 10, 8);
+
+  private final JobQueue jobQueue;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectProvider<JavaMailSender> mailSender;
+  private final NotificationProperties properties;
+
+  public OrderConfirmationEmailJob(JobQueue jobQueue, JdbcTemplate jdbcTemplate,
+                                   ObjectProvider<JavaMailSender> mailSender,
+                                   NotificationProperties properties) {
+    this.jobQueue = jobQueue;
+    this.jdbcTemplate = jdbcTemplate;
+    this.mailSender = mailSender;
+    this.properties = properties;
+  }
+
+  // Runs inside the purchase transaction, so the job commits with the order
+  @EventListener
+  public void onOrderPlaced(OrderPlacedEvent event) {
+    if (properties.emailEnabled()) {
+      jobQueue.enqueue(TYPE, new OrderConfirmation(event.orderId()));
+    }
+  }
+
+  @Override
+  public JobType<OrderConfirmation> type() {
+    return TYPE;
+  }
+
+  @Override
+  public void handle(OrderConfirmation payload) {
+    JavaMailSender sender = mailSender.getIfAvailable();
+    if (sender == null) {
+      throw new IllegalStateException(
+              "No mail server configured (spring.mail.host)");
+    }
+    List<SimpleMailMessage> messages = jdbcTemplate.query("""
+            SELECT o.order_number, o.total_amount, u.email, u.first_name
+            FROM orders o
+            JOIN users u ON u.id = o.user_id
+            WHERE o.id = ?
+            """, (rs, rowNum) -> message(rs.getString(1),
+            rs.getBigDecimal(2), rs.getString(3), rs.getString(4)),
+            payload.orderId());
+    // Nothing to confirm if the order is gone
+    messages.forEach(sender::send);
+  }
+
+  private SimpleMailMessage message(String orderNumber, BigDecimal total,
+                                    String email, String firstName) {
+    SimpleMailMessage message = new SimpleMailMessage();
+    message.setFrom(properties.from());
+    message.setTo(email);
+    message.setSubject("Your order " + orderNumber);
+    message.setText("Hello " + firstName + ",\n\n" +
+            "thank you for your order " + orderNumber + ". The total is " +
+            total + ".\n");
+    return message;
+  }
+}
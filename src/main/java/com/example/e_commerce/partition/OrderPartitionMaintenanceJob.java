@@ -0,0 +1,79 @@
+package com.example.e_commerce.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+// Keeps the hot orders/order_items tables bounded: partitions for the coming
+// months are created ahead of time and months older than the retention
+// window are detached and moved to the archive tables, along with any rows
+// of those months that sit in the DEFAULT partitions.
+@Component
+@ConditionalOnProperty(prefix = "app.orders.partitions", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class OrderPartitionMaintenanceJob {
+  private static final Logger log =
+          LoggerFactory.getLogger(OrderPartitionMaintenanceJob.class);
+
+  private final OrderPartitionManager partitionManager;
+  private final OrderPartitionProperties properties;
+
+  public OrderPartitionMaintenanceJob(OrderPartitionManager partitionManager,
+                                      OrderPartitionProperties properties) {
+    this.partitionManager = partitionManager;
+    this.properties = properties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    createUpcomingPartitions();
+  }
+
+  @Scheduled(cron = "${app.orders.partitions.cron:0 30 2 * * *}")
+  public void maintain() {
+    createUpcomingPartitions();
+    archiveOldPartitions();
+  }
+
+  void createUpcomingPartitions() {
+    YearMonth current = YearMonth.now();
+    for (int i = 0; i <= properties.premakeMonths(); i++) {
+      for (String table : OrderPartitionManager.PARTITIONED_TABLES) {
+        partitionManager.createPartition(table, current.plusMonths(i));
+      }
+    }
+  }
+
+  void archiveOldPartitions() {
+    YearMonth oldestHot =
+            YearMonth.now().minusMonths(properties.hotMonths() - 1);
+
+    for (String table : OrderPartitionManager.PARTITIONED_TABLES) {
+      // Finish whatever a previous run left detached but not yet moved
+      for (String partition : partitionManager.detachedPartitions(table)) {
+        partitionManager.moveToArchive(table, partition,
+                properties.archiveBatchSize());
+      }
+
+      for (String partition : partitionManager.attachedPartitions(table)) {
+        boolean expired = OrderPartitionManager.monthOf(partition)
+                .map(month -> month.isBefore(oldestHot))
+                .orElse(false);
+        if (expired) {
+          partitionManager.detachPartition(table, partition);
+          partitionManager.moveToArchive(table, partition,
+                  properties.archiveBatchSize());
+        }
+      }
+      partitionManager.archiveDefaultRows(table, oldestHot,
+              properties.archiveBatchSize());
+    }
+    log.debug("Order partitions older than {} are archived", oldestHot);
+  }
+}
@@ -0,0 +1,178 @@
+package com.example.e_commerce.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// DDL and data movement for the monthly partitions of orders/order_items
+// and the DEFAULT partitions behind them. Table names are derived from
+// YearMonth values only, never from input.
+@Component
+public class OrderPartitionManager {
+  private static final Logger log =
+          LoggerFactory.getLogger(OrderPartitionManager.class);
+
+  // Items first: archiving a month moves its items before its orders
+  static final List<String> PARTITIONED_TABLES =
+          List.of("order_items", "orders");
+
+  private static final DateTimeFormatter SUFFIX =
+          DateTimeFormatter.ofPattern("yyyy_MM");
+  private static final Pattern PARTITION_NAME =
+          Pattern.compile("^(orders|order_items)_p(\\d{4})_(\\d{2})$");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public OrderPartitionManager(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  public static String partitionName(String table, YearMonth month) {
+    return table + "_p" + SUFFIX.format(month);
+  }
+
+  public static Optional<YearMonth> monthOf(String partitionName) {
+    Matcher matcher = PARTITION_NAME.matcher(partitionName);
+    if (!matcher.matches()) {
+      return Optional.empty();
+    }
+    return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(2)),
+            Integer.parseInt(matcher.group(3))));
+  }
+
+  public static String defaultPartition(String table) {
+    return table + "_default";
+  }
+
+  // Rows of the month that already landed in the DEFAULT partition would
+  // make PARTITION OF fail, so the month is built as a plain table, those
+  // rows are moved into it and it is attached, all in one transaction
+  public void createPartition(String table, YearMonth month) {
+    String partition = partitionName(table, month);
+    transactionTemplate.executeWithoutResult(status -> {
+      // Self-conflicting, so two nodes cannot create the same month at once
+      jdbcTemplate.execute("LOCK TABLE " + table +
+              " IN SHARE UPDATE EXCLUSIVE MODE");
+      if (exists(partition)) {
+        return;
+      }
+      jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table +
+              " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+      int moved = 0;
+      if (exists(defaultPartition(table))) {
+        moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " +
+                defaultPartition(table) + " WHERE created_at >= ?" +
+                " AND created_at < ? RETURNING *) INSERT INTO " + partition +
+                " SELECT * FROM moved", start(month),
+                start(month.plusMonths(1)));
+      }
+      jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " +
+              partition + " FOR VALUES FROM ('" + month.atDay(1) +
+              "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+      if (moved > 0) {
+        log.info("Moved {} rows of {} from {} into {}", moved, month,
+                defaultPartition(table), partition);
+      }
+    });
+  }
+
+  public List<String> attachedPartitions(String table) {
+    return jdbcTemplate.queryForList("""
+            SELECT child.relname FROM pg_inherits i
+            JOIN pg_class child ON child.oid = i.inhrelid
+            JOIN pg_class parent ON parent.oid = i.inhparent
+            WHERE parent.relname = ?
+            """, String.class, table);
+  }
+
+  // Monthly tables that exist but are no longer attached: an archive run
+  // detached them and did not get to finish moving their rows
+  public List<String> detachedPartitions(String table) {
+    List<String> attached = attachedPartitions(table);
+    return jdbcTemplate.queryForList("""
+                    SELECT tablename FROM pg_tables
+                    WHERE schemaname = current_schema() AND tablename LIKE ?
+                    """, String.class, table + "\\_p%").stream()
+            .filter(name -> monthOf(name).isPresent())
+            .filter(name -> !attached.contains(name))
+            .toList();
+  }
+
+  public void detachPartition(String table, String partition) {
+    jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " +
+            partition);
+    log.info("Detached partition {} from {}", partition, table);
+  }
+
+  // Moves a detached partition into <table>_archive, one short transaction
+  // per batch, then drops the emptied table
+  public long moveToArchive(String table, String partition, int batchSize) {
+    String moveBatch = "WITH moved AS (DELETE FROM " + partition +
+            " WHERE ctid IN (SELECT ctid FROM " + partition + " LIMIT ?)" +
+            " RETURNING *) INSERT INTO " + table + "_archive" +
+            " SELECT * FROM moved";
+    long moved = 0;
+    int batch;
+    do {
+      batch = Objects.requireNonNull(transactionTemplate.execute(status ->
+              jdbcTemplate.update(moveBatch, batchSize)));
+      moved += batch;
+    } while (batch > 0);
+
+    jdbcTemplate.execute("DROP TABLE " + partition);
+    log.info("Archived {} rows from {} into {}_archive", moved, partition,
+            table);
+    return moved;
+  }
+
+  // The DEFAULT partition is never detached, so its rows from before the
+  // given month are moved into <table>_archive batch by batch instead
+  public long archiveDefaultRows(String table, YearMonth before,
+                                 int batchSize) {
+    String partition = defaultPartition(table);
+    if (!exists(partition)) {
+      return 0;
+    }
+    String moveBatch = "WITH moved AS (DELETE FROM " + partition +
+            " WHERE ctid IN (SELECT ctid FROM " + partition +
+            " WHERE created_at < ? LIMIT ?) RETURNING *) INSERT INTO " +
+            table + "_archive SELECT * FROM moved";
+    Timestamp cutoff = start(before);
+    long moved = 0;
+    int batch;
+    do {
+      batch = Objects.requireNonNull(transactionTemplate.execute(status ->
+              jdbcTemplate.update(moveBatch, cutoff, batchSize)));
+      moved += batch;
+    } while (batch > 0);
+
+    if (moved > 0) {
+      log.info("Archived {} rows from {} into {}_archive", moved, partition,
+              table);
+    }
+    return moved;
+  }
+
+  private boolean exists(String tableName) {
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT to_regclass(?) IS NOT NULL", Boolean.class, tableName));
+  }
+
+  private static Timestamp start(YearMonth month) {
+    return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+  }
+}
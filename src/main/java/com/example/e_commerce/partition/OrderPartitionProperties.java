@@ -0,0 +1,15 @@
+package com.example.e_commerce.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.orders.partitions")
+public record OrderPartitionProperties(
+        @DefaultValue("true") boolean enabled,
+        // Months kept in the hot tables, including the current one
+        @DefaultValue("12") int hotMonths,
+        // Months ahead for which empty partitions are created
+        @DefaultValue("3") int premakeMonths,
+        // Rows moved to the archive per transaction
+        @DefaultValue("5000") int archiveBatchSize) {
+}
@@ -0,0 +1,10 @@
+package com.example.e_commerce.purchase;
+
+import com.example.e_commerce.model.Order;
+
+import java.util.concurrent.CompletableFuture;
+
+record PendingPurchase(long productId, long userId, int quantity,
+                       Long shippingAddressId, long submittedAt,
+                       CompletableFuture<Order> result) {
+}
@@ -0,0 +1,130 @@
+package com.example.e_commerce.purchase;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.event.OrderPlacedEvent;
+import com.example.e_commerce.exception.AddressNotFoundException;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ProductNotFoundException;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.OrderItem;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.AddressRepository;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.stock.StockChange;
+import com.example.e_commerce.stock.StockLedger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Applies a batch of purchases in one transaction: the take locks of its
+// products are acquired once, stock is handed out in arrival order, and all
+// orders and movements go out with a single commit. A purchase that cannot
+// be served is refused on its own; any other failure rolls back the batch.
+@Component
+class PurchaseBatchWriter {
+  private final ProductRepository productRepository;
+  private final UserRepository userRepository;
+  private final AddressRepository addressRepository;
+  private final OrderRepository orderRepository;
+  private final StockLedger stockLedger;
+  private final ApplicationEventPublisher eventPublisher;
+
+  PurchaseBatchWriter(ProductRepository productRepository,
+                      UserRepository userRepository,
+                      AddressRepository addressRepository,
+                      OrderRepository orderRepository,
+                      StockLedger stockLedger,
+                      ApplicationEventPublisher eventPublisher) {
+    this.productRepository = productRepository;
+    this.userRepository = userRepository;
+    this.addressRepository = addressRepository;
+    this.orderRepository = orderRepository;
+    this.stockLedger = stockLedger;
+    this.eventPublisher = eventPublisher;
+  }
+
+  // Outcomes in the order of the batch. Unlike ProductService, orders are
+  // written while the take locks are held, since who gets stock decides
+  // which orders exist; the partition's writer is the only one taking them.
+  @Transactional
+  @Workload(WorkloadClass.CHECKOUT)
+  public List<PurchaseOutcome> write(List<PendingPurchase> batch) {
+    Set<Long> productIds = batch.stream().map(PendingPurchase::productId)
+            .collect(Collectors.toSet());
+    Map<Long, Product> products = productRepository.findAllById(productIds)
+            .stream()
+            .filter(Product::isActive)
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+    Map<Long, Long> addressOwners = addressOwners(batch);
+
+    List<PurchaseOutcome> outcomes = new ArrayList<>(batch.size());
+    stockLedger.takeAll(products.keySet(), levels -> {
+      Map<Long, Integer> left = new HashMap<>(levels);
+      List<StockChange> takes = new ArrayList<>();
+      for (PendingPurchase purchase : batch) {
+        long productId = purchase.productId();
+        Product product = products.get(productId);
+        Integer available = left.get(productId);
+        Long addressId = purchase.shippingAddressId();
+        if (product == null || available == null) {
+          outcomes.add(PurchaseOutcome.refused(
+                  new ProductNotFoundException(productId)));
+        } else if (addressId != null && !Long.valueOf(purchase.userId())
+                .equals(addressOwners.get(addressId))) {
+          outcomes.add(PurchaseOutcome.refused(
+                  new AddressNotFoundException(addressId)));
+        } else if (available < purchase.quantity()) {
+          outcomes.add(PurchaseOutcome.refused(new InsufficientStockException(
+                  productId, purchase.quantity())));
+        } else {
+          left.put(productId, available - purchase.quantity());
+          Order order = new Order(
+                  userRepository.getReferenceById(purchase.userId()),
+                  addressId == null ? null
+                          : addressRepository.getReferenceById(addressId),
+                  null);
+          order.addItem(new OrderItem(product, purchase.quantity(),
+                  product.getPrice()));
+          Order saved = orderRepository.save(order);
+          takes.add(new StockChange(productId, -purchase.quantity(),
+                  StockMovementType.PURCHASE, saved.getId()));
+          outcomes.add(PurchaseOutcome.placed(saved));
+        }
+      }
+      return takes;
+    });
+
+    outcomes.stream()
+            .filter(outcome -> outcome.order() != null)
+            .forEach(outcome -> eventPublisher.publishEvent(
+                    OrderPlacedEvent.from(outcome.order())));
+    return outcomes;
+  }
+
+  // Address id -> owning user id, one query for the batch
+  private Map<Long, Long> addressOwners(List<PendingPurchase> batch) {
+    Set<Long> addressIds = batch.stream()
+            .map(PendingPurchase::shippingAddressId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    if (addressIds.isEmpty()) {
+      return Map.of();
+    }
+    return addressRepository.findOwners(addressIds).stream()
+            .collect(Collectors.toMap(row -> (Long) row[0],
+                    row -> (Long) row[1]));
+  }
+}
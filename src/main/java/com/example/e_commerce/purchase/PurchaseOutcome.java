@@ -0,0 +1,14 @@
+package com.example.e_commerce.purchase;
+
+import com.example.e_commerce.model.Order;
+
+// Either the saved order or why this purchase alone was refused
+record PurchaseOutcome(Order order, RuntimeException failure) {
+  static PurchaseOutcome placed(Order order) {
+    return new PurchaseOutcome(order, null);
+  }
+
+  static PurchaseOutcome refused(RuntimeException failure) {
+    return new PurchaseOutcome(null, failure);
+  }
+}
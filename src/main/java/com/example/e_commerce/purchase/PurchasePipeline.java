@@ -0,0 +1,228 @@
+package com.example.e_commerce.purchase;
+
+import com.example.e_commerce.ProductService;
+import com.example.e_commerce.exception.PurchasePipelineUnavailableException;
+import com.example.e_commerce.model.Order;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Group commit for purchases (app.purchase-pipeline.enabled). Purchases are
+// queued to a partition by product id, and each partition's single writer
+// thread takes whatever queued up while its last batch committed, waits up
+// to max-wait for more, and applies it through PurchaseBatchWriter. Callers
+// get a future completed after that commit. A batch that fails as a whole
+// is retried purchase by purchase through ProductService, so one bad
+// request cannot fail the others. Records purchase.pipeline.batch.size and
+// purchase.pipeline.latency, queueing and commit included.
+@Component
+public class PurchasePipeline implements SmartLifecycle {
+  private static final Logger log =
+          LoggerFactory.getLogger(PurchasePipeline.class);
+  // Idle writers look at running this often
+  private static final long IDLE_POLL_MILLIS = 100;
+
+  private final PurchaseBatchWriter batchWriter;
+  private final ProductService productService;
+  private final PurchasePipelineProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final DistributionSummary batchSizes;
+  private final List<BlockingQueue<PendingPurchase>> queues = new ArrayList<>();
+  private final List<Thread> threads = new ArrayList<>();
+  private volatile boolean running;
+
+  public PurchasePipeline(PurchaseBatchWriter batchWriter,
+                          ProductService productService,
+                          PurchasePipelineProperties properties,
+                          MeterRegistry meterRegistry) {
+    this.batchWriter = batchWriter;
+    this.productService = productService;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.batchSizes = meterRegistry.summary("purchase.pipeline.batch.size");
+    for (int i = 0; i < properties.partitions(); i++) {
+      queues.add(new LinkedBlockingQueue<>(properties.queueCapacity()));
+    }
+  }
+
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  public CompletableFuture<Order> submit(long productId, long userId,
+                                         int quantity) {
+    return submit(productId, userId, quantity, null);
+  }
+
+  public CompletableFuture<Order> submit(long productId, long userId,
+                                         int quantity,
+                                         Long shippingAddressId) {
+    if (!properties.enabled()) {
+      throw new IllegalStateException("Purchase pipeline is disabled");
+    }
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be greater than 0");
+    }
+    if (!running) {
+      throw new PurchasePipelineUnavailableException("shutting down");
+    }
+    PendingPurchase purchase = new PendingPurchase(productId, userId,
+            quantity, shippingAddressId, System.nanoTime(),
+            new CompletableFuture<>());
+    if (!queues.get(partition(productId)).offer(purchase)) {
+      throw new PurchasePipelineUnavailableException("queue is full");
+    }
+    return purchase.result();
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    if (!properties.enabled()) {
+      return;
+    }
+    for (int i = 0; i < queues.size(); i++) {
+      BlockingQueue<PendingPurchase> queue = queues.get(i);
+      threads.add(Thread.ofPlatform().name("purchase-writer-" + i).daemon()
+              .start(() -> write(queue)));
+    }
+    log.info("Started {} purchase writers", threads.size());
+  }
+
+  // Writers empty their queues, within shutdownTimeout, before the
+  // DataSource closes; whatever is left after that is refused
+  @Override
+  public void stop() {
+    running = false;
+    long deadline = System.nanoTime() +
+            properties.shutdownTimeout().toNanos();
+    for (Thread thread : threads) {
+      try {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 ||
+                !thread.join(Duration.ofNanos(remaining))) {
+          thread.interrupt();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    threads.clear();
+    List<PendingPurchase> stranded = new ArrayList<>();
+    queues.forEach(queue -> queue.drainTo(stranded));
+    stranded.forEach(purchase -> complete(purchase, null,
+            new PurchasePipelineUnavailableException("shutting down")));
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Stopped after the web server lifecycles, like the job workers
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+
+  // Applies one batch and completes its futures
+  void apply(List<PendingPurchase> batch) {
+    batchSizes.record(batch.size());
+    List<PurchaseOutcome> outcomes;
+    try {
+      outcomes = batchWriter.write(batch);
+    } catch (RuntimeException e) {
+      log.warn("Purchase batch of {} failed, retrying one by one",
+              batch.size(), e);
+      meterRegistry.counter("purchase.pipeline.fallbacks").increment();
+      batch.forEach(this::applyAlone);
+      return;
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      PurchaseOutcome outcome = outcomes.get(i);
+      complete(batch.get(i), outcome.order(), outcome.failure());
+    }
+  }
+
+  private int partition(long productId) {
+    return (int) Math.floorMod(productId, (long) queues.size());
+  }
+
+  private void write(BlockingQueue<PendingPurchase> queue) {
+    List<PendingPurchase> batch = new ArrayList<>(properties.maxBatch());
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingPurchase first = queue.poll(IDLE_POLL_MILLIS,
+                TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        collect(queue, batch);
+        apply(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        batch.forEach(purchase -> complete(purchase, null,
+                new PurchasePipelineUnavailableException("shutting down")));
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  // Whatever queued up meanwhile, topped up for at most maxWait so a lone
+  // purchase is not held back for long
+  private void collect(BlockingQueue<PendingPurchase> queue,
+                       List<PendingPurchase> batch)
+          throws InterruptedException {
+    int maxBatch = properties.maxBatch();
+    queue.drainTo(batch, maxBatch - batch.size());
+    long deadline = System.nanoTime() + properties.maxWait().toNanos();
+    while (batch.size() < maxBatch) {
+      long remaining = deadline - System.nanoTime();
+      PendingPurchase next = remaining > 0
+              ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+      queue.drainTo(batch, maxBatch - batch.size());
+    }
+  }
+
+  private void applyAlone(PendingPurchase purchase) {
+    try {
+      complete(purchase, productService.purchaseProduct(purchase.productId(),
+              purchase.userId(), purchase.quantity(),
+              purchase.shippingAddressId()), null);
+    } catch (RuntimeException e) {
+      complete(purchase, null, e);
+    }
+  }
+
+  private void complete(PendingPurchase purchase, Order order,
+                        RuntimeException failure) {
+    meterRegistry.timer("purchase.pipeline.latency",
+                    "outcome", failure == null ? "placed" : "refused")
+            .record(System.nanoTime() - purchase.submittedAt(),
+                    TimeUnit.NANOSECONDS);
+    if (failure == null) {
+      purchase.result().complete(order);
+    } else {
+      purchase.result().completeExceptionally(failure);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.e_commerce.purchase;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.purchase-pipeline")
+public record PurchasePipelineProperties(
+        // Off: every purchase is its own transaction (ProductService)
+        @DefaultValue("false") boolean enabled,
+        // One writer thread, and so at most one connection, per partition
+        @DefaultValue("4") int partitions,
+        @DefaultValue("64") int maxBatch,
+        // How long a writer waits for more purchases once it has one
+        @DefaultValue("PT0.002S") Duration maxWait,
+        // Per partition; purchases beyond it are turned away with 503
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("PT10S") Duration shutdownTimeout) {
+}
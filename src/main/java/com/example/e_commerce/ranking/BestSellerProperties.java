@@ -0,0 +1,18 @@
+package com.example.e_commerce.ranking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.best-sellers")
+public record BestSellerProperties(
+        @DefaultValue("true") boolean enabled,
+        // Window = bucket-count x bucket-duration, sliding by one bucket
+        @DefaultValue("12") int bucketCount,
+        @DefaultValue("PT5M") Duration bucketDuration,
+        // Counters per bucket: over-counts stay below window units / capacity
+        @DefaultValue("200") int capacity,
+        @DefaultValue("50") int maxResults,
+        @DefaultValue("PT1S") Duration refreshInterval) {
+}
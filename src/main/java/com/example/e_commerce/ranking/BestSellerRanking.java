@@ -0,0 +1,58 @@
+package com.example.e_commerce.ranking;
+
+import com.example.e_commerce.event.OrderPlacedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Best sellers per Product.category over the last window, by units sold.
+// Memory is bounded per category: bucketCount x capacity counters, see
+// the best.sellers.memory gauge. Categories are reference data, so the map
+// of sketches stays as small as the category table.
+@Component
+public class BestSellerRanking {
+  private final BestSellerProperties properties;
+  private final Map<String, SlidingTopK> byCategory = new ConcurrentHashMap<>();
+
+  public BestSellerRanking(BestSellerProperties properties,
+                           MeterRegistry meterRegistry) {
+    this.properties = properties;
+    long bytesPerCategory = newSketch().memoryBytes();
+    meterRegistry.gauge("best.sellers.memory", byCategory,
+            sketches -> sketches.size() * (double) bytesPerCategory);
+  }
+
+  @TransactionalEventListener
+  public void onOrderPlaced(OrderPlacedEvent event) {
+    if (!properties.enabled()) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    for (OrderPlacedEvent.Line line : event.lines()) {
+      if (line.category() != null) {
+        record(line.category(), line.productId(), line.quantity(), now);
+      }
+    }
+  }
+
+  public void record(String category, long productId, int quantity,
+                     long nowMillis) {
+    byCategory.computeIfAbsent(category, key -> newSketch())
+            .offer(productId, quantity, nowMillis);
+  }
+
+  public List<HeavyHitter> top(String category, int limit, long nowMillis) {
+    SlidingTopK sketch = byCategory.get(category);
+    return sketch != null ? sketch.top(limit, nowMillis) : List.of();
+  }
+
+  private SlidingTopK newSketch() {
+    return new SlidingTopK(properties.bucketCount(),
+            properties.bucketDuration().toMillis(), properties.capacity(),
+            properties.maxResults(), properties.refreshInterval().toMillis());
+  }
+}
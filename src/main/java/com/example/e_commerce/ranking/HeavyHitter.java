@@ -0,0 +1,6 @@
+package com.example.e_commerce.ranking;
+
+// count is an upper bound on the item's true weight in the window and
+// guaranteedCount a lower bound; both come from SpaceSaving's error terms
+public record HeavyHitter(long item, long count, long guaranteedCount) {
+}
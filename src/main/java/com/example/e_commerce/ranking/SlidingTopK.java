@@ -0,0 +1,120 @@
+package com.example.e_commerce.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Heavy hitters over a sliding window made of fixed time buckets, each with
+// its own SpaceSaving summary; a bucket is cleared and reused when the ring
+// comes round to it. The window therefore covers between (buckets - 1) and
+// buckets bucket durations. For window weight N and capacity m per bucket,
+// a reported count exceeds the true one by at most N / m, and every item
+// whose true weight is above N / m is reported.
+//
+// The merged ranking is computed at most once per refresh interval and
+// served from a volatile field in between, so reads do not lock or merge.
+public class SlidingTopK {
+  private final SpaceSaving[] buckets;
+  private final long[] bucketStarts;
+  private final long bucketMillis;
+  private final int maxK;
+  private final long refreshMillis;
+
+  private volatile Ranking ranking;
+
+  public SlidingTopK(int bucketCount, long bucketMillis, int capacity,
+                     int maxK, long refreshMillis) {
+    if (bucketCount <= 0 || bucketMillis <= 0) {
+      throw new IllegalArgumentException(
+              "Bucket count and duration must be > 0");
+    }
+    this.buckets = new SpaceSaving[bucketCount];
+    this.bucketStarts = new long[bucketCount];
+    for (int i = 0; i < bucketCount; i++) {
+      buckets[i] = new SpaceSaving(capacity);
+      bucketStarts[i] = Long.MIN_VALUE;
+    }
+    this.bucketMillis = bucketMillis;
+    this.maxK = maxK;
+    this.refreshMillis = refreshMillis;
+  }
+
+  public synchronized void offer(long item, long weight, long nowMillis) {
+    long start = Math.floorDiv(nowMillis, bucketMillis) * bucketMillis;
+    int index = (int) Math.floorMod(Math.floorDiv(nowMillis, bucketMillis),
+            (long) buckets.length);
+    if (bucketStarts[index] != start) {
+      buckets[index].clear();
+      bucketStarts[index] = start;
+    }
+    buckets[index].offer(item, weight);
+  }
+
+  public List<HeavyHitter> top(int k, long nowMillis) {
+    Ranking current = ranking;
+    if (!isFresh(current, nowMillis)) {
+      current = refresh(nowMillis);
+    }
+    List<HeavyHitter> top = current.top();
+    return top.size() <= k ? top : top.subList(0, k);
+  }
+
+  public long memoryBytes() {
+    long bytes = 0;
+    for (SpaceSaving bucket : buckets) {
+      bytes += bucket.memoryBytes();
+    }
+    return bytes;
+  }
+
+  private synchronized Ranking refresh(long nowMillis) {
+    Ranking current = ranking;
+    if (!isFresh(current, nowMillis)) {
+      current = new Ranking(merge(nowMillis), nowMillis);
+      ranking = current;
+    }
+    return current;
+  }
+
+  private boolean isFresh(Ranking current, long nowMillis) {
+    return current != null && nowMillis >= current.computedAtMillis() &&
+            nowMillis - current.computedAtMillis() < refreshMillis;
+  }
+
+  // An item missing from a full bucket may still have been seen there up to
+  // that bucket's minimum count, which is added to its upper bound
+  private List<HeavyHitter> merge(long nowMillis) {
+    long currentStart = Math.floorDiv(nowMillis, bucketMillis) * bucketMillis;
+    long oldestStart = currentStart - (buckets.length - 1) * bucketMillis;
+    Map<Long, long[]> merged = new HashMap<>();
+    long totalMin = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      if (bucketStarts[i] < oldestStart || bucketStarts[i] > currentStart) {
+        continue;
+      }
+      long minCount = buckets[i].minCount();
+      totalMin += minCount;
+      buckets[i].forEach((item, count, error) -> {
+        // {count, guaranteed, sum of minCount over buckets holding the item}
+        long[] bounds = merged.computeIfAbsent(item, key -> new long[3]);
+        bounds[0] += count;
+        bounds[1] += count - error;
+        bounds[2] += minCount;
+      });
+    }
+
+    List<HeavyHitter> ranked = new ArrayList<>(merged.size());
+    long finalTotalMin = totalMin;
+    merged.forEach((item, bounds) -> ranked.add(new HeavyHitter(item,
+            bounds[0] + finalTotalMin - bounds[2], bounds[1])));
+    ranked.sort(Comparator.comparingLong(HeavyHitter::count).reversed()
+            .thenComparing(Comparator.comparingLong(
+                    HeavyHitter::guaranteedCount).reversed()));
+    return List.copyOf(ranked.subList(0, Math.min(maxK, ranked.size())));
+  }
+
+  private record Ranking(List<HeavyHitter> top, long computedAtMillis) {
+  }
+}
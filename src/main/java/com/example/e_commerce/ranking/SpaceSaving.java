@@ -0,0 +1,218 @@
+package com.example.e_commerce.ranking;
+
+import java.util.Arrays;
+
+// Space-Saving heavy-hitter summary (Metwally et al.) over long item ids with
+// a fixed number of counters. When all counters are taken, a new item
+// replaces the smallest one and inherits its count as error. For a stream
+// of total weight N and capacity m:
+//   - count(x) never underestimates, and count(x) - error(x) <= true(x)
+//   - count(x) - true(x) <= min counter <= N / m
+//   - every item with true(x) > N / m is present
+// Counters sit in a min-heap, so an update is O(log m). Not thread-safe.
+public class SpaceSaving {
+  private final int capacity;
+  private final long[] items;
+  private final long[] counts;
+  private final long[] errors;
+  // Min-heap of counter slots ordered by count, and each slot's position
+  private final int[] heap;
+  private final int[] heapPosition;
+  // Open-addressing item -> slot + 1 index, 0 marks an empty bucket
+  private final long[] indexKeys;
+  private final int[] indexSlots;
+  private final int indexMask;
+
+  private int size;
+  private long totalWeight;
+
+  public SpaceSaving(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be > 0");
+    }
+    this.capacity = capacity;
+    this.items = new long[capacity];
+    this.counts = new long[capacity];
+    this.errors = new long[capacity];
+    this.heap = new int[capacity];
+    this.heapPosition = new int[capacity];
+    int indexSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+    this.indexKeys = new long[indexSize];
+    this.indexSlots = new int[indexSize];
+    this.indexMask = indexSize - 1;
+  }
+
+  public void offer(long item, long weight) {
+    if (weight <= 0) {
+      throw new IllegalArgumentException("Weight must be > 0");
+    }
+    totalWeight += weight;
+    int slot = slotOf(item);
+    if (slot >= 0) {
+      counts[slot] += weight;
+      siftDown(heapPosition[slot]);
+      return;
+    }
+    if (size < capacity) {
+      slot = size;
+      items[slot] = item;
+      counts[slot] = weight;
+      errors[slot] = 0;
+      heap[size] = slot;
+      heapPosition[slot] = size;
+      size++;
+      siftUp(heapPosition[slot]);
+    } else {
+      // Evict the minimum: the newcomer may have been seen up to that often
+      slot = heap[0];
+      removeFromIndex(items[slot]);
+      items[slot] = item;
+      errors[slot] = counts[slot];
+      counts[slot] += weight;
+      siftDown(0);
+    }
+    addToIndex(item, slot);
+  }
+
+  // Overestimate of the item's weight, 0 when it is not tracked
+  public long count(long item) {
+    int slot = slotOf(item);
+    return slot >= 0 ? counts[slot] : 0;
+  }
+
+  public long error(long item) {
+    int slot = slotOf(item);
+    return slot >= 0 ? errors[slot] : 0;
+  }
+
+  public boolean contains(long item) {
+    return slotOf(item) >= 0;
+  }
+
+  // Upper bound for any item that is not tracked
+  public long minCount() {
+    return size < capacity ? 0 : counts[heap[0]];
+  }
+
+  public long totalWeight() {
+    return totalWeight;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public void forEach(CounterConsumer consumer) {
+    for (int slot = 0; slot < size; slot++) {
+      consumer.accept(items[slot], counts[slot], errors[slot]);
+    }
+  }
+
+  public void clear() {
+    size = 0;
+    totalWeight = 0;
+    Arrays.fill(indexSlots, 0);
+  }
+
+  public long memoryBytes() {
+    return (long) capacity * (3 * Long.BYTES + 2 * Integer.BYTES) +
+            (long) indexKeys.length * (Long.BYTES + Integer.BYTES);
+  }
+
+  private void siftUp(int position) {
+    int slot = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (counts[heap[parent]] <= counts[slot]) {
+        break;
+      }
+      place(heap[parent], position);
+      position = parent;
+    }
+    place(slot, position);
+  }
+
+  private void siftDown(int position) {
+    int slot = heap[position];
+    while (true) {
+      int child = position * 2 + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) {
+        child++;
+      }
+      if (counts[slot] <= counts[heap[child]]) {
+        break;
+      }
+      place(heap[child], position);
+      position = child;
+    }
+    place(slot, position);
+  }
+
+  private void place(int slot, int position) {
+    heap[position] = slot;
+    heapPosition[slot] = position;
+  }
+
+  private int slotOf(long item) {
+    int bucket = bucket(item);
+    while (indexSlots[bucket] != 0) {
+      if (indexKeys[bucket] == item) {
+        return indexSlots[bucket] - 1;
+      }
+      bucket = (bucket + 1) & indexMask;
+    }
+    return -1;
+  }
+
+  private void addToIndex(long item, int slot) {
+    int bucket = bucket(item);
+    while (indexSlots[bucket] != 0) {
+      bucket = (bucket + 1) & indexMask;
+    }
+    indexKeys[bucket] = item;
+    indexSlots[bucket] = slot + 1;
+  }
+
+  // Backward-shift deletion keeps probe chains intact without tombstones
+  private void removeFromIndex(long item) {
+    int hole = bucket(item);
+    while (indexKeys[hole] != item || indexSlots[hole] == 0) {
+      hole = (hole + 1) & indexMask;
+    }
+    int next = hole;
+    while (true) {
+      next = (next + 1) & indexMask;
+      if (indexSlots[next] == 0) {
+        break;
+      }
+      int home = bucket(indexKeys[next]);
+      // Move the entry back unless its home lies cyclically in (hole, next]
+      boolean staysPut = hole <= next
+              ? hole < home && home <= next
+              : hole < home || home <= next;
+      if (!staysPut) {
+        indexKeys[hole] = indexKeys[next];
+        indexSlots[hole] = indexSlots[next];
+        hole = next;
+      }
+    }
+    indexSlots[hole] = 0;
+  }
+
+  private int bucket(long item) {
+    long h = item * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & indexMask;
+  }
+
+  @FunctionalInterface
+  public interface CounterConsumer {
+    void accept(long item, long count, long error);
+  }
+}
@@ -0,0 +1,214 @@
+package com.example.e_commerce.recommendation;
+
+import com.example.e_commerce.event.OrderPlacedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// "Frequently bought together", maintained incrementally: every committed
+// order updates the co-occurrence matrix for its products, instead of a
+// nightly self-join over order_items. Writers serialize on the engine; the
+// top-K lists are republished into a concurrent map after each change, so
+// reads are one hash lookup and never wait for a writer.
+@Component
+public class CoOccurrenceEngine {
+  private static final Logger log =
+          LoggerFactory.getLogger(CoOccurrenceEngine.class);
+
+  private final RecommendationProperties properties;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Map<Long, Neighbours> published = new ConcurrentHashMap<>();
+  private final Counter ordersConsumed;
+  private CoOccurrenceMatrix matrix;
+
+  public CoOccurrenceEngine(RecommendationProperties properties,
+                            DataSource dataSource,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(10_000);
+    this.transactionTemplate = transactionTemplate;
+    this.matrix = new CoOccurrenceMatrix(properties.topK(),
+            properties.maxItemsPerOrder(), properties.expectedProducts());
+    this.ordersConsumed = meterRegistry.counter("recommendations.orders");
+    meterRegistry.gauge("recommendations.products", published, Map::size);
+  }
+
+  @TransactionalEventListener
+  public void onOrderPlaced(OrderPlacedEvent event) {
+    if (properties.enabled()) {
+      record(event.productIds());
+    }
+  }
+
+  public synchronized void record(long[] productIds) {
+    for (long productId : matrix.addOrder(productIds)) {
+      published.put(productId, matrix.neighbours(productId));
+    }
+    ordersConsumed.increment();
+  }
+
+  public Neighbours neighbours(long productId) {
+    return published.getOrDefault(productId, Neighbours.EMPTY);
+  }
+
+  @Scheduled(cron = "${app.recommendations.decay-cron:0 0 4 * * *}")
+  public void decay() {
+    if (!properties.enabled()) {
+      return;
+    }
+    synchronized (this) {
+      matrix.decay(properties.decayFactor(), properties.minScore());
+      republish();
+      log.info("Decayed co-occurrence matrix to {} products, {} pairs, " +
+                      "~{} bytes", matrix.productCount(), matrix.pairCount(),
+              matrix.memoryBytes());
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (!properties.enabled()) {
+      return;
+    }
+    Path path = properties.snapshotPath();
+    if (Files.exists(path)) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+              Files.newInputStream(path), 1 << 16))) {
+        CoOccurrenceMatrix loaded = CoOccurrenceMatrix.readFrom(in,
+                properties.topK(), properties.maxItemsPerOrder());
+        synchronized (this) {
+          matrix = loaded;
+          republish();
+        }
+        log.info("Loaded co-occurrence snapshot with {} products",
+                loaded.productCount());
+        return;
+      } catch (IOException e) {
+        log.warn("Ignoring unreadable co-occurrence snapshot {}", path, e);
+      }
+    }
+    bootstrap();
+  }
+
+  @Scheduled(fixedDelayString = "${app.recommendations.snapshot-interval:PT10M}",
+          initialDelayString = "${app.recommendations.snapshot-interval:PT10M}")
+  public void saveSnapshot() {
+    if (!properties.enabled()) {
+      return;
+    }
+    // Serialized in memory under the lock, written to disk outside of it
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      synchronized (this) {
+        matrix.writeTo(new DataOutputStream(bytes));
+      }
+      Path target = properties.snapshotPath().toAbsolutePath();
+      Files.createDirectories(target.getParent());
+      Path tmp = Files.createTempFile(target.getParent(), "co-occurrence",
+              ".tmp");
+      try {
+        Files.write(tmp, bytes.toByteArray());
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      log.warn("Failed to write co-occurrence snapshot {}",
+              properties.snapshotPath(), e);
+    }
+  }
+
+  @PreDestroy
+  void saveOnShutdown() {
+    saveSnapshot();
+  }
+
+  // No snapshot yet: replay recent orders in one pass over order_items,
+  // grouped by streaming in order_id order rather than by a self-join
+  void bootstrap() {
+    LocalDateTime since = LocalDateTime.now()
+            .minus(properties.bootstrapWindow());
+    OrderGrouper grouper = new OrderGrouper(properties.maxItemsPerOrder());
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+            "SELECT order_id, product_id FROM order_items " +
+                    "WHERE created_at >= ? ORDER BY order_id",
+            rs -> grouper.accept(rs.getLong("order_id"),
+                    rs.getLong("product_id")),
+            Timestamp.valueOf(since)));
+    grouper.flush();
+    synchronized (this) {
+      republish();
+    }
+    log.info("Built co-occurrence matrix from {} orders since {}",
+            grouper.orders, since);
+  }
+
+  private void republish() {
+    Map<Long, Neighbours> next = new HashMap<>(matrix.productCount() * 2);
+    for (long productId : matrix.productIds()) {
+      next.put(productId, matrix.neighbours(productId));
+    }
+    published.keySet().retainAll(next.keySet());
+    published.putAll(next);
+  }
+
+  private class OrderGrouper {
+    private final long[] items;
+    private long currentOrderId = -1;
+    private int size;
+    private long orders;
+
+    OrderGrouper(int maxItems) {
+      this.items = new long[maxItems];
+    }
+
+    void accept(long orderId, long productId) {
+      if (orderId != currentOrderId) {
+        flush();
+        currentOrderId = orderId;
+      }
+      if (size < items.length) {
+        items[size++] = productId;
+      }
+    }
+
+    void flush() {
+      if (size > 0) {
+        synchronized (CoOccurrenceEngine.this) {
+          matrix.addOrder(Arrays.copyOf(items, size));
+        }
+        orders++;
+      }
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package com.example.e_commerce.recommendation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Sparse, symmetric product x product matrix of "bought in the same order"
+// scores. Each row keeps its top-K neighbours sorted by score next to the
+// full counts: scores only grow between decays, so a neighbour can only
+// enter the top K at the moment it is incremented and the list stays exact
+// without rescanning the row. Not thread-safe, see CoOccurrenceEngine.
+public class CoOccurrenceMatrix {
+  static final int MAGIC = 0x434F4F43; // "COOC"
+  static final int VERSION = 1;
+
+  // Row, its counts map and the four arrays behind them, compressed oops
+  private static final int ROW_OVERHEAD_BYTES = 16 + 24 + 4 * 16;
+
+  private final int topK;
+  private final int maxItemsPerOrder;
+  private final LongObjectHashMap<Row> rows;
+
+  public CoOccurrenceMatrix(int topK, int maxItemsPerOrder,
+                            int expectedProducts) {
+    if (topK <= 0) {
+      throw new IllegalArgumentException("Top K must be > 0");
+    }
+    if (maxItemsPerOrder < 2) {
+      throw new IllegalArgumentException("Max items per order must be >= 2");
+    }
+    this.topK = topK;
+    this.maxItemsPerOrder = maxItemsPerOrder;
+    this.rows = new LongObjectHashMap<>(expectedProducts);
+  }
+
+  // Returns the distinct product ids whose top-K lists may have changed.
+  // Quantities do not matter, only that the products were bought together.
+  // Very large orders are cut to maxItemsPerOrder: their pair count grows
+  // quadratically and they say little about any single pair.
+  public long[] addOrder(long[] productIds) {
+    long[] distinct = Arrays.stream(productIds)
+            .filter(id -> id > 0)
+            .distinct()
+            .limit(maxItemsPerOrder)
+            .toArray();
+    if (distinct.length < 2) {
+      return new long[0];
+    }
+    for (int i = 0; i < distinct.length; i++) {
+      Row row = row(distinct[i]);
+      for (int j = 0; j < distinct.length; j++) {
+        if (i != j) {
+          row.offer(distinct[j], row.counts.addTo(distinct[j], 1f));
+        }
+      }
+    }
+    return distinct;
+  }
+
+  public Neighbours neighbours(long productId) {
+    Row row = rows.get(productId);
+    if (row == null || row.topSize == 0) {
+      return Neighbours.EMPTY;
+    }
+    return new Neighbours(Arrays.copyOf(row.topIds, row.topSize),
+            Arrays.copyOf(row.topScores, row.topSize));
+  }
+
+  public float score(long productId, long otherProductId) {
+    Row row = rows.get(productId);
+    return row != null ? row.counts.get(otherProductId) : 0f;
+  }
+
+  // Exponential decay: older orders weigh factor^n after n passes. Pairs
+  // that fall below minScore are dropped, which keeps the matrix bounded by
+  // recent behaviour rather than by all history.
+  public void decay(float factor, float minScore) {
+    if (factor <= 0 || factor > 1) {
+      throw new IllegalArgumentException("Decay factor must be in (0, 1]");
+    }
+    rows.forEach((productId, row) -> {
+      row.counts.scale(factor, minScore);
+      row.rebuildTop();
+    });
+    rows.removeIf(row -> row.counts.size() == 0);
+  }
+
+  public int productCount() {
+    return rows.size();
+  }
+
+  public long pairCount() {
+    long[] pairs = {0};
+    rows.forEach((productId, row) -> pairs[0] += row.counts.size());
+    return pairs[0];
+  }
+
+  // Estimate from array lengths; JOL or a heap dump gives the exact figure
+  public long memoryBytes() {
+    long[] bytes = {rows.memoryBytes()};
+    rows.forEach((productId, row) -> bytes[0] += ROW_OVERHEAD_BYTES +
+            row.counts.memoryBytes() +
+            (long) row.topIds.length * (Long.BYTES + Float.BYTES));
+    return bytes[0];
+  }
+
+  // Counts only; top-K lists are rebuilt by readFrom
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(rows.size());
+    for (long productId : productIds()) {
+      out.writeLong(productId);
+      rows.get(productId).counts.writeTo(out);
+    }
+  }
+
+  public static CoOccurrenceMatrix readFrom(DataInput in, int topK,
+                                            int maxItemsPerOrder)
+          throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a co-occurrence snapshot");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported snapshot version " + version);
+    }
+    int rowCount = in.readInt();
+    CoOccurrenceMatrix matrix =
+            new CoOccurrenceMatrix(topK, maxItemsPerOrder, rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      long productId = in.readLong();
+      int entries = in.readInt();
+      Row row = matrix.row(productId);
+      for (int j = 0; j < entries; j++) {
+        long neighbourId = in.readLong();
+        row.offer(neighbourId, row.counts.addTo(neighbourId, in.readFloat()));
+      }
+    }
+    return matrix;
+  }
+
+  long[] productIds() {
+    long[] ids = new long[rows.size()];
+    int[] next = {0};
+    rows.forEach((productId, row) -> ids[next[0]++] = productId);
+    return ids;
+  }
+
+  private Row row(long productId) {
+    return rows.computeIfAbsent(productId, id -> new Row(topK));
+  }
+
+  private static final class Row {
+    final LongFloatHashMap counts = new LongFloatHashMap(4);
+    // Grown up to topK on demand: most products have only a few neighbours
+    final int topK;
+    long[] topIds;
+    float[] topScores;
+    int topSize;
+
+    Row(int topK) {
+      this.topK = topK;
+      this.topIds = new long[Math.min(topK, 4)];
+      this.topScores = new float[topIds.length];
+    }
+
+    // Called after neighbourId's score rose to score; O(K)
+    void offer(long neighbourId, float score) {
+      int index = 0;
+      while (index < topSize && topIds[index] != neighbourId) {
+        index++;
+      }
+      if (index == topSize) {
+        if (topSize < topK) {
+          if (topSize == topIds.length) {
+            int capacity = Math.min(topK, topSize * 2);
+            topIds = Arrays.copyOf(topIds, capacity);
+            topScores = Arrays.copyOf(topScores, capacity);
+          }
+          topSize++;
+        } else if (score > topScores[topSize - 1]) {
+          index = topSize - 1;
+        } else {
+          return;
+        }
+      }
+      // Move up past every neighbour with a lower score
+      while (index > 0 && topScores[index - 1] < score) {
+        topIds[index] = topIds[index - 1];
+        topScores[index] = topScores[index - 1];
+        index--;
+      }
+      topIds[index] = neighbourId;
+      topScores[index] = score;
+    }
+
+    void rebuildTop() {
+      topSize = 0;
+      counts.forEach(this::offer);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.example.e_commerce.recommendation;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Open-addressing long -> float map with linear probing. Two flat arrays
+// instead of an Entry, a Long and a Float object per mapping. Key 0 marks
+// an empty slot, so it cannot be stored; product ids start at 1. Not
+// thread-safe.
+public class LongFloatHashMap {
+  private static final float MAX_LOAD = 0.75f;
+
+  private long[] keys;
+  private float[] values;
+  private int mask;
+  private int size;
+
+  public LongFloatHashMap(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  public float get(long key) {
+    int slot = find(key);
+    return slot >= 0 ? values[slot] : 0f;
+  }
+
+  public boolean containsKey(long key) {
+    return find(key) >= 0;
+  }
+
+  // Adds delta to the value of key (0 when absent) and returns the new value
+  public float addTo(long key, float delta) {
+    if (key == 0) {
+      throw new IllegalArgumentException("Key 0 is reserved");
+    }
+    int slot = slot(key);
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        return values[slot] += delta;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = delta;
+    if (++size > keys.length * MAX_LOAD) {
+      rehash(keys.length * 2);
+    }
+    return delta;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void forEach(LongFloatConsumer consumer) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0) {
+        consumer.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  // Multiplies every value by factor and drops the ones that end up below
+  // minValue. Rebuilds the table, which also shrinks it after heavy pruning.
+  public void scale(float factor, float minValue) {
+    long[] oldKeys = keys;
+    float[] oldValues = values;
+    int retained = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        oldValues[i] *= factor;
+        if (oldValues[i] >= minValue) {
+          retained++;
+        }
+      }
+    }
+    allocate(capacityFor(retained));
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0 && oldValues[i] >= minValue) {
+        insert(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  // Size, then key/value pairs in table order
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(size);
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0) {
+        out.writeLong(keys[i]);
+        out.writeFloat(values[i]);
+      }
+    }
+  }
+
+  public long memoryBytes() {
+    return (long) keys.length * (Long.BYTES + Float.BYTES);
+  }
+
+  private int find(long key) {
+    if (key == 0) {
+      return -1;
+    }
+    int slot = slot(key);
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void insert(long key, float value) {
+    int slot = slot(key);
+    while (keys[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    float[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        insert(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new float[capacity];
+    mask = capacity - 1;
+    size = 0;
+  }
+
+  private int slot(long key) {
+    return (int) mix(key) & mask;
+  }
+
+  // Smallest power of two that holds expectedSize below the load factor
+  static int capacityFor(int expectedSize) {
+    int needed = (int) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD) + 1;
+    return Math.max(4, Integer.highestOneBit(needed - 1) << 1);
+  }
+
+  // MurmurHash3 finalizer: sequential ids would otherwise cluster
+  static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  @FunctionalInterface
+  public interface LongFloatConsumer {
+    void accept(long key, float value);
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.e_commerce.recommendation;
+
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+// Open-addressing long -> V map, the outer level of the co-occurrence matrix.
+// Same layout and rules as LongFloatHashMap: key 0 is reserved, not
+// thread-safe.
+public class LongObjectHashMap<V> {
+  private static final float MAX_LOAD = 0.75f;
+
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int size;
+
+  public LongObjectHashMap(int expectedSize) {
+    allocate(LongFloatHashMap.capacityFor(expectedSize));
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    if (key == 0) {
+      return null;
+    }
+    int slot = slot(key);
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        return (V) values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V computeIfAbsent(long key, LongFunction<V> factory) {
+    if (key == 0) {
+      throw new IllegalArgumentException("Key 0 is reserved");
+    }
+    int slot = slot(key);
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        return (V) values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    V value = factory.apply(key);
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > keys.length * MAX_LOAD) {
+      rebuild(keys.length * 2, existing -> false);
+    }
+    return value;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEach(LongObjectConsumer<V> consumer) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0) {
+        consumer.accept(keys[i], (V) values[i]);
+      }
+    }
+  }
+
+  // Removal by rebuild: linear probing cannot leave holes in a probe chain.
+  // The table shrinks to fit what is left.
+  public void removeIf(Predicate<V> filter) {
+    rebuild(0, filter);
+  }
+
+  // The table itself; the values it points to are not included
+  public long memoryBytes() {
+    return (long) keys.length * (Long.BYTES + Integer.BYTES);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void rebuild(int capacity, Predicate<V> remove) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    int retained = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0 && !remove.test((V) oldValues[i])) {
+        retained++;
+      } else {
+        oldKeys[i] = 0;
+      }
+    }
+    allocate(Math.max(capacity, LongFloatHashMap.capacityFor(retained)));
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int slot = slot(oldKeys[i]);
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+        size++;
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    size = 0;
+  }
+
+  private int slot(long key) {
+    return (int) LongFloatHashMap.mix(key) & mask;
+  }
+
+  @FunctionalInterface
+  public interface LongObjectConsumer<V> {
+    void accept(long key, V value);
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.e_commerce.recommendation;
+
+// Top-K neighbours of one product, highest score first. Copied out of the
+// matrix and never modified, so it can be read without the engine lock.
+public record Neighbours(long[] productIds, float[] scores) {
+  public static final Neighbours EMPTY = new Neighbours(new long[0],
+          new float[0]);
+
+  public int size() {
+    return productIds.length;
+  }
+
+  public long productId(int index) {
+    return productIds[index];
+  }
+
+  public float score(int index) {
+    return scores[index];
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.e_commerce.recommendation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.recommendations")
+public record RecommendationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int topK,
+        @DefaultValue("50") int maxItemsPerOrder,
+        @DefaultValue("100000") int expectedProducts,
+        // Applied by every decay run; 0.9 nightly halves a score in a week
+        @DefaultValue("0.9") float decayFactor,
+        // Pairs whose decayed score falls below this are forgotten
+        @DefaultValue("0.05") float minScore,
+        @DefaultValue("data/co-occurrence.snapshot") Path snapshotPath,
+        // Without a snapshot, orders this recent are replayed at startup
+        @DefaultValue("P30D") Duration bootstrapWindow) {
+}
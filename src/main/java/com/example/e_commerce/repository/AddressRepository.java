@@ -0,0 +1,20 @@
+package com.example.e_commerce.repository;
+
+import com.example.e_commerce.model.Address;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AddressRepository extends JpaRepository<Address, Long> {
+  @Query("SELECT a FROM Address a WHERE a.id = :id AND a.user.id = :userId")
+  Optional<Address> findByIdForUser(@Param("id") Long id,
+                                    @Param("userId") Long userId);
+
+  // Addresses with their owner's id, without loading the users
+  @Query("SELECT a.id, a.user.id FROM Address a WHERE a.id IN :ids")
+  List<Object[]> findOwners(@Param("ids") Collection<Long> ids);
+}
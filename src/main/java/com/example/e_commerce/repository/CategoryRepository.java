@@ -0,0 +1,36 @@
+package com.example.e_commerce.repository;
+
+import com.example.e_commerce.config.CacheNames;
+import com.example.e_commerce.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
+
+// Listings go through the query cache: it stores only the matching ids, the
+// rows themselves come from the category entity region
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+          @QueryHint(name = HibernateHints.HINT_CACHE_REGION,
+                  value = CacheNames.CATEGORY_LISTINGS)})
+  List<Category> findByActiveTrueOrderByNameAsc();
+
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+          @QueryHint(name = HibernateHints.HINT_CACHE_REGION,
+                  value = CacheNames.CATEGORY_LISTINGS)})
+  @Query("SELECT c FROM Category c " +
+          "WHERE c.parentCategory IS NULL AND c.active = true ORDER BY c.name")
+  List<Category> findActiveRoots();
+
+  @QueryHints({
+          @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+          @QueryHint(name = HibernateHints.HINT_CACHE_REGION,
+                  value = CacheNames.CATEGORY_LISTINGS)})
+  Optional<Category> findByName(String name);
+}
@@ -0,0 +1,60 @@
+package com.example.e_commerce.repository;
+
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.model.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// orders is partitioned by month on createdAt. Every query here takes a
+// createdAt range so PostgreSQL only scans the partitions that can match.
+public interface OrderRepository extends JpaRepository<Order, Long> {
+  Pattern ORDER_NUMBER = Pattern.compile("ORD-\\d{8}-[A-Z2-9]{5,13}");
+
+  @Query("SELECT o FROM Order o WHERE o.user.id = :userId " +
+          "AND o.createdAt >= :from AND o.createdAt < :to " +
+          "ORDER BY o.createdAt DESC")
+  List<Order> findByUserInPeriod(@Param("userId") Long userId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+  @Query("SELECT o FROM Order o WHERE o.status = :status " +
+          "AND o.createdAt >= :from AND o.createdAt < :to")
+  Page<Order> findByStatusInPeriod(@Param("status") OrderStatus status,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Pageable pageable);
+
+  @Query("SELECT o FROM Order o WHERE o.orderNumber = :orderNumber " +
+          "AND o.createdAt >= :from AND o.createdAt < :to")
+  Optional<Order> findByOrderNumberInPeriod(
+          @Param("orderNumber") String orderNumber,
+          @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  // ORD-YYYYMMDD-XXXXXX carries its creation day, which pins the partition.
+  // Anything else cannot be an order number and is simply not found.
+  default Optional<Order> findByOrderNumber(String orderNumber) {
+    if (orderNumber == null || !ORDER_NUMBER.matcher(orderNumber).matches()) {
+      return Optional.empty();
+    }
+    LocalDate day;
+    try {
+      day = LocalDate.parse(orderNumber.substring(4, 12),
+              DateTimeFormatter.BASIC_ISO_DATE);
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+    return findByOrderNumberInPeriod(orderNumber, day.atStartOfDay(),
+            day.plusDays(1).atStartOfDay());
+  }
+}
@@ -1,16 +1,39 @@
 package com.example.e_commerce.repository;
 
+import com.example.e_commerce.dto.ProductSummary;
 import com.example.e_commerce.model.Product;
-import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
-  @Lock(LockModeType.PESSIMISTIC_WRITE)
-  @Query("SELECT p FROM Product p WHERE p.id = :id")
-  Optional<Product> findByIdWithLock(@Param("id") Long id);
+  // Constructor expressions select only the listed columns and return plain
+  // records: nothing enters the persistence context, so there is no
+  // description to load and no snapshot to dirty-check
+  String SUMMARY = """
+          SELECT new com.example.e_commerce.dto.ProductSummary(
+              p.id, p.sku, p.name, p.price,
+              CASE WHEN p.stockQuantity > 0 THEN true ELSE false END,
+              p.category, p.active)
+          FROM Product p
+          """;
+
+  // Keyset pages in id order: the next page starts after the last id seen
+  @Query(SUMMARY + "WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+  List<ProductSummary> findActiveSummaries(@Param("afterId") long afterId,
+                                           Limit limit);
+
+  @Query(SUMMARY + "WHERE p.active = true AND p.category = :category " +
+          "AND p.id > :afterId ORDER BY p.id")
+  List<ProductSummary> findActiveSummariesInCategory(
+          @Param("category") String category, @Param("afterId") long afterId,
+          Limit limit);
+
+  @Query(SUMMARY + "WHERE p.active = true AND p.id IN :ids")
+  List<ProductSummary> findActiveSummariesById(
+          @Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,29 @@
+package com.example.e_commerce.repository;
+
+import com.example.e_commerce.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockReservationRepository
+        extends JpaRepository<StockReservation, Long> {
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT r FROM StockReservation r WHERE r.id = :id")
+  Optional<StockReservation> findByIdWithLock(@Param("id") Long id);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT r FROM StockReservation r WHERE r.id IN :ids")
+  List<StockReservation> findAllByIdWithLock(
+          @Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query("DELETE FROM StockReservation r WHERE r.id IN :ids")
+  int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
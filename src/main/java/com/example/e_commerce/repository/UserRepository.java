@@ -0,0 +1,15 @@
+package com.example.e_commerce.repository;
+
+import com.example.e_commerce.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserRepository extends JpaRepository<User, Long> {
+  boolean existsByEmail(String email);
+
+  @Query("SELECT u.id FROM User u WHERE u.email = :email")
+  Optional<Long> findIdByEmail(@Param("email") String email);
+}
@@ -0,0 +1,146 @@
+package com.example.e_commerce.reservation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hashed timing wheel: each bucket covers one tick, timeouts further away than
+// one revolution carry a "rounds" counter. Scheduling and cancelling are O(1),
+// advancing only touches the buckets of the ticks that elapsed.
+public class HashedTimingWheel<T> {
+  private final long tickMillis;
+  private final Bucket<T>[] buckets;
+  private final int mask;
+
+  // Absolute number of the next tick that has not been processed yet
+  private long currentTick;
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  public HashedTimingWheel(Duration tickDuration, int ticksPerWheel,
+                           long startMillis) {
+    if (tickDuration.toMillis() <= 0) {
+      throw new IllegalArgumentException("Tick duration must be at least 1ms");
+    }
+    if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+      throw new IllegalArgumentException(
+              "Ticks per wheel must be a positive power of two");
+    }
+    this.tickMillis = tickDuration.toMillis();
+    this.buckets = new Bucket[ticksPerWheel];
+    for (int i = 0; i < ticksPerWheel; i++) {
+      buckets[i] = new Bucket<>();
+    }
+    this.mask = ticksPerWheel - 1;
+    this.currentTick = startMillis / tickMillis;
+  }
+
+  public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+    // Round up so a timeout never fires before its deadline; deadlines that
+    // are already due land in the next bucket to be processed
+    long deadlineTick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis,
+            currentTick);
+    Timeout<T> timeout = new Timeout<>(payload, deadlineMillis,
+            (deadlineTick - currentTick) / buckets.length);
+    buckets[(int) (deadlineTick & mask)].add(timeout);
+    size++;
+    return timeout;
+  }
+
+  public synchronized boolean cancel(Timeout<T> timeout) {
+    if (timeout.bucket == null) {
+      return false;
+    }
+    timeout.bucket.remove(timeout);
+    size--;
+    return true;
+  }
+
+  // Processes every tick up to and including the one containing nowMillis and
+  // returns the payloads of the timeouts that expired, in tick order
+  public synchronized List<T> advance(long nowMillis) {
+    long nowTick = nowMillis / tickMillis;
+    List<T> expired = new ArrayList<>();
+    if (size == 0) {
+      currentTick = Math.max(currentTick, nowTick + 1);
+      return expired;
+    }
+    while (currentTick <= nowTick && size > 0) {
+      Bucket<T> bucket = buckets[(int) (currentTick & mask)];
+      Timeout<T> timeout = bucket.head;
+      while (timeout != null) {
+        Timeout<T> next = timeout.next;
+        if (timeout.remainingRounds <= 0) {
+          bucket.remove(timeout);
+          size--;
+          expired.add(timeout.payload);
+        } else {
+          timeout.remainingRounds--;
+        }
+        timeout = next;
+      }
+      currentTick++;
+    }
+    currentTick = Math.max(currentTick, nowTick + 1);
+    return expired;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public static final class Timeout<T> {
+    private final T payload;
+    private final long deadlineMillis;
+    private long remainingRounds;
+    private Bucket<T> bucket;
+    private Timeout<T> prev;
+    private Timeout<T> next;
+
+    private Timeout(T payload, long deadlineMillis, long remainingRounds) {
+      this.payload = payload;
+      this.deadlineMillis = deadlineMillis;
+      this.remainingRounds = remainingRounds;
+    }
+
+    public T getPayload() {
+      return payload;
+    }
+
+    public long getDeadlineMillis() {
+      return deadlineMillis;
+    }
+  }
+
+  private static final class Bucket<T> {
+    private Timeout<T> head;
+    private Timeout<T> tail;
+
+    private void add(Timeout<T> timeout) {
+      timeout.bucket = this;
+      if (tail == null) {
+        head = tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    private void remove(Timeout<T> timeout) {
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      } else {
+        tail = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.e_commerce.reservation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.reservation")
+public record ReservationProperties(
+        @DefaultValue("PT10M") Duration holdDuration,
+        @DefaultValue("PT1S") Duration tickDuration,
+        @DefaultValue("512") int ticksPerWheel,
+        @DefaultValue("500") int releaseBatchSize) {
+}
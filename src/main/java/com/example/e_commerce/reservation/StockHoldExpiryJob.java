@@ -0,0 +1,53 @@
+package com.example.e_commerce.reservation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class StockHoldExpiryJob {
+  private static final Logger log =
+          LoggerFactory.getLogger(StockHoldExpiryJob.class);
+
+  private final StockHoldTimer holdTimer;
+  private final StockReservationService reservationService;
+  private final ReservationProperties properties;
+
+  public StockHoldExpiryJob(StockHoldTimer holdTimer,
+                            StockReservationService reservationService,
+                            ReservationProperties properties) {
+    this.holdTimer = holdTimer;
+    this.reservationService = reservationService;
+    this.properties = properties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void restoreHolds() {
+    int restored = reservationService.reloadActiveHolds();
+    log.info("Restored {} stock holds into the expiry wheel", restored);
+  }
+
+  @Scheduled(fixedDelayString = "${app.reservation.tick-duration:PT1S}")
+  public void releaseExpiredHolds() {
+    List<Long> expired = holdTimer.expireDue(System.currentTimeMillis());
+    int batchSize = properties.releaseBatchSize();
+    for (int from = 0; from < expired.size(); from += batchSize) {
+      List<Long> batch =
+              expired.subList(from, Math.min(from + batchSize, expired.size()));
+      try {
+        int released = reservationService.releaseExpired(batch);
+        log.debug("Released {} expired stock holds", released);
+      } catch (RuntimeException e) {
+        // Put the batch back so the next tick retries it
+        log.warn("Failed to release {} expired stock holds", batch.size(), e);
+        batch.forEach(id -> holdTimer.track(id, LocalDateTime.now()));
+      }
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.example.e_commerce.reservation;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory expiry index for stock holds. The database row is the source of
+// truth; this only decides *when* a hold has to be looked at again.
+@Component
+public class StockHoldTimer {
+  private final HashedTimingWheel<Long> wheel;
+  private final Map<Long, HashedTimingWheel.Timeout<Long>> timeouts =
+          new ConcurrentHashMap<>();
+
+  public StockHoldTimer(ReservationProperties properties) {
+    this.wheel = new HashedTimingWheel<>(properties.tickDuration(),
+            properties.ticksPerWheel(), System.currentTimeMillis());
+  }
+
+  public void track(Long reservationId, LocalDateTime expiresAt) {
+    long deadline = expiresAt.atZone(ZoneId.systemDefault())
+            .toInstant().toEpochMilli();
+    timeouts.put(reservationId, wheel.schedule(reservationId, deadline));
+  }
+
+  public void untrack(Long reservationId) {
+    HashedTimingWheel.Timeout<Long> timeout = timeouts.remove(reservationId);
+    if (timeout != null) {
+      wheel.cancel(timeout);
+    }
+  }
+
+  public List<Long> expireDue(long nowMillis) {
+    List<Long> expired = wheel.advance(nowMillis);
+    expired.forEach(timeouts::remove);
+    return expired;
+  }
+
+  public int trackedHolds() {
+    return wheel.size();
+  }
+}
@@ -0,0 +1,123 @@
+package com.example.e_commerce.reservation;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.exception.ReservationNotFoundException;
+import com.example.e_commerce.model.StockReservation;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.StockReservationRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.stock.StockChange;
+import com.example.e_commerce.stock.StockLedger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@Workload(WorkloadClass.CHECKOUT)
+public class StockReservationService {
+  private final StockReservationRepository reservationRepository;
+  private final ProductRepository productRepository;
+  private final UserRepository userRepository;
+  private final StockLedger stockLedger;
+  private final StockHoldTimer holdTimer;
+  private final ReservationProperties properties;
+
+  public StockReservationService(
+          StockReservationRepository reservationRepository,
+          ProductRepository productRepository, UserRepository userRepository,
+          StockLedger stockLedger, StockHoldTimer holdTimer,
+          ReservationProperties properties) {
+    this.reservationRepository = reservationRepository;
+    this.productRepository = productRepository;
+    this.userRepository = userRepository;
+    this.stockLedger = stockLedger;
+    this.holdTimer = holdTimer;
+    this.properties = properties;
+  }
+
+  @Transactional
+  public StockReservation reserve(Long productId, Long userId, int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be greater than 0");
+    }
+    // Saved first so the movement can point at it; rolled back with it
+    StockReservation reservation = reservationRepository.save(
+            new StockReservation(productRepository.getReferenceById(productId),
+                    userRepository.getReferenceById(userId), quantity,
+                    LocalDateTime.now().plus(properties.holdDuration())));
+    Long reservationId = reservation.getId();
+    stockLedger.take(productId, quantity, StockMovementType.RESERVATION,
+            reservationId);
+    LocalDateTime expiresAt = reservation.getExpiresAt();
+    afterCommit(() -> holdTimer.track(reservationId, expiresAt));
+    return reservation;
+  }
+
+  // Turns the hold into a sale: the row goes away, the stock stays taken
+  @Transactional
+  public StockReservation confirm(Long reservationId) {
+    StockReservation reservation = reservationRepository
+            .findByIdWithLock(reservationId)
+            .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+    reservationRepository.delete(reservation);
+    afterCommit(() -> holdTimer.untrack(reservationId));
+    return reservation;
+  }
+
+  @Transactional
+  public void release(Long reservationId) {
+    StockReservation reservation = reservationRepository
+            .findByIdWithLock(reservationId)
+            .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+    stockLedger.put(reservation.getProduct().getId(),
+            reservation.getQuantity(), StockMovementType.RELEASE,
+            reservationId);
+    reservationRepository.delete(reservation);
+    afterCommit(() -> holdTimer.untrack(reservationId));
+  }
+
+  // Holds confirmed or released concurrently are simply no longer found
+  @Transactional
+  public int releaseExpired(Collection<Long> reservationIds) {
+    List<StockReservation> reservations =
+            reservationRepository.findAllByIdWithLock(reservationIds);
+    if (reservations.isEmpty()) {
+      return 0;
+    }
+
+    stockLedger.putAll(reservations.stream()
+            .map(r -> new StockChange(r.getProduct().getId(), r.getQuantity(),
+                    StockMovementType.RELEASE, r.getId()))
+            .toList());
+
+    return reservationRepository.deleteAllByIdIn(reservations.stream()
+            .map(StockReservation::getId)
+            .toList());
+  }
+
+  // The reservations table only ever holds live holds, so reading it once at
+  // startup is cheap; overdue holds expire on the first tick
+  @Transactional(readOnly = true)
+  public int reloadActiveHolds() {
+    List<StockReservation> reservations = reservationRepository.findAll();
+    reservations.forEach(r -> holdTimer.track(r.getId(), r.getExpiresAt()));
+    return reservations.size();
+  }
+
+  private void afterCommit(Runnable action) {
+    TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+              @Override
+              public void afterCommit() {
+                action.run();
+              }
+            });
+  }
+}
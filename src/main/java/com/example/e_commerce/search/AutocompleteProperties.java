@@ -0,0 +1,20 @@
+package com.example.e_commerce.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.autocomplete")
+public record AutocompleteProperties(
+        @DefaultValue("true") boolean enabled,
+        // Kept per prefix, so earlier words in the query have some to filter
+        @DefaultValue("50") int candidateLimit,
+        // Prefixes with more postings than this are ranked at build time
+        @DefaultValue("256") int scanLimit,
+        @DefaultValue("PT15M") Duration rebuildInterval,
+        // Patches waiting for a rebuild; each one is scanned on every query
+        @DefaultValue("1000") int maxPendingChanges,
+        // Popularity = units sold over this window
+        @DefaultValue("P30D") Duration popularityWindow) {
+}
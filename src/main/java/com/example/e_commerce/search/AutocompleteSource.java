@@ -0,0 +1,9 @@
+package com.example.e_commerce.search;
+
+import java.util.List;
+
+// Everything a full rebuild indexes: active products with their popularity
+@FunctionalInterface
+public interface AutocompleteSource {
+  List<IndexedProduct> load();
+}
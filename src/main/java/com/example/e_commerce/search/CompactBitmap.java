@@ -0,0 +1,533 @@
+package com.example.e_commerce.search;
+
+import java.util.Arrays;
+
+// Compressed bitmap of non-negative ints in the layout of Roaring bitmaps:
+// values are grouped by their high 16 bits, and each group of up to 65536
+// is stored as a sorted char[] while it holds at most 4096 values and as a
+// 1024-word bitset above that. Sparse facets (a small category) cost two
+// bytes per product, dense ones (active, in stock) one bit per id, and an
+// AND of two dense groups is 1024 word operations. Not thread-safe.
+public class CompactBitmap {
+  static final int ARRAY_MAX = 4096;
+  private static final int WORDS = 1024;
+  // Below this size ratio a plain merge beats galloping (as in Roaring)
+  private static final int GALLOP_RATIO = 64;
+
+  private char[] keys = new char[4];
+  private Container[] containers = new Container[4];
+  private int size;
+
+  public void add(int value) {
+    checkValue(value);
+    char key = (char) (value >>> 16);
+    int index = indexOf(key);
+    if (index < 0) {
+      index = -index - 1;
+      insert(index, key, new ArrayContainer());
+    }
+    containers[index] = containers[index].add((char) value);
+  }
+
+  public void remove(int value) {
+    if (value < 0) {
+      return;
+    }
+    int index = indexOf((char) (value >>> 16));
+    if (index < 0) {
+      return;
+    }
+    Container container = containers[index].remove((char) value);
+    if (container.cardinality() == 0) {
+      delete(index);
+    } else {
+      containers[index] = container;
+    }
+  }
+
+  public boolean contains(int value) {
+    if (value < 0) {
+      return false;
+    }
+    int index = indexOf((char) (value >>> 16));
+    return index >= 0 && containers[index].contains((char) value);
+  }
+
+  public long cardinality() {
+    long cardinality = 0;
+    for (int i = 0; i < size; i++) {
+      cardinality += containers[i].cardinality();
+    }
+    return cardinality;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public CompactBitmap and(CompactBitmap other) {
+    CompactBitmap result = new CompactBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < size && j < other.size) {
+      if (keys[i] < other.keys[j]) {
+        i++;
+      } else if (keys[i] > other.keys[j]) {
+        j++;
+      } else {
+        Container container = containers[i].and(other.containers[j]);
+        if (container.cardinality() > 0) {
+          result.append(keys[i], container);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  // Same as and(other).cardinality() without building the intersection
+  public long andCardinality(CompactBitmap other) {
+    long cardinality = 0;
+    int i = 0;
+    int j = 0;
+    while (i < size && j < other.size) {
+      if (keys[i] < other.keys[j]) {
+        i++;
+      } else if (keys[i] > other.keys[j]) {
+        j++;
+      } else {
+        cardinality += containers[i].andCardinality(other.containers[j]);
+        i++;
+        j++;
+      }
+    }
+    return cardinality;
+  }
+
+  public CompactBitmap or(CompactBitmap other) {
+    CompactBitmap result = new CompactBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < size || j < other.size) {
+      if (j == other.size || i < size && keys[i] < other.keys[j]) {
+        result.append(keys[i], containers[i].copy());
+        i++;
+      } else if (i == size || keys[i] > other.keys[j]) {
+        result.append(other.keys[j], other.containers[j].copy());
+        j++;
+      } else {
+        result.append(keys[i], containers[i].or(other.containers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  // Copy with every group stored as a bitset. Worth it before intersecting
+  // one bitmap with many others: each intersection then probes bits instead
+  // of merging two sorted arrays.
+  public CompactBitmap dense() {
+    CompactBitmap result = new CompactBitmap();
+    for (int i = 0; i < size; i++) {
+      Container container = containers[i];
+      result.append(keys[i], container instanceof ArrayContainer array
+              ? array.toBitmap() : container.copy());
+    }
+    return result;
+  }
+
+  // The lowest values, at most limit of them, in ascending order
+  public int[] first(int limit) {
+    int[] values = new int[(int) Math.min(limit, cardinality())];
+    int next = 0;
+    for (int i = 0; i < size && next < values.length; i++) {
+      next = containers[i].copyTo(keys[i] << 16, values, next);
+    }
+    return values;
+  }
+
+  // Estimate from array lengths, compressed oops
+  public long memoryBytes() {
+    long bytes = 16 + 16 + keys.length * 2L + 16 + containers.length * 4L;
+    for (int i = 0; i < size; i++) {
+      bytes += containers[i].memoryBytes();
+    }
+    return bytes;
+  }
+
+  private int indexOf(char key) {
+    return Arrays.binarySearch(keys, 0, size, key);
+  }
+
+  private void insert(int index, char key, Container container) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      containers = Arrays.copyOf(containers, size * 2);
+    }
+    System.arraycopy(keys, index, keys, index + 1, size - index);
+    System.arraycopy(containers, index, containers, index + 1, size - index);
+    keys[index] = key;
+    containers[index] = container;
+    size++;
+  }
+
+  private void append(char key, Container container) {
+    insert(size, key, container);
+  }
+
+  private void delete(int index) {
+    System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+    System.arraycopy(containers, index + 1, containers, index,
+            size - index - 1);
+    containers[--size] = null;
+  }
+
+  private static void checkValue(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Value must be >= 0");
+    }
+  }
+
+  private abstract static class Container {
+    // Both return the container to keep, which may change representation
+    abstract Container add(char value);
+
+    abstract Container remove(char value);
+
+    abstract boolean contains(char value);
+
+    abstract int cardinality();
+
+    abstract Container and(Container other);
+
+    abstract int andCardinality(Container other);
+
+    abstract Container or(Container other);
+
+    abstract Container copy();
+
+    abstract int copyTo(int high, int[] target, int next);
+
+    abstract long memoryBytes();
+  }
+
+  private static final class ArrayContainer extends Container {
+    private char[] values;
+    private int cardinality;
+
+    ArrayContainer() {
+      this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    Container add(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_MAX) {
+        return toBitmap().add(value);
+      }
+      index = -index - 1;
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+      }
+      System.arraycopy(values, index, values, index + 1, cardinality - index);
+      values[index] = value;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index,
+                cardinality - index - 1);
+        cardinality--;
+        if (cardinality < values.length / 4) {
+          values = Arrays.copyOf(values, values.length / 2);
+        }
+      }
+      return this;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    Container and(Container other) {
+      char[] result = new char[Math.min(cardinality, other.cardinality())];
+      int count = 0;
+      if (other instanceof BitmapContainer bitmap) {
+        for (int i = 0; i < cardinality; i++) {
+          if (bitmap.contains(values[i])) {
+            result[count++] = values[i];
+          }
+        }
+      } else {
+        ArrayContainer array = (ArrayContainer) other;
+        ArrayContainer small = cardinality <= array.cardinality ? this : array;
+        ArrayContainer large = small == this ? array : this;
+        boolean gallop = small.cardinality * GALLOP_RATIO < large.cardinality;
+        int i = 0;
+        int j = 0;
+        while (i < small.cardinality && j < large.cardinality) {
+          char value = small.values[i];
+          if (gallop) {
+            j = large.advance(j, value);
+          } else {
+            while (j < large.cardinality && large.values[j] < value) {
+              j++;
+            }
+          }
+          if (j < large.cardinality && large.values[j] == value) {
+            result[count++] = value;
+          }
+          i++;
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    int andCardinality(Container other) {
+      int count = 0;
+      if (other instanceof BitmapContainer bitmap) {
+        for (int i = 0; i < cardinality; i++) {
+          if (bitmap.contains(values[i])) {
+            count++;
+          }
+        }
+        return count;
+      }
+      ArrayContainer array = (ArrayContainer) other;
+      ArrayContainer small = cardinality <= array.cardinality ? this : array;
+      ArrayContainer large = small == this ? array : this;
+      boolean gallop = small.cardinality * GALLOP_RATIO < large.cardinality;
+      int i = 0;
+      int j = 0;
+      while (i < small.cardinality && j < large.cardinality) {
+        char value = small.values[i];
+        if (gallop) {
+          j = large.advance(j, value);
+        } else {
+          while (j < large.cardinality && large.values[j] < value) {
+            j++;
+          }
+        }
+        if (j < large.cardinality && large.values[j] == value) {
+          count++;
+        }
+        i++;
+      }
+      return count;
+    }
+
+    // First index >= from holding a value >= target. Gallops, then binary
+    // searches: for very uneven sizes that beats walking the larger array
+    int advance(int from, char target) {
+      int step = 1;
+      int high = from;
+      while (high < cardinality && values[high] < target) {
+        from = high + 1;
+        high += step;
+        step <<= 1;
+      }
+      int index = Arrays.binarySearch(values, from,
+              Math.min(high + 1, cardinality), target);
+      return index >= 0 ? index : -index - 1;
+    }
+
+    @Override
+    Container or(Container other) {
+      if (other instanceof BitmapContainer bitmap) {
+        return bitmap.or(this);
+      }
+      ArrayContainer array = (ArrayContainer) other;
+      char[] result = new char[cardinality + array.cardinality];
+      int count = 0;
+      int i = 0;
+      int j = 0;
+      while (i < cardinality || j < array.cardinality) {
+        if (j == array.cardinality ||
+                i < cardinality && values[i] < array.values[j]) {
+          result[count++] = values[i++];
+        } else if (i == cardinality || values[i] > array.values[j]) {
+          result[count++] = array.values[j++];
+        } else {
+          result[count++] = values[i++];
+          j++;
+        }
+      }
+      ArrayContainer union = new ArrayContainer(result, count);
+      return count > ARRAY_MAX ? union.toBitmap() : union;
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, cardinality),
+              cardinality);
+    }
+
+    @Override
+    int copyTo(int high, int[] target, int next) {
+      for (int i = 0; i < cardinality && next < target.length; i++) {
+        target[next++] = high | values[i];
+      }
+      return next;
+    }
+
+    @Override
+    long memoryBytes() {
+      return 16 + 16 + values.length * 2L;
+    }
+
+    BitmapContainer toBitmap() {
+      BitmapContainer bitmap = new BitmapContainer();
+      for (int i = 0; i < cardinality; i++) {
+        bitmap.add(values[i]);
+      }
+      return bitmap;
+    }
+  }
+
+  private static final class BitmapContainer extends Container {
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer() {
+      this(new long[WORDS], 0);
+    }
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    Container add(char value) {
+      long before = words[value >>> 6];
+      words[value >>> 6] = before | 1L << value;
+      if (before != words[value >>> 6]) {
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(char value) {
+      long before = words[value >>> 6];
+      words[value >>> 6] = before & ~(1L << value);
+      if (before == words[value >>> 6]) {
+        return this;
+      }
+      cardinality--;
+      return cardinality <= ARRAY_MAX ? toArray() : this;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return (words[value >>> 6] & 1L << value) != 0;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    Container and(Container other) {
+      if (other instanceof ArrayContainer array) {
+        return array.and(this);
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      long[] result = new long[WORDS];
+      int count = 0;
+      for (int i = 0; i < WORDS; i++) {
+        result[i] = words[i] & otherWords[i];
+        count += Long.bitCount(result[i]);
+      }
+      BitmapContainer intersection = new BitmapContainer(result, count);
+      return count <= ARRAY_MAX ? intersection.toArray() : intersection;
+    }
+
+    @Override
+    int andCardinality(Container other) {
+      if (other instanceof ArrayContainer array) {
+        return array.andCardinality(this);
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      int count = 0;
+      for (int i = 0; i < WORDS; i++) {
+        count += Long.bitCount(words[i] & otherWords[i]);
+      }
+      return count;
+    }
+
+    @Override
+    Container or(Container other) {
+      BitmapContainer union = (BitmapContainer) copy();
+      if (other instanceof ArrayContainer array) {
+        for (int i = 0; i < array.cardinality; i++) {
+          union.add(array.values[i]);
+        }
+        return union;
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      int count = 0;
+      for (int i = 0; i < WORDS; i++) {
+        union.words[i] |= otherWords[i];
+        count += Long.bitCount(union.words[i]);
+      }
+      union.cardinality = count;
+      return union;
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    @Override
+    int copyTo(int high, int[] target, int next) {
+      for (int i = 0; i < WORDS && next < target.length; i++) {
+        long word = words[i];
+        while (word != 0 && next < target.length) {
+          target[next++] = high | i << 6 | Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+        }
+      }
+      return next;
+    }
+
+    @Override
+    long memoryBytes() {
+      return 16 + 16 + WORDS * 8L;
+    }
+
+    ArrayContainer toArray() {
+      char[] values = new char[cardinality];
+      int[] expanded = new int[cardinality];
+      copyTo(0, expanded, 0);
+      for (int i = 0; i < cardinality; i++) {
+        values[i] = (char) expanded[i];
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.e_commerce.search;
+
+import java.util.Set;
+
+// category null and an empty bands set mean "any"; several bands are OR-ed
+public record FacetFilter(String category, Set<Integer> bands,
+                          boolean inStockOnly, boolean includeInactive) {
+  public FacetFilter {
+    bands = bands == null ? Set.of() : Set.copyOf(bands);
+  }
+}
@@ -0,0 +1,182 @@
+package com.example.e_commerce.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Facet bitmaps over product ids: one per category, one per price band,
+// plus in-stock, active and all. A filter is a few ANDs and every facet
+// count is one andCardinality, so a catalog page costs the same whatever
+// the number of facet values. Product ids serve as bitmap positions
+// directly; they come from an identity column and stay well below 2^31.
+// Not thread-safe, see ProductFacets.
+public class FacetIndex {
+  private static final CompactBitmap NONE = new CompactBitmap();
+
+  private final BigDecimal[] bandBounds;
+  private final Map<String, CompactBitmap> categories = new TreeMap<>();
+  private final CompactBitmap[] bands;
+  private final CompactBitmap inStock = new CompactBitmap();
+  private final CompactBitmap active = new CompactBitmap();
+  private final CompactBitmap all = new CompactBitmap();
+
+  // Band i holds prices in [bounds[i - 1], bounds[i]), the last one is open
+  public FacetIndex(List<BigDecimal> bandBounds) {
+    this.bandBounds = bandBounds.toArray(new BigDecimal[0]);
+    for (int i = 1; i < this.bandBounds.length; i++) {
+      if (this.bandBounds[i - 1].compareTo(this.bandBounds[i]) >= 0) {
+        throw new IllegalArgumentException(
+                "Price band bounds must be ascending");
+      }
+    }
+    this.bands = new CompactBitmap[this.bandBounds.length + 1];
+    Arrays.setAll(bands, i -> new CompactBitmap());
+  }
+
+  // Insert or replace; a product only ever sits in one category and band.
+  // Returns false when nothing the facets see has changed, which is the
+  // common case for a sale that leaves some stock.
+  public boolean put(FacetedProduct product) {
+    int id = position(product.id());
+    if (indexedAs(id, product)) {
+      return false;
+    }
+    remove(product.id());
+    all.add(id);
+    if (product.active()) {
+      active.add(id);
+    }
+    if (product.stockQuantity() > 0) {
+      inStock.add(id);
+    }
+    if (product.category() != null) {
+      categories.computeIfAbsent(product.category(), key -> new CompactBitmap())
+              .add(id);
+    }
+    if (product.price() != null) {
+      bands[bandOf(product.price())].add(id);
+    }
+    return true;
+  }
+
+  // Checks every category, which is cheaper than remembering each
+  // product's previous one while categories number in the hundreds
+  public boolean remove(long productId) {
+    int id = position(productId);
+    if (!all.contains(id)) {
+      return false;
+    }
+    all.remove(id);
+    active.remove(id);
+    inStock.remove(id);
+    categories.values().removeIf(bitmap -> {
+      bitmap.remove(id);
+      return bitmap.isEmpty();
+    });
+    for (CompactBitmap band : bands) {
+      band.remove(id);
+    }
+    return true;
+  }
+
+  public FacetResult search(FacetFilter filter, int limit) {
+    CompactBitmap base = filter.includeInactive() ? all : active;
+    if (filter.inStockOnly()) {
+      base = base.and(inStock);
+    }
+    CompactBitmap inCategory = filter.category() == null ? null
+            : categories.getOrDefault(filter.category(), NONE);
+    CompactBitmap inBands = null;
+    for (int band : filter.bands()) {
+      if (band >= 0 && band < bands.length) {
+        inBands = inBands == null ? bands[band] : inBands.or(bands[band]);
+      }
+    }
+    if (inBands == null && !filter.bands().isEmpty()) {
+      inBands = NONE;
+    }
+
+    CompactBitmap forCategories = inBands == null ? base : base.and(inBands);
+    CompactBitmap forBands = inCategory == null ? base : base.and(inCategory);
+    CompactBitmap matches = inCategory == null ? forCategories
+            : forCategories.and(inCategory);
+
+    // Intersected once per category: merging costs about its size per
+    // category, expanding it first costs the size of all categories
+    CompactBitmap probe = forCategories != base &&
+            forCategories.cardinality() * categories.size() > all.cardinality()
+            ? forCategories.dense() : forCategories;
+    Map<String, Long> categoryCounts = new LinkedHashMap<>();
+    categories.forEach((category, bitmap) -> {
+      long count = probe.andCardinality(bitmap);
+      if (count > 0) {
+        categoryCounts.put(category, count);
+      }
+    });
+    List<Long> bandCounts = new ArrayList<>(bands.length);
+    for (CompactBitmap band : bands) {
+      bandCounts.add(forBands.andCardinality(band));
+    }
+    long inStockCount = filter.inStockOnly() ? matches.cardinality()
+            : matches.andCardinality(inStock);
+    List<Long> productIds = Arrays.stream(matches.first(limit))
+            .mapToObj(id -> (long) id)
+            .toList();
+    return new FacetResult(matches.cardinality(), productIds,
+            Collections.unmodifiableMap(categoryCounts),
+            List.copyOf(bandCounts), inStockCount);
+  }
+
+  public int bandOf(BigDecimal price) {
+    int band = 0;
+    while (band < bandBounds.length && price.compareTo(bandBounds[band]) >= 0) {
+      band++;
+    }
+    return band;
+  }
+
+  public List<BigDecimal> bandBounds() {
+    return List.of(bandBounds);
+  }
+
+  public long size() {
+    return all.cardinality();
+  }
+
+  public long memoryBytes() {
+    long bytes = all.memoryBytes() + active.memoryBytes() +
+            inStock.memoryBytes();
+    for (CompactBitmap bitmap : categories.values()) {
+      bytes += bitmap.memoryBytes();
+    }
+    for (CompactBitmap band : bands) {
+      bytes += band.memoryBytes();
+    }
+    return bytes;
+  }
+
+  private boolean indexedAs(int id, FacetedProduct product) {
+    if (!all.contains(id) || product.category() == null ||
+            product.price() == null) {
+      return false;
+    }
+    CompactBitmap category = categories.get(product.category());
+    return active.contains(id) == product.active() &&
+            inStock.contains(id) == product.stockQuantity() > 0 &&
+            category != null && category.contains(id) &&
+            bands[bandOf(product.price())].contains(id);
+  }
+
+  private static int position(long productId) {
+    if (productId < 0 || productId > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Product id out of range: " +
+              productId);
+    }
+    return (int) productId;
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.e_commerce.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.facets")
+public record FacetProperties(
+        @DefaultValue("true") boolean enabled,
+        // n ascending bounds make n + 1 bands, the last one open-ended
+        @DefaultValue({"10", "25", "50", "100", "250", "500", "1000"})
+        List<BigDecimal> priceBands,
+        // Catches writes that bypass JPA, e.g. bulk updates and reservations
+        @DefaultValue("PT15M") Duration rebuildInterval,
+        // Distinct filter combinations kept between edits
+        @DefaultValue("1000") int cachedResults) {
+}
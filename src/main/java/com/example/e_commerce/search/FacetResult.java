@@ -0,0 +1,12 @@
+package com.example.e_commerce.search;
+
+import java.util.List;
+import java.util.Map;
+
+// Counts follow the usual multi-select rule: each facet is counted with
+// every other filter applied but not its own, so picking a category does
+// not zero out the other categories. inStock is counted on the matches.
+public record FacetResult(long total, List<Long> productIds,
+                          Map<String, Long> categoryCounts,
+                          List<Long> bandCounts, long inStockCount) {
+}
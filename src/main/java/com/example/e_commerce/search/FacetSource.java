@@ -0,0 +1,9 @@
+package com.example.e_commerce.search;
+
+import java.util.function.Consumer;
+
+// Streams every product into a fresh facet index on rebuild
+@FunctionalInterface
+public interface FacetSource {
+  void load(Consumer<FacetedProduct> sink);
+}
@@ -0,0 +1,8 @@
+package com.example.e_commerce.search;
+
+import java.math.BigDecimal;
+
+// What the facet index needs of a product
+public record FacetedProduct(long id, String category, BigDecimal price,
+                             int stockQuantity, boolean active) {
+}
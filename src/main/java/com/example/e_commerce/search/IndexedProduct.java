@@ -0,0 +1,13 @@
+package com.example.e_commerce.search;
+
+import java.util.Objects;
+
+// What the autocomplete index needs of a product; weight is its popularity
+public record IndexedProduct(long id, String name, String sku, long weight,
+                             boolean active) {
+  boolean sameText(IndexedProduct other) {
+    return other != null && active == other.active &&
+            Objects.equals(name, other.name) &&
+            Objects.equals(sku, other.sku);
+  }
+}
@@ -0,0 +1,45 @@
+package com.example.e_commerce.search;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One pass over products plus one aggregate over the recent order_items
+// partitions; the rows are streamed so the catalog is never held twice
+@Component
+public class JdbcAutocompleteSource implements AutocompleteSource {
+  private final AutocompleteProperties properties;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public JdbcAutocompleteSource(AutocompleteProperties properties,
+                                DataSource dataSource,
+                                TransactionTemplate transactionTemplate) {
+    this.properties = properties;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(10_000);
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @Override
+  public List<IndexedProduct> load() {
+    LocalDateTime since = LocalDateTime.now()
+            .minus(properties.popularityWindow());
+    return transactionTemplate.execute(status -> jdbcTemplate.query(
+            "SELECT p.id, p.name, p.sku, coalesce(s.units, 0) AS units " +
+                    "FROM products p LEFT JOIN (" +
+                    "SELECT product_id, sum(quantity) AS units " +
+                    "FROM order_items WHERE created_at >= ? " +
+                    "GROUP BY product_id) s ON s.product_id = p.id " +
+                    "WHERE p.active",
+            (rs, rowNum) -> new IndexedProduct(rs.getLong("id"),
+                    rs.getString("name"), rs.getString("sku"),
+                    rs.getLong("units"), true),
+            Timestamp.valueOf(since)));
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.e_commerce.search;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+@Component
+public class JdbcFacetSource implements FacetSource {
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public JdbcFacetSource(DataSource dataSource,
+                         TransactionTemplate transactionTemplate) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(10_000);
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @Override
+  public void load(Consumer<FacetedProduct> sink) {
+    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+            "SELECT id, category, price, stock_quantity, active FROM products",
+            rs -> sink.accept(new FacetedProduct(rs.getLong("id"),
+                    rs.getString("category"), rs.getBigDecimal("price"),
+                    rs.getInt("stock_quantity"), rs.getBoolean("active")))));
+  }
+}
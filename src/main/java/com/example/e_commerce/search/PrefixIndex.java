@@ -0,0 +1,289 @@
+package com.example.e_commerce.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable prefix index over product terms. Distinct terms are sorted and
+// packed into one char[]; each term points at its postings, which are
+// stored as popularity ranks (0 = most popular) in ascending order. A
+// prefix is a contiguous range of terms, found by binary search.
+//
+// Small ranges are scanned at query time. For every prefix whose range
+// holds more than scanLimit postings, the best candidates are computed at
+// build time, so a one- or two-letter prefix costs a map lookup rather than
+// a scan of half the catalog. Only prefixes that are that busy get an entry.
+public class PrefixIndex {
+  private final long[] ids;
+  private final String[] names;
+  private final String[] skus;
+  private final long[] weights;
+  // " term1 term2 " per product, to check the words typed before the prefix
+  private final String[] paddedTerms;
+  private final int[] productByRank;
+
+  private final char[] termChars;
+  private final int[] termOffsets;
+  private final int[] termPostings;
+  private final int[] postingRanks;
+
+  private final Map<String, int[]> busyPrefixes;
+  private final int candidateLimit;
+  private final int scanLimit;
+
+  private PrefixIndex(List<IndexedProduct> products, int candidateLimit,
+                      int scanLimit) {
+    this.candidateLimit = candidateLimit;
+    this.scanLimit = scanLimit;
+    int count = products.size();
+    ids = new long[count];
+    names = new String[count];
+    skus = new String[count];
+    weights = new long[count];
+    paddedTerms = new String[count];
+    List<List<String>> termsByProduct = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      IndexedProduct product = products.get(i);
+      ids[i] = product.id();
+      names[i] = product.name();
+      skus[i] = product.sku();
+      weights[i] = product.weight();
+      List<String> terms = SearchNormalizer.terms(product.name(),
+              product.sku());
+      termsByProduct.add(terms);
+      paddedTerms[i] = " " + String.join(" ", terms) + " ";
+    }
+
+    // Heaviest first, ties broken by id so results are stable
+    Integer[] order = new Integer[count];
+    Arrays.setAll(order, i -> i);
+    Arrays.sort(order, Comparator.comparingLong((Integer i) -> -weights[i])
+            .thenComparingLong(i -> ids[i]));
+    productByRank = new int[count];
+    int[] rankOf = new int[count];
+    for (int rank = 0; rank < count; rank++) {
+      productByRank[rank] = order[rank];
+      rankOf[order[rank]] = rank;
+    }
+
+    // Postings as (term, rank) packed into longs, so one sort orders both
+    Map<String, Integer> termIds = new HashMap<>();
+    List<String> termList = new ArrayList<>();
+    int postings = termsByProduct.stream().mapToInt(List::size).sum();
+    long[] packed = new long[postings];
+    int next = 0;
+    for (int product = 0; product < count; product++) {
+      for (String term : termsByProduct.get(product)) {
+        int termId = termIds.computeIfAbsent(term, key -> {
+          termList.add(key);
+          return termList.size() - 1;
+        });
+        packed[next++] = (long) termId << 32 | rankOf[product];
+      }
+    }
+    String[] sortedTerms = termList.toArray(new String[0]);
+    Arrays.sort(sortedTerms);
+    int[] sortedIndex = new int[sortedTerms.length];
+    for (int i = 0; i < sortedTerms.length; i++) {
+      sortedIndex[termIds.get(sortedTerms[i])] = i;
+    }
+    for (int i = 0; i < postings; i++) {
+      packed[i] = (long) sortedIndex[(int) (packed[i] >>> 32)] << 32 |
+              (packed[i] & 0xffffffffL);
+    }
+    Arrays.sort(packed);
+
+    termOffsets = new int[sortedTerms.length + 1];
+    StringBuilder chars = new StringBuilder();
+    for (int i = 0; i < sortedTerms.length; i++) {
+      termOffsets[i] = chars.length();
+      chars.append(sortedTerms[i]);
+    }
+    termOffsets[sortedTerms.length] = chars.length();
+    termChars = chars.toString().toCharArray();
+
+    termPostings = new int[sortedTerms.length + 1];
+    postingRanks = new int[postings];
+    for (int i = 0; i < postings; i++) {
+      termPostings[(int) (packed[i] >>> 32) + 1]++;
+      postingRanks[i] = (int) packed[i];
+    }
+    for (int i = 0; i < sortedTerms.length; i++) {
+      termPostings[i + 1] += termPostings[i];
+    }
+
+    busyPrefixes = new HashMap<>();
+    indexBusyPrefixes("", 0, sortedTerms.length);
+    busyPrefixes.remove("");
+  }
+
+  public static PrefixIndex build(Collection<IndexedProduct> products,
+                                  int candidateLimit, int scanLimit) {
+    List<IndexedProduct> active = products.stream()
+            .filter(IndexedProduct::active)
+            .sorted(Comparator.comparingLong(IndexedProduct::id))
+            .toList();
+    return new PrefixIndex(active, candidateLimit, scanLimit);
+  }
+
+  public static PrefixIndex empty() {
+    return build(List.of(), 1, 1);
+  }
+
+  // Up to candidateLimit products whose terms start with prefix, most
+  // popular first; prefix must already be normalized
+  public List<IndexedProduct> candidates(String prefix) {
+    int[] ranks = busyPrefixes.get(prefix);
+    if (ranks == null) {
+      ranks = scan(lowerBound(prefix), upperBound(prefix));
+    }
+    List<IndexedProduct> products = new ArrayList<>(ranks.length);
+    for (int rank : ranks) {
+      products.add(product(productByRank[rank]));
+    }
+    return products;
+  }
+
+  // Whether the product has this exact term, for the words before the prefix
+  public boolean hasTerm(long productId, String term) {
+    int product = Arrays.binarySearch(ids, productId);
+    return product >= 0 && paddedTerms[product].contains(" " + term + " ");
+  }
+
+  public IndexedProduct find(long productId) {
+    int product = Arrays.binarySearch(ids, productId);
+    return product >= 0 ? product(product) : null;
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  public int termCount() {
+    return termOffsets.length - 1;
+  }
+
+  public int busyPrefixCount() {
+    return busyPrefixes.size();
+  }
+
+  private IndexedProduct product(int product) {
+    return new IndexedProduct(ids[product], names[product], skus[product],
+            weights[product], true);
+  }
+
+  // Returns the top ranks of terms [first, last), all starting with prefix.
+  // A busy range merges the lists of its children rather than sorting all
+  // of its postings, so the build stays linear in the number of postings.
+  private int[] indexBusyPrefixes(String prefix, int first, int last) {
+    if (termPostings[last] - termPostings[first] <= scanLimit) {
+      return topRanks(first, last);
+    }
+    int depth = prefix.length();
+    List<int[]> lists = new ArrayList<>();
+    int term = first;
+    // The term equal to the prefix itself sorts first and has no next char
+    while (term < last && termLength(term) == depth) {
+      lists.add(topRanks(term, term + 1));
+      term++;
+    }
+    while (term < last) {
+      char c = termChars[termOffsets[term] + depth];
+      int end = term;
+      while (end < last && termChars[termOffsets[end] + depth] == c) {
+        end++;
+      }
+      lists.add(indexBusyPrefixes(prefix + c, term, end));
+      term = end;
+    }
+    int[] merged = lowestDistinct(
+            lists.stream().flatMapToInt(Arrays::stream).toArray());
+    busyPrefixes.put(prefix, merged);
+    return merged;
+  }
+
+  private int[] scan(int first, int last) {
+    if (first >= last) {
+      return new int[0];
+    }
+    return topRanks(first, last);
+  }
+
+  // Lowest distinct ranks among the postings of terms [first, last)
+  private int[] topRanks(int first, int last) {
+    int from = termPostings[first];
+    int to = termPostings[last];
+    if (last - first == 1) {
+      // A single term's postings are already sorted and distinct
+      return Arrays.copyOfRange(postingRanks, from,
+              Math.min(to, from + candidateLimit));
+    }
+    return lowestDistinct(Arrays.copyOfRange(postingRanks, from, to));
+  }
+
+  private int[] lowestDistinct(int[] ranks) {
+    Arrays.sort(ranks);
+    int distinct = 0;
+    for (int i = 0; i < ranks.length && distinct < candidateLimit; i++) {
+      if (distinct == 0 || ranks[i] != ranks[distinct - 1]) {
+        ranks[distinct++] = ranks[i];
+      }
+    }
+    return Arrays.copyOf(ranks, distinct);
+  }
+
+  // First term >= prefix
+  private int lowerBound(String prefix) {
+    int low = 0;
+    int high = termCount();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(mid, prefix, false) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  // First term after every term that starts with prefix
+  private int upperBound(String prefix) {
+    int low = 0;
+    int high = termCount();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(mid, prefix, true) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  // With asPrefix, a term that starts with prefix compares as equal to it
+  private int compare(int term, String prefix, boolean asPrefix) {
+    int offset = termOffsets[term];
+    int length = termLength(term);
+    int common = Math.min(length, prefix.length());
+    for (int i = 0; i < common; i++) {
+      int diff = termChars[offset + i] - prefix.charAt(i);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    if (asPrefix && length >= prefix.length()) {
+      return 0;
+    }
+    return length - prefix.length();
+  }
+
+  private int termLength(int term) {
+    return termOffsets[term + 1] - termOffsets[term];
+  }
+}
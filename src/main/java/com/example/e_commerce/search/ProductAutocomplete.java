@@ -0,0 +1,152 @@
+package com.example.e_commerce.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Type-ahead over product names and SKUs. Queries read an immutable
+// PrefixIndex plus a small overlay of products changed since it was built;
+// neither needs a lock. Edits patch the overlay right after commit, and the
+// index is rebuilt from the database once the overlay grows past
+// maxPendingChanges or rebuildInterval has passed, which also picks up
+// fresh popularity and any write that bypassed JPA (bulk updates).
+@Component
+public class ProductAutocomplete {
+  private static final Logger log =
+          LoggerFactory.getLogger(ProductAutocomplete.class);
+  private static final Comparator<IndexedProduct> BY_POPULARITY =
+          Comparator.comparingLong((IndexedProduct p) -> -p.weight())
+                  .thenComparingLong(IndexedProduct::id);
+
+  private final AutocompleteProperties properties;
+  private final AutocompleteSource source;
+  // A null product marks a removal
+  private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Object rebuildLock = new Object();
+  private volatile PrefixIndex index = PrefixIndex.empty();
+  private volatile long builtAtMillis;
+
+  public ProductAutocomplete(AutocompleteProperties properties,
+                             AutocompleteSource source,
+                             MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.source = source;
+    meterRegistry.gauge("autocomplete.products", this, a -> a.index.size());
+    meterRegistry.gauge("autocomplete.pending", pending, Map::size);
+  }
+
+  // The last word is completed, the words before it must match whole
+  public List<IndexedProduct> complete(String query, int limit) {
+    List<String> tokens = SearchNormalizer.tokens(query);
+    if (tokens.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    String prefix = tokens.get(tokens.size() - 1);
+    List<String> words = tokens.subList(0, tokens.size() - 1);
+    PrefixIndex current = index;
+    List<IndexedProduct> matches = new ArrayList<>();
+    for (IndexedProduct product : current.candidates(prefix)) {
+      if (!pending.containsKey(product.id()) &&
+              words.stream().allMatch(w -> current.hasTerm(product.id(), w))) {
+        matches.add(product);
+      }
+    }
+    for (Pending change : pending.values()) {
+      if (change.product() != null && matches(change.product(), words,
+              prefix)) {
+        matches.add(change.product());
+      }
+    }
+    matches.sort(BY_POPULARITY);
+    return matches.size() > limit ? matches.subList(0, limit) : matches;
+  }
+
+  public synchronized void upsert(long id, String name, String sku,
+                                  boolean active) {
+    if (!properties.enabled()) {
+      return;
+    }
+    if (!active) {
+      remove(id);
+      return;
+    }
+    IndexedProduct current = find(id);
+    // Popularity only changes on rebuild; keep what the product had
+    IndexedProduct next = new IndexedProduct(id, name, sku,
+            current != null ? current.weight() : 0, true);
+    if (!next.sameText(current)) {
+      pending.put(id, new Pending(next, sequence.incrementAndGet()));
+    }
+  }
+
+  public synchronized void remove(long id) {
+    if (properties.enabled() && find(id) != null) {
+      pending.put(id, new Pending(null, sequence.incrementAndGet()));
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    if (!properties.enabled()) {
+      return;
+    }
+    synchronized (rebuildLock) {
+      // Every patch up to here was committed before the load starts, so it
+      // is in the new index; later ones stay in the overlay
+      long upTo = sequence.get();
+      long started = System.currentTimeMillis();
+      PrefixIndex next = PrefixIndex.build(source.load(),
+              properties.candidateLimit(), properties.scanLimit());
+      index = next;
+      pending.values().removeIf(change -> change.sequence() <= upTo);
+      builtAtMillis = System.currentTimeMillis();
+      log.info("Built autocomplete index: {} products, {} terms, {} busy " +
+                      "prefixes in {} ms", next.size(), next.termCount(),
+              next.busyPrefixCount(), builtAtMillis - started);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.autocomplete.check-interval:PT10S}")
+  public void rebuildIfStale() {
+    if (!properties.enabled()) {
+      return;
+    }
+    long age = System.currentTimeMillis() - builtAtMillis;
+    if (pending.size() >= properties.maxPendingChanges() ||
+            age >= properties.rebuildInterval().toMillis()) {
+      rebuild();
+    }
+  }
+
+  public int pendingChanges() {
+    return pending.size();
+  }
+
+  private IndexedProduct find(long id) {
+    Pending change = pending.get(id);
+    return change != null ? change.product() : index.find(id);
+  }
+
+  private static boolean matches(IndexedProduct product, List<String> words,
+                                 String prefix) {
+    List<String> terms = SearchNormalizer.terms(product.name(),
+            product.sku());
+    return terms.containsAll(words) &&
+            terms.stream().anyMatch(term -> term.startsWith(prefix));
+  }
+
+  private record Pending(IndexedProduct product, long sequence) {
+  }
+}
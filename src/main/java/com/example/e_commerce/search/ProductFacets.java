@@ -0,0 +1,151 @@
+package com.example.e_commerce.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+// Faceted catalog filtering from memory. Product edits are applied after
+// commit under the write lock; searches share the read lock. Results are
+// cached until the next edit that moves a product between facets, which
+// a sale rarely does. A periodic rebuild streams the products table into a
+// fresh index without holding the lock, and replays whatever was patched
+// meanwhile before swapping it in, so no edit is lost to a rebuild.
+@Component
+public class ProductFacets {
+  private static final Logger log =
+          LoggerFactory.getLogger(ProductFacets.class);
+
+  private final FacetProperties properties;
+  private final FacetSource source;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object rebuildLock = new Object();
+  private final Map<Query, FacetResult> results = new ConcurrentHashMap<>();
+  private FacetIndex index;
+  // Non-null while a rebuild is loading
+  private List<Predicate<FacetIndex>> replay;
+
+  public ProductFacets(FacetProperties properties, FacetSource source,
+                       MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.source = source;
+    this.index = new FacetIndex(properties.priceBands());
+    meterRegistry.gauge("facets.products", this, f -> f.read(FacetIndex::size));
+    meterRegistry.gauge("facets.memory", this,
+            f -> f.read(FacetIndex::memoryBytes));
+  }
+
+  public FacetResult search(FacetFilter filter, int limit) {
+    Query query = new Query(filter, limit);
+    Lock read = lock.readLock();
+    read.lock();
+    try {
+      // Cached while still holding the read lock, so a writer's clear()
+      // can never be followed by a result computed before its change
+      FacetResult result = results.get(query);
+      if (result == null) {
+        result = index.search(filter, limit);
+        if (results.size() >= properties.cachedResults()) {
+          results.clear();
+        }
+        results.put(query, result);
+      }
+      return result;
+    } finally {
+      read.unlock();
+    }
+  }
+
+  public List<BigDecimal> priceBands() {
+    return properties.priceBands();
+  }
+
+  public void upsert(FacetedProduct product) {
+    apply(index -> index.put(product));
+  }
+
+  public void remove(long productId) {
+    apply(index -> index.remove(productId));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${app.facets.rebuild-interval:PT15M}",
+          initialDelayString = "${app.facets.rebuild-interval:PT15M}")
+  public void rebuild() {
+    if (!properties.enabled()) {
+      return;
+    }
+    synchronized (rebuildLock) {
+      long started = System.currentTimeMillis();
+      withWriteLock(() -> replay = new ArrayList<>());
+      FacetIndex next = new FacetIndex(properties.priceBands());
+      try {
+        source.load(next::put);
+      } catch (RuntimeException e) {
+        withWriteLock(() -> replay = null);
+        throw e;
+      }
+      withWriteLock(() -> {
+        replay.forEach(change -> change.test(next));
+        replay = null;
+        index = next;
+        results.clear();
+      });
+      log.info("Built facet index: {} products, ~{} bytes in {} ms",
+              next.size(), next.memoryBytes(),
+              System.currentTimeMillis() - started);
+    }
+  }
+
+  // The change reports whether any facet moved
+  private void apply(Predicate<FacetIndex> change) {
+    if (!properties.enabled()) {
+      return;
+    }
+    withWriteLock(() -> {
+      if (change.test(index)) {
+        results.clear();
+      }
+      if (replay != null) {
+        replay.add(change);
+      }
+    });
+  }
+
+  private void withWriteLock(Runnable action) {
+    Lock write = lock.writeLock();
+    write.lock();
+    try {
+      action.run();
+    } finally {
+      write.unlock();
+    }
+  }
+
+  private double read(ToDoubleFunction<FacetIndex> metric) {
+    Lock read = lock.readLock();
+    read.lock();
+    try {
+      return metric.applyAsDouble(index);
+    } finally {
+      read.unlock();
+    }
+  }
+
+  private record Query(FacetFilter filter, int limit) {
+  }
+}
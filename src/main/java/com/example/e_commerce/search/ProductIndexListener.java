@@ -0,0 +1,64 @@
+package com.example.e_commerce.search;
+
+import com.example.e_commerce.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Patches the in-memory search indexes from entity changes. Runs after
+// commit, so a rolled-back edit never shows up in results. The indexes are
+// looked up lazily: Hibernate creates this listener while the
+// EntityManagerFactory is still being built.
+@Component
+public class ProductIndexListener {
+  private final ObjectProvider<ProductAutocomplete> autocomplete;
+  private final ObjectProvider<ProductFacets> facets;
+
+  public ProductIndexListener(ObjectProvider<ProductAutocomplete> autocomplete,
+                              ObjectProvider<ProductFacets> facets) {
+    this.autocomplete = autocomplete;
+    this.facets = facets;
+  }
+
+  @PostPersist
+  @PostUpdate
+  void onSave(Product product) {
+    long id = product.getId();
+    String name = product.getName();
+    String sku = product.getSku();
+    boolean active = product.isActive();
+    FacetedProduct faceted = new FacetedProduct(id, product.getCategory(),
+            product.getPrice(), product.getStockQuantity(), active);
+    afterCommit(() -> {
+      autocomplete.ifAvailable(index -> index.upsert(id, name, sku, active));
+      facets.ifAvailable(index -> index.upsert(faceted));
+    });
+  }
+
+  @PostRemove
+  void onRemove(Product product) {
+    long id = product.getId();
+    afterCommit(() -> {
+      autocomplete.ifAvailable(index -> index.remove(id));
+      facets.ifAvailable(index -> index.remove(id));
+    });
+  }
+
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+              @Override
+              public void afterCommit() {
+                action.run();
+              }
+            });
+  }
+}
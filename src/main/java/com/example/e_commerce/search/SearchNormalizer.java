@@ -0,0 +1,58 @@
+package com.example.e_commerce.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Index terms and queries go through the same folding: accents stripped,
+// lower case, split on anything that is not a letter or digit. A SKU is
+// also kept whole (without separators) so "LAP-001" completes from "lap0".
+public final class SearchNormalizer {
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+  private SearchNormalizer() {
+  }
+
+  public static List<String> tokens(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    // Decomposing is by far the slowest step and plain ASCII needs none
+    String folded = isAscii(text) ? text : MARKS.matcher(
+            Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    List<String> tokens = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= folded.length(); i++) {
+      boolean wordChar = i < folded.length() &&
+              Character.isLetterOrDigit(folded.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        tokens.add(folded.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean isAscii(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static List<String> terms(String name, String sku) {
+    List<String> terms = new ArrayList<>(tokens(name));
+    List<String> skuTokens = tokens(sku);
+    terms.addAll(skuTokens);
+    if (skuTokens.size() > 1) {
+      terms.add(String.join("", skuTokens));
+    }
+    return terms.stream().distinct().toList();
+  }
+}
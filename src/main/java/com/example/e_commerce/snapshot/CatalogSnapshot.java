@@ -0,0 +1,134 @@
+package com.example.e_commerce.snapshot;
+
+import com.example.e_commerce.dto.CategorySummary;
+import com.example.e_commerce.dto.ProductSummary;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+// Read-only view over a mapped snapshot file. Nothing is copied onto the
+// heap at open time; lookups binary-search the fixed-size records in place.
+// Only absolute reads are used, so one instance is safe to share.
+public final class CatalogSnapshot {
+  private final MappedByteBuffer buffer;
+  private final int productCount;
+  private final int categoryCount;
+  private final long maxUpdatedAtMillis;
+  private final long writtenAtMillis;
+  private final int categoriesOffset;
+  private final int productsOffset;
+  private final int stringsOffset;
+
+  private CatalogSnapshot(MappedByteBuffer buffer) {
+    if (buffer.getInt(0) != CatalogSnapshotFormat.MAGIC) {
+      throw new IllegalArgumentException("Not a catalog snapshot file");
+    }
+    if (buffer.getInt(4) != CatalogSnapshotFormat.VERSION) {
+      throw new IllegalArgumentException(
+              "Unsupported catalog snapshot version " + buffer.getInt(4));
+    }
+    this.buffer = buffer;
+    this.productCount = buffer.getInt(8);
+    this.categoryCount = buffer.getInt(12);
+    this.maxUpdatedAtMillis = buffer.getLong(16);
+    this.writtenAtMillis = buffer.getLong(24);
+    this.categoriesOffset = (int) buffer.getLong(32);
+    this.productsOffset = (int) buffer.getLong(40);
+    this.stringsOffset = (int) buffer.getLong(48);
+  }
+
+  public static CatalogSnapshot open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Catalog snapshot larger than 2GB: " + path);
+      }
+      // The mapping stays valid after the channel is closed
+      return new CatalogSnapshot(
+              channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  public int productCount() {
+    return productCount;
+  }
+
+  public int categoryCount() {
+    return categoryCount;
+  }
+
+  public long maxUpdatedAtMillis() {
+    return maxUpdatedAtMillis;
+  }
+
+  public long writtenAtMillis() {
+    return writtenAtMillis;
+  }
+
+  public Optional<ProductSummary> findProduct(long id) {
+    int index = search(productsOffset, CatalogSnapshotFormat.PRODUCT_RECORD_SIZE,
+            productCount, id);
+    if (index < 0) {
+      return Optional.empty();
+    }
+    int at = productsOffset + index * CatalogSnapshotFormat.PRODUCT_RECORD_SIZE;
+    return Optional.of(new ProductSummary(
+            buffer.getLong(at),
+            readString(at + 32),
+            readString(at + 40),
+            BigDecimal.valueOf(buffer.getLong(at + 8), 2),
+            buffer.getInt(at + 24) > 0,
+            readString(at + 48),
+            buffer.getInt(at + 28) == 1));
+  }
+
+  public Optional<CategorySummary> findCategory(long id) {
+    int index = search(categoriesOffset,
+            CatalogSnapshotFormat.CATEGORY_RECORD_SIZE, categoryCount, id);
+    if (index < 0) {
+      return Optional.empty();
+    }
+    int at = categoriesOffset +
+            index * CatalogSnapshotFormat.CATEGORY_RECORD_SIZE;
+    long parentId = buffer.getLong(at + 8);
+    return Optional.of(new CategorySummary(
+            buffer.getLong(at),
+            readString(at + 16),
+            parentId == CatalogSnapshotFormat.NO_ID ? null : parentId,
+            buffer.getInt(at + 24) == 1));
+  }
+
+  // Records start with their id, sorted ascending
+  private int search(int regionOffset, int recordSize, int count, long id) {
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midId = buffer.getLong(regionOffset + mid * recordSize);
+      if (midId < id) {
+        low = mid + 1;
+      } else if (midId > id) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  private String readString(int refAt) {
+    int offset = buffer.getInt(refAt);
+    int length = buffer.getInt(refAt + 4);
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(stringsOffset + offset, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
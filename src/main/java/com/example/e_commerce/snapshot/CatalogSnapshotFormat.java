@@ -0,0 +1,27 @@
+package com.example.e_commerce.snapshot;
+
+// Snapshot file layout (big-endian):
+//
+//   header      64 bytes  magic, version, productCount, categoryCount,
+//                         maxUpdatedAtMillis, writtenAtMillis, and the
+//                         offsets of the three regions below
+//   categories  32 bytes each, sorted by id:
+//                         id, parentId, nameOffset, nameLength, active, pad
+//   products    56 bytes each, sorted by id:
+//                         id, priceCents, categoryId, stockQuantity, active,
+//                         sku/name/category (offset, length) pairs
+//   strings     UTF-8 bytes referenced by the (offset, length) pairs;
+//               length -1 means null
+final class CatalogSnapshotFormat {
+  static final int MAGIC = 0x43415453; // "CATS"
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 64;
+  static final int CATEGORY_RECORD_SIZE = 32;
+  static final int PRODUCT_RECORD_SIZE = 56;
+
+  static final long NO_ID = -1L;
+
+  private CatalogSnapshotFormat() {
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.e_commerce.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.catalog-snapshot")
+public record CatalogSnapshotProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("data/catalog.snapshot") Path path,
+        // How often the snapshot is compared with products.updated_at
+        @DefaultValue("PT5M") Duration refreshInterval,
+        @DefaultValue("1000") int fetchSize) {
+}
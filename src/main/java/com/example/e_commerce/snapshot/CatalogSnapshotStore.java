@@ -0,0 +1,190 @@
+package com.example.e_commerce.snapshot;
+
+import com.example.e_commerce.dto.CategorySummary;
+import com.example.e_commerce.dto.ProductSummary;
+import com.example.e_commerce.stock.StockLedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Holds the mapped catalog snapshot. On startup the file from the previous
+// run is mapped before the first request, so catalog reads do not have to
+// go to PostgreSQL while the caches are cold. The scheduled check then
+// compares it with the products table in the background and rewrites it
+// when anything changed. Products written since the snapshot was taken are
+// not served from it until the next rewrite, so invalidating a product's
+// cache entry really sends its next read to the database.
+@Component
+public class CatalogSnapshotStore {
+  private static final Logger log =
+          LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+  private final CatalogSnapshotProperties properties;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Timer loadTimer;
+  private final Timer rebuildTimer;
+
+  private volatile CatalogSnapshot snapshot;
+  // Product id -> change number of its latest invalidation
+  private final Map<Long, Long> changedProducts = new ConcurrentHashMap<>();
+  private final AtomicLong changes = new AtomicLong();
+  private volatile long allChangedAt = -1;
+
+  public CatalogSnapshotStore(CatalogSnapshotProperties properties,
+                              DataSource dataSource,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(properties.fetchSize());
+    this.transactionTemplate = transactionTemplate;
+    this.loadTimer = meterRegistry.timer("catalog.snapshot.load");
+    this.rebuildTimer = meterRegistry.timer("catalog.snapshot.rebuild");
+    meterRegistry.gauge("catalog.snapshot.products", this,
+            store -> store.snapshot != null ? store.snapshot.productCount() : 0);
+  }
+
+  @PostConstruct
+  void mapExistingSnapshot() {
+    if (!properties.enabled() || !Files.exists(properties.path())) {
+      return;
+    }
+    try {
+      snapshot = loadTimer.recordCallable(
+              () -> CatalogSnapshot.open(properties.path()));
+      log.info("Mapped catalog snapshot with {} products and {} categories",
+              snapshot.productCount(), snapshot.categoryCount());
+    } catch (Exception e) {
+      log.warn("Ignoring unreadable catalog snapshot {}", properties.path(), e);
+    }
+  }
+
+  public Optional<ProductSummary> findProduct(long id) {
+    CatalogSnapshot current = snapshot;
+    if (current == null || allChangedAt >= 0 ||
+            changedProducts.containsKey(id)) {
+      return Optional.empty();
+    }
+    return current.findProduct(id);
+  }
+
+  // Called wherever the products cache is evicted
+  public void invalidateProducts(Collection<Long> ids) {
+    long change = changes.incrementAndGet();
+    ids.forEach(id -> changedProducts.put(id, change));
+  }
+
+  public void invalidateAllProducts() {
+    allChangedAt = changes.incrementAndGet();
+  }
+
+  public Optional<CategorySummary> findCategory(long id) {
+    CatalogSnapshot current = snapshot;
+    return current != null ? current.findCategory(id) : Optional.empty();
+  }
+
+  @Scheduled(fixedDelayString = "${app.catalog-snapshot.refresh-interval:PT5M}")
+  public void refreshIfStale() {
+    if (!properties.enabled()) {
+      return;
+    }
+    Map<String, Object> state = jdbcTemplate.queryForMap(
+            "SELECT count(*) AS products, max(updated_at) AS max_updated_at " +
+                    "FROM products");
+    int productCount = ((Number) state.get("products")).intValue();
+    long maxUpdatedAt = toMillis((Timestamp) state.get("max_updated_at"));
+
+    CatalogSnapshot current = snapshot;
+    if (current != null && current.productCount() == productCount &&
+            current.maxUpdatedAtMillis() == maxUpdatedAt &&
+            changedProducts.isEmpty() && allChangedAt < 0) {
+      return;
+    }
+    rebuildTimer.record(this::rebuild);
+  }
+
+  void rebuild() {
+    // Invalidations up to here are covered by the rows about to be read
+    long coveredChanges = changes.get();
+    try (CatalogSnapshotWriter writer =
+                 new CatalogSnapshotWriter(properties.path())) {
+      long maxUpdatedAt = transactionTemplate.execute(status -> {
+        try {
+          return writeRows(writer);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      writer.commit(maxUpdatedAt);
+      snapshot = CatalogSnapshot.open(properties.path());
+      changedProducts.values().removeIf(change -> change <= coveredChanges);
+      if (allChangedAt <= coveredChanges) {
+        allChangedAt = -1;
+      }
+      log.info("Rewrote catalog snapshot with {} products",
+              snapshot.productCount());
+    } catch (IOException | UncheckedIOException e) {
+      log.warn("Failed to write catalog snapshot {}", properties.path(), e);
+    }
+  }
+
+  // Runs inside a read-only transaction so PostgreSQL streams by fetchSize
+  private long writeRows(CatalogSnapshotWriter writer) throws IOException {
+    jdbcTemplate.query(
+            "SELECT id, parent_category_id, name, active FROM category",
+            rs -> {
+              try {
+                long parentId = rs.getLong("parent_category_id");
+                writer.addCategory(rs.getLong("id"),
+                        rs.wasNull() ? null : parentId, rs.getString("name"),
+                        rs.getBoolean("active"));
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+
+    long[] maxUpdatedAt = {0};
+    // Stock as the ledger has it, not as last compacted
+    jdbcTemplate.query("SELECT p.id, p.sku, p.name, p.price, " +
+                    StockLedger.LEVEL + " AS stock, p.category, p.active, " +
+                    "p.updated_at FROM products p " + StockLedger.LEVEL_JOIN +
+                    "ORDER BY p.id",
+            rs -> {
+              try {
+                writer.addProduct(rs.getLong("id"), rs.getString("sku"),
+                        rs.getString("name"), rs.getBigDecimal("price"),
+                        rs.getInt("stock"), rs.getString("category"),
+                        rs.getBoolean("active"));
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+              maxUpdatedAt[0] = Math.max(maxUpdatedAt[0],
+                      toMillis(rs.getTimestamp("updated_at")));
+            });
+    return maxUpdatedAt[0];
+  }
+
+  private static long toMillis(Timestamp timestamp) {
+    return timestamp == null ? 0 : timestamp.toLocalDateTime()
+            .toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+}
@@ -0,0 +1,203 @@
+package com.example.e_commerce.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes a snapshot file in constant memory: product records and strings are
+// spooled to two temporary files and concatenated behind the header on
+// commit. The target is replaced atomically, so readers never see a partial
+// file. Categories must be added before products; products in id order.
+public class CatalogSnapshotWriter implements Closeable {
+  private final Path target;
+  private final Path productsFile;
+  private final Path stringsFile;
+  private final DataOutputStream products;
+  private final OutputStream strings;
+
+  private final List<CategoryEntry> categories = new ArrayList<>();
+  private final Map<String, Long> categoryIdsByName = new HashMap<>();
+  // Category names repeat on every product, store each one only once
+  private final Map<String, long[]> internedStrings = new HashMap<>();
+
+  private long stringsLength;
+  private int productCount;
+  private long lastProductId = Long.MIN_VALUE;
+  private boolean committed;
+
+  public CatalogSnapshotWriter(Path target) throws IOException {
+    this.target = target;
+    Path dir = target.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    this.productsFile = Files.createTempFile(dir, "catalog-products", ".tmp");
+    this.stringsFile = Files.createTempFile(dir, "catalog-strings", ".tmp");
+    this.products = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(productsFile), 1 << 16));
+    this.strings = new BufferedOutputStream(
+            Files.newOutputStream(stringsFile), 1 << 16);
+  }
+
+  public void addCategory(long id, Long parentId, String name, boolean active)
+          throws IOException {
+    if (productCount > 0) {
+      throw new IllegalStateException("Categories must precede products");
+    }
+    long[] nameRef = appendString(name, true);
+    categories.add(new CategoryEntry(id, parentId, nameRef, active));
+    categoryIdsByName.put(name, id);
+  }
+
+  public void addProduct(long id, String sku, String name, BigDecimal price,
+                         int stockQuantity, String category, boolean active)
+          throws IOException {
+    if (id <= lastProductId) {
+      throw new IllegalArgumentException("Products must be added by ascending id");
+    }
+    lastProductId = id;
+
+    long[] skuRef = appendString(sku, false);
+    long[] nameRef = appendString(name, false);
+    long[] categoryRef = appendString(category, true);
+
+    products.writeLong(id);
+    products.writeLong(price.setScale(2, RoundingMode.HALF_UP)
+            .unscaledValue().longValueExact());
+    products.writeLong(categoryIdsByName.getOrDefault(category,
+            CatalogSnapshotFormat.NO_ID));
+    products.writeInt(stockQuantity);
+    products.writeInt(active ? 1 : 0);
+    writeRef(products, skuRef);
+    writeRef(products, nameRef);
+    writeRef(products, categoryRef);
+    productCount++;
+  }
+
+  public void commit(long maxUpdatedAtMillis) throws IOException {
+    products.close();
+    strings.close();
+    categories.sort(Comparator.comparingLong(CategoryEntry::id));
+
+    long categoriesOffset = CatalogSnapshotFormat.HEADER_SIZE;
+    long productsOffset = categoriesOffset +
+            (long) categories.size() * CatalogSnapshotFormat.CATEGORY_RECORD_SIZE;
+    long stringsOffset = productsOffset +
+            (long) productCount * CatalogSnapshotFormat.PRODUCT_RECORD_SIZE;
+
+    Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(),
+            "catalog-snapshot", ".tmp");
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer header = ByteBuffer.allocate(CatalogSnapshotFormat.HEADER_SIZE);
+      header.putInt(CatalogSnapshotFormat.MAGIC)
+              .putInt(CatalogSnapshotFormat.VERSION)
+              .putInt(productCount)
+              .putInt(categories.size())
+              .putLong(maxUpdatedAtMillis)
+              .putLong(System.currentTimeMillis())
+              .putLong(categoriesOffset)
+              .putLong(productsOffset)
+              .putLong(stringsOffset)
+              .putLong(stringsLength)
+              .flip();
+      writeFully(out, header);
+
+      ByteBuffer categoryBuffer = ByteBuffer.allocate(
+              categories.size() * CatalogSnapshotFormat.CATEGORY_RECORD_SIZE);
+      for (CategoryEntry category : categories) {
+        categoryBuffer.putLong(category.id())
+                .putLong(category.parentId() != null
+                        ? category.parentId() : CatalogSnapshotFormat.NO_ID)
+                .putInt((int) category.nameRef()[0])
+                .putInt((int) category.nameRef()[1])
+                .putInt(category.active() ? 1 : 0)
+                .putInt(0);
+      }
+      writeFully(out, categoryBuffer.flip());
+
+      transferAll(productsFile, out);
+      transferAll(stringsFile, out);
+      out.force(true);
+    }
+    Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    committed = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!committed) {
+      products.close();
+      strings.close();
+    }
+    Files.deleteIfExists(productsFile);
+    Files.deleteIfExists(stringsFile);
+  }
+
+  // Returns {offset, length} of the UTF-8 bytes inside the strings region
+  private long[] appendString(String value, boolean intern) throws IOException {
+    if (value == null) {
+      return new long[] {0, -1};
+    }
+    if (intern) {
+      long[] existing = internedStrings.get(value);
+      if (existing != null) {
+        return existing;
+      }
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (stringsLength + bytes.length > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Snapshot string region exceeds 2GB");
+    }
+    long[] ref = {stringsLength, bytes.length};
+    strings.write(bytes);
+    stringsLength += bytes.length;
+    if (intern) {
+      internedStrings.put(value, ref);
+    }
+    return ref;
+  }
+
+  private static void writeRef(DataOutputStream out, long[] ref)
+          throws IOException {
+    out.writeInt((int) ref[0]);
+    out.writeInt((int) ref[1]);
+  }
+
+  private static void writeFully(FileChannel out, ByteBuffer buffer)
+          throws IOException {
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+  }
+
+  private static void transferAll(Path source, FileChannel out)
+          throws IOException {
+    try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+      long size = in.size();
+      long position = 0;
+      while (position < size) {
+        position += in.transferTo(position, size - position, out);
+      }
+    }
+  }
+
+  private record CategoryEntry(long id, Long parentId, long[] nameRef,
+                               boolean active) {
+  }
+}
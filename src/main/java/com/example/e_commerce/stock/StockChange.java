@@ -0,0 +1,7 @@
+package com.example.e_commerce.stock;
+
+import com.example.e_commerce.enums.StockMovementType;
+
+public record StockChange(long productId, int quantity, StockMovementType type,
+                          Long referenceId) {
+}
@@ -0,0 +1,190 @@
+package com.example.e_commerce.stock;
+
+import com.example.e_commerce.config.CacheNames;
+import com.example.e_commerce.snapshot.CatalogSnapshotStore;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Rolls each product's new movements into its snapshot and copies the result
+// to products.stock_quantity, which the catalog, exports and facets read.
+// Products are found from the movements appended since the previous run.
+// Ids are handed out on insert, not on commit, so a run can see an id above
+// one that is still to commit. Each run therefore scans from the MAX(id) of
+// the latest earlier run whose in-flight transactions have all ended since.
+@Component
+public class StockCompactor {
+  private static final String COMPACT_SQL = """
+          WITH totals AS (
+              SELECT p.id,
+                     COALESCE(s.quantity, p.stock_quantity) + SUM(m.quantity)
+                         AS quantity,
+                     MAX(m.id) AS last_movement_id
+              FROM products p
+              LEFT JOIN stock_snapshots s ON s.product_id = p.id
+              JOIN stock_movements m ON m.product_id = p.id
+                   AND m.id > COALESCE(s.last_movement_id, 0)
+              WHERE p.id = ANY (?)
+              GROUP BY p.id, s.quantity, p.stock_quantity
+          ), snapshots AS (
+              INSERT INTO stock_snapshots (product_id, quantity,
+                                           last_movement_id, taken_at)
+              SELECT id, quantity, last_movement_id, ? FROM totals
+              ON CONFLICT (product_id) DO UPDATE
+                  SET quantity = EXCLUDED.quantity,
+                      last_movement_id = EXCLUDED.last_movement_id,
+                      taken_at = EXCLUDED.taken_at
+          )
+          UPDATE products p SET stock_quantity = t.quantity, updated_at = ?
+          FROM totals t WHERE p.id = t.id
+          RETURNING p.id
+          """;
+  // MAX(id) with the oldest transaction still running and the first one not
+  // started yet, all as of the same snapshot
+  private static final String HORIZON_SQL = """
+          SELECT COALESCE(MAX(id), 0),
+                 pg_snapshot_xmin(pg_current_snapshot())::text::bigint,
+                 pg_snapshot_xmax(pg_current_snapshot())::text::bigint
+          FROM stock_movements
+          """;
+  private static final String PRUNE_SQL = """
+          DELETE FROM stock_movements WHERE id IN (
+              SELECT m.id FROM stock_movements m
+              JOIN stock_snapshots s ON s.product_id = m.product_id
+              WHERE m.id <= s.last_movement_id AND m.created_at < ?
+              ORDER BY m.id LIMIT ?)
+          """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final CacheManager cacheManager;
+  private final CatalogSnapshotStore snapshotStore;
+  private final StockLedgerProperties properties;
+  // Products that were busy last time, retried first
+  private final Set<Long> skipped = new LinkedHashSet<>();
+  // MAX(id) of earlier runs whose in-flight appends may not have committed
+  private final Deque<Horizon> horizons = new ArrayDeque<>();
+  // Starts at 0, so the first run after startup looks at every movement
+  private long settledId;
+
+  public StockCompactor(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        CacheManager cacheManager,
+                        CatalogSnapshotStore snapshotStore,
+                        StockLedgerProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.cacheManager = cacheManager;
+    this.snapshotStore = snapshotStore;
+    this.properties = properties;
+  }
+
+  @Scheduled(fixedDelayString =
+          "${app.stock-ledger.compaction-interval:PT30S}")
+  public void run() {
+    if (properties.compactionEnabled()) {
+      compact();
+      prune();
+    }
+  }
+
+  // Returns how many products got a new snapshot
+  public synchronized int compact() {
+    long[] snapshot = jdbcTemplate.queryForObject(HORIZON_SQL, (rs, row) ->
+            new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+    long upTo = snapshot[0];
+    Set<Long> candidates = new LinkedHashSet<>(skipped);
+    candidates.addAll(jdbcTemplate.queryForList("""
+            SELECT DISTINCT product_id FROM stock_movements
+            WHERE id > ? AND id <= ?
+            """, Long.class, settledId, upTo));
+    skipped.clear();
+    // Once the oldest running transaction started after a horizon was
+    // taken, everything in flight back then has ended, and the scan above
+    // saw whatever of it committed
+    while (!horizons.isEmpty() &&
+            horizons.peekFirst().xmax() <= snapshot[1]) {
+      settledId = horizons.removeFirst().maxId();
+    }
+    if (horizons.isEmpty() || horizons.peekLast().maxId() < upTo) {
+      horizons.addLast(new Horizon(upTo, snapshot[2]));
+    }
+
+    List<Long> ids = new ArrayList<>(candidates);
+    int compacted = 0;
+    for (int from = 0; from < ids.size();
+         from += properties.compactionBatchSize()) {
+      List<Long> chunk = ids.subList(from,
+              Math.min(from + properties.compactionBatchSize(), ids.size()));
+      List<Long> done = transactionTemplate.execute(status ->
+              compactChunk(chunk));
+      if (done != null) {
+        evictProducts(done);
+        compacted += done.size();
+      }
+    }
+    return compacted;
+  }
+
+  // Deletes compacted movements older than the retention window; they can
+  // no longer be asked for by StockLedger.levelAt
+  public int prune() {
+    Timestamp cutoff = Timestamp.valueOf(
+            LocalDateTime.now().minus(properties.retention()));
+    int pruned = 0;
+    while (true) {
+      Integer deleted = transactionTemplate.execute(status ->
+              jdbcTemplate.update(PRUNE_SQL, cutoff,
+                      properties.compactionBatchSize()));
+      if (deleted == null || deleted == 0) {
+        return pruned;
+      }
+      pruned += deleted;
+      if (deleted < properties.compactionBatchSize()) {
+        return pruned;
+      }
+    }
+  }
+
+  private List<Long> compactChunk(List<Long> chunk) {
+    // Products with an append in flight are skipped rather than waited for.
+    // Once the lock is ours every earlier append has committed, and the
+    // next statement's snapshot sees it.
+    Set<Long> locked = new HashSet<>(jdbcTemplate.queryForList("""
+            SELECT id FROM unnest(?) AS t(id)
+            WHERE pg_try_advisory_xact_lock(? | id)
+            """, Long.class, chunk.toArray(Long[]::new),
+            StockLedger.COMPACTION_LOCKS));
+    chunk.stream().filter(id -> !locked.contains(id)).forEach(skipped::add);
+    if (locked.isEmpty()) {
+      return List.of();
+    }
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    return jdbcTemplate.queryForList(COMPACT_SQL, Long.class,
+            locked.toArray(Long[]::new), now, now);
+  }
+
+  private void evictProducts(List<Long> ids) {
+    snapshotStore.invalidateProducts(ids);
+    Cache cache = cacheManager.getCache(CacheNames.PRODUCTS);
+    if (cache != null) {
+      ids.forEach(cache::evict);
+    }
+  }
+
+  private record Horizon(long maxId, long xmax) {
+  }
+}
@@ -0,0 +1,245 @@
+package com.example.e_commerce.stock;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ProductNotFoundException;
+import com.example.e_commerce.exception.StockHistoryUnavailableException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Stock as an append-only list of signed movements. A product's stock is its
+// latest snapshot (or products.stock_quantity before the first one) plus
+// every movement after it; StockCompactor rolls movements into snapshots.
+//
+// Appends never update a shared row. They are ordered with transaction-level
+// advisory locks per product instead: taking stock holds the product's take
+// lock, so two buyers cannot both pass the availability check, while giving
+// stock back needs no exclusion at all. Every append also holds the
+// product's compaction lock in shared mode, so the compactor never snapshots
+// past a movement that is not committed yet.
+@Service
+public class StockLedger {
+  static final long TAKE_LOCKS = 1L << 48;
+  static final long COMPACTION_LOCKS = 2L << 48;
+
+  private static final String INSERT_SQL = """
+          INSERT INTO stock_movements (product_id, quantity, type,
+                                       reference_id, created_at)
+          VALUES (?, ?, ?, ?, ?)
+          """;
+  // The ledger level of each row of a products query aliased p, for readers
+  // that go through many products at once: join LEVEL_JOIN, select LEVEL.
+  // products.stock_quantity alone trails the ledger until the next
+  // compaction.
+  public static final String LEVEL_JOIN = """
+          LEFT JOIN stock_snapshots s ON s.product_id = p.id
+          CROSS JOIN LATERAL (
+              SELECT COALESCE(SUM(m.quantity), 0) AS quantity
+              FROM stock_movements m
+              WHERE m.product_id = p.id
+                AND m.id > COALESCE(s.last_movement_id, 0)) later
+          """;
+  public static final String LEVEL =
+          "COALESCE(s.quantity, p.stock_quantity) + later.quantity";
+
+  private static final String AVAILABLE_SQL = "SELECT p.id, " + LEVEL +
+          " FROM products p " + LEVEL_JOIN + "WHERE p.id = ANY (?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final StockLedgerProperties properties;
+
+  public StockLedger(JdbcTemplate jdbcTemplate,
+                     StockLedgerProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+  }
+
+  @Transactional
+  public void take(long productId, int quantity, StockMovementType type,
+                   Long referenceId) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be greater than 0");
+    }
+    lock("pg_advisory_xact_lock", TAKE_LOCKS, productId);
+    lock("pg_advisory_xact_lock_shared", COMPACTION_LOCKS, productId);
+    if (available(productId) < quantity) {
+      throw new InsufficientStockException(productId, quantity);
+    }
+    append(List.of(new StockChange(productId, -quantity, type, referenceId)));
+  }
+
+  // Takes stock for many requests under one set of take locks, for callers
+  // that decide request by request who gets stock. allocate is shown the
+  // current levels of the products that exist and returns the takes as
+  // signed (negative) changes, which together must fit within those levels.
+  @Transactional
+  public void takeAll(Collection<Long> productIds,
+                      Function<Map<Long, Integer>, List<StockChange>> allocate) {
+    // Take locks are exclusive, so they are acquired in id order
+    TreeSet<Long> sorted = new TreeSet<>(productIds);
+    sorted.forEach(id -> {
+      lock("pg_advisory_xact_lock", TAKE_LOCKS, id);
+      lock("pg_advisory_xact_lock_shared", COMPACTION_LOCKS, id);
+    });
+    Map<Long, Integer> levels = available(sorted);
+    List<StockChange> takes = allocate.apply(Map.copyOf(levels));
+    Map<Long, Integer> left = new HashMap<>(levels);
+    for (StockChange take : takes) {
+      if (take.quantity() >= 0 || !left.containsKey(take.productId())) {
+        throw new IllegalArgumentException(
+                "Not a take of a locked product: " + take);
+      }
+      if (left.merge(take.productId(), take.quantity(), Integer::sum) < 0) {
+        throw new InsufficientStockException(take.productId(),
+                -take.quantity());
+      }
+    }
+    append(takes);
+  }
+
+  @Transactional
+  public void put(long productId, int quantity, StockMovementType type,
+                  Long referenceId) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("Quantity must be greater than 0");
+    }
+    putAll(List.of(new StockChange(productId, quantity, type, referenceId)));
+  }
+
+  // Returned stock, one batched insert however many products it touches
+  @Transactional
+  public void putAll(Collection<StockChange> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    // Shared locks cannot deadlock with each other, so no ordering needed
+    jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(? | id) " +
+                    "FROM unnest(?) AS t(id)", rs -> {
+            }, COMPACTION_LOCKS,
+            changes.stream().map(StockChange::productId).distinct()
+                    .toArray(Long[]::new));
+    append(changes);
+  }
+
+  // A signed manual correction; taking stock away still checks availability
+  @Transactional
+  @Workload(WorkloadClass.ADMIN)
+  public void adjust(long productId, StockMovementType type, int quantity) {
+    if (quantity < 0) {
+      take(productId, -quantity, type, null);
+    } else {
+      // Nothing else would notice an unknown product before the insert
+      available(productId);
+      put(productId, quantity, type, null);
+    }
+  }
+
+  // Moves each product to an absolute level, as a stock count or import
+  // would, by appending the difference
+  @Transactional
+  public void adjustTo(Map<Long, Integer> targets) {
+    adjustTo(targets.keySet(), () -> targets);
+  }
+
+  // As above, for targets that depend on what was sold: they are worked out
+  // once the take locks are held, so no purchase lands in between. Unknown
+  // products are skipped; a target below zero fails the whole call.
+  @Transactional
+  public void adjustTo(Collection<Long> productIds,
+                       Supplier<Map<Long, Integer>> targets) {
+    if (productIds.isEmpty()) {
+      return;
+    }
+    // Take locks are exclusive, so they are acquired in id order
+    TreeSet<Long> sorted = new TreeSet<>(productIds);
+    sorted.forEach(id -> {
+      lock("pg_advisory_xact_lock", TAKE_LOCKS, id);
+      lock("pg_advisory_xact_lock_shared", COMPACTION_LOCKS, id);
+    });
+    Map<Long, Integer> current = available(sorted);
+    Map<Long, Integer> wanted = targets.get();
+    List<StockChange> changes = new ArrayList<>();
+    for (Long id : sorted) {
+      Integer level = current.get(id);
+      Integer target = wanted.get(id);
+      if (level == null || target == null || level.intValue() == target) {
+        continue;
+      }
+      if (target < 0) {
+        throw new InsufficientStockException(id, level - target);
+      }
+      changes.add(new StockChange(id, target - level,
+              StockMovementType.ADJUSTMENT, null));
+    }
+    append(changes);
+  }
+
+  @Transactional(readOnly = true)
+  public int available(long productId) {
+    Integer level = available(List.of(productId)).get(productId);
+    if (level == null) {
+      throw new ProductNotFoundException(productId);
+    }
+    return level;
+  }
+
+  // Products that do not exist are left out
+  @Transactional(readOnly = true)
+  public Map<Long, Integer> available(Collection<Long> productIds) {
+    Map<Long, Integer> levels = new HashMap<>();
+    jdbcTemplate.query(AVAILABLE_SQL,
+            rs -> {
+              levels.put(rs.getLong(1), rs.getInt(2));
+            }, (Object) productIds.toArray(Long[]::new));
+    return levels;
+  }
+
+  // Stock as it was at the given time: today's level with every later
+  // movement undone. Movements are only pruned past the retention window.
+  @Transactional(readOnly = true)
+  @Workload(WorkloadClass.ADMIN)
+  public int levelAt(long productId, LocalDateTime at) {
+    LocalDateTime oldest = LocalDateTime.now().minus(properties.retention());
+    if (at.isBefore(oldest)) {
+      throw new StockHistoryUnavailableException(at, oldest);
+    }
+    Integer since = jdbcTemplate.queryForObject("""
+            SELECT COALESCE(SUM(quantity), 0) FROM stock_movements
+            WHERE product_id = ? AND created_at > ?
+            """, Integer.class, productId, Timestamp.valueOf(at));
+    return available(productId) - (since != null ? since : 0);
+  }
+
+  private void append(Collection<StockChange> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> args = changes.stream()
+            .map(change -> new Object[]{change.productId(), change.quantity(),
+                    change.type().name(), change.referenceId(), now})
+            .toList();
+    jdbcTemplate.batchUpdate(INSERT_SQL, args, new int[]{Types.BIGINT,
+            Types.INTEGER, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP});
+  }
+
+  private void lock(String function, long space, long productId) {
+    jdbcTemplate.query("SELECT " + function + "(?)", rs -> {
+    }, space | productId);
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.e_commerce.stock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.stock-ledger")
+public record StockLedgerProperties(
+        @DefaultValue("true") boolean compactionEnabled,
+        @DefaultValue("500") int compactionBatchSize,
+        @DefaultValue("P365D") Duration retention) {
+}
@@ -0,0 +1,4 @@
+package com.example.e_commerce.warehouse;
+
+public record AllocationLine(long productId, int quantity) {
+}
@@ -0,0 +1,6 @@
+package com.example.e_commerce.warehouse;
+
+// A warehouse_routes row; state and postalPrefix are null for a whole country
+public record RegionRoute(String country, String state, String postalPrefix,
+                          long warehouseId, int preference) {
+}
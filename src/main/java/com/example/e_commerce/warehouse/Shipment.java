@@ -0,0 +1,7 @@
+package com.example.e_commerce.warehouse;
+
+import java.util.List;
+
+// What one warehouse ships of an order; site indexes the routing table
+public record Shipment(int site, List<AllocationLine> lines) {
+}
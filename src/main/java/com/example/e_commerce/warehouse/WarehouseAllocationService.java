@@ -0,0 +1,248 @@
+package com.example.e_commerce.warehouse;
+
+import com.example.e_commerce.bulkhead.Workload;
+import com.example.e_commerce.bulkhead.WorkloadClass;
+import com.example.e_commerce.dto.ShipmentResponse;
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.exception.MissingShippingAddressException;
+import com.example.e_commerce.exception.OrderNotAllocatableException;
+import com.example.e_commerce.exception.OrderNotFoundException;
+import com.example.e_commerce.exception.ProductNotFoundException;
+import com.example.e_commerce.stock.StockLedger;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Decides which warehouses ship an order and takes the units from their
+// stock. Routing comes from WarehouseDirectory's in-memory table, so the
+// only reads are the order and the stock of its products; the decision
+// itself is WarehouseAllocator's. Allocating an order twice returns the
+// first allocation.
+@Service
+@Workload(WorkloadClass.ADMIN)
+public class WarehouseAllocationService {
+  private static final String ORDER_SQL = """
+          SELECT o.status, a.country, a.state, a.postal_code, oi.product_id,
+                 oi.quantity
+          FROM orders o
+          JOIN order_items oi ON oi.order_id = o.id
+                             AND oi.created_at = o.created_at
+          LEFT JOIN addresses a ON a.id = o.shipping_address_id
+          WHERE o.id = ?
+          ORDER BY oi.id
+          FOR UPDATE OF o
+          """;
+  // Row locks in key order, so concurrent allocations cannot deadlock
+  private static final String STOCK_SQL = """
+          SELECT warehouse_id, product_id, quantity FROM warehouse_stock
+          WHERE product_id = ANY (?) AND quantity > 0
+          ORDER BY warehouse_id, product_id
+          FOR UPDATE
+          """;
+  // What the ledger should hold once warehouses count a product: their total
+  // less the units of orders still waiting to be allocated. One statement,
+  // so an allocation committing meanwhile is seen on both sides or neither.
+  private static final String TARGET_SQL = """
+          SELECT p.id,
+                 COALESCE((SELECT SUM(ws.quantity) FROM warehouse_stock ws
+                           WHERE ws.product_id = p.id), 0) -
+                 COALESCE((SELECT SUM(oi.quantity)
+                           FROM order_items oi
+                           JOIN orders o ON o.id = oi.order_id
+                                        AND o.created_at = oi.created_at
+                           WHERE oi.product_id = p.id
+                             AND o.status IN ('PENDING', 'PAYMENT_PROCESSING',
+                                              'PAID')
+                             AND NOT EXISTS (
+                                 SELECT 1 FROM shipment_allocations sa
+                                 WHERE sa.order_id = o.id)), 0)
+          FROM products p
+          WHERE p.id = ANY (?)
+          """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final WarehouseDirectory directory;
+  private final StockLedger stockLedger;
+
+  public WarehouseAllocationService(JdbcTemplate jdbcTemplate,
+                                    WarehouseDirectory directory,
+                                    StockLedger stockLedger) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.directory = directory;
+    this.stockLedger = stockLedger;
+  }
+
+  @Transactional
+  public List<ShipmentResponse> allocate(long orderId) {
+    // The order row lock makes a second allocation wait for the first
+    OrderStatus[] status = new OrderStatus[1];
+    String[] address = new String[3];
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    jdbcTemplate.query(ORDER_SQL, rs -> {
+      status[0] = OrderStatus.valueOf(rs.getString(1));
+      address[0] = rs.getString(2);
+      address[1] = rs.getString(3);
+      address[2] = rs.getString(4);
+      quantities.merge(rs.getLong(5), rs.getInt(6), Integer::sum);
+    }, orderId);
+    if (quantities.isEmpty()) {
+      throw new OrderNotFoundException(orderId);
+    }
+    List<ShipmentResponse> existing = allocation(orderId);
+    if (!existing.isEmpty()) {
+      return existing;
+    }
+    // Unpaid orders may still be cancelled, later ones have left already
+    if (status[0] != OrderStatus.PAID) {
+      throw new OrderNotAllocatableException(orderId, status[0]);
+    }
+    if (address[0] == null) {
+      throw new MissingShippingAddressException(orderId);
+    }
+
+    WarehouseRoutingTable table = directory.table();
+    Map<Long, int[]> stock = new HashMap<>();
+    jdbcTemplate.query(STOCK_SQL, rs -> {
+      int site = table.indexOf(rs.getLong(1));
+      if (site >= 0) {
+        stock.computeIfAbsent(rs.getLong(2), id -> new int[table.size()])
+                [site] = rs.getInt(3);
+      }
+    }, (Object) quantities.keySet().toArray(Long[]::new));
+
+    List<AllocationLine> lines = new ArrayList<>();
+    quantities.forEach((productId, quantity) ->
+            lines.add(new AllocationLine(productId, quantity)));
+    List<Shipment> shipments = WarehouseAllocator.allocate(
+            table.candidates(address[0], address[1], address[2]), lines,
+            stock);
+    return record(orderId, table, shipments);
+  }
+
+  // Empty when the order was not allocated yet
+  @Transactional(readOnly = true)
+  public List<ShipmentResponse> allocation(long orderId) {
+    Map<Long, ShipmentResponse> byWarehouse = new LinkedHashMap<>();
+    jdbcTemplate.query("""
+            SELECT s.warehouse_id, w.code, s.product_id, s.quantity
+            FROM shipment_allocations s
+            JOIN warehouses w ON w.id = s.warehouse_id
+            WHERE s.order_id = ?
+            ORDER BY s.id
+            """, rs -> {
+      long warehouseId = rs.getLong(1);
+      String code = rs.getString(2);
+      byWarehouse.computeIfAbsent(warehouseId,
+                      id -> new ShipmentResponse(id, code, new ArrayList<>()))
+              .lines().add(new ShipmentResponse.Line(rs.getLong(3),
+                      rs.getInt(4)));
+    }, orderId);
+    return List.copyOf(byWarehouse.values());
+  }
+
+  // Sets absolute levels, as after a stock count or a delivery check-in.
+  // From its first count on, a product's stock is what its warehouses hold:
+  // the ledger is moved to TARGET_SQL, which replaces the products baseline
+  // and any manual adjustment made since the last count. A count below what
+  // is already sold fails with InsufficientStockException.
+  @Transactional
+  public void setStock(long warehouseId, Map<Long, Integer> levels) {
+    if (levels.isEmpty()) {
+      return;
+    }
+    // Rows are written and locked in product order, as allocate locks them
+    Map<Long, Integer> sorted = new TreeMap<>(levels);
+    jdbcTemplate.batchUpdate("""
+            INSERT INTO warehouse_stock (warehouse_id, product_id, quantity)
+            VALUES (?, ?, ?)
+            ON CONFLICT (warehouse_id, product_id)
+                DO UPDATE SET quantity = EXCLUDED.quantity
+            """, sorted.entrySet().stream()
+            .map(level -> new Object[]{warehouseId, level.getKey(),
+                    level.getValue()})
+            .toList());
+    stockLedger.adjustTo(sorted.keySet(), () -> targets(sorted.keySet()));
+  }
+
+  private Map<Long, Integer> targets(Collection<Long> productIds) {
+    Map<Long, Integer> targets = new HashMap<>();
+    jdbcTemplate.query(TARGET_SQL, rs -> {
+      targets.put(rs.getLong(1), rs.getInt(2));
+    }, (Object) productIds.toArray(Long[]::new));
+    for (Long id : productIds) {
+      if (!targets.containsKey(id)) {
+        throw new ProductNotFoundException(id);
+      }
+    }
+    return targets;
+  }
+
+  // Puts the units allocated to these orders back on the warehouses' stock
+  // and forgets the allocations, for orders refunded before they shipped.
+  // Their ledger stock is the caller's to return.
+  @Transactional
+  public void release(Collection<Long> orderIds) {
+    List<Object[]> puts = new ArrayList<>();
+    // Rows are locked in key order, as allocate locks them
+    jdbcTemplate.query("""
+            SELECT warehouse_id, product_id, SUM(quantity)
+            FROM shipment_allocations
+            WHERE order_id = ANY (?)
+            GROUP BY warehouse_id, product_id
+            ORDER BY warehouse_id, product_id
+            """, rs -> {
+      puts.add(new Object[]{rs.getInt(3), rs.getLong(1), rs.getLong(2)});
+    }, (Object) orderIds.toArray(Long[]::new));
+    if (puts.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate("""
+            UPDATE warehouse_stock SET quantity = quantity + ?
+            WHERE warehouse_id = ? AND product_id = ?
+            """, puts);
+    jdbcTemplate.update("DELETE FROM shipment_allocations " +
+            "WHERE order_id = ANY (?)", (Object) orderIds.toArray(Long[]::new));
+  }
+
+  private List<ShipmentResponse> record(long orderId,
+                                        WarehouseRoutingTable table,
+                                        List<Shipment> shipments) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> takes = new ArrayList<>();
+    List<Object[]> rows = new ArrayList<>();
+    List<ShipmentResponse> responses = new ArrayList<>();
+    for (Shipment shipment : shipments) {
+      WarehouseSite site = table.sites().get(shipment.site());
+      List<ShipmentResponse.Line> lines = new ArrayList<>();
+      for (AllocationLine line : shipment.lines()) {
+        takes.add(new Object[]{line.quantity(), site.id(), line.productId()});
+        rows.add(new Object[]{orderId, site.id(), line.productId(),
+                line.quantity(), now});
+        lines.add(new ShipmentResponse.Line(line.productId(),
+                line.quantity()));
+      }
+      responses.add(new ShipmentResponse(site.id(), site.code(),
+              List.copyOf(lines)));
+    }
+    jdbcTemplate.batchUpdate("""
+            UPDATE warehouse_stock SET quantity = quantity - ?
+            WHERE warehouse_id = ? AND product_id = ?
+            """, takes);
+    jdbcTemplate.batchUpdate("""
+            INSERT INTO shipment_allocations (order_id, warehouse_id,
+                                              product_id, quantity, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """, rows);
+    return responses;
+  }
+}
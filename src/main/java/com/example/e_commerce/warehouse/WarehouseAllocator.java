@@ -0,0 +1,103 @@
+package com.example.e_commerce.warehouse;
+
+import com.example.e_commerce.exception.InsufficientStockException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Picks the warehouses an order ships from, in memory. The first candidate
+// that holds every line ships the whole order. Otherwise the order is split:
+// each round the warehouse covering the most outstanding units ships what
+// it can, the earlier candidate winning ties, until nothing is outstanding.
+// Stock is per product, indexed like the routing table's sites.
+public final class WarehouseAllocator {
+  private WarehouseAllocator() {
+  }
+
+  public static List<Shipment> allocate(int[] candidates,
+                                        List<AllocationLine> lines,
+                                        Map<Long, int[]> stock) {
+    if (lines.isEmpty()) {
+      return List.of();
+    }
+    int[][] held = new int[lines.size()][];
+    int[] outstanding = new int[lines.size()];
+    int total = 0;
+    for (int line = 0; line < lines.size(); line++) {
+      held[line] = stock.get(lines.get(line).productId());
+      outstanding[line] = lines.get(line).quantity();
+      total += outstanding[line];
+    }
+
+    for (int site : candidates) {
+      if (covers(site, held, outstanding)) {
+        return List.of(new Shipment(site, List.copyOf(lines)));
+      }
+    }
+
+    List<Shipment> shipments = new ArrayList<>();
+    boolean[] used = new boolean[candidates.length];
+    while (total > 0) {
+      int best = -1;
+      int bestUnits = 0;
+      for (int c = 0; c < candidates.length; c++) {
+        if (!used[c]) {
+          int units = units(candidates[c], held, outstanding);
+          if (units > bestUnits) {
+            best = c;
+            bestUnits = units;
+          }
+        }
+      }
+      if (best < 0) {
+        throw shortage(lines, outstanding);
+      }
+      used[best] = true;
+      int site = candidates[best];
+      List<AllocationLine> shipped = new ArrayList<>();
+      for (int line = 0; line < lines.size(); line++) {
+        int take = Math.min(outstanding[line], level(held[line], site));
+        if (take > 0) {
+          shipped.add(new AllocationLine(lines.get(line).productId(), take));
+          outstanding[line] -= take;
+        }
+      }
+      total -= bestUnits;
+      shipments.add(new Shipment(site, shipped));
+    }
+    return shipments;
+  }
+
+  private static boolean covers(int site, int[][] held, int[] outstanding) {
+    for (int line = 0; line < outstanding.length; line++) {
+      if (level(held[line], site) < outstanding[line]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int units(int site, int[][] held, int[] outstanding) {
+    int units = 0;
+    for (int line = 0; line < outstanding.length; line++) {
+      units += Math.min(outstanding[line], level(held[line], site));
+    }
+    return units;
+  }
+
+  private static int level(int[] levels, int site) {
+    return levels != null && site < levels.length ? levels[site] : 0;
+  }
+
+  private static InsufficientStockException shortage(
+          List<AllocationLine> lines, int[] outstanding) {
+    for (int line = 0; line < outstanding.length; line++) {
+      if (outstanding[line] > 0) {
+        return new InsufficientStockException(lines.get(line).productId(),
+                lines.get(line).quantity());
+      }
+    }
+    throw new IllegalStateException("Nothing outstanding");
+  }
+}
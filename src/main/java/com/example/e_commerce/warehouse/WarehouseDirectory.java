@@ -0,0 +1,49 @@
+package com.example.e_commerce.warehouse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Holds the routing table of active warehouses in memory, re-read on a
+// fixed interval: warehouses and routes change rarely, and allocation must
+// not query for them.
+@Component
+public class WarehouseDirectory {
+  private static final Logger log =
+          LoggerFactory.getLogger(WarehouseDirectory.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private volatile WarehouseRoutingTable table = WarehouseRoutingTable.empty();
+
+  public WarehouseDirectory(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public WarehouseRoutingTable table() {
+    return table;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${app.warehouses.refresh-interval:PT5M}",
+          initialDelayString = "${app.warehouses.refresh-interval:PT5M}")
+  public void refresh() {
+    List<WarehouseSite> sites = jdbcTemplate.query(
+            "SELECT id, code, priority FROM warehouses WHERE active",
+            (rs, row) -> new WarehouseSite(rs.getLong(1), rs.getString(2),
+                    rs.getInt(3)));
+    List<RegionRoute> routes = jdbcTemplate.query("""
+            SELECT country, state, postal_prefix, warehouse_id, preference
+            FROM warehouse_routes
+            """, (rs, row) -> new RegionRoute(rs.getString(1),
+            rs.getString(2), rs.getString(3), rs.getLong(4), rs.getInt(5)));
+    table = WarehouseRoutingTable.build(sites, routes);
+    log.debug("Loaded {} warehouses and {} routes", sites.size(),
+            routes.size());
+  }
+}
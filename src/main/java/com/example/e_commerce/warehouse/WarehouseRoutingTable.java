@@ -0,0 +1,136 @@
+package com.example.e_commerce.warehouse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Immutable region -> warehouses lookup. For an address the candidates are
+// the warehouses routed to its postal code prefixes (longest first), then
+// its state, then its country, each in route preference order, followed by
+// every other warehouse by descending priority, so stock anywhere can still
+// ship. Warehouses are referred to by their index in sites().
+public final class WarehouseRoutingTable {
+  private static final Comparator<WarehouseSite> BY_PRIORITY =
+          Comparator.comparingInt((WarehouseSite site) -> -site.priority())
+                  .thenComparingLong(WarehouseSite::id);
+
+  private final List<WarehouseSite> sites;
+  private final Map<Long, Integer> indexes = new HashMap<>();
+  private final Map<String, int[]> byRegion = new HashMap<>();
+  private final int[] byPriority;
+  private final int longestPrefix;
+
+  private WarehouseRoutingTable(List<WarehouseSite> sites,
+                                List<RegionRoute> routes) {
+    this.sites = sites.stream().sorted(BY_PRIORITY).toList();
+    for (int i = 0; i < this.sites.size(); i++) {
+      indexes.put(this.sites.get(i).id(), i);
+    }
+    byPriority = new int[this.sites.size()];
+    Arrays.setAll(byPriority, i -> i);
+
+    Map<String, List<RegionRoute>> grouped = new HashMap<>();
+    int longest = 0;
+    for (RegionRoute route : routes) {
+      // Routes to inactive or unknown warehouses are ignored
+      if (indexes.containsKey(route.warehouseId())) {
+        grouped.computeIfAbsent(key(route), k -> new ArrayList<>()).add(route);
+        if (route.postalPrefix() != null) {
+          longest = Math.max(longest, normalizePostal(route.postalPrefix())
+                  .length());
+        }
+      }
+    }
+    longestPrefix = longest;
+    grouped.forEach((key, group) -> byRegion.put(key, group.stream()
+            .sorted(Comparator.comparingInt(RegionRoute::preference))
+            .mapToInt(route -> indexes.get(route.warehouseId()))
+            .distinct()
+            .toArray()));
+  }
+
+  public static WarehouseRoutingTable build(List<WarehouseSite> sites,
+                                            List<RegionRoute> routes) {
+    return new WarehouseRoutingTable(sites, routes);
+  }
+
+  public static WarehouseRoutingTable empty() {
+    return new WarehouseRoutingTable(List.of(), List.of());
+  }
+
+  public List<WarehouseSite> sites() {
+    return sites;
+  }
+
+  public int size() {
+    return sites.size();
+  }
+
+  // -1 for warehouses that are unknown or inactive
+  public int indexOf(long warehouseId) {
+    return indexes.getOrDefault(warehouseId, -1);
+  }
+
+  // Every warehouse exactly once, most suitable first. Any part of the
+  // address may be null.
+  public int[] candidates(String country, String state, String postalCode) {
+    int[] order = new int[sites.size()];
+    boolean[] seen = new boolean[sites.size()];
+    int size = 0;
+    if (country != null) {
+      String c = normalize(country);
+      if (postalCode != null) {
+        String postal = normalizePostal(postalCode);
+        for (int length = Math.min(postal.length(), longestPrefix);
+             length > 0; length--) {
+          size = append(byRegion.get(c + "|P|" + postal.substring(0, length)),
+                  order, seen, size);
+        }
+      }
+      if (state != null) {
+        size = append(byRegion.get(c + "|S|" + normalize(state)), order,
+                seen, size);
+      }
+      size = append(byRegion.get(c), order, seen, size);
+    }
+    append(byPriority, order, seen, size);
+    return order;
+  }
+
+  private static int append(int[] indexes, int[] order, boolean[] seen,
+                            int size) {
+    if (indexes != null) {
+      for (int index : indexes) {
+        if (!seen[index]) {
+          seen[index] = true;
+          order[size++] = index;
+        }
+      }
+    }
+    return size;
+  }
+
+  private static String key(RegionRoute route) {
+    String country = normalize(route.country());
+    if (route.postalPrefix() != null) {
+      return country + "|P|" + normalizePostal(route.postalPrefix());
+    }
+    if (route.state() != null) {
+      return country + "|S|" + normalize(route.state());
+    }
+    return country;
+  }
+
+  private static String normalize(String value) {
+    return value.strip().toUpperCase(Locale.ROOT);
+  }
+
+  // "SW1A 1AA" and "sw1a1aa" share their prefixes
+  private static String normalizePostal(String value) {
+    return normalize(value).replace(" ", "").replace("-", "");
+  }
+}
@@ -0,0 +1,5 @@
+package com.example.e_commerce.warehouse;
+
+// An active warehouse as the routing table knows it
+public record WarehouseSite(long id, String code, int priority) {
+}
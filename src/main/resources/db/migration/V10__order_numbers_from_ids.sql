@@ -0,0 +1,4 @@
+-- Orders take their ids from orders_id_seq before the insert, 50 at a
+-- time (Order's @SequenceGenerator), and derive the order number from the
+-- id. Column defaults still draw single values from the same sequence.
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Every node keeps a Bloom filter of registered emails and trusts it to
+-- turn away unknown ones, so each node has to hear about users registered
+-- on the others. Only inserts, deletes and email changes are announced:
+-- last_login_at is written behind in batches and would flood the channel.
+CREATE TRIGGER users_cache_invalidation
+    AFTER INSERT OR DELETE OR UPDATE OF email ON users
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
@@ -0,0 +1,38 @@
+-- Warehouse counts used to add their difference to the ledger, on top of
+-- the products baseline and of manual adjustments. Counted products now
+-- hold their warehouses' total less what is sold but not allocated yet;
+-- this brings the ones counted so far to that level. Products that have
+-- oversold their warehouses stop at zero.
+WITH counted AS (
+    SELECT ws.product_id, SUM(ws.quantity) AS on_hand
+    FROM warehouse_stock ws
+    GROUP BY ws.product_id
+),
+levels AS (
+    SELECT c.product_id,
+           GREATEST(c.on_hand -
+                    COALESCE((SELECT SUM(oi.quantity)
+                              FROM order_items oi
+                              JOIN orders o ON o.id = oi.order_id
+                                           AND o.created_at = oi.created_at
+                              WHERE oi.product_id = c.product_id
+                                AND o.status IN ('PENDING',
+                                                 'PAYMENT_PROCESSING', 'PAID')
+                                AND NOT EXISTS (
+                                    SELECT 1 FROM shipment_allocations sa
+                                    WHERE sa.order_id = o.id)), 0), 0)
+               AS target,
+           COALESCE(s.quantity, p.stock_quantity) +
+           COALESCE((SELECT SUM(m.quantity) FROM stock_movements m
+                     WHERE m.product_id = p.id
+                       AND m.id > COALESCE(s.last_movement_id, 0)), 0)
+               AS level
+    FROM counted c
+    JOIN products p ON p.id = c.product_id
+    LEFT JOIN stock_snapshots s ON s.product_id = p.id
+)
+INSERT INTO stock_movements (product_id, quantity, type, reference_id,
+                             created_at)
+SELECT product_id, target - level, 'ADJUSTMENT', NULL, now()
+FROM levels
+WHERE target <> level;
@@ -0,0 +1,66 @@
+-- ==============================================
+-- Baseline schema for the entities that existed before Flyway was added.
+-- Databases created by ddl-auto=update are baselined at this version.
+-- ==============================================
+
+CREATE TABLE category (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name               VARCHAR(100) NOT NULL UNIQUE,
+    description        VARCHAR(500) NOT NULL,
+    parent_category_id BIGINT REFERENCES category (id),
+    active             BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at         TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE products (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(200)   NOT NULL,
+    description    VARCHAR(2000)  NOT NULL,
+    price          NUMERIC(10, 2) NOT NULL,
+    stock_quantity INTEGER        NOT NULL,
+    sku            VARCHAR(50) UNIQUE,
+    category       VARCHAR(100)   NOT NULL,
+    active         BOOLEAN        NOT NULL DEFAULT TRUE,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    updated_at     TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX idx_products_name ON products (name);
+CREATE INDEX idx_products_category ON products (category);
+
+CREATE TABLE users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email         VARCHAR(255) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    first_name    VARCHAR(100) NOT NULL,
+    last_name     VARCHAR(100) NOT NULL,
+    role          VARCHAR(20),
+    phone_number  VARCHAR(20),
+    active        BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at    TIMESTAMP(6) NOT NULL,
+    last_login_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE addresses (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id        BIGINT       NOT NULL REFERENCES users (id),
+    address_type   VARCHAR(20),
+    street_address VARCHAR(200) NOT NULL,
+    city           VARCHAR(200) NOT NULL,
+    state          VARCHAR(200) NOT NULL,
+    postal_code    VARCHAR(10)  NOT NULL,
+    country        VARCHAR(100) NOT NULL,
+    is_default     BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at     TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_addresses_user_id ON addresses (user_id);
+
+CREATE TABLE stock_reservations (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT       NOT NULL REFERENCES products (id),
+    user_id    BIGINT       NOT NULL REFERENCES users (id),
+    quantity   INTEGER      NOT NULL CHECK (quantity > 0),
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,80 @@
+-- ==============================================
+-- Orders and order items, range-partitioned by month on created_at.
+--
+-- Partitioned tables require the partition key in every unique constraint,
+-- so primary keys are (id, created_at) and order_number is unique per
+-- creation time. order_items carries its order's created_at so both tables
+-- split along the same month boundaries and can be archived together.
+-- Monthly partitions are created ahead of time by OrderPartitionMaintenanceJob;
+-- the DEFAULT partitions only catch rows that arrive before that happens.
+-- ==============================================
+
+CREATE SEQUENCE orders_id_seq;
+CREATE SEQUENCE order_items_id_seq;
+
+CREATE TABLE orders (
+    id                  BIGINT         NOT NULL DEFAULT nextval('orders_id_seq'),
+    order_number        VARCHAR(30)    NOT NULL,
+    user_id             BIGINT         NOT NULL REFERENCES users (id),
+    status              VARCHAR(30)    NOT NULL,
+    total_amount        NUMERIC(12, 2) NOT NULL,
+    shipping_address_id BIGINT REFERENCES addresses (id),
+    billing_address_id  BIGINT REFERENCES addresses (id),
+    created_at          TIMESTAMP(6)   NOT NULL,
+    updated_at          TIMESTAMP(6)   NOT NULL,
+    paid_at             TIMESTAMP(6),
+    shipped_at          TIMESTAMP(6),
+    delivered_at        TIMESTAMP(6),
+    PRIMARY KEY (id, created_at),
+    UNIQUE (order_number, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE orders_id_seq OWNED BY orders.id;
+
+CREATE INDEX idx_orders_user_id ON orders (user_id, created_at);
+CREATE INDEX idx_orders_status ON orders (status, created_at);
+CREATE INDEX idx_orders_created_at ON orders (created_at);
+
+CREATE TABLE order_items (
+    id                BIGINT         NOT NULL DEFAULT nextval('order_items_id_seq'),
+    order_id          BIGINT         NOT NULL,
+    product_id        BIGINT         NOT NULL REFERENCES products (id),
+    quantity          INTEGER        NOT NULL CHECK (quantity > 0),
+    price_at_purchase NUMERIC(10, 2) NOT NULL,
+    subtotal          NUMERIC(12, 2) NOT NULL,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE order_items_id_seq OWNED BY order_items.id;
+
+CREATE INDEX idx_order_items_order_id ON order_items (order_id, created_at);
+CREATE INDEX idx_order_items_product_id ON order_items (product_id);
+
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+-- Current month plus three months ahead; the job keeps extending this
+DO $$
+DECLARE
+    month_start DATE;
+    suffix      TEXT;
+BEGIN
+    FOR i IN 0..3 LOOP
+        month_start := (date_trunc('month', now()) + make_interval(months => i))::date;
+        suffix := to_char(month_start, 'YYYY_MM');
+        EXECUTE format('CREATE TABLE orders_p%s PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       suffix, month_start, (month_start + INTERVAL '1 month')::date);
+        EXECUTE format('CREATE TABLE order_items_p%s PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                       suffix, month_start, (month_start + INTERVAL '1 month')::date);
+    END LOOP;
+END $$;
+
+-- Cold storage for archived months. Plain heap tables with the same column
+-- order as the hot tables, so rows can be moved with INSERT ... SELECT *.
+-- Any column added to orders/order_items must be added here as well.
+CREATE TABLE orders_archive (LIKE orders INCLUDING DEFAULTS);
+CREATE TABLE order_items_archive (LIKE order_items INCLUDING DEFAULTS);
+
+CREATE INDEX idx_orders_archive_created_at ON orders_archive (created_at);
+CREATE INDEX idx_order_items_archive_order_id ON order_items_archive (order_id);
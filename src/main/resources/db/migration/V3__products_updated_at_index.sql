@@ -0,0 +1,3 @@
+-- Lets the catalog snapshot freshness check read max(updated_at) from the
+-- index instead of scanning products
+CREATE INDEX idx_products_updated_at ON products (updated_at);
@@ -0,0 +1,15 @@
+-- Every write to category is announced on the cache_invalidation channel as
+-- '<table>:<id>', so each app node can evict its second-level cache entries.
+-- NOTIFY is transactional: listeners only hear about committed changes.
+CREATE FUNCTION notify_cache_invalidation() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('cache_invalidation',
+                      TG_TABLE_NAME || ':' ||
+                      CASE WHEN TG_OP = 'DELETE' THEN OLD.id ELSE NEW.id END);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER category_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON category
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
@@ -0,0 +1,23 @@
+-- Stock becomes an append-only ledger. products.stock_quantity stays as the
+-- baseline for products that were never compacted and is kept in step with
+-- stock_snapshots by the compactor, so existing readers see recent stock.
+-- No foreign key on product_id: it would share-lock the product row on
+-- every append.
+CREATE TABLE stock_movements (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id   BIGINT      NOT NULL,
+    quantity     INTEGER     NOT NULL,
+    type         VARCHAR(20) NOT NULL,
+    reference_id BIGINT,
+    created_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_stock_movements_product_id_id
+    ON stock_movements (product_id, id);
+
+CREATE TABLE stock_snapshots (
+    product_id       BIGINT    PRIMARY KEY,
+    quantity         INTEGER   NOT NULL,
+    last_movement_id BIGINT    NOT NULL,
+    taken_at         TIMESTAMP(6) NOT NULL
+);
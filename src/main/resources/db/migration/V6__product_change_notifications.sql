@@ -0,0 +1,8 @@
+-- Products announce their writes on the same channel as categories, so
+-- every node can evict cached products and patch its search indexes. The
+-- stock compactor writes products.stock_quantity, so stock changes fan out
+-- through here too, one notification per product per compaction rather
+-- than one per purchase.
+CREATE TRIGGER products_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
@@ -0,0 +1,4 @@
+-- Lets the nightly analytics export find the orders closed on a day without
+-- scanning every partition of orders
+CREATE INDEX idx_orders_closed_at ON orders (updated_at)
+    WHERE status IN ('DELIVERED', 'CANCELLED', 'REFUNDED');
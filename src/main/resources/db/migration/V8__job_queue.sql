@@ -0,0 +1,26 @@
+-- Durable background jobs. A job is inserted in the transaction that causes
+-- it, claimed by workers with FOR UPDATE SKIP LOCKED, and deleted once it
+-- succeeded. Jobs out of attempts stay behind as FAILED.
+CREATE TABLE jobs (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type         VARCHAR(100) NOT NULL,
+    payload      TEXT         NOT NULL,
+    priority     INTEGER      NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    attempts     INTEGER      NOT NULL,
+    max_attempts INTEGER      NOT NULL,
+    run_at       TIMESTAMP(6) NOT NULL,
+    locked_by    VARCHAR(100),
+    locked_until TIMESTAMP(6),
+    last_error   TEXT,
+    created_at   TIMESTAMP(6) NOT NULL,
+    finished_at  TIMESTAMP(6)
+);
+
+-- Claim order; only pending jobs are indexed, so the index stays small
+CREATE INDEX idx_jobs_pending
+    ON jobs (priority DESC, run_at, id) WHERE status = 'PENDING';
+
+-- Finds the jobs of workers that died holding them
+CREATE INDEX idx_jobs_running_locked_until
+    ON jobs (locked_until) WHERE status = 'RUNNING';
@@ -0,0 +1,46 @@
+-- Warehouses, the regions each one serves first, and the units each holds.
+-- warehouse_stock is where stock physically is; the stock ledger stays the
+-- sellable total, and allocating an order to warehouses does not touch it.
+CREATE TABLE warehouses (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code     VARCHAR(20)  NOT NULL UNIQUE,
+    name     VARCHAR(100) NOT NULL,
+    country  VARCHAR(100) NOT NULL,
+    priority INTEGER      NOT NULL DEFAULT 0,
+    active   BOOLEAN      NOT NULL DEFAULT TRUE
+);
+
+-- A region is a country, optionally narrowed to a state or to a postal code
+-- prefix. Within a region, lower preference is tried first.
+CREATE TABLE warehouse_routes (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    country       VARCHAR(100) NOT NULL,
+    state         VARCHAR(200),
+    postal_prefix VARCHAR(10),
+    warehouse_id  BIGINT       NOT NULL REFERENCES warehouses (id),
+    preference    INTEGER      NOT NULL DEFAULT 0,
+    CHECK (state IS NULL OR postal_prefix IS NULL)
+);
+
+CREATE TABLE warehouse_stock (
+    warehouse_id BIGINT  NOT NULL REFERENCES warehouses (id),
+    product_id   BIGINT  NOT NULL,
+    quantity     INTEGER NOT NULL CHECK (quantity >= 0),
+    PRIMARY KEY (warehouse_id, product_id)
+);
+
+CREATE INDEX idx_warehouse_stock_product_id ON warehouse_stock (product_id);
+
+-- One row per warehouse and product of an order's shipments. No foreign key
+-- to orders, which is partitioned and keyed by (id, created_at).
+CREATE TABLE shipment_allocations (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id     BIGINT       NOT NULL,
+    warehouse_id BIGINT       NOT NULL REFERENCES warehouses (id),
+    product_id   BIGINT       NOT NULL,
+    quantity     INTEGER      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_shipment_allocations_order_id
+    ON shipment_allocations (order_id);
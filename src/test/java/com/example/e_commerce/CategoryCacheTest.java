@@ -0,0 +1,146 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.config.CacheNames;
+import com.example.e_commerce.dto.CategorySummary;
+import com.example.e_commerce.invalidation.CategoryCacheInvalidator;
+import com.example.e_commerce.model.Category;
+import com.example.e_commerce.repository.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The test profile turns Spring's cache off; these run with every cache on
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+@ActiveProfiles("test")
+public class CategoryCacheTest {
+  @Autowired
+  private CategoryService categoryService;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CategoryCacheInvalidator invalidator;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private SessionFactory sessionFactory;
+  private Statistics statistics;
+  private Category electronics;
+  private Category phones;
+
+  @BeforeEach
+  void setUp() {
+    sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    statistics = sessionFactory.getStatistics();
+    transactionTemplate.executeWithoutResult(status -> {
+      electronics = categoryRepository.save(new Category("Electronics",
+              "Devices and gadgets", null, true));
+      phones = categoryRepository.save(new Category("Phones",
+              "Mobile phones", electronics, true));
+      categoryRepository.save(new Category("Archived", "No longer sold",
+              null, false));
+    });
+    sessionFactory.getCache().evictAllRegions();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    categoryRepository.deleteAllInBatch();
+    sessionFactory.getCache().evictAllRegions();
+  }
+
+  @Test
+  @DisplayName("Should serve a repeated listing from the query cache")
+  void shouldServeRepeatedListingFromQueryCache() {
+    List<CategorySummary> first = categoryService.listActive(false);
+    long statements = statistics.getPrepareStatementCount();
+
+    List<CategorySummary> second = categoryService.listActive(false);
+
+    assertEquals(first, second);
+    assertEquals(List.of("Electronics", "Phones"),
+            second.stream().map(CategorySummary::name).toList());
+    assertEquals(statements, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getQueryRegionStatistics(
+            CacheNames.CATEGORY_LISTINGS).getHitCount());
+  }
+
+  @Test
+  @DisplayName("Should serve subcategories from the collection region")
+  void shouldServeSubcategoriesFromCollectionRegion() {
+    categoryService.findChildren(electronics.getId());
+    long statements = statistics.getPrepareStatementCount();
+
+    List<CategorySummary> children =
+            categoryService.findChildren(electronics.getId()).orElseThrow();
+
+    assertEquals(List.of(CategorySummary.from(phones)), children);
+    assertEquals(statements, statistics.getPrepareStatementCount());
+    assertTrue(statistics.getCacheRegionStatistics(
+            CacheNames.CATEGORY_CHILDREN).getHitCount() > 0);
+  }
+
+  @Test
+  @DisplayName("Should see a local write in the next listing")
+  void shouldSeeLocalWriteInNextListing() {
+    categoryService.listActive(true);
+
+    transactionTemplate.executeWithoutResult(status -> {
+      Category archived = categoryRepository.findByName("Archived")
+              .orElseThrow();
+      archived.setActive(true);
+    });
+
+    assertEquals(List.of("Archived", "Electronics"),
+            categoryService.listActive(true).stream()
+                    .map(CategorySummary::name).toList());
+  }
+
+  @Test
+  @DisplayName("Should evict a category and the listings on invalidation")
+  void shouldEvictCategoryAndListingsOnInvalidation() {
+    categoryService.listActive(false);
+    assertTrue(sessionFactory.getCache()
+            .containsEntity(Category.class, phones.getId()));
+
+    invalidator.invalidate(phones.getId());
+    statistics.clear();
+    categoryService.listActive(false);
+
+    assertEquals(0, statistics.getQueryRegionStatistics(
+            CacheNames.CATEGORY_LISTINGS).getHitCount());
+    assertEquals(1, statistics.getQueryRegionStatistics(
+            CacheNames.CATEGORY_LISTINGS).getMissCount());
+  }
+
+  @Test
+  @DisplayName("Should drop every cached category on invalidateAll")
+  void shouldDropEveryCachedCategoryOnInvalidateAll() {
+    categoryService.listActive(false);
+
+    invalidator.invalidateAll();
+
+    assertFalse(sessionFactory.getCache()
+            .containsEntity(Category.class, electronics.getId()));
+    assertFalse(sessionFactory.getCache()
+            .containsEntity(Category.class, phones.getId()));
+  }
+}
@@ -0,0 +1,190 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.dto.OrderTransitionReject;
+import com.example.e_commerce.dto.OrderTransitionResult;
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.enums.UserRole;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.stock.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Chunks of two, so the transitions below span three chunks
+@SpringBootTest(properties = "app.order-status.chunk-size=2")
+@ActiveProfiles("test")
+public class OrderStatusServiceTest {
+  private static final long MISSING = -1L;
+
+  @Autowired
+  private OrderStatusService orderStatusService;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private StockLedger stockLedger;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private long buyer;
+  private Long product;
+  private final List<Long> orders = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    User user = userRepository.save(new User("Ann", "Buyer",
+            "status-" + System.nanoTime() + "@example.com", "555-0100",
+            "passwordHash", UserRole.CUSTOMER, true));
+    buyer = user.getId();
+    for (OrderStatus status : List.of(OrderStatus.PAID,
+            OrderStatus.CANCELLED, OrderStatus.PAID, OrderStatus.DELIVERED,
+            OrderStatus.PAID)) {
+      long id = orderRepository.save(new Order(user, null, null)).getId();
+      jdbcTemplate.update("UPDATE orders SET status = ? WHERE id = ?",
+              status.name(), id);
+      orders.add(id);
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    Long[] created = orders.toArray(Long[]::new);
+    jdbcTemplate.update("DELETE FROM order_items WHERE order_id = ANY (?)",
+            (Object) created);
+    jdbcTemplate.update("DELETE FROM orders WHERE id = ANY (?)",
+            (Object) created);
+    if (product != null) {
+      jdbcTemplate.update("DELETE FROM stock_movements WHERE product_id = ?",
+              product);
+      jdbcTemplate.update("DELETE FROM stock_snapshots WHERE product_id = ?",
+              product);
+      jdbcTemplate.update("DELETE FROM products WHERE id = ?", product);
+    }
+    jdbcTemplate.update("DELETE FROM users WHERE id = ?", buyer);
+  }
+
+  @Test
+  @DisplayName("Should ship allowed orders and reject the rest chunk by chunk")
+  void shouldTransitionAcrossChunks() {
+    OrderTransitionResult result = orderStatusService.transition(List.of(
+            order(0), order(1), order(2), MISSING, order(3), order(4),
+            order(0)), OrderStatus.SHIPPED);
+
+    assertEquals(3, result.updated());
+    assertEquals(List.of(
+            new OrderTransitionReject(order(1), OrderStatus.CANCELLED,
+                    "Order cannot go from CANCELLED to SHIPPED"),
+            new OrderTransitionReject(MISSING, null, "Order not found"),
+            new OrderTransitionReject(order(3), OrderStatus.DELIVERED,
+                    "Order cannot go from DELIVERED to SHIPPED")),
+            result.rejected());
+    for (int i : new int[]{0, 2, 4}) {
+      Map<String, Object> row = row(i);
+      assertEquals("SHIPPED", row.get("status"));
+      assertNotNull(row.get("shipped_at"));
+      assertNull(row.get("delivered_at"));
+    }
+    assertEquals("CANCELLED", row(1).get("status"));
+    assertNull(row(1).get("shipped_at"));
+    assertEquals("DELIVERED", row(3).get("status"));
+    assertNull(row(3).get("shipped_at"));
+  }
+
+  @Test
+  @DisplayName("Should stamp delivered_at and keep shipped_at on delivery")
+  void shouldStampDeliveredAt() {
+    orderStatusService.transition(List.of(order(0), order(2)),
+            OrderStatus.SHIPPED);
+    Timestamp shippedAt = (Timestamp) row(0).get("shipped_at");
+
+    OrderTransitionResult result = orderStatusService.transition(List.of(
+            order(0), order(1), order(2), order(4)), OrderStatus.DELIVERED);
+
+    assertEquals(2, result.updated());
+    assertEquals(List.of(order(1), order(4)), result.rejected().stream()
+            .map(OrderTransitionReject::orderId).toList());
+    assertEquals(OrderStatus.PAID, result.rejected().get(1).currentStatus());
+    Map<String, Object> delivered = row(0);
+    assertEquals("DELIVERED", delivered.get("status"));
+    assertEquals(shippedAt, delivered.get("shipped_at"));
+    assertNotNull(delivered.get("delivered_at"));
+    assertNull(row(4).get("delivered_at"));
+  }
+
+  @Test
+  @DisplayName("Should put back the units of orders that never shipped")
+  void shouldReturnStockOfUnshippedOrders() {
+    product = productRepository.save(new Product("Desk lamp", "Status test",
+            new BigDecimal("25.00"), 10, "STATUS-" + System.nanoTime(),
+            "Lighting", true)).getId();
+    long pending = purchase(1);
+    long paid = purchase(2);
+    long shipped = purchase(3);
+    setStatus(paid, OrderStatus.PAID);
+    setStatus(shipped, OrderStatus.SHIPPED);
+    assertEquals(4, stockLedger.available(product));
+
+    assertEquals(1, orderStatusService.transition(List.of(pending),
+            OrderStatus.CANCELLED).updated());
+    assertEquals(2, orderStatusService.transition(List.of(paid, shipped),
+            OrderStatus.REFUNDED).updated());
+
+    // The shipped units left with the buyer
+    assertEquals(7, stockLedger.available(product));
+    assertEquals(List.of(pending, paid), jdbcTemplate.queryForList("""
+            SELECT reference_id FROM stock_movements
+            WHERE product_id = ? AND type = 'RETURN'
+            ORDER BY id
+            """, Long.class, product));
+  }
+
+  private long purchase(int quantity) {
+    long id = productService.purchaseProduct(product, buyer, quantity)
+            .getId();
+    orders.add(id);
+    return id;
+  }
+
+  private void setStatus(long id, OrderStatus status) {
+    jdbcTemplate.update("UPDATE orders SET status = ? WHERE id = ?",
+            status.name(), id);
+  }
+
+  private long order(int index) {
+    return orders.get(index);
+  }
+
+  private Map<String, Object> row(int index) {
+    return jdbcTemplate.queryForMap("SELECT status, shipped_at, " +
+            "delivered_at FROM orders WHERE id = ?", order(index));
+  }
+}
@@ -0,0 +1,140 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.dto.BulkUpdateResult;
+import com.example.e_commerce.dto.CategoryRepriceRequest;
+import com.example.e_commerce.dto.ProductUpdateRow;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.stock.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Chunks of two, so a handful of rows already spans several chunks
+@SpringBootTest(properties = "app.bulk-update.chunk-size=2")
+@ActiveProfiles("test")
+public class ProductBulkUpdateServiceTest {
+  @Autowired
+  private ProductBulkUpdateService bulkUpdateService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private StockLedger stockLedger;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private String prefix;
+  private final List<Long> ids = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    prefix = "BULK-" + System.nanoTime() % 1_000_000_000L + "-";
+    for (int i = 0; i < 5; i++) {
+      ids.add(productRepository.save(new Product("Chair " + i, "Bulk test",
+              new BigDecimal("10.00"), 10, prefix + i, prefix + "chairs",
+              true)).getId());
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    Long[] created = ids.toArray(Long[]::new);
+    jdbcTemplate.update("DELETE FROM stock_movements WHERE product_id = " +
+            "ANY (?)", (Object) created);
+    jdbcTemplate.update("DELETE FROM stock_snapshots WHERE product_id = " +
+            "ANY (?)", (Object) created);
+    jdbcTemplate.update("DELETE FROM products WHERE id = ANY (?)",
+            (Object) created);
+  }
+
+  @Test
+  @DisplayName("Should update across chunks and report unknown SKUs")
+  void shouldApplyRowsAcrossChunks() {
+    BulkUpdateResult result = bulkUpdateService.applyRows(List.of(
+            row(0, "11.00", null),
+            row(1, null, 3),
+            new ProductUpdateRow(prefix + "missing-1", new BigDecimal("1.00"),
+                    null),
+            row(2, "12.50", 0),
+            new ProductUpdateRow(prefix + "missing-2", null, 5),
+            row(4, "14.00", 7)));
+
+    assertEquals(4, result.updated());
+    assertEquals(List.of(prefix + "missing-1", prefix + "missing-2"),
+            result.unknownSkus());
+    assertPrice("11.00", 0);
+    assertPrice("10.00", 1);
+    assertPrice("12.50", 2);
+    assertPrice("10.00", 3);
+    assertPrice("14.00", 4);
+    assertEquals(List.of(10, 3, 0, 10, 7), stock());
+  }
+
+  @Test
+  @DisplayName("Should apply the last row for a SKU given twice")
+  void shouldLetLastDuplicateSkuWin() {
+    BulkUpdateResult result = bulkUpdateService.applyRows(List.of(
+            row(0, "11.00", 1),
+            row(1, "12.00", null),
+            row(2, "13.00", null),
+            row(0, "15.00", 6),
+            row(3, "16.00", null),
+            row(0, null, 8)));
+
+    assertEquals(4, result.updated());
+    assertEquals(List.of(), result.unknownSkus());
+    // The last row leaves the price alone, so the earlier prices are gone
+    assertPrice("10.00", 0);
+    assertEquals(8, stockLedger.available(ids.get(0)));
+  }
+
+  @Test
+  @DisplayName("Should reprice a whole category chunk by chunk")
+  void shouldRepriceCategoryAcrossChunks() {
+    long other = productRepository.save(new Product("Table", "Bulk test",
+            new BigDecimal("10.00"), 1, prefix + "other", prefix + "tables",
+            true)).getId();
+    ids.add(other);
+
+    BulkUpdateResult result = bulkUpdateService.repriceCategory(
+            new CategoryRepriceRequest(prefix + "chairs",
+                    new BigDecimal("-12.5")));
+
+    assertEquals(5, result.updated());
+    for (int i = 0; i < 5; i++) {
+      assertPrice("8.75", i);
+    }
+    assertPrice("10.00", 5);
+  }
+
+  private ProductUpdateRow row(int index, String price, Integer stock) {
+    return new ProductUpdateRow(prefix + index,
+            price != null ? new BigDecimal(price) : null, stock);
+  }
+
+  private void assertPrice(String expected, int index) {
+    BigDecimal price = jdbcTemplate.queryForObject(
+            "SELECT price FROM products WHERE id = ?", BigDecimal.class,
+            ids.get(index));
+    assertEquals(0, new BigDecimal(expected).compareTo(price),
+            "price of product " + index);
+  }
+
+  private List<Integer> stock() {
+    return ids.subList(0, 5).stream().map(stockLedger::available).toList();
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.dto.BulkUpdateResult;
+import com.example.e_commerce.dto.ProductUpdateRow;
+import com.example.e_commerce.stock.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Opt-in, with the configured chunk size rather than the tiny one of
+// ProductBulkUpdateServiceTest:
+//   ./mvnw test -Dtest=ProductBulkUpdateTimingTest -Dbulk-update.rows=100000
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "bulk-update.rows", matches = "\\d+")
+public class ProductBulkUpdateTimingTest {
+  private static final Logger log =
+          LoggerFactory.getLogger(ProductBulkUpdateTimingTest.class);
+
+  @Autowired
+  private ProductBulkUpdateService bulkUpdateService;
+
+  @Autowired
+  private ProductBulkUpdateProperties properties;
+
+  @Autowired
+  private StockLedger stockLedger;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final List<Long> ids = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    Long[] created = ids.toArray(Long[]::new);
+    jdbcTemplate.update("DELETE FROM stock_movements WHERE product_id = " +
+            "ANY (?)", (Object) created);
+    jdbcTemplate.update("DELETE FROM stock_snapshots WHERE product_id = " +
+            "ANY (?)", (Object) created);
+    jdbcTemplate.update("DELETE FROM products WHERE id = ANY (?)",
+            (Object) created);
+  }
+
+  @Test
+  @DisplayName("Should time a large bulk update")
+  void shouldTimeLargeUpdate() {
+    int rows = Integer.getInteger("bulk-update.rows");
+    String prefix = "BULK-" + System.nanoTime() % 1_000_000_000L + "-";
+    ids.addAll(jdbcTemplate.queryForList("""
+            INSERT INTO products (name, description, price, stock_quantity,
+                                  sku, category, active, created_at,
+                                  updated_at)
+            SELECT 'Chair ' || n, 'Bulk test', 10.00, 10, ? || n,
+                   ? || 'large', true, now(), now()
+            FROM generate_series(1, ?) AS n
+            RETURNING id
+            """, Long.class, prefix, prefix, rows));
+    List<ProductUpdateRow> updates = new ArrayList<>(rows);
+    for (int n = 1; n <= rows; n++) {
+      updates.add(new ProductUpdateRow(prefix + n, new BigDecimal("11.00"),
+              n % 2 == 0 ? 5 : null));
+    }
+
+    long started = System.nanoTime();
+    BulkUpdateResult result = bulkUpdateService.applyRows(updates);
+    long millis = (System.nanoTime() - started) / 1_000_000;
+
+    assertEquals(rows, result.updated());
+    assertEquals(List.of(), result.unknownSkus());
+    assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM products WHERE id = ANY (?) " +
+                    "AND price <> 11.00", Integer.class,
+            (Object) ids.toArray(Long[]::new)));
+    long last = jdbcTemplate.queryForObject(
+            "SELECT id FROM products WHERE sku = ?", Long.class, prefix + rows);
+    assertEquals(rows % 2 == 0 ? 5 : 10, stockLedger.available(last));
+    log.info("Bulk update of {} rows in chunks of {}: {} ms", rows,
+            properties.chunkSize(), millis);
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.event.OrderPlacedEvent;
+import com.example.e_commerce.exception.AddressNotFoundException;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ProductNotFoundException;
+import com.example.e_commerce.model.Address;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.AddressRepository;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.stock.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProductServiceTest {
+  private ProductRepository productRepository;
+  private AddressRepository addressRepository;
+  private OrderRepository orderRepository;
+  private StockLedger stockLedger;
+  private ApplicationEventPublisher eventPublisher;
+  private ProductService productService;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    productRepository = mock(ProductRepository.class);
+    UserRepository userRepository = mock(UserRepository.class);
+    addressRepository = mock(AddressRepository.class);
+    orderRepository = mock(OrderRepository.class);
+    stockLedger = mock(StockLedger.class);
+    eventPublisher = mock(ApplicationEventPublisher.class);
+    productService = new ProductService(productRepository, userRepository,
+            addressRepository, orderRepository, stockLedger, eventPublisher);
+
+    product = new Product("Laptop", "Gaming laptop",
+            new BigDecimal("999.99"), 5, "LAPTOP-001", "Electronics", true);
+    product.setId(1L);
+    when(userRepository.getReferenceById(7L)).thenReturn(new User());
+    when(orderRepository.save(any(Order.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  @DisplayName("Should take stock from the ledger and create the order")
+  void shouldPurchaseProduct() {
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+    Order order = productService.purchaseProduct(1L, 7L, 2);
+
+    verify(stockLedger).take(1L, 2, StockMovementType.PURCHASE, order.getId());
+    assertEquals(1, order.getOrderItems().size());
+    assertEquals(new BigDecimal("1999.98"), order.getTotalAmount());
+    verify(eventPublisher).publishEvent(
+            new OrderPlacedEvent(null, null,
+                    List.of(new OrderPlacedEvent.Line(1L, "Electronics", 2))));
+  }
+
+  @Test
+  @DisplayName("Should reject purchases beyond the remaining stock")
+  void shouldRejectInsufficientStock() {
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    doThrow(new InsufficientStockException(1L, 6)).when(stockLedger)
+            .take(eq(1L), eq(6), any(), any());
+
+    assertThrows(InsufficientStockException.class,
+            () -> productService.purchaseProduct(1L, 7L, 6));
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  @DisplayName("Should treat inactive products as not found")
+  void shouldRejectInactiveProduct() {
+    product.setActive(false);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+    assertThrows(ProductNotFoundException.class,
+            () -> productService.purchaseProduct(1L, 7L, 1));
+    verifyNoInteractions(stockLedger);
+  }
+
+  @Test
+  @DisplayName("Should ship to the buyer's own address only")
+  void shouldShipToBuyersAddress() {
+    Address home = new Address();
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    when(addressRepository.findByIdForUser(3L, 7L))
+            .thenReturn(Optional.of(home));
+
+    assertSame(home, productService.purchaseProduct(1L, 7L, 1, 3L)
+            .getShippingAddress());
+    assertThrows(AddressNotFoundException.class,
+            () -> productService.purchaseProduct(1L, 7L, 1, 4L));
+    verify(stockLedger, times(1)).take(eq(1L), eq(1), any(), any());
+  }
+}
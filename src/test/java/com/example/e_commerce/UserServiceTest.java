@@ -0,0 +1,65 @@
+package com.example.e_commerce;
+
+import com.example.e_commerce.auth.EmailLookup;
+import com.example.e_commerce.auth.LoginActivityRecorder;
+import com.example.e_commerce.auth.PasswordHasher;
+import com.example.e_commerce.dto.LoginRequest;
+import com.example.e_commerce.dto.RegistrationRequest;
+import com.example.e_commerce.exception.EmailAlreadyRegisteredException;
+import com.example.e_commerce.exception.InvalidCredentialsException;
+import com.example.e_commerce.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UserServiceTest {
+  private UserRepository userRepository;
+  private EmailLookup emailLookup;
+  private PasswordHasher passwordHasher;
+  private UserService userService;
+
+  @BeforeEach
+  void setUp() {
+    userRepository = mock(UserRepository.class);
+    emailLookup = mock(EmailLookup.class);
+    passwordHasher = spy(new PasswordHasher());
+    userService = new UserService(userRepository, emailLookup, passwordHasher,
+            mock(LoginActivityRecorder.class));
+  }
+
+  @Test
+  @DisplayName("Should check a password even when the filter rules out the email")
+  void shouldHashPasswordForUnknownEmail() {
+    when(emailLookup.findUserId(anyString(), any()))
+            .thenReturn(Optional.empty());
+
+    assertThrows(InvalidCredentialsException.class,
+            () -> userService.authenticate(
+                    new LoginRequest("nobody@example.com", "secret")));
+
+    verify(passwordHasher).matches(eq("secret"), anyString());
+    verify(userRepository, never()).findById(any());
+  }
+
+  @Test
+  @DisplayName("Should reject a taken email the filter has not heard of")
+  void shouldRejectTakenEmailWithoutFilter() {
+    when(emailLookup.mightExist(anyString())).thenReturn(false);
+    when(userRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+    assertThrows(EmailAlreadyRegisteredException.class,
+            () -> userService.register(new RegistrationRequest(
+                    " Taken@Example.com", "secret-password", "Ann", "Buyer",
+                    null)));
+
+    verify(userRepository, never()).saveAndFlush(any());
+  }
+}
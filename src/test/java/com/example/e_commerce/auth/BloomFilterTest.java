@@ -0,0 +1,60 @@
+package com.example.e_commerce.auth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+  @Test
+  @DisplayName("Should never report an added value as absent")
+  void shouldHaveNoFalseNegatives() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("user" + i + "@example.com");
+    }
+
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain("user" + i + "@example.com"));
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep false positives near the configured rate")
+  void shouldKeepFalsePositiveRateNearTarget() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("user" + i + "@example.com");
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("stranger" + i + "@example.org")) {
+        falsePositives++;
+      }
+    }
+
+    // 1% target, allow some slack for hash quality
+    assertTrue(falsePositives < 2_000,
+            "False positive rate too high: " + falsePositives / 100_000.0);
+  }
+
+  @Test
+  @DisplayName("Should size the bit array from insertions and rate")
+  void shouldSizeBitArray() {
+    BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+    // ~9.6 bits per element and 7 hash functions for 1%
+    assertEquals(1_198_160, filter.memoryBytes(), 1_000);
+    assertEquals(7, filter.hashCount());
+  }
+
+  @Test
+  @DisplayName("Should reject invalid false positive rate")
+  void shouldRejectInvalidRate() {
+    assertThrows(IllegalArgumentException.class,
+            () -> new BloomFilter(100, 1.5));
+  }
+}
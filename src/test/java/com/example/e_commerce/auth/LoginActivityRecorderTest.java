@@ -0,0 +1,83 @@
+package com.example.e_commerce.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class LoginActivityRecorderTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+  private JdbcTemplate jdbcTemplate;
+  private LoginActivityRecorder recorder;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    recorder = new LoginActivityRecorder(jdbcTemplate,
+            new LoginActivityProperties(Duration.ofSeconds(10), 2));
+  }
+
+  @Test
+  @DisplayName("Should keep only the latest login per user")
+  void shouldCoalesceLoginsPerUser() {
+    recorder.record(1L, NOW);
+    recorder.record(1L, NOW.plusMinutes(5));
+    recorder.record(1L, NOW.plusMinutes(2));
+
+    assertEquals(1, recorder.pendingUsers());
+
+    recorder.flush();
+
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).update(anyString(), args.capture());
+    assertArrayEquals(new Object[] {1L, Timestamp.valueOf(NOW.plusMinutes(5))},
+            args.getValue());
+    assertEquals(0, recorder.pendingUsers());
+  }
+
+  @Test
+  @DisplayName("Should flush in batches of the configured size")
+  void shouldFlushInBatches() {
+    recorder.record(1L, NOW);
+    recorder.record(2L, NOW);
+    recorder.record(3L, NOW);
+
+    recorder.flush();
+
+    verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("Should keep entries when the flush fails")
+  void shouldRetryFailedFlush() {
+    when(jdbcTemplate.update(anyString(), any(Object[].class)))
+            .thenThrow(new RuntimeException("database down"));
+    recorder.record(1L, NOW);
+
+    recorder.flush();
+
+    assertEquals(1, recorder.pendingUsers());
+  }
+
+  @Test
+  @DisplayName("Should flush remaining entries on shutdown")
+  void shouldFlushOnStop() {
+    recorder.start();
+    recorder.record(1L, NOW);
+
+    recorder.stop();
+
+    verify(jdbcTemplate).update(anyString(), any(Object[].class));
+    assertFalse(recorder.isRunning());
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.e_commerce.bulkhead;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolSizerTest {
+  private static final long TARGET = 5_000_000;
+
+  private final PoolSizer sizer = new PoolSizer(2, 8, 2, TARGET, 3);
+
+  @Test
+  @DisplayName("Should grow while connections wait longer than the target")
+  void shouldGrowWhileWaitsExceedTarget() {
+    assertEquals(4, sizer.nextSize(2, TARGET + 1, 3));
+    assertEquals(6, sizer.nextSize(4, 20 * TARGET, 5));
+    assertEquals(8, sizer.nextSize(6, 20 * TARGET, 7));
+    assertEquals(8, sizer.nextSize(8, 20 * TARGET, 9));
+  }
+
+  @Test
+  @DisplayName("Should shrink only after enough calm intervals in a row")
+  void shouldShrinkAfterCalmIntervals() {
+    assertEquals(8, sizer.nextSize(8, 0, 1));
+    assertEquals(8, sizer.nextSize(8, 0, 1));
+    assertEquals(6, sizer.nextSize(8, 0, 1));
+    assertEquals(6, sizer.nextSize(6, 0, 1));
+  }
+
+  @Test
+  @DisplayName("Should restart the calm count when a pool gets busy")
+  void shouldRestartCalmCountWhenBusy() {
+    sizer.nextSize(8, 0, 1);
+    sizer.nextSize(8, 0, 1);
+    // Waits still under the target, but all but one connection in use
+    assertEquals(8, sizer.nextSize(8, 0, 7));
+    assertEquals(8, sizer.nextSize(8, TARGET / 2, 1));
+    assertEquals(8, sizer.nextSize(8, 0, 1));
+    assertEquals(8, sizer.nextSize(8, 0, 1));
+    assertEquals(6, sizer.nextSize(8, 0, 1));
+  }
+
+  @Test
+  @DisplayName("Should never leave the configured limits")
+  void shouldStayWithinLimits() {
+    PoolSizer single = new PoolSizer(2, 8, 2, TARGET, 1);
+
+    assertEquals(2, single.nextSize(2, 0, 0));
+    assertEquals(2, single.nextSize(3, 0, 0));
+    assertEquals(8, single.nextSize(12, TARGET, 12));
+  }
+}
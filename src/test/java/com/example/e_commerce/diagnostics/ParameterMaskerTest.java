@@ -0,0 +1,64 @@
+package com.example.e_commerce.diagnostics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterMaskerTest {
+  private final ParameterMasker masker =
+          new ParameterMasker(List.of("password", "email"));
+
+  @Test
+  @DisplayName("Should mask values compared with sensitive columns")
+  void shouldMaskComparedColumns() {
+    String rendered = masker.render(
+            "select u1_0.id from users u1_0 where u1_0.email=? and u1_0.active=?",
+            new Object[] {"jane@example.com", true}, 2);
+
+    assertEquals("[****, true]", rendered);
+  }
+
+  @Test
+  @DisplayName("Should map INSERT column lists to placeholders")
+  void shouldMapInsertColumns() {
+    String rendered = masker.render(
+            "insert into users (active,email,first_name,password_hash) " +
+                    "values (?,?,?,?)",
+            new Object[] {true, "jane@example.com", "Jane", "pbkdf2$..."}, 4);
+
+    assertEquals("[true, ****, 'Jane', ****]", rendered);
+  }
+
+  @Test
+  @DisplayName("Should map VALUES alias columns through CAST")
+  void shouldMapValuesAliasColumns() {
+    List<String> columns = ParameterMasker.bindColumns(
+            "UPDATE users AS u SET last_login_at = v.at " +
+                    "FROM (VALUES (CAST(? AS bigint), CAST(? AS timestamp)), " +
+                    "(CAST(? AS bigint), CAST(? AS timestamp))) AS v(id, at) " +
+                    "WHERE u.id = v.id AND u.last_login_at < ?");
+
+    assertEquals(Arrays.asList("id", "at", "id", "at", "last_login_at"),
+            columns);
+  }
+
+  @Test
+  @DisplayName("Should mask strings whose column is unknown")
+  void shouldMaskUnresolvedStrings() {
+    String rendered = masker.render("select lower(?) , ?",
+            new Object[] {"secret", 42}, 2);
+
+    assertEquals("[****, 42]", rendered);
+  }
+
+  @Test
+  @DisplayName("Should resolve IN lists to their column")
+  void shouldResolveInLists() {
+    assertEquals(List.of("sku", "sku", "sku"), ParameterMasker.bindColumns(
+            "select * from products where sku in (?, ?, ?)"));
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.e_commerce.diagnostics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlShapesTest {
+
+  @Test
+  @DisplayName("Should replace literals and collapse whitespace")
+  void shouldReplaceLiterals() {
+    String shape = SqlShapes.normalize("""
+            SELECT * FROM products
+            WHERE category = 'Books' AND price > 10.50
+            LIMIT 20""");
+
+    assertEquals("SELECT * FROM products WHERE category = ? AND price > ? " +
+            "LIMIT ?", shape);
+  }
+
+  @Test
+  @DisplayName("Should keep digits that are part of identifiers")
+  void shouldKeepIdentifierDigits() {
+    assertEquals("select p1_0.id from orders_p2026_01 p1_0 where p1_0.id=?",
+            SqlShapes.normalize(
+                    "select p1_0.id from orders_p2026_01 p1_0 where p1_0.id=?"));
+  }
+
+  @Test
+  @DisplayName("Should strip comments and handle escaped quotes")
+  void shouldStripComments() {
+    assertEquals("select ? from users where name = ?",
+            SqlShapes.normalize("/* load User */ select 1 from users " +
+                    "where name = 'O''Brien' -- trailing\n"));
+  }
+
+  @Test
+  @DisplayName("Should fold IN lists of any length into one shape")
+  void shouldFoldInLists() {
+    String three = SqlShapes.normalize("select * from t where id in (?,?,?)");
+    String five = SqlShapes.normalize("select * from t where id in (?, ?, ?, ?, ?)");
+
+    assertEquals("select * from t where id in (?, ...)", three);
+    assertEquals(three, five);
+  }
+
+  @Test
+  @DisplayName("Should fold repeated VALUES tuples into one shape")
+  void shouldFoldValuesTuples() {
+    String two = SqlShapes.normalize("UPDATE products AS p SET price = v.price " +
+            "FROM (VALUES (CAST(? AS varchar), CAST(? AS numeric)), " +
+            "(CAST(? AS varchar), CAST(? AS numeric))) AS v(sku, price) " +
+            "WHERE p.sku = v.sku");
+    String three = SqlShapes.normalize("UPDATE products AS p SET price = v.price " +
+            "FROM (VALUES (CAST(? AS varchar), CAST(? AS numeric)), " +
+            "(CAST(? AS varchar), CAST(? AS numeric)), " +
+            "(CAST(? AS varchar), CAST(? AS numeric))) AS v(sku, price) " +
+            "WHERE p.sku = v.sku");
+
+    assertEquals(two, three);
+    assertTrue(two.contains("(VALUES (CAST(? AS varchar), CAST(? AS numeric)), ...)"),
+            two);
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.e_commerce.enums;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatusTest {
+
+  @Test
+  @DisplayName("Should follow the fulfilment path")
+  void shouldFollowFulfilmentPath() {
+    assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.PAYMENT_PROCESSING));
+    assertTrue(OrderStatus.PAYMENT_PROCESSING.canTransitionTo(OrderStatus.PAID));
+    assertTrue(OrderStatus.PAID.canTransitionTo(OrderStatus.SHIPPED));
+    assertTrue(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.DELIVERED));
+  }
+
+  @Test
+  @DisplayName("Should not skip states or move backwards")
+  void shouldRejectSkipsAndReversals() {
+    assertFalse(OrderStatus.PENDING.canTransitionTo(OrderStatus.SHIPPED));
+    assertFalse(OrderStatus.PAID.canTransitionTo(OrderStatus.DELIVERED));
+    assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.SHIPPED));
+    assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CANCELLED));
+  }
+
+  @Test
+  @DisplayName("Should treat cancelled and refunded as final")
+  void shouldHaveFinalStates() {
+    assertTrue(OrderStatus.CANCELLED.isFinal());
+    assertTrue(OrderStatus.REFUNDED.isFinal());
+    assertFalse(OrderStatus.DELIVERED.isFinal());
+  }
+
+  @Test
+  @DisplayName("Should derive allowed previous states from the transitions")
+  void shouldDeriveAllowedPrevious() {
+    assertEquals(EnumSet.of(OrderStatus.PAID), OrderStatus.SHIPPED.allowedPrevious());
+    assertEquals(EnumSet.of(OrderStatus.PAID, OrderStatus.SHIPPED,
+            OrderStatus.DELIVERED), OrderStatus.REFUNDED.allowedPrevious());
+    for (OrderStatus from : OrderStatus.values()) {
+      for (OrderStatus to : from.allowedNext()) {
+        assertTrue(to.allowedPrevious().contains(from), from + " -> " + to);
+      }
+    }
+  }
+}
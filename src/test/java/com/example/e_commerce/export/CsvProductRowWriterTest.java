@@ -0,0 +1,46 @@
+package com.example.e_commerce.export;
+
+import com.example.e_commerce.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvProductRowWriterTest {
+
+  private String writeRow(Product product, int stock) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (CsvProductRowWriter writer = new CsvProductRowWriter(out)) {
+      writer.write(product, stock);
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  @DisplayName("Should write plain fields without quoting")
+  void shouldWritePlainFields() throws IOException {
+    Product product = new Product("Gaming Laptop", "Fast laptop",
+            new BigDecimal("1299.99"), 10, "LAPTOP-001", "Electronics", true);
+    product.setId(7L);
+
+    // The ledger level given, not the entity's stock_quantity
+    assertEquals("7,LAPTOP-001,Gaming Laptop,Fast laptop,1299.99,8," +
+            "Electronics,true,\r\n", writeRow(product, 8));
+  }
+
+  @Test
+  @DisplayName("Should quote fields with commas, quotes and line breaks")
+  void shouldQuoteSpecialCharacters() throws IOException {
+    Product product = new Product("Desk, oak", "The \"best\"\ndesk",
+            new BigDecimal("250.00"), 1, "DESK-1", "Furniture", true);
+    product.setId(1L);
+
+    assertEquals("1,DESK-1,\"Desk, oak\",\"The \"\"best\"\"\ndesk\"," +
+            "250.00,1,Furniture,true,\r\n", writeRow(product, 1));
+  }
+}
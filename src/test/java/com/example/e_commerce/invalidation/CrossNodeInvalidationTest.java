@@ -0,0 +1,245 @@
+package com.example.e_commerce.invalidation;
+
+import com.example.e_commerce.ECommerceOrderSystemApplication;
+import com.example.e_commerce.ProductQueryService;
+import com.example.e_commerce.UserService;
+import com.example.e_commerce.dto.LoginRequest;
+import com.example.e_commerce.dto.ProductSummary;
+import com.example.e_commerce.dto.RegistrationRequest;
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.exception.InvalidCredentialsException;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.search.FacetFilter;
+import com.example.e_commerce.search.IndexedProduct;
+import com.example.e_commerce.search.ProductAutocomplete;
+import com.example.e_commerce.search.ProductFacets;
+import com.example.e_commerce.stock.StockCompactor;
+import com.example.e_commerce.stock.StockLedger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two application contexts in one JVM stand in for two nodes sharing the
+// test database. Neither drops the schema on close, other cached test
+// contexts may still use it. The V4/V6/V11 triggers are installed by hand
+// because the test profile runs without Flyway, replacing rather than
+// dropping whatever an earlier run left, and only the products and users a
+// test created are deleted after it.
+public class CrossNodeInvalidationTest {
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final String[] NODE_PROPERTIES = {
+          "spring.jpa.hibernate.ddl-auto=update",
+          "app.cache-invalidation.enabled=true",
+          "app.cache-invalidation.reconnect-delay=PT0.2S",
+          "app.cache-invalidation.coalesce-window=PT0.05S",
+          "app.stock-ledger.compaction-enabled=false",
+          "spring.cache.type=caffeine"
+  };
+
+  private static ConfigurableApplicationContext nodeA;
+  private static ConfigurableApplicationContext nodeB;
+  private static JdbcTemplate jdbcTemplate;
+
+  private final List<Long> created = new ArrayList<>();
+  private final List<Long> createdUsers = new ArrayList<>();
+
+  @BeforeAll
+  static void startNodes() throws IOException {
+    nodeA = start();
+    jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+    jdbcTemplate.execute(migration("V4__category_cache_invalidation.sql"));
+    jdbcTemplate.execute(migration("V6__product_change_notifications.sql"));
+    jdbcTemplate.execute(migration("V11__user_change_notifications.sql"));
+    nodeB = start();
+    awaitUntil(() -> listeners() == 2);
+  }
+
+  @AfterAll
+  static void stopNodes() {
+    if (nodeB != null) {
+      nodeB.close();
+    }
+    if (nodeA != null) {
+      nodeA.close();
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    Long[] ids = created.toArray(Long[]::new);
+    jdbcTemplate.update("DELETE FROM stock_movements " +
+            "WHERE product_id = ANY (?)", (Object) ids);
+    jdbcTemplate.update("DELETE FROM stock_snapshots " +
+            "WHERE product_id = ANY (?)", (Object) ids);
+    jdbcTemplate.update("DELETE FROM products WHERE id = ANY (?)",
+            (Object) ids);
+    jdbcTemplate.update("DELETE FROM users WHERE id = ANY (?)",
+            (Object) createdUsers.toArray(Long[]::new));
+    created.clear();
+    createdUsers.clear();
+  }
+
+  @Test
+  @DisplayName("Should patch the other node's search indexes on insert")
+  void shouldPatchOtherNodesIndexesOnInsert() {
+    long id = save(nodeB, "Quantum laptop", "QL-1", 5);
+    ProductAutocomplete autocomplete = nodeA.getBean(ProductAutocomplete.class);
+    ProductFacets facets = nodeA.getBean(ProductFacets.class);
+
+    awaitUntil(() -> autocomplete.complete("quantum", 5).stream()
+            .map(IndexedProduct::id).toList().contains(id));
+    awaitUntil(() -> facets.search(new FacetFilter("Computers", Set.of(),
+            true, false), 10).productIds().contains(id));
+  }
+
+  @Test
+  @DisplayName("Should evict the other node's cached product on update")
+  void shouldEvictOtherNodesCachedProductOnUpdate() {
+    long id = save(nodeB, "Desk lamp", "DL-1", 5);
+    ProductQueryService queries = nodeA.getBean(ProductQueryService.class);
+    assertEquals("Desk lamp", summary(queries, id).name());
+
+    nodeB.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+            nodeB.getBean(ProductRepository.class).findById(id).orElseThrow()
+                    .setName("Floor lamp"));
+
+    awaitUntil(() -> summary(queries, id).name().equals("Floor lamp"));
+  }
+
+  @Test
+  @DisplayName("Should fan compacted stock out to the other node")
+  void shouldFanCompactedStockOut() {
+    long id = save(nodeB, "Last phone", "LP-1", 1);
+    ProductFacets facets = nodeA.getBean(ProductFacets.class);
+    FacetFilter inStock = new FacetFilter("Computers", Set.of(), true, false);
+    awaitUntil(() -> facets.search(inStock, 10).productIds().contains(id));
+
+    nodeB.getBean(StockLedger.class)
+            .take(id, 1, StockMovementType.PURCHASE, null);
+    nodeB.getBean(StockCompactor.class).compact();
+
+    awaitUntil(() -> !facets.search(inStock, 10).productIds().contains(id));
+  }
+
+  @Test
+  @DisplayName("Should let the other node log in a user registered here")
+  void shouldLogInOnOtherNodeAfterRegistering() {
+    String email = "cross-node-" + System.nanoTime() + "@example.com";
+    UserService users = nodeA.getBean(UserService.class);
+    assertFalse(canLogIn(users, email));
+
+    createdUsers.add(nodeB.getBean(UserService.class).register(
+            new RegistrationRequest(email, "secret-password", "Ann", "Buyer",
+                    null)).getId());
+
+    awaitUntil(() -> canLogIn(users, email));
+  }
+
+  @Test
+  @DisplayName("Should drop everything cached after reconnecting")
+  void shouldResyncAfterReconnecting() {
+    long id = save(nodeB, "Old name", "ON-1", 5);
+    ProductQueryService queries = nodeA.getBean(ProductQueryService.class);
+    awaitUntil(() -> nodeA.getBean(ProductAutocomplete.class)
+            .complete("old", 5).size() == 1);
+    assertEquals("Old name", summary(queries, id).name());
+
+    // A write nobody hears about, as if sent while the listeners were away
+    jdbcTemplate.execute("ALTER TABLE products DISABLE TRIGGER " +
+            "products_cache_invalidation");
+    try {
+      jdbcTemplate.update("UPDATE products SET name = 'New name' " +
+              "WHERE id = ?", id);
+    } finally {
+      jdbcTemplate.execute("ALTER TABLE products ENABLE TRIGGER " +
+              "products_cache_invalidation");
+    }
+    assertEquals("Old name", summary(queries, id).name());
+
+    jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) " +
+            "FROM pg_stat_activity WHERE query = 'LISTEN cache_invalidation'");
+    awaitUntil(() -> summary(queries, id).name().equals("New name"));
+    awaitUntil(() -> listeners() == 2);
+  }
+
+  private static ConfigurableApplicationContext start() {
+    return new SpringApplicationBuilder(ECommerceOrderSystemApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties(NODE_PROPERTIES)
+            .run();
+  }
+
+  // The migrations run once under Flyway; here they may run again
+  private static String migration(String name) throws IOException {
+    return new ClassPathResource("db/migration/" + name)
+            .getContentAsString(StandardCharsets.UTF_8)
+            .replace("CREATE FUNCTION", "CREATE OR REPLACE FUNCTION")
+            .replace("CREATE TRIGGER", "CREATE OR REPLACE TRIGGER");
+  }
+
+  private static int listeners() {
+    Integer count = jdbcTemplate.queryForObject("SELECT count(*) " +
+            "FROM pg_stat_activity WHERE query = 'LISTEN cache_invalidation'",
+            Integer.class);
+    return count != null ? count : 0;
+  }
+
+  private long save(ConfigurableApplicationContext node, String name,
+                    String sku, int stock) {
+    long id = node.getBean(ProductRepository.class).save(new Product(name,
+            "Cross-node test product", new BigDecimal("19.99"), stock, sku,
+            "Computers", true)).getId();
+    created.add(id);
+    return id;
+  }
+
+  private static boolean canLogIn(UserService users, String email) {
+    try {
+      users.authenticate(new LoginRequest(email, "secret-password"));
+      return true;
+    } catch (InvalidCredentialsException e) {
+      return false;
+    }
+  }
+
+  private static ProductSummary summary(ProductQueryService queries,
+                                        long id) {
+    return queries.findSummary(id).orElseThrow();
+  }
+
+  private static void awaitUntil(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        fail("Condition not met within " + TIMEOUT);
+      }
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail("Interrupted");
+      }
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.example.e_commerce.invalidation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationCoalescerTest {
+  private static final long MILLI = 1_000_000;
+
+  private NotificationCoalescer coalescer;
+  private RecordingHandler products;
+  private RecordingHandler categories;
+  private Map<String, InvalidationHandler> handlers;
+
+  @BeforeEach
+  void setUp() {
+    coalescer = new NotificationCoalescer(Duration.ofMillis(100), 3);
+    products = new RecordingHandler("products");
+    categories = new RecordingHandler("category");
+    handlers = Map.of("products", products, "category", categories);
+  }
+
+  @Test
+  @DisplayName("Should invalidate each id once per window")
+  void shouldInvalidateEachIdOncePerWindow() {
+    coalescer.add("products:1", 0);
+    coalescer.add("products:2", 10 * MILLI);
+    coalescer.add("products:1", 20 * MILLI);
+    coalescer.add("category:7", 30 * MILLI);
+
+    coalescer.flushTo(handlers);
+
+    assertEquals(List.of(List.of(1L, 2L)), products.batches);
+    assertEquals(List.of(List.of(7L)), categories.batches);
+    assertTrue(coalescer.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should be due one window after the first notification")
+  void shouldBeDueOneWindowAfterFirstNotification() {
+    coalescer.add("products:1", 50 * MILLI);
+    coalescer.add("products:2", 120 * MILLI);
+
+    assertEquals(30 * MILLI, coalescer.nanosUntilDue(120 * MILLI));
+    assertEquals(0, coalescer.nanosUntilDue(150 * MILLI));
+  }
+
+  @Test
+  @DisplayName("Should drop the whole table once a window holds too many ids")
+  void shouldDropWholeTableWhenTooManyIds() {
+    for (long id = 1; id <= 4; id++) {
+      coalescer.add("products:" + id, 0);
+    }
+    coalescer.add("products:5", 0);
+    coalescer.add("category:7", 0);
+
+    coalescer.flushTo(handlers);
+
+    assertTrue(products.batches.isEmpty());
+    assertEquals(1, products.wholeTable);
+    assertEquals(List.of(List.of(7L)), categories.batches);
+  }
+
+  @Test
+  @DisplayName("Should drop the whole table on an unparsable id")
+  void shouldDropWholeTableOnUnparsableId() {
+    coalescer.add("products:1", 0);
+    coalescer.add("products:oops", 0);
+
+    coalescer.flushTo(handlers);
+
+    assertTrue(products.batches.isEmpty());
+    assertEquals(1, products.wholeTable);
+  }
+
+  @Test
+  @DisplayName("Should ignore unknown tables and keep going after failures")
+  void shouldIgnoreUnknownTablesAndFailures() {
+    products.failing = true;
+    coalescer.add("orders:1", 0);
+    coalescer.add("no separator", 0);
+    coalescer.add("products:1", 0);
+    coalescer.add("category:2", 0);
+
+    coalescer.flushTo(handlers);
+
+    assertEquals(List.of(List.of(2L)), categories.batches);
+    assertTrue(coalescer.isEmpty());
+  }
+
+  private static class RecordingHandler implements InvalidationHandler {
+    private final String table;
+    private final List<List<Long>> batches = new ArrayList<>();
+    private int wholeTable;
+    private boolean failing;
+
+    RecordingHandler(String table) {
+      this.table = table;
+    }
+
+    @Override
+    public String table() {
+      return table;
+    }
+
+    @Override
+    public void invalidate(long id) {
+      invalidate(List.of(id));
+    }
+
+    @Override
+    public void invalidate(Collection<Long> ids) {
+      if (failing) {
+        throw new IllegalStateException("Cache unavailable");
+      }
+      batches.add(List.copyOf(ids));
+    }
+
+    @Override
+    public void invalidateAll() {
+      wholeTable++;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package com.example.e_commerce.job;
+
+import com.example.e_commerce.enums.JobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Workers are off in the test profile; the tests run batches themselves
+@SpringBootTest
+@ActiveProfiles("test")
+public class JobQueueTest {
+  private static final JobType<String> ECHO =
+          new JobType<>("test-echo", String.class, 0, 3);
+  private static final JobType<String> URGENT_ECHO =
+          new JobType<>("test-urgent-echo", String.class, 5, 3);
+
+  @Autowired
+  private JobQueue jobQueue;
+
+  @Autowired
+  private JobWorkers jobWorkers;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private RecordingHandler echoHandler;
+
+  @BeforeEach
+  void setUp() {
+    echoHandler.handled.clear();
+    echoHandler.failuresLeft = 0;
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM jobs");
+  }
+
+  @Test
+  @DisplayName("Should run a job and delete it once it succeeded")
+  void shouldRunAndDeleteJob() {
+    jobQueue.enqueue(ECHO, "hello");
+
+    assertEquals(1, jobWorkers.processBatch("worker-1"));
+    assertEquals(List.of("hello"), echoHandler.handled);
+    assertEquals(0, countJobs());
+    assertEquals(0, jobWorkers.processBatch("worker-1"));
+  }
+
+  @Test
+  @DisplayName("Should claim higher priority jobs first")
+  void shouldClaimHigherPriorityFirst() {
+    jobQueue.enqueue(ECHO, "low");
+    jobQueue.enqueue(URGENT_ECHO, "high");
+
+    jobWorkers.processBatch("worker-1");
+
+    assertEquals(List.of("high", "low"), echoHandler.handled);
+  }
+
+  @Test
+  @DisplayName("Should not hand out jobs before they are due")
+  void shouldWaitUntilDue() {
+    jobQueue.enqueue(ECHO, "later", Duration.ofHours(1));
+
+    assertEquals(0, jobWorkers.processBatch("worker-1"));
+    assertEquals(1, countJobs());
+  }
+
+  @Test
+  @DisplayName("Should not enqueue a job whose transaction rolled back")
+  void shouldNotEnqueueOnRollback() {
+    transactionTemplate.executeWithoutResult(status -> {
+      jobQueue.enqueue(ECHO, "never");
+      status.setRollbackOnly();
+    });
+
+    assertEquals(0, countJobs());
+  }
+
+  @Test
+  @DisplayName("Should not give a claimed job to a second worker")
+  void shouldNotClaimTwice() {
+    jobQueue.enqueue(ECHO, "once");
+
+    assertEquals(1, jobQueue.claim("worker-1", 10, Duration.ofMinutes(5))
+            .size());
+    assertEquals(0, jobQueue.claim("worker-2", 10, Duration.ofMinutes(5))
+            .size());
+  }
+
+  @Test
+  @DisplayName("Should retry with backoff and give up after the last attempt")
+  void shouldRetryThenFail() {
+    echoHandler.failuresLeft = 3;
+    long id = jobQueue.enqueue(ECHO, "flaky");
+
+    jobWorkers.processBatch("worker-1");
+    assertEquals(JobStatus.PENDING.name(), status(id));
+    assertNotNull(jdbcTemplate.queryForObject(
+            "SELECT last_error FROM jobs WHERE id = ?", String.class, id));
+    // Backed off: not due again yet
+    assertEquals(0, jobWorkers.processBatch("worker-1"));
+
+    makeDue(id);
+    jobWorkers.processBatch("worker-1");
+    makeDue(id);
+    jobWorkers.processBatch("worker-1");
+
+    assertEquals(JobStatus.FAILED.name(), status(id));
+    assertEquals(3, jdbcTemplate.queryForObject(
+            "SELECT attempts FROM jobs WHERE id = ?", Integer.class, id));
+    assertTrue(echoHandler.handled.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should release jobs of a worker whose lease expired")
+  void shouldRescueExpiredLeases() {
+    long id = jobQueue.enqueue(ECHO, "orphaned");
+    jobQueue.claim("dead-worker", 10, Duration.ofMinutes(5));
+    jdbcTemplate.update("UPDATE jobs SET locked_until = localtimestamp " +
+            "- interval '1 second' WHERE id = ?", id);
+
+    assertEquals(1, jobQueue.rescueExpiredLeases());
+    jobWorkers.processBatch("worker-1");
+
+    assertEquals(List.of("orphaned"), echoHandler.handled);
+    assertEquals(0, countJobs());
+  }
+
+  @Test
+  @DisplayName("Should double the backoff per attempt up to the maximum")
+  void shouldDoubleBackoff() {
+    Duration base = Duration.ofSeconds(10);
+    Duration max = Duration.ofMinutes(1);
+
+    assertEquals(Duration.ofSeconds(10), JobWorkers.backoff(1, base, max));
+    assertEquals(Duration.ofSeconds(40), JobWorkers.backoff(3, base, max));
+    assertEquals(max, JobWorkers.backoff(4, base, max));
+    assertEquals(max, JobWorkers.backoff(100, base, max));
+  }
+
+  private int countJobs() {
+    return jdbcTemplate.queryForObject("SELECT count(*) FROM jobs",
+            Integer.class);
+  }
+
+  private String status(long id) {
+    return jdbcTemplate.queryForObject(
+            "SELECT status FROM jobs WHERE id = ?", String.class, id);
+  }
+
+  private void makeDue(long id) {
+    jdbcTemplate.update("UPDATE jobs SET run_at = localtimestamp " +
+            "- interval '1 second' WHERE id = ?", id);
+  }
+
+  // Handles both test types; fails while failuresLeft > 0
+  static class RecordingHandler implements JobHandler<String> {
+    private final JobType<String> type;
+    final List<String> handled;
+    volatile int failuresLeft;
+
+    RecordingHandler(JobType<String> type, List<String> handled) {
+      this.type = type;
+      this.handled = handled;
+    }
+
+    @Override
+    public JobType<String> type() {
+      return type;
+    }
+
+    @Override
+    public void handle(String payload) {
+      if (failuresLeft > 0) {
+        failuresLeft--;
+        throw new IllegalStateException("Failing on purpose");
+      }
+      handled.add(payload);
+    }
+  }
+
+  @TestConfiguration
+  static class Handlers {
+    private final List<String> handled = new CopyOnWriteArrayList<>();
+
+    @Bean
+    RecordingHandler echoHandler() {
+      return new RecordingHandler(ECHO, handled);
+    }
+
+    @Bean
+    JobHandler<String> urgentEchoHandler() {
+      return new RecordingHandler(URGENT_ECHO, handled);
+    }
+  }
+}
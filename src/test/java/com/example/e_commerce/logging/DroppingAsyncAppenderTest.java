@@ -0,0 +1,110 @@
+package com.example.e_commerce.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DroppingAsyncAppenderTest {
+
+  // Blocks the worker on its first event until released, so the queue
+  // fills up; events written by the logging thread itself pass straight on
+  private static class GatedAppender extends AppenderBase<ILoggingEvent> {
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<ILoggingEvent> received = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+      if (Thread.currentThread().getName().startsWith("logback-async-")) {
+        try {
+          gate.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      received.add(event);
+    }
+  }
+
+  @Test
+  @DisplayName("Should drop and count events instead of blocking when full")
+  void shouldDropAndCountWhenFull() throws InterruptedException {
+    LoggerContext context = new LoggerContext();
+    GatedAppender target = new GatedAppender();
+    target.setContext(context);
+    target.start();
+
+    DroppingAsyncAppender appender = new DroppingAsyncAppender();
+    appender.setContext(context);
+    appender.setName("ASYNC");
+    appender.setQueueSize(4);
+    appender.addAppender(target);
+    appender.start();
+
+    for (int i = 0; i < 50; i++) {
+      appender.doAppend(new LoggingEvent("test",
+              context.getLogger("test"), Level.INFO, "event " + i, null, null));
+    }
+
+    // At most a full queue plus the batch held by the worker got through
+    assertTrue(appender.getDroppedCount() >= 50 - 4 - (4 + 1),
+            "dropped " + appender.getDroppedCount());
+    target.gate.countDown();
+    appender.stop();
+    assertEquals(50, target.received.size() + appender.getDroppedCount());
+  }
+
+  @Test
+  @DisplayName("Should write warnings itself instead of dropping them")
+  void shouldNeverDropWarnings() {
+    LoggerContext context = new LoggerContext();
+    GatedAppender target = new GatedAppender();
+    target.setContext(context);
+    target.start();
+
+    DroppingAsyncAppender appender = new DroppingAsyncAppender();
+    appender.setContext(context);
+    appender.setName("ASYNC");
+    appender.setQueueSize(4);
+    appender.setMaxBlockMillis(10);
+    appender.addAppender(target);
+    appender.start();
+
+    for (int i = 0; i < 20; i++) {
+      appender.doAppend(event(context, Level.INFO, i));
+    }
+    for (int i = 0; i < 5; i++) {
+      appender.doAppend(event(context, i % 2 == 0 ? Level.WARN : Level.ERROR,
+              i));
+    }
+
+    // The worker is still stuck, so these came from the logging thread
+    assertEquals(5, warnings(target));
+    target.gate.countDown();
+    appender.stop();
+    assertEquals(5, warnings(target));
+    assertEquals(25, target.received.size() + appender.getDroppedCount());
+  }
+
+  private static LoggingEvent event(LoggerContext context, Level level,
+                                    int i) {
+    return new LoggingEvent("test", context.getLogger("test"), level,
+            "event " + i, null, null);
+  }
+
+  private static long warnings(GatedAppender target) {
+    return target.received.stream()
+            .filter(event -> event.getLevel().isGreaterOrEqual(Level.WARN))
+            .count();
+  }
+}
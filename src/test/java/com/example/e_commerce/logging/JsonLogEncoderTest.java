@@ -0,0 +1,69 @@
+package com.example.e_commerce.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLogEncoderTest {
+  private LoggerContext context;
+  private JsonLogEncoder encoder;
+
+  @BeforeEach
+  void setUp() {
+    context = new LoggerContext();
+    encoder = new JsonLogEncoder();
+    encoder.setContext(context);
+    encoder.start();
+  }
+
+  private LoggingEvent event(String message) {
+    LoggingEvent event = new LoggingEvent("test",
+            context.getLogger("com.example.e_commerce.Test"), Level.INFO,
+            message, null, null);
+    event.setThreadName("main");
+    event.setTimeStamp(1_767_225_600_123L);
+    event.setMDCPropertyMap(Map.of());
+    return event;
+  }
+
+  @Test
+  @DisplayName("Should encode event as one JSON line")
+  void shouldEncodeEventAsJsonLine() {
+    String json = new String(encoder.encode(event("Order placed")),
+            StandardCharsets.UTF_8);
+
+    assertEquals("{\"timestamp\":\"2026-01-01T00:00:00.123Z\"," +
+            "\"level\":\"INFO\",\"thread\":\"main\"," +
+            "\"logger\":\"com.example.e_commerce.Test\"," +
+            "\"message\":\"Order placed\"}\n", json);
+  }
+
+  @Test
+  @DisplayName("Should escape quotes, control characters and non-ASCII text")
+  void shouldEscapeSpecialCharacters() {
+    String json = new String(encoder.encode(event("say \"hi\"\n\tü€\u0001")),
+            StandardCharsets.UTF_8);
+
+    assertTrue(json.contains("\"message\":\"say \\\"hi\\\"\\n\\tü€\\u0001\""),
+            json);
+  }
+
+  @Test
+  @DisplayName("Should include MDC properties")
+  void shouldIncludeMdc() {
+    LoggingEvent event = event("sampled");
+    event.setMDCPropertyMap(Map.of("logSampled", "true"));
+
+    String json = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+    assertTrue(json.contains(",\"mdc\":{\"logSampled\":\"true\"}"), json);
+  }
+}
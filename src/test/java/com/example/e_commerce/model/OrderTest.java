@@ -0,0 +1,111 @@
+package com.example.e_commerce.model;
+
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.exception.InvalidOrderTransitionException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderTest {
+  private Validator validator;
+
+  @BeforeEach
+  void setUp() {
+    // Create validator for testing validation annotation
+    ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+    validator = factory.getValidator();
+  }
+
+  @Test
+  @DisplayName("Should start as pending with zero total")
+  void shouldStartAsPendingWithZeroTotal() {
+    Order order = new Order(new User(), null, null);
+
+    assertEquals(OrderStatus.PENDING, order.getStatus());
+    assertEquals(BigDecimal.ZERO, order.getTotalAmount());
+    assertTrue(validator.validate(order).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should add item subtotals to the order total")
+  void shouldAddItemSubtotalsToTotal() {
+    Order order = new Order(new User(), null, null);
+
+    order.addItem(new OrderItem(new Product(), 2, new BigDecimal("10.50")));
+    order.addItem(new OrderItem(new Product(), 1, new BigDecimal("4.00")));
+
+    assertEquals(new BigDecimal("25.00"), order.getTotalAmount());
+    assertSame(order, order.getOrderItems().get(0).getOrder());
+  }
+
+  @Test
+  @DisplayName("Should share createdAt with items on create")
+  void shouldShareCreatedAtWithItemsOnCreate() {
+    Order order = new Order(new User(), null, null);
+    order.addItem(new OrderItem(new Product(), 1, new BigDecimal("1.00")));
+
+    order.onCreate();
+
+    assertNotNull(order.getCreatedAt());
+    assertEquals(order.getCreatedAt(),
+            order.getOrderItems().get(0).getCreatedAt());
+  }
+
+  @Test
+  @DisplayName("Should derive distinct order numbers from ids")
+  void shouldDeriveOrderNumberFromId() {
+    LocalDateTime createdAt = LocalDateTime.of(2026, 10, 19, 13, 5);
+
+    assertEquals("ORD-20261019-AAAAAA", Order.orderNumber(createdAt, 0));
+    assertEquals("ORD-20261019-AAAABA", Order.orderNumber(createdAt, 32));
+    assertEquals("ORD-20261019-H999999999999",
+            Order.orderNumber(createdAt, Long.MAX_VALUE));
+    Set<String> numbers = new HashSet<>();
+    for (long id = 1; id <= 100_000; id++) {
+      assertTrue(numbers.add(Order.orderNumber(createdAt, id)));
+    }
+  }
+
+  @Test
+  @DisplayName("Should fail validation when user is missing")
+  void shouldFailValidationWhenUserIsMissing() {
+    Order order = new Order(null, null, null);
+
+    assertFalse(validator.validate(order).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should stamp milestones when moving through the state machine")
+  void shouldStampMilestonesOnTransition() {
+    Order order = new Order(new User(), null, null);
+
+    order.transitionTo(OrderStatus.PAYMENT_PROCESSING);
+    order.transitionTo(OrderStatus.PAID);
+    order.transitionTo(OrderStatus.SHIPPED);
+
+    assertEquals(OrderStatus.SHIPPED, order.getStatus());
+    assertNotNull(order.getPaidAt());
+    assertNotNull(order.getShippedAt());
+    assertNull(order.getDeliveredAt());
+  }
+
+  @Test
+  @DisplayName("Should reject transitions the state machine does not allow")
+  void shouldRejectInvalidTransition() {
+    Order order = new Order(new User(), null, null);
+
+    assertThrows(InvalidOrderTransitionException.class,
+            () -> order.transitionTo(OrderStatus.DELIVERED));
+    assertEquals(OrderStatus.PENDING, order.getStatus());
+  }
+}
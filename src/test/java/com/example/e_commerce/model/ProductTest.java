@@ -153,12 +153,10 @@ public class ProductTest {
 
     product.setName("New Name");
     product.setPrice(new BigDecimal("199.99"));
-    product.setStockQuantity(100);
     product.setActive(false);
 
     assertEquals("New Name", product.getName());
     assertEquals(new BigDecimal("199.99"), product.getPrice());
-    assertEquals(100, product.getStockQuantity());
     assertFalse(product.isActive());
   }
 }
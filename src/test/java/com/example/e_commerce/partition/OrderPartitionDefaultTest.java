@@ -0,0 +1,104 @@
+package com.example.e_commerce.partition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The test profile builds orders with Hibernate, unpartitioned, so these
+// run against a partitioned table of their own laid out like V2's
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderPartitionDefaultTest {
+  private static final String TABLE = "partition_test";
+
+  @Autowired
+  private OrderPartitionManager partitionManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    dropTables();
+    jdbcTemplate.execute("""
+            CREATE TABLE partition_test (
+                id         BIGINT       NOT NULL,
+                created_at TIMESTAMP(6) NOT NULL,
+                PRIMARY KEY (id, created_at)
+            ) PARTITION BY RANGE (created_at)
+            """);
+    jdbcTemplate.execute("CREATE TABLE partition_test_default " +
+            "PARTITION OF partition_test DEFAULT");
+    jdbcTemplate.execute("CREATE TABLE partition_test_archive " +
+            "(LIKE partition_test INCLUDING DEFAULTS)");
+    insert(1, "2026-01-20 10:00");
+    insert(2, "2026-03-01 00:00");
+    insert(3, "2026-03-31 23:59");
+    insert(4, "2026-04-01 00:00");
+  }
+
+  @AfterEach
+  void tearDown() {
+    dropTables();
+  }
+
+  @Test
+  @DisplayName("Should move a month's DEFAULT rows into its new partition")
+  void shouldMoveDefaultRowsIntoNewPartition() {
+    partitionManager.createPartition(TABLE, YearMonth.of(2026, 3));
+
+    assertTrue(partitionManager.attachedPartitions(TABLE)
+            .contains("partition_test_p2026_03"));
+    assertEquals(List.of(2L, 3L), ids("partition_test_p2026_03"));
+    assertEquals(List.of(1L, 4L), ids("partition_test_default"));
+    assertEquals(List.of(1L, 2L, 3L, 4L), ids(TABLE));
+
+    // Created already, so nothing happens
+    partitionManager.createPartition(TABLE, YearMonth.of(2026, 3));
+    assertEquals(List.of(2L, 3L), ids("partition_test_p2026_03"));
+  }
+
+  @Test
+  @DisplayName("Should route new rows of the month to its partition")
+  void shouldRouteNewRowsToNewPartition() {
+    partitionManager.createPartition(TABLE, YearMonth.of(2026, 4));
+    insert(5, "2026-04-15 12:00");
+
+    assertEquals(List.of(4L, 5L), ids("partition_test_p2026_04"));
+  }
+
+  @Test
+  @DisplayName("Should archive DEFAULT rows older than the hot months")
+  void shouldArchiveOldDefaultRows() {
+    assertEquals(3, partitionManager.archiveDefaultRows(TABLE,
+            YearMonth.of(2026, 4), 2));
+
+    assertEquals(List.of(1L, 2L, 3L), ids("partition_test_archive"));
+    assertEquals(List.of(4L), ids("partition_test_default"));
+  }
+
+  private void insert(long id, String createdAt) {
+    jdbcTemplate.update("INSERT INTO partition_test (id, created_at) " +
+            "VALUES (?, ?::timestamp)", id, createdAt);
+  }
+
+  private List<Long> ids(String table) {
+    return jdbcTemplate.queryForList("SELECT id FROM " + table +
+            " ORDER BY id", Long.class);
+  }
+
+  private void dropTables() {
+    jdbcTemplate.execute("DROP TABLE IF EXISTS partition_test, " +
+            "partition_test_archive");
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.e_commerce.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderPartitionManagerTest {
+
+  @Test
+  @DisplayName("Should name monthly partitions after the table and month")
+  void shouldNameMonthlyPartitions() {
+    assertEquals("orders_p2026_03",
+            OrderPartitionManager.partitionName("orders", YearMonth.of(2026, 3)));
+    assertEquals("order_items_p2025_12", OrderPartitionManager
+            .partitionName("order_items", YearMonth.of(2025, 12)));
+  }
+
+  @Test
+  @DisplayName("Should parse the month back from a partition name")
+  void shouldParseMonthFromPartitionName() {
+    assertEquals(Optional.of(YearMonth.of(2026, 3)),
+            OrderPartitionManager.monthOf("orders_p2026_03"));
+  }
+
+  @Test
+  @DisplayName("Should ignore tables that are not monthly partitions")
+  void shouldIgnoreNonMonthlyTables() {
+    assertTrue(OrderPartitionManager.monthOf("orders_default").isEmpty());
+    assertTrue(OrderPartitionManager.monthOf("orders_archive").isEmpty());
+    assertTrue(OrderPartitionManager.monthOf("products").isEmpty());
+  }
+}
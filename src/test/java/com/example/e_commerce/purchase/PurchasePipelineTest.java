@@ -0,0 +1,149 @@
+package com.example.e_commerce.purchase;
+
+import com.example.e_commerce.enums.UserRole;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ProductNotFoundException;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.stock.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.purchase-pipeline.enabled=true")
+@ActiveProfiles("test")
+public class PurchasePipelineTest {
+  @Autowired
+  private PurchasePipeline pipeline;
+
+  @Autowired
+  private StockLedger stockLedger;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private long laptop;
+  private long buyer;
+
+  @BeforeEach
+  void setUp() {
+    laptop = productRepository.save(new Product("Laptop", "Gaming laptop",
+            new BigDecimal("999.99"), 3, "LAPTOP-001", "Electronics",
+            true)).getId();
+    buyer = userRepository.save(new User("Ann", "Buyer", "ann@example.com",
+            "555-0100", "passwordHash", UserRole.CUSTOMER, true)).getId();
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM order_items");
+    jdbcTemplate.update("DELETE FROM orders");
+    jdbcTemplate.update("DELETE FROM stock_movements");
+    jdbcTemplate.update("DELETE FROM stock_snapshots");
+    jdbcTemplate.update("DELETE FROM products");
+    jdbcTemplate.update("DELETE FROM users");
+  }
+
+  @Test
+  @DisplayName("Should hand out stock in arrival order within one batch")
+  void shouldAllocateInArrivalOrder() {
+    List<PendingPurchase> batch = List.of(pending(laptop, buyer, 2),
+            pending(laptop, buyer, 2), pending(laptop, buyer, 1));
+
+    pipeline.apply(batch);
+
+    Order first = batch.get(0).result().join();
+    assertEquals(new BigDecimal("1999.98"), first.getTotalAmount());
+    assertInstanceOf(InsufficientStockException.class,
+            failure(batch.get(1).result()));
+    assertNotNull(batch.get(2).result().join().getId());
+    assertEquals(0, stockLedger.available(laptop));
+    assertEquals(2, countOrders());
+  }
+
+  @Test
+  @DisplayName("Should refuse an unknown product without failing the batch")
+  void shouldRefuseUnknownProductAlone() {
+    List<PendingPurchase> batch = List.of(pending(-1L, buyer, 1),
+            pending(laptop, buyer, 1));
+
+    pipeline.apply(batch);
+
+    assertInstanceOf(ProductNotFoundException.class,
+            failure(batch.get(0).result()));
+    assertNotNull(batch.get(1).result().join());
+    assertEquals(2, stockLedger.available(laptop));
+  }
+
+  @Test
+  @DisplayName("Should retry one by one when the batch transaction fails")
+  void shouldFallBackToSinglePurchases() {
+    // No such user: the order insert fails and rolls the batch back
+    List<PendingPurchase> batch = List.of(pending(laptop, -1L, 1),
+            pending(laptop, buyer, 1));
+
+    pipeline.apply(batch);
+
+    assertNotNull(failure(batch.get(0).result()));
+    assertNotNull(batch.get(1).result().join());
+    assertEquals(2, stockLedger.available(laptop));
+    assertEquals(1, countOrders());
+  }
+
+  @Test
+  @DisplayName("Should complete each submitted purchase with its own result")
+  void shouldCompleteSubmittedPurchases() {
+    List<CompletableFuture<Order>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      results.add(pipeline.submit(laptop, buyer, 1));
+    }
+
+    CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+            .exceptionally(e -> null).join();
+
+    long placed = results.stream()
+            .filter(result -> !result.isCompletedExceptionally()).count();
+    assertEquals(3, placed);
+    results.stream().filter(CompletableFuture::isCompletedExceptionally)
+            .forEach(result -> assertInstanceOf(
+                    InsufficientStockException.class, failure(result)));
+    assertEquals(0, stockLedger.available(laptop));
+  }
+
+  private static PendingPurchase pending(long productId, long userId,
+                                         int quantity) {
+    return new PendingPurchase(productId, userId, quantity, null,
+            System.nanoTime(), new CompletableFuture<>());
+  }
+
+  private static Throwable failure(CompletableFuture<Order> result) {
+    return assertThrows(CompletionException.class, result::join).getCause();
+  }
+
+  private int countOrders() {
+    return jdbcTemplate.queryForObject("SELECT count(*) FROM orders",
+            Integer.class);
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.e_commerce.ranking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingTopKTest {
+  private static final long MINUTE = 60_000;
+
+  @Test
+  @DisplayName("Should rank items by units sold within the window")
+  void shouldRankWithinWindow() {
+    SlidingTopK topK = new SlidingTopK(6, 10 * MINUTE, 16, 10, 0);
+    topK.offer(1, 5, 0);
+    topK.offer(2, 3, MINUTE);
+    topK.offer(1, 1, 15 * MINUTE);
+    topK.offer(3, 7, 20 * MINUTE);
+
+    assertEquals(List.of(new HeavyHitter(3, 7, 7), new HeavyHitter(1, 6, 6)),
+            topK.top(2, 25 * MINUTE));
+  }
+
+  @Test
+  @DisplayName("Should forget buckets that slid out of the window")
+  void shouldForgetExpiredBuckets() {
+    SlidingTopK topK = new SlidingTopK(6, 10 * MINUTE, 16, 10, 0);
+    topK.offer(1, 100, 0);
+    topK.offer(2, 1, 55 * MINUTE);
+
+    // At 60 minutes the bucket starting at 0 is outside the last 6 buckets
+    assertEquals(List.of(new HeavyHitter(2, 1, 1)),
+            topK.top(10, 60 * MINUTE));
+  }
+
+  @Test
+  @DisplayName("Should serve the cached ranking until the refresh interval")
+  void shouldServeCachedRanking() {
+    SlidingTopK topK = new SlidingTopK(6, 10 * MINUTE, 16, 10, 1_000);
+    topK.offer(1, 1, 0);
+    assertEquals(1, topK.top(10, 0).size());
+
+    topK.offer(2, 5, 500);
+
+    assertEquals(1, topK.top(10, 999).size());
+    assertEquals(2, topK.top(10, 1_000).get(0).item());
+  }
+
+  @Test
+  @DisplayName("Should bracket exact window counts of the true top items")
+  void shouldBracketExactCountsOfTopItems() {
+    int capacity = 50;
+    SlidingTopK topK = new SlidingTopK(12, 5 * MINUTE, capacity, 10, 0);
+    Random random = new Random(11);
+    long[] items = new long[120_000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = SpaceSavingTest.zipf(random, 5_000);
+      topK.offer(items[i], 1, i * 500L);
+    }
+    long now = (items.length - 1) * 500L;
+
+    // The window is the current 5 minute bucket and the 11 before it
+    long windowStart = (now / (5 * MINUTE) - 11) * 5 * MINUTE;
+    Map<Long, Long> exact = new HashMap<>();
+    long total = 0;
+    for (int i = 0; i < items.length; i++) {
+      if (i * 500L >= windowStart) {
+        exact.merge(items[i], 1L, Long::sum);
+        total++;
+      }
+    }
+    long bound = total / capacity;
+
+    List<HeavyHitter> reported = topK.top(10, now);
+    List<Long> exactTop = exact.entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue(
+                    Comparator.reverseOrder()))
+            .limit(5)
+            .map(Map.Entry::getKey)
+            .toList();
+
+    assertEquals(10, reported.size());
+    for (HeavyHitter hitter : reported) {
+      long trueCount = exact.getOrDefault(hitter.item(), 0L);
+      assertTrue(hitter.guaranteedCount() <= trueCount);
+      assertTrue(hitter.count() >= trueCount);
+      assertTrue(hitter.count() - trueCount <= bound);
+    }
+    List<Long> reportedItems = reported.stream()
+            .map(HeavyHitter::item).toList();
+    assertTrue(reportedItems.containsAll(exactTop));
+  }
+}
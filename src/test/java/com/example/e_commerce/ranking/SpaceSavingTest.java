@@ -0,0 +1,98 @@
+package com.example.e_commerce.ranking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpaceSavingTest {
+
+  @Test
+  @DisplayName("Should count exactly while there are free counters")
+  void shouldCountExactlyBelowCapacity() {
+    SpaceSaving summary = new SpaceSaving(4);
+
+    summary.offer(1, 3);
+    summary.offer(2, 1);
+    summary.offer(1, 2);
+
+    assertEquals(5, summary.count(1));
+    assertEquals(0, summary.error(1));
+    assertEquals(0, summary.minCount());
+    assertEquals(6, summary.totalWeight());
+  }
+
+  @Test
+  @DisplayName("Should give an evicted counter's count to the newcomer as error")
+  void shouldInheritMinimumOnEviction() {
+    SpaceSaving summary = new SpaceSaving(2);
+    summary.offer(1, 5);
+    summary.offer(2, 2);
+
+    summary.offer(3, 1);
+
+    assertFalse(summary.contains(2));
+    assertEquals(3, summary.count(3));
+    assertEquals(2, summary.error(3));
+    assertEquals(3, summary.minCount());
+  }
+
+  @Test
+  @DisplayName("Should stay within N/m of exact counts on a skewed stream")
+  void shouldMatchExactCountsWithinErrorBound() {
+    int capacity = 100;
+    SpaceSaving summary = new SpaceSaving(capacity);
+    Map<Long, Long> exact = new HashMap<>();
+    Random random = new Random(7);
+    for (int i = 0; i < 200_000; i++) {
+      long item = zipf(random, 10_000);
+      long weight = 1 + random.nextInt(3);
+      summary.offer(item, weight);
+      exact.merge(item, weight, Long::sum);
+    }
+    long bound = summary.totalWeight() / capacity;
+
+    // No false negatives above N/m, and every estimate brackets the truth
+    exact.forEach((item, count) -> {
+      if (count > bound) {
+        assertTrue(summary.contains(item), "missing heavy hitter " + item);
+      }
+    });
+    summary.forEach((item, count, error) -> {
+      long trueCount = exact.getOrDefault(item, 0L);
+      assertTrue(count >= trueCount);
+      assertTrue(count - error <= trueCount);
+      assertTrue(count - trueCount <= bound);
+    });
+  }
+
+  @Test
+  @DisplayName("Should keep its index consistent across many evictions")
+  void shouldKeepIndexConsistentAcrossEvictions() {
+    SpaceSaving summary = new SpaceSaving(8);
+    for (long item = 2; item <= 10_001; item++) {
+      summary.offer(item, 1);
+      summary.offer(1, 1);
+    }
+
+    assertEquals(8, summary.size());
+    assertEquals(10_000, summary.count(1));
+    long[] tracked = {0};
+    summary.forEach((item, count, error) -> {
+      assertEquals(count, summary.count(item));
+      tracked[0]++;
+    });
+    assertEquals(8, tracked[0]);
+  }
+
+  // Approximate Zipf(s=1) by inverse transform over the harmonic CDF
+  static long zipf(Random random, int n) {
+    double harmonic = Math.log(n) + 0.5772156649;
+    double target = random.nextDouble() * harmonic;
+    return Math.max(1, Math.min(n, (long) Math.exp(target - 0.5772156649)));
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.e_commerce.recommendation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoOccurrenceMatrixTest {
+  private CoOccurrenceMatrix matrix;
+
+  @BeforeEach
+  void setUp() {
+    matrix = new CoOccurrenceMatrix(3, 10, 16);
+  }
+
+  @Test
+  @DisplayName("Should count each pair in both directions once per order")
+  void shouldCountPairsSymmetrically() {
+    matrix.addOrder(new long[] {1, 2, 3});
+    matrix.addOrder(new long[] {1, 2, 2});
+
+    assertEquals(2f, matrix.score(1, 2));
+    assertEquals(2f, matrix.score(2, 1));
+    assertEquals(1f, matrix.score(3, 1));
+    assertEquals(0f, matrix.score(1, 1));
+    assertEquals(3, matrix.productCount());
+  }
+
+  @Test
+  @DisplayName("Should ignore orders with fewer than two distinct products")
+  void shouldIgnoreSingleProductOrders() {
+    assertEquals(0, matrix.addOrder(new long[] {5, 5}).length);
+    assertEquals(0, matrix.productCount());
+    assertSame(Neighbours.EMPTY, matrix.neighbours(5));
+  }
+
+  @Test
+  @DisplayName("Should keep the top-K neighbours sorted by score")
+  void shouldKeepTopNeighboursSorted() {
+    matrix.addOrder(new long[] {1, 2, 3, 4, 5});
+    matrix.addOrder(new long[] {1, 5});
+    matrix.addOrder(new long[] {1, 5});
+    matrix.addOrder(new long[] {1, 4});
+
+    Neighbours neighbours = matrix.neighbours(1);
+
+    assertArrayEquals(new long[] {5, 4, 2}, neighbours.productIds());
+    assertArrayEquals(new float[] {3f, 2f, 1f}, neighbours.scores());
+  }
+
+  @Test
+  @DisplayName("Should match a full sort of the counts after random orders")
+  void shouldMatchBruteForceTopK() {
+    Random random = new Random(42);
+    Map<Long, Map<Long, Integer>> counts = new HashMap<>();
+    for (int n = 0; n < 2_000; n++) {
+      long[] order = random.longs(2 + random.nextInt(4), 1, 40).toArray();
+      long[] distinct = Arrays.stream(order).distinct().toArray();
+      for (long a : distinct) {
+        for (long b : distinct) {
+          if (a != b) {
+            counts.computeIfAbsent(a, k -> new HashMap<>())
+                    .merge(b, 1, Integer::sum);
+          }
+        }
+      }
+      matrix.addOrder(order);
+    }
+
+    counts.forEach((productId, row) -> {
+      List<Integer> expected = row.values().stream()
+              .sorted(Comparator.reverseOrder()).limit(3).toList();
+      float[] actual = matrix.neighbours(productId).scores();
+      assertEquals(expected.size(), actual.length);
+      for (int i = 0; i < actual.length; i++) {
+        assertEquals(expected.get(i).floatValue(), actual[i]);
+      }
+    });
+  }
+
+  @Test
+  @DisplayName("Should decay scores and forget pairs below the minimum")
+  void shouldDecayAndPrune() {
+    matrix.addOrder(new long[] {1, 2});
+    matrix.addOrder(new long[] {1, 2});
+    matrix.addOrder(new long[] {1, 3});
+
+    matrix.decay(0.5f, 0.75f);
+
+    assertEquals(1f, matrix.score(1, 2));
+    assertEquals(0f, matrix.score(1, 3));
+    assertArrayEquals(new long[] {2}, matrix.neighbours(1).productIds());
+    // Product 3 has no pairs left
+    assertEquals(2, matrix.productCount());
+  }
+
+  @Test
+  @DisplayName("Should restore counts and top-K lists from a snapshot")
+  void shouldRoundTripThroughSnapshot() throws IOException {
+    matrix.addOrder(new long[] {1, 2, 3});
+    matrix.addOrder(new long[] {1, 3});
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    matrix.writeTo(new DataOutputStream(bytes));
+    CoOccurrenceMatrix restored = CoOccurrenceMatrix.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+            3, 10);
+
+    assertEquals(matrix.productCount(), restored.productCount());
+    assertEquals(matrix.pairCount(), restored.pairCount());
+    assertArrayEquals(matrix.neighbours(1).productIds(),
+            restored.neighbours(1).productIds());
+    assertEquals(2f, restored.score(3, 1));
+  }
+
+  @Test
+  @DisplayName("Should only pair the first products of oversized orders")
+  void shouldCapItemsPerOrder() {
+    CoOccurrenceMatrix capped = new CoOccurrenceMatrix(3, 2, 16);
+
+    capped.addOrder(new long[] {1, 2, 3});
+
+    assertEquals(1f, capped.score(1, 2));
+    assertEquals(0f, capped.score(1, 3));
+  }
+}
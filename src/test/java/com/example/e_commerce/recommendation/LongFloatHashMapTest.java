@@ -0,0 +1,52 @@
+package com.example.e_commerce.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongFloatHashMapTest {
+
+  @Test
+  @DisplayName("Should keep every mapping while growing past its capacity")
+  void shouldGrowWithoutLosingEntries() {
+    LongFloatHashMap map = new LongFloatHashMap(2);
+
+    for (long key = 1; key <= 10_000; key++) {
+      map.addTo(key, key);
+    }
+    map.addTo(7, 1f);
+
+    assertEquals(10_000, map.size());
+    assertEquals(8f, map.get(7));
+    assertEquals(10_000f, map.get(10_000));
+    assertFalse(map.containsKey(10_001));
+    assertEquals(0f, map.get(10_001));
+  }
+
+  @Test
+  @DisplayName("Should scale values, drop small ones and shrink the table")
+  void shouldScaleAndShrink() {
+    LongFloatHashMap map = new LongFloatHashMap(1_000);
+    for (long key = 1; key <= 1_000; key++) {
+      map.addTo(key, key == 1 ? 10f : 1f);
+    }
+    long before = map.memoryBytes();
+
+    map.scale(0.5f, 1f);
+
+    assertEquals(1, map.size());
+    assertEquals(5f, map.get(1));
+    assertFalse(map.containsKey(2));
+    assertTrue(map.memoryBytes() < before);
+  }
+
+  @Test
+  @DisplayName("Should reject the reserved key 0")
+  void shouldRejectZeroKey() {
+    LongFloatHashMap map = new LongFloatHashMap(4);
+
+    assertThrows(IllegalArgumentException.class, () -> map.addTo(0, 1f));
+    assertFalse(map.containsKey(0));
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.e_commerce.repository;
+
+import com.example.e_commerce.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class OrderRepositoryTest {
+  private OrderRepository orderRepository;
+
+  @BeforeEach
+  void setUp() {
+    orderRepository = mock(OrderRepository.class);
+    when(orderRepository.findByOrderNumber(any())).thenCallRealMethod();
+    when(orderRepository.findByOrderNumberInPeriod(anyString(), any(), any()))
+            .thenReturn(Optional.of(new Order()));
+  }
+
+  @Test
+  @DisplayName("Should look an order number up within its creation day")
+  void shouldLookUpWithinCreationDay() {
+    assertTrue(orderRepository.findByOrderNumber("ORD-20261019-AAAABA")
+            .isPresent());
+
+    verify(orderRepository).findByOrderNumberInPeriod("ORD-20261019-AAAABA",
+            LocalDateTime.of(2026, 10, 19, 0, 0),
+            LocalDateTime.of(2026, 10, 20, 0, 0));
+  }
+
+  @Test
+  @DisplayName("Should not find malformed order numbers")
+  void shouldNotFindMalformedOrderNumbers() {
+    for (String orderNumber : new String[]{null, "", "ORD-", "ORD-2026",
+            "ORD-20261019", "ord-20261019-AAAABA", "ORD-20261340-AAAABA",
+            "ORD-2026101X-AAAABA", "ORD-20261019-AAAA"}) {
+      assertEquals(Optional.empty(),
+              orderRepository.findByOrderNumber(orderNumber), orderNumber);
+    }
+    verify(orderRepository, never())
+            .findByOrderNumberInPeriod(any(), any(), any());
+  }
+}
@@ -1,4 +1,105 @@
 package com.example.e_commerce.repository;
 
+import com.example.e_commerce.ProductQueryService;
+import com.example.e_commerce.dto.ProductSummary;
+import com.example.e_commerce.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
 public class ProductRepositoryTest {
+  private static final String CATEGORY = "Projection Test";
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private ProductQueryService productQueryService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private final List<Product> products = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+    for (int i = 0; i < 5; i++) {
+      Product product = new Product("Lamp " + i, "A long description " + i,
+              new BigDecimal("10.50").add(BigDecimal.valueOf(i)), i % 2,
+              "LAMP-" + System.nanoTime() + "-" + i, CATEGORY, true);
+      product.setActive(i != 3);
+      products.add(productRepository.save(product));
+    }
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteAllInBatch(products);
+  }
+
+  @Test
+  @DisplayName("Should page active products in id order without entities")
+  void shouldPageSummaries() {
+    List<ProductSummary> first = productQueryService.listActive(CATEGORY, 0, 2);
+    List<ProductSummary> second = productQueryService.listActive(CATEGORY,
+            first.get(1).id(), 2);
+
+    assertEquals(List.of(id(0), id(1)), ids(first));
+    assertEquals(List.of(id(2), id(4)), ids(second));
+    ProductSummary lamp = first.get(1);
+    assertEquals("Lamp 1", lamp.name());
+    assertEquals(0, new BigDecimal("11.50").compareTo(lamp.price()));
+    assertTrue(lamp.inStock());
+    assertFalse(first.get(0).inStock());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  @DisplayName("Should return summaries in the order of the requested ids")
+  void shouldFindSummariesInRequestedOrder() {
+    List<ProductSummary> summaries = productQueryService.findSummaries(
+            List.of(id(4), id(3), -1L, id(0), id(4)));
+
+    assertEquals(List.of(id(4), id(0)), ids(summaries));
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  @DisplayName("Should save a product whose category has no category row")
+  void shouldSaveProductWithoutCategoryRow() {
+    Product product = productRepository.save(new Product("Orphan lamp",
+            "No category row", new BigDecimal("5.00"), 1,
+            "ORPHAN-" + System.nanoTime(), "No Such Category", true));
+    products.add(product);
+
+    assertEquals("No Such Category", productRepository
+            .findById(product.getId()).orElseThrow().getCategory());
+  }
+
+  private long id(int index) {
+    return products.get(index).getId();
+  }
+
+  private static List<Long> ids(List<ProductSummary> summaries) {
+    return summaries.stream().map(ProductSummary::id).toList();
+  }
 }
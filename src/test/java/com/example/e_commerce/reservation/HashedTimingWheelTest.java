@@ -0,0 +1,80 @@
+package com.example.e_commerce.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimingWheelTest {
+  private HashedTimingWheel<String> wheel;
+
+  @BeforeEach
+  void setUp() {
+    // 100ms ticks, 8 buckets -> one revolution covers 800ms
+    wheel = new HashedTimingWheel<>(Duration.ofMillis(100), 8, 0);
+  }
+
+  @Test
+  @DisplayName("Should expire timeout once its deadline has passed")
+  void shouldExpireTimeoutAfterDeadline() {
+    wheel.schedule("hold-1", 350);
+
+    assertTrue(wheel.advance(300).isEmpty());
+    assertEquals(List.of("hold-1"), wheel.advance(400));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  @DisplayName("Should keep timeouts beyond one revolution until their round")
+  void shouldHandleTimeoutsBeyondOneRevolution() {
+    wheel.schedule("far", 2_050);
+
+    assertTrue(wheel.advance(900).isEmpty());
+    assertTrue(wheel.advance(1_900).isEmpty());
+    assertEquals(List.of("far"), wheel.advance(2_100));
+  }
+
+  @Test
+  @DisplayName("Should not expire cancelled timeouts")
+  void shouldNotExpireCancelledTimeouts() {
+    var cancelled = wheel.schedule("cancelled", 200);
+    wheel.schedule("kept", 200);
+
+    assertTrue(wheel.cancel(cancelled));
+    assertFalse(wheel.cancel(cancelled));
+    assertEquals(List.of("kept"), wheel.advance(500));
+  }
+
+  @Test
+  @DisplayName("Should expire overdue timeouts on the next tick")
+  void shouldExpireOverdueTimeoutsImmediately() {
+    wheel.advance(1_000);
+
+    wheel.schedule("overdue", 100);
+
+    assertEquals(List.of("overdue"), wheel.advance(1_100));
+  }
+
+  @Test
+  @DisplayName("Should return all timeouts that expired while skipping ticks")
+  void shouldExpireEverythingDueWhenSkippingTicks() {
+    wheel.schedule("a", 100);
+    wheel.schedule("b", 700);
+    wheel.schedule("c", 1_500);
+    wheel.schedule("d", 5_000);
+
+    assertEquals(List.of("a", "b", "c"), wheel.advance(1_600));
+    assertEquals(1, wheel.size());
+  }
+
+  @Test
+  @DisplayName("Should reject wheel size that is not a power of two")
+  void shouldRejectInvalidWheelSize() {
+    assertThrows(IllegalArgumentException.class,
+            () -> new HashedTimingWheel<>(Duration.ofMillis(100), 6, 0));
+  }
+}
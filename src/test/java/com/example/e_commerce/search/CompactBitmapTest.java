@@ -0,0 +1,102 @@
+package com.example.e_commerce.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactBitmapTest {
+
+  @Test
+  @DisplayName("Should add, remove and count values across containers")
+  void shouldAddRemoveAndCount() {
+    CompactBitmap bitmap = new CompactBitmap();
+
+    bitmap.add(3);
+    bitmap.add(70_000);
+    bitmap.add(3);
+    bitmap.add(1);
+
+    assertEquals(3, bitmap.cardinality());
+    assertTrue(bitmap.contains(70_000));
+    assertFalse(bitmap.contains(2));
+    assertArrayEquals(new int[]{1, 3}, bitmap.first(2));
+
+    bitmap.remove(70_000);
+    bitmap.remove(5);
+
+    assertEquals(2, bitmap.cardinality());
+    assertFalse(bitmap.contains(70_000));
+  }
+
+  @Test
+  @DisplayName("Should switch to a bitset when a group gets dense and back")
+  void shouldSwitchRepresentationWithDensity() {
+    CompactBitmap bitmap = new CompactBitmap();
+    for (int i = 0; i < 10_000; i++) {
+      bitmap.add(i * 2);
+    }
+    long dense = bitmap.memoryBytes();
+
+    for (int i = 0; i < 10_000; i++) {
+      if (i % 10 != 0) {
+        bitmap.remove(i * 2);
+      }
+    }
+
+    assertEquals(1_000, bitmap.cardinality());
+    assertTrue(bitmap.contains(20));
+    assertFalse(bitmap.contains(22));
+    assertTrue(bitmap.memoryBytes() < dense);
+  }
+
+  @Test
+  @DisplayName("Should match BitSet for and, or and their cardinality")
+  void shouldMatchBitSet() {
+    Random random = new Random(11);
+    // Sparse, dense and mixed groups
+    int[][] shapes = {{300_000, 2_000}, {300_000, 150_000}, {70_000, 6_000}};
+    for (int[] left : shapes) {
+      for (int[] right : shapes) {
+        BitSet a = new BitSet();
+        BitSet b = new BitSet();
+        CompactBitmap x = fill(random, left[0], left[1], a);
+        CompactBitmap y = fill(random, right[0], right[1], b);
+
+        BitSet and = (BitSet) a.clone();
+        and.and(b);
+        BitSet or = (BitSet) a.clone();
+        or.or(b);
+
+        assertEquals(and.cardinality(), x.and(y).cardinality());
+        assertEquals(and.cardinality(), x.andCardinality(y));
+        assertArrayEquals(and.stream().limit(100).toArray(),
+                x.and(y).first(100));
+        assertEquals(or.cardinality(), x.or(y).cardinality());
+        assertArrayEquals(or.stream().toArray(),
+                x.or(y).first(Integer.MAX_VALUE));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should reject negative values")
+  void shouldRejectNegativeValues() {
+    assertThrows(IllegalArgumentException.class,
+            () -> new CompactBitmap().add(-1));
+  }
+
+  private static CompactBitmap fill(Random random, int range, int count,
+                                    BitSet expected) {
+    CompactBitmap bitmap = new CompactBitmap();
+    for (int i = 0; i < count; i++) {
+      int value = random.nextInt(range);
+      bitmap.add(value);
+      expected.set(value);
+    }
+    return bitmap;
+  }
+}
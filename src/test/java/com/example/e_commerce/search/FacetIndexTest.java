@@ -0,0 +1,112 @@
+package com.example.e_commerce.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetIndexTest {
+  private FacetIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new FacetIndex(List.of(new BigDecimal("10"),
+            new BigDecimal("100")));
+    index.put(product(1, "Books", "9.99", 5, true));
+    index.put(product(2, "Books", "25.00", 0, true));
+    index.put(product(3, "Electronics", "99.99", 2, true));
+    index.put(product(4, "Electronics", "1499.00", 1, true));
+    index.put(product(5, "Electronics", "5.00", 9, false));
+  }
+
+  @Test
+  @DisplayName("Should place prices in bands with inclusive lower bounds")
+  void shouldPlacePricesInBands() {
+    assertEquals(0, index.bandOf(new BigDecimal("9.99")));
+    assertEquals(1, index.bandOf(new BigDecimal("10.00")));
+    assertEquals(2, index.bandOf(new BigDecimal("100")));
+  }
+
+  @Test
+  @DisplayName("Should count every facet over active products")
+  void shouldCountFacetsOverActiveProducts() {
+    FacetResult result = index.search(filter(null, Set.of(), false), 10);
+
+    assertEquals(4, result.total());
+    assertEquals(List.of(1L, 2L, 3L, 4L), result.productIds());
+    assertEquals(Map.of("Books", 2L, "Electronics", 2L),
+            result.categoryCounts());
+    assertEquals(List.of(1L, 2L, 1L), result.bandCounts());
+    assertEquals(3, result.inStockCount());
+  }
+
+  @Test
+  @DisplayName("Should count each facet without its own filter")
+  void shouldCountFacetsWithoutTheirOwnFilter() {
+    FacetResult result = index.search(filter("Electronics", Set.of(1), false),
+            10);
+
+    assertEquals(List.of(3L), result.productIds());
+    // Other categories still show what picking them would give
+    assertEquals(Map.of("Books", 1L, "Electronics", 1L),
+            result.categoryCounts());
+    assertEquals(List.of(0L, 1L, 1L), result.bandCounts());
+  }
+
+  @Test
+  @DisplayName("Should OR bands and AND the stock filter")
+  void shouldOrBandsAndFilterStock() {
+    FacetResult result = index.search(filter(null, Set.of(0, 1), true), 10);
+
+    assertEquals(List.of(1L, 3L), result.productIds());
+    assertEquals(2, result.inStockCount());
+    assertEquals(0, index.search(filter(null, Set.of(7), false), 10).total());
+    assertEquals(0, index.search(filter("Toys", Set.of(), false), 10).total());
+  }
+
+  @Test
+  @DisplayName("Should move a product between facets on update and drop it")
+  void shouldMoveAndDropProducts() {
+    index.put(product(2, "Electronics", "500.00", 3, true));
+
+    FacetResult moved = index.search(filter(null, Set.of(), true), 10);
+    assertEquals(Map.of("Books", 1L, "Electronics", 3L),
+            moved.categoryCounts());
+    assertEquals(List.of(1L, 1L, 2L), moved.bandCounts());
+
+    index.remove(1);
+    index.remove(42);
+
+    FacetResult dropped = index.search(filter(null, Set.of(), false), 10);
+    assertEquals(Map.of("Electronics", 3L), dropped.categoryCounts());
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  @DisplayName("Should include inactive products only when asked")
+  void shouldIncludeInactiveWhenAsked() {
+    FacetResult result = index.search(
+            new FacetFilter("Electronics", Set.of(), false, true), 2);
+
+    assertEquals(3, result.total());
+    assertEquals(List.of(3L, 4L), result.productIds());
+  }
+
+  private static FacetFilter filter(String category, Set<Integer> bands,
+                                    boolean inStockOnly) {
+    return new FacetFilter(category, bands, inStockOnly, false);
+  }
+
+  private static FacetedProduct product(long id, String category,
+                                        String price, int stock,
+                                        boolean active) {
+    return new FacetedProduct(id, category, new BigDecimal(price), stock,
+            active);
+  }
+}
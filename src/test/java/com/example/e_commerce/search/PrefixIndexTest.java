@@ -0,0 +1,116 @@
+package com.example.e_commerce.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefixIndexTest {
+
+  private static final List<IndexedProduct> CATALOG = List.of(
+          new IndexedProduct(1, "Apple iPhone 15", "APL-IP15", 40, true),
+          new IndexedProduct(2, "Apple Watch", "APL-W9", 90, true),
+          new IndexedProduct(3, "Applesauce Café", "FOOD-1", 5, true),
+          new IndexedProduct(4, "Banana Phone", "TOY-7", 60, true),
+          new IndexedProduct(5, "Apple TV", "APL-TV", 500, false));
+
+  @Test
+  @DisplayName("Should complete any word of the name, most popular first")
+  void shouldCompleteAnyWordByPopularity() {
+    PrefixIndex index = PrefixIndex.build(CATALOG, 10, 256);
+
+    assertEquals(List.of(2L, 1L, 3L), ids(index.candidates("app")));
+    assertEquals(List.of(4L), ids(index.candidates("ph")));
+    assertEquals(List.of(1L), ids(index.candidates("iphone")));
+    assertEquals(List.of(), ids(index.candidates("apples2")));
+  }
+
+  @Test
+  @DisplayName("Should leave inactive products out")
+  void shouldLeaveInactiveProductsOut() {
+    PrefixIndex index = PrefixIndex.build(CATALOG, 10, 256);
+
+    assertEquals(4, index.size());
+    assertNull(index.find(5));
+    assertTrue(ids(index.candidates("tv")).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should complete SKUs with or without separators")
+  void shouldCompleteSkus() {
+    PrefixIndex index = PrefixIndex.build(CATALOG, 10, 256);
+
+    assertEquals(List.of(1L), ids(index.candidates("aplip")));
+    assertEquals(List.of(2L, 1L), ids(index.candidates("apl")));
+    assertEquals(List.of(4L), ids(index.candidates("toy7")));
+  }
+
+  @Test
+  @DisplayName("Should match folded accents and check earlier words")
+  void shouldFoldAccentsAndCheckEarlierWords() {
+    PrefixIndex index = PrefixIndex.build(CATALOG, 10, 256);
+
+    assertEquals(List.of(3L), ids(index.candidates("cafe")));
+    assertTrue(index.hasTerm(1, "apple"));
+    assertFalse(index.hasTerm(1, "app"));
+    assertFalse(index.hasTerm(4, "apple"));
+  }
+
+  @Test
+  @DisplayName("Should rank busy prefixes at build time the same as a scan")
+  void shouldRankBusyPrefixesLikeScan() {
+    Random random = new Random(7);
+    String[] words = {"alpha", "alpine", "altar", "amber", "ample", "beta",
+            "bolt", "brass", "cable", "camera", "card", "carbon"};
+    List<IndexedProduct> products = new ArrayList<>();
+    for (long id = 1; id <= 2_000; id++) {
+      String name = words[random.nextInt(words.length)] + " " +
+              words[random.nextInt(words.length)] + " " + id;
+      products.add(new IndexedProduct(id, name, "SKU-" + id,
+              random.nextInt(1_000), true));
+    }
+    PrefixIndex precomputed = PrefixIndex.build(products, 20, 16);
+    PrefixIndex scanned = PrefixIndex.build(products, 20, Integer.MAX_VALUE);
+
+    assertTrue(precomputed.busyPrefixCount() > 0);
+    assertEquals(0, scanned.busyPrefixCount());
+    for (String prefix : List.of("a", "al", "alp", "alpine", "c", "ca",
+            "car", "s", "sku", "1", "19", "sku1")) {
+      assertEquals(ids(scanned.candidates(prefix)),
+              ids(precomputed.candidates(prefix)), prefix);
+      assertEquals(expected(products, prefix, 20),
+              ids(precomputed.candidates(prefix)), prefix);
+    }
+  }
+
+  @Test
+  @DisplayName("Should return nothing from an empty index")
+  void shouldReturnNothingFromEmptyIndex() {
+    PrefixIndex index = PrefixIndex.empty();
+
+    assertEquals(0, index.size());
+    assertTrue(index.candidates("a").isEmpty());
+    assertNull(index.find(1));
+  }
+
+  private static List<Long> expected(List<IndexedProduct> products,
+                                     String prefix, int limit) {
+    return products.stream()
+            .filter(p -> SearchNormalizer.terms(p.name(), p.sku()).stream()
+                    .anyMatch(term -> term.startsWith(prefix)))
+            .sorted(Comparator.comparingLong((IndexedProduct p) -> -p.weight())
+                    .thenComparingLong(IndexedProduct::id))
+            .limit(limit)
+            .map(IndexedProduct::id)
+            .toList();
+  }
+
+  private static List<Long> ids(List<IndexedProduct> products) {
+    return products.stream().map(IndexedProduct::id).toList();
+  }
+}
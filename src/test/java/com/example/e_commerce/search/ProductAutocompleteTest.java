@@ -0,0 +1,93 @@
+package com.example.e_commerce.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductAutocompleteTest {
+  private final List<IndexedProduct> database = new ArrayList<>();
+  private ProductAutocomplete autocomplete;
+
+  @BeforeEach
+  void setUp() {
+    database.add(new IndexedProduct(1, "Gaming Laptop", "LAP-001", 30, true));
+    database.add(new IndexedProduct(2, "Office Laptop", "LAP-002", 80, true));
+    database.add(new IndexedProduct(3, "Laser Mouse", "MOU-001", 10, true));
+    autocomplete = new ProductAutocomplete(properties(2),
+            () -> List.copyOf(database), new SimpleMeterRegistry());
+    autocomplete.rebuild();
+  }
+
+  @Test
+  @DisplayName("Should complete the last word and match earlier ones whole")
+  void shouldCompleteLastWord() {
+    assertEquals(List.of(2L, 1L, 3L), ids(autocomplete.complete("la", 10)));
+    assertEquals(List.of(2L, 1L), ids(autocomplete.complete("la", 2)));
+    assertEquals(List.of(1L), ids(autocomplete.complete("gaming la", 10)));
+    assertEquals(List.of(), ids(autocomplete.complete("gam la", 10)));
+    assertEquals(List.of(), ids(autocomplete.complete("  -- ", 10)));
+  }
+
+  @Test
+  @DisplayName("Should show a patched product before the next rebuild")
+  void shouldShowPatchedProductBeforeRebuild() {
+    autocomplete.upsert(4, "Laptop Stand", "STD-1", true);
+    autocomplete.upsert(2, "Office Notebook", "LAP-002", true);
+
+    assertEquals(List.of(1L, 4L), ids(autocomplete.complete("laptop", 10)));
+    // Renamed product keeps its popularity
+    assertEquals(List.of(2L), ids(autocomplete.complete("note", 10)));
+    assertEquals(2, autocomplete.pendingChanges());
+  }
+
+  @Test
+  @DisplayName("Should hide a deactivated or removed product at once")
+  void shouldHideDeactivatedAndRemovedProducts() {
+    autocomplete.upsert(2, "Office Laptop", "LAP-002", false);
+    autocomplete.remove(3);
+
+    assertEquals(List.of(1L), ids(autocomplete.complete("la", 10)));
+  }
+
+  @Test
+  @DisplayName("Should ignore a save that changes nothing it indexes")
+  void shouldIgnoreUnchangedSave() {
+    autocomplete.upsert(1, "Gaming Laptop", "LAP-001", true);
+    autocomplete.remove(99);
+
+    assertEquals(0, autocomplete.pendingChanges());
+  }
+
+  @Test
+  @DisplayName("Should fold pending changes into the index on rebuild")
+  void shouldFoldPendingChangesOnRebuild() {
+    autocomplete.upsert(4, "Laptop Stand", "STD-1", true);
+    database.add(new IndexedProduct(4, "Laptop Stand", "STD-1", 50, true));
+    autocomplete.rebuildIfStale();
+    assertEquals(1, autocomplete.pendingChanges());
+
+    autocomplete.upsert(5, "Laptop Bag", "BAG-1", true);
+    database.add(new IndexedProduct(5, "Laptop Bag", "BAG-1", 0, true));
+    autocomplete.rebuildIfStale();
+
+    assertEquals(0, autocomplete.pendingChanges());
+    assertEquals(List.of(2L, 4L, 1L, 5L),
+            ids(autocomplete.complete("laptop", 10)));
+  }
+
+  private static AutocompleteProperties properties(int maxPendingChanges) {
+    return new AutocompleteProperties(true, 50, 256, Duration.ofHours(1),
+            maxPendingChanges, Duration.ofDays(30));
+  }
+
+  private static List<Long> ids(List<IndexedProduct> products) {
+    return products.stream().map(IndexedProduct::id).toList();
+  }
+}
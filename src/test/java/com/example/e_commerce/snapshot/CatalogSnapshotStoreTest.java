@@ -0,0 +1,122 @@
+package com.example.e_commerce.snapshot;
+
+import com.example.e_commerce.ProductQueryService;
+import com.example.e_commerce.invalidation.ProductCacheInvalidator;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The test profile turns the snapshot and Spring's cache off; this runs with
+// both on, as in production
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+@ActiveProfiles("test")
+public class CatalogSnapshotStoreTest {
+  @TempDir
+  static Path snapshotDir;
+
+  @DynamicPropertySource
+  static void snapshotProperties(DynamicPropertyRegistry registry) {
+    registry.add("app.catalog-snapshot.enabled", () -> "true");
+    registry.add("app.catalog-snapshot.path",
+            () -> snapshotDir.resolve("catalog.snapshot").toString());
+  }
+
+  @Autowired
+  private CatalogSnapshotStore snapshotStore;
+
+  @Autowired
+  private ProductQueryService productQueryService;
+
+  @Autowired
+  private ProductCacheInvalidator invalidator;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private long id;
+
+  @BeforeEach
+  void setUp() {
+    id = productRepository.save(new Product("Desk lamp", "Snapshot test",
+            new BigDecimal("19.99"), 5, "SNAP-" + System.nanoTime(),
+            "Lighting", true)).getId();
+    snapshotStore.rebuild();
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.deleteById(id);
+  }
+
+  @Test
+  @DisplayName("Should read an invalidated product from the database")
+  void shouldBypassSnapshotForInvalidatedProduct() {
+    double databaseReads = reads("database");
+    assertEquals("Desk lamp",
+            productQueryService.findSummary(id).orElseThrow().name());
+    assertEquals(databaseReads, reads("database"));
+
+    rename("Floor lamp");
+    invalidator.invalidate(id);
+
+    assertEquals("Floor lamp",
+            productQueryService.findSummary(id).orElseThrow().name());
+    assertEquals(databaseReads + 1, reads("database"));
+  }
+
+  @Test
+  @DisplayName("Should serve a product from the snapshot again once rewritten")
+  void shouldServeProductAgainAfterRebuild() {
+    rename("Floor lamp");
+    invalidator.invalidate(id);
+    assertTrue(snapshotStore.findProduct(id).isEmpty());
+
+    snapshotStore.rebuild();
+
+    assertEquals("Floor lamp", snapshotStore.findProduct(id).orElseThrow()
+            .name());
+  }
+
+  @Test
+  @DisplayName("Should serve nothing from the snapshot after a full resync")
+  void shouldBypassSnapshotAfterInvalidateAll() {
+    assertTrue(snapshotStore.findProduct(id).isPresent());
+
+    invalidator.invalidateAll();
+
+    assertTrue(snapshotStore.findProduct(id).isEmpty());
+    snapshotStore.rebuild();
+    assertTrue(snapshotStore.findProduct(id).isPresent());
+  }
+
+  private void rename(String name) {
+    jdbcTemplate.update("UPDATE products SET name = ?, " +
+            "updated_at = now() WHERE id = ?", name, id);
+  }
+
+  private double reads(String source) {
+    return meterRegistry.counter("catalog.reads", "source", source).count();
+  }
+}
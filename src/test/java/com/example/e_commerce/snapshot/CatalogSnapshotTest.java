@@ -0,0 +1,95 @@
+package com.example.e_commerce.snapshot;
+
+import com.example.e_commerce.dto.CategorySummary;
+import com.example.e_commerce.dto.ProductSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotTest {
+  @TempDir
+  Path tempDir;
+
+  private Path writeSnapshot() throws IOException {
+    Path file = tempDir.resolve("catalog.snapshot");
+    try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(file)) {
+      writer.addCategory(2, null, "Electronics", true);
+      writer.addCategory(5, 2L, "Laptops", true);
+      writer.addProduct(10, "LAPTOP-001", "Gaming Laptop",
+              new BigDecimal("1299.99"), 4, "Laptops", true);
+      writer.addProduct(11, "CABLE-1", "USB-C Kabel äö",
+              new BigDecimal("9.5"), 0, "Electronics", false);
+      writer.addProduct(20, null, "Mystery Box", new BigDecimal("1.00"), 1,
+              "Unknown", true);
+      writer.commit(123_456L);
+    }
+    return file;
+  }
+
+  @Test
+  @DisplayName("Should read back products written to the snapshot")
+  void shouldReadBackProducts() throws IOException {
+    CatalogSnapshot snapshot = CatalogSnapshot.open(writeSnapshot());
+
+    assertEquals(3, snapshot.productCount());
+    assertEquals(123_456L, snapshot.maxUpdatedAtMillis());
+    assertEquals(Optional.of(new ProductSummary(10L, "LAPTOP-001",
+                    "Gaming Laptop", new BigDecimal("1299.99"), true,
+                    "Laptops", true)),
+            snapshot.findProduct(10));
+    ProductSummary cable = snapshot.findProduct(11).orElseThrow();
+    assertEquals("USB-C Kabel äö", cable.name());
+    assertEquals(new BigDecimal("9.50"), cable.price());
+    assertFalse(cable.inStock());
+    assertNull(snapshot.findProduct(20).orElseThrow().sku());
+  }
+
+  @Test
+  @DisplayName("Should return empty for ids that are not in the snapshot")
+  void shouldReturnEmptyForUnknownIds() throws IOException {
+    CatalogSnapshot snapshot = CatalogSnapshot.open(writeSnapshot());
+
+    assertTrue(snapshot.findProduct(1).isEmpty());
+    assertTrue(snapshot.findProduct(15).isEmpty());
+    assertTrue(snapshot.findProduct(99).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should read categories with their parent")
+  void shouldReadCategories() throws IOException {
+    CatalogSnapshot snapshot = CatalogSnapshot.open(writeSnapshot());
+
+    assertEquals(Optional.of(new CategorySummary(5L, "Laptops", 2L, true)),
+            snapshot.findCategory(5));
+    assertNull(snapshot.findCategory(2).orElseThrow().parentCategoryId());
+  }
+
+  @Test
+  @DisplayName("Should reject products that are not in id order")
+  void shouldRejectUnorderedProducts() throws IOException {
+    try (CatalogSnapshotWriter writer =
+                 new CatalogSnapshotWriter(tempDir.resolve("bad.snapshot"))) {
+      writer.addProduct(5, "A", "Alpha", BigDecimal.ONE, 1, "X", true);
+      assertThrows(IllegalArgumentException.class, () ->
+              writer.addProduct(4, "B", "Beta", BigDecimal.ONE, 1, "X", true));
+    }
+  }
+
+  @Test
+  @DisplayName("Should clean up temporary files")
+  void shouldCleanUpTemporaryFiles() throws IOException {
+    writeSnapshot();
+
+    try (var files = Files.list(tempDir)) {
+      assertEquals(1, files.count());
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package com.example.e_commerce.stock;
+
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ProductNotFoundException;
+import com.example.e_commerce.exception.StockHistoryUnavailableException;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compaction is only run by the tests themselves
+@SpringBootTest(properties = "app.stock-ledger.compaction-enabled=false")
+@ActiveProfiles("test")
+public class StockLedgerTest {
+  @Autowired
+  private StockLedger stockLedger;
+
+  @Autowired
+  private StockCompactor compactor;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private long laptop;
+  private long phone;
+
+  @BeforeEach
+  void setUp() {
+    laptop = productRepository.save(new Product("Laptop", "Gaming laptop",
+            new BigDecimal("999.99"), 10, "LAPTOP-001", "Electronics",
+            true)).getId();
+    phone = productRepository.save(new Product("Phone", "Smartphone",
+            new BigDecimal("499.99"), 3, "PHONE-001", "Electronics",
+            true)).getId();
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM stock_movements");
+    jdbcTemplate.update("DELETE FROM stock_snapshots");
+    productRepository.deleteAllInBatch();
+  }
+
+  @Test
+  @DisplayName("Should start from the product's stock and add movements")
+  void shouldAddMovementsToInitialStock() {
+    stockLedger.take(laptop, 4, StockMovementType.PURCHASE, 100L);
+    stockLedger.put(laptop, 2, StockMovementType.RESTOCK, null);
+    stockLedger.putAll(List.of(
+            new StockChange(laptop, 1, StockMovementType.RETURN, 100L),
+            new StockChange(phone, 5, StockMovementType.RESTOCK, null)));
+
+    assertEquals(9, stockLedger.available(laptop));
+    assertEquals(Map.of(laptop, 9, phone, 8),
+            stockLedger.available(List.of(laptop, phone, -1L)));
+  }
+
+  @Test
+  @DisplayName("Should refuse to take more than is available")
+  void shouldRefuseToTakeMoreThanAvailable() {
+    stockLedger.take(phone, 2, StockMovementType.PURCHASE, null);
+
+    assertThrows(InsufficientStockException.class,
+            () -> stockLedger.take(phone, 2, StockMovementType.PURCHASE,
+                    null));
+    assertEquals(1, stockLedger.available(phone));
+    assertEquals(1, countMovements(phone));
+  }
+
+  @Test
+  @DisplayName("Should treat unknown products as not found")
+  void shouldTreatUnknownProductsAsNotFound() {
+    assertThrows(ProductNotFoundException.class,
+            () -> stockLedger.take(-1L, 1, StockMovementType.PURCHASE, null));
+    assertThrows(ProductNotFoundException.class,
+            () -> stockLedger.adjust(-1L, StockMovementType.RESTOCK, 1));
+    assertEquals(0, countMovements(-1L));
+  }
+
+  @Test
+  @DisplayName("Should append only the difference to reach a target level")
+  void shouldAppendDifferenceToReachTarget() {
+    stockLedger.adjustTo(Map.of(laptop, 7, phone, 3));
+
+    assertEquals(7, stockLedger.available(laptop));
+    assertEquals(3, stockLedger.available(phone));
+    assertEquals(1, countMovements(laptop));
+    assertEquals(0, countMovements(phone));
+  }
+
+  @Test
+  @DisplayName("Should roll movements into a snapshot without changing stock")
+  void shouldCompactWithoutChangingStock() {
+    stockLedger.take(laptop, 3, StockMovementType.PURCHASE, null);
+    stockLedger.put(laptop, 1, StockMovementType.RETURN, null);
+
+    assertEquals(1, compactor.compact());
+
+    assertEquals(8, stockLedger.available(laptop));
+    assertEquals(8, productRepository.findById(laptop).orElseThrow()
+            .getStockQuantity());
+    assertEquals(8, jdbcTemplate.queryForObject(
+            "SELECT quantity FROM stock_snapshots WHERE product_id = ?",
+            Integer.class, laptop));
+    assertEquals(0, compactor.compact());
+
+    stockLedger.take(laptop, 8, StockMovementType.PURCHASE, null);
+    assertEquals(0, stockLedger.available(laptop));
+  }
+
+  @Test
+  @DisplayName("Should compact a movement that commits after a later one")
+  void shouldCompactLateCommittingMovement() throws SQLException {
+    try (Connection connection = jdbcTemplate.getDataSource()
+            .getConnection()) {
+      connection.setAutoCommit(false);
+      // An append as StockLedger makes it, left open for now
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("SELECT pg_advisory_xact_lock_shared(" +
+                (StockLedger.COMPACTION_LOCKS | laptop) + ")");
+        statement.execute("INSERT INTO stock_movements (product_id, " +
+                "quantity, type, created_at) VALUES (" + laptop +
+                ", -2, 'PURCHASE', now())");
+      }
+      stockLedger.take(phone, 1, StockMovementType.PURCHASE, null);
+      assertEquals(1, compactor.compact());
+      connection.commit();
+    }
+
+    assertEquals(1, compactor.compact());
+
+    assertEquals(8, productRepository.findById(laptop).orElseThrow()
+            .getStockQuantity());
+    assertEquals(2, productRepository.findById(phone).orElseThrow()
+            .getStockQuantity());
+  }
+
+  @Test
+  @DisplayName("Should reconstruct past stock levels across compactions")
+  void shouldReconstructPastLevels() throws InterruptedException {
+    stockLedger.take(laptop, 2, StockMovementType.PURCHASE, null);
+    Thread.sleep(5);
+    LocalDateTime afterFirstSale = LocalDateTime.now();
+    Thread.sleep(5);
+    stockLedger.take(laptop, 5, StockMovementType.PURCHASE, null);
+    compactor.compact();
+    stockLedger.put(laptop, 4, StockMovementType.RESTOCK, null);
+
+    assertEquals(8, stockLedger.levelAt(laptop, afterFirstSale));
+    assertEquals(7, stockLedger.levelAt(laptop, LocalDateTime.now()));
+  }
+
+  @Test
+  @DisplayName("Should refuse history older than the retention window")
+  void shouldRefuseHistoryBeyondRetention() {
+    assertThrows(StockHistoryUnavailableException.class,
+            () -> stockLedger.levelAt(laptop,
+                    LocalDateTime.now().minusYears(2)));
+  }
+
+  private int countMovements(long productId) {
+    return jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM stock_movements WHERE product_id = ?",
+            Integer.class, productId);
+  }
+}
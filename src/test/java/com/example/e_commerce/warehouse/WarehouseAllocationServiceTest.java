@@ -0,0 +1,255 @@
+package com.example.e_commerce.warehouse;
+
+import com.example.e_commerce.ProductService;
+import com.example.e_commerce.dto.ShipmentResponse;
+import com.example.e_commerce.enums.AddressType;
+import com.example.e_commerce.enums.OrderStatus;
+import com.example.e_commerce.enums.StockMovementType;
+import com.example.e_commerce.enums.UserRole;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.OrderNotAllocatableException;
+import com.example.e_commerce.model.Address;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.AddressRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.stock.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class WarehouseAllocationServiceTest {
+  @Autowired
+  private WarehouseAllocationService allocationService;
+
+  @Autowired
+  private WarehouseDirectory directory;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private StockLedger stockLedger;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private AddressRepository addressRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private long lamp;
+  private long buyer;
+  private long address;
+  private long east;
+  private long west;
+  private Long orderId;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = Long.toString(System.nanoTime() % 1_000_000_000L);
+    lamp = productRepository.save(new Product("Desk lamp", "Allocation test",
+            new BigDecimal("25.00"), 5, "ALLOC-" + suffix, "Lighting",
+            true)).getId();
+    User user = userRepository.save(new User("Ann", "Buyer",
+            "alloc-" + suffix + "@example.com", "555-0100", "passwordHash",
+            UserRole.CUSTOMER, true));
+    buyer = user.getId();
+    address = addressRepository.save(new Address(user, AddressType.SHIPPING,
+            "1 Main St", "Albany", "NY", "12207", "US", true)).getId();
+    east = warehouse("E-" + suffix, 2);
+    west = warehouse("W-" + suffix, 1);
+    directory.refresh();
+
+    allocationService.setStock(east, Map.of(lamp, 3));
+    allocationService.setStock(west, Map.of(lamp, 4));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (orderId != null) {
+      jdbcTemplate.update("DELETE FROM shipment_allocations WHERE order_id = ?",
+              orderId);
+      jdbcTemplate.update("DELETE FROM order_items WHERE order_id = ?",
+              orderId);
+      jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+    }
+    jdbcTemplate.update("DELETE FROM warehouse_stock WHERE product_id = ?",
+            lamp);
+    jdbcTemplate.update("DELETE FROM warehouses WHERE id IN (?, ?)", east,
+            west);
+    jdbcTemplate.update("DELETE FROM stock_movements WHERE product_id = ?",
+            lamp);
+    jdbcTemplate.update("DELETE FROM stock_snapshots WHERE product_id = ?",
+            lamp);
+    jdbcTemplate.update("DELETE FROM products WHERE id = ?", lamp);
+    jdbcTemplate.update("DELETE FROM addresses WHERE id = ?", address);
+    jdbcTemplate.update("DELETE FROM users WHERE id = ?", buyer);
+    directory.refresh();
+  }
+
+  @Test
+  @DisplayName("Should make warehouse stock the sellable total")
+  void shouldAddWarehouseStockToLedger() {
+    // The products baseline of 5 is replaced, not added to
+    assertEquals(7, stockLedger.available(lamp));
+
+    allocationService.setStock(east, Map.of(lamp, 1));
+
+    assertEquals(5, stockLedger.available(lamp));
+    assertEquals(5, onHand());
+  }
+
+  @Test
+  @DisplayName("Should replace manual adjustments with the next count")
+  void shouldResetLedgerToWarehouseTotals() {
+    stockLedger.adjust(lamp, StockMovementType.RESTOCK, 10);
+    assertEquals(17, stockLedger.available(lamp));
+
+    allocationService.setStock(east, Map.of(lamp, 3));
+
+    assertEquals(7, stockLedger.available(lamp));
+  }
+
+  @Test
+  @DisplayName("Should keep units sold but not allocated off the ledger")
+  void shouldSubtractUnallocatedSales() {
+    orderId = purchase(5);
+
+    allocationService.setStock(east, Map.of(lamp, 6));
+
+    assertEquals(10, onHand());
+    assertEquals(5, stockLedger.available(lamp));
+  }
+
+  @Test
+  @DisplayName("Should split an order and take the units from each warehouse")
+  void shouldAllocateAndDecrementStock() {
+    orderId = purchase(5);
+    assertEquals(2, stockLedger.available(lamp));
+
+    List<ShipmentResponse> shipments = allocationService.allocate(orderId);
+
+    assertEquals(2, shipments.size());
+    assertEquals(5, shipped(shipments));
+    assertEquals(2, onHand());
+    assertEquals(onHand(), stockLedger.available(lamp));
+  }
+
+  @Test
+  @DisplayName("Should return the stored allocation on a second call")
+  void shouldReturnStoredAllocation() {
+    orderId = purchase(5);
+    List<ShipmentResponse> first = allocationService.allocate(orderId);
+
+    assertEquals(first, allocationService.allocate(orderId));
+    assertEquals(2, onHand());
+    assertEquals(first, allocationService.allocation(orderId));
+  }
+
+  @Test
+  @DisplayName("Should take stock once when two allocations race")
+  void shouldLockOrderAgainstConcurrentAllocation() throws Exception {
+    orderId = purchase(5);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      CompletableFuture<List<ShipmentResponse>> first = CompletableFuture
+              .supplyAsync(() -> allocationService.allocate(orderId), executor);
+      CompletableFuture<List<ShipmentResponse>> second = CompletableFuture
+              .supplyAsync(() -> allocationService.allocate(orderId), executor);
+
+      assertEquals(first.get(), second.get());
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(2, onHand());
+    assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM shipment_allocations WHERE order_id = ?",
+            Integer.class, orderId));
+  }
+
+  @Test
+  @DisplayName("Should refuse to allocate an order that is not paid")
+  void shouldRejectUnpaidOrCancelledOrder() {
+    orderId = purchase(2);
+    setStatus(OrderStatus.PENDING);
+    assertThrows(OrderNotAllocatableException.class,
+            () -> allocationService.allocate(orderId));
+
+    setStatus(OrderStatus.CANCELLED);
+    assertThrows(OrderNotAllocatableException.class,
+            () -> allocationService.allocate(orderId));
+
+    assertEquals(7, onHand());
+    assertEquals(List.of(), allocationService.allocation(orderId));
+  }
+
+  @Test
+  @DisplayName("Should refuse a stock count below what is already sold")
+  void shouldRejectCountBelowSoldStock() {
+    orderId = purchase(5);
+
+    assertThrows(InsufficientStockException.class,
+            () -> allocationService.setStock(west, Map.of(lamp, 1)));
+
+    assertEquals(7, onHand());
+    assertEquals(2, stockLedger.available(lamp));
+  }
+
+  private long warehouse(String code, int priority) {
+    return jdbcTemplate.queryForObject("""
+            INSERT INTO warehouses (code, name, country, priority, active)
+            VALUES (?, ?, 'US', ?, true)
+            RETURNING id
+            """, Long.class, code, "Warehouse " + code, priority);
+  }
+
+  // Paid straight away, as only paid orders are allocated
+  private long purchase(int quantity) {
+    long id = productService.purchaseProduct(lamp, buyer, quantity, address)
+            .getId();
+    jdbcTemplate.update("UPDATE orders SET status = 'PAID' WHERE id = ?", id);
+    return id;
+  }
+
+  private void setStatus(OrderStatus status) {
+    jdbcTemplate.update("UPDATE orders SET status = ? WHERE id = ?",
+            status.name(), orderId);
+  }
+
+  private int onHand() {
+    return jdbcTemplate.queryForObject("""
+            SELECT COALESCE(SUM(quantity), 0) FROM warehouse_stock
+            WHERE product_id = ?
+            """, Integer.class, lamp);
+  }
+
+  private static int shipped(List<ShipmentResponse> shipments) {
+    return shipments.stream()
+            .flatMap(shipment -> shipment.lines().stream())
+            .mapToInt(ShipmentResponse.Line::quantity)
+            .sum();
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.e_commerce.warehouse;
+
+import com.example.e_commerce.exception.InsufficientStockException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarehouseAllocatorTest {
+  private static final long LAPTOP = 1;
+  private static final long MOUSE = 2;
+
+  @Test
+  @DisplayName("Should ship from the first candidate that holds everything")
+  void shouldShipFromFirstCompleteCandidate() {
+    // Site 0 is preferred but has no mouse; sites 1 and 2 have both
+    Map<Long, int[]> stock = Map.of(
+            LAPTOP, new int[]{5, 2, 9},
+            MOUSE, new int[]{0, 1, 9});
+
+    List<Shipment> shipments = WarehouseAllocator.allocate(
+            new int[]{0, 1, 2}, lines(2, 1), stock);
+
+    assertEquals(List.of(new Shipment(1, lines(2, 1))), shipments);
+  }
+
+  @Test
+  @DisplayName("Should split an order no single warehouse can ship")
+  void shouldSplitAcrossWarehouses() {
+    Map<Long, int[]> stock = Map.of(
+            LAPTOP, new int[]{1, 3},
+            MOUSE, new int[]{1, 0});
+
+    List<Shipment> shipments = WarehouseAllocator.allocate(
+            new int[]{0, 1}, lines(4, 1), stock);
+
+    // Site 1 covers more of the order, so it ships first
+    assertEquals(List.of(
+            new Shipment(1, List.of(new AllocationLine(LAPTOP, 3))),
+            new Shipment(0, List.of(new AllocationLine(LAPTOP, 1),
+                    new AllocationLine(MOUSE, 1)))), shipments);
+  }
+
+  @Test
+  @DisplayName("Should prefer the earlier candidate when coverage ties")
+  void shouldBreakTiesByCandidateOrder() {
+    Map<Long, int[]> stock = Map.of(
+            LAPTOP, new int[]{1, 1, 0},
+            MOUSE, new int[]{0, 0, 1});
+
+    List<Shipment> shipments = WarehouseAllocator.allocate(
+            new int[]{1, 0, 2}, lines(1, 1), stock);
+
+    assertEquals(List.of(1, 2), shipments.stream().map(Shipment::site)
+            .toList());
+  }
+
+  @Test
+  @DisplayName("Should refuse an order the warehouses cannot cover together")
+  void shouldRefuseShortage() {
+    Map<Long, int[]> stock = Map.of(LAPTOP, new int[]{1, 1});
+
+    assertThrows(InsufficientStockException.class,
+            () -> WarehouseAllocator.allocate(new int[]{0, 1}, lines(3, 0),
+                    stock));
+    assertThrows(InsufficientStockException.class,
+            () -> WarehouseAllocator.allocate(new int[]{0, 1}, lines(1, 1),
+                    stock));
+  }
+
+  private static List<AllocationLine> lines(int laptops, int mice) {
+    return mice == 0 ? List.of(new AllocationLine(LAPTOP, laptops))
+            : List.of(new AllocationLine(LAPTOP, laptops),
+                    new AllocationLine(MOUSE, mice));
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.e_commerce.warehouse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarehouseRoutingTableTest {
+  private WarehouseRoutingTable table;
+
+  @BeforeEach
+  void setUp() {
+    table = WarehouseRoutingTable.build(List.of(
+            new WarehouseSite(10, "BER", 5),
+            new WarehouseSite(20, "MUC", 1),
+            new WarehouseSite(30, "NYC", 10)), List.of(
+            new RegionRoute("Germany", null, null, 10, 0),
+            new RegionRoute("Germany", null, null, 20, 1),
+            new RegionRoute("Germany", "Bavaria", null, 20, 0),
+            new RegionRoute("Germany", null, "80", 20, 0),
+            new RegionRoute("USA", null, null, 30, 0),
+            // An inactive warehouse is not in the table
+            new RegionRoute("USA", null, null, 99, 0)));
+  }
+
+  @Test
+  @DisplayName("Should order sites by descending priority")
+  void shouldOrderSitesByPriority() {
+    assertEquals(List.of("NYC", "BER", "MUC"), table.sites().stream()
+            .map(WarehouseSite::code).toList());
+    assertEquals(2, table.indexOf(20));
+    assertEquals(-1, table.indexOf(99));
+  }
+
+  @Test
+  @DisplayName("Should try the state's warehouses before the country's")
+  void shouldPreferStateRoutes() {
+    assertEquals(List.of("MUC", "BER", "NYC"),
+            codes(table.candidates("Germany", "Bavaria", "90402")));
+    assertEquals(List.of("BER", "MUC", "NYC"),
+            codes(table.candidates("Germany", "Berlin", "10115")));
+  }
+
+  @Test
+  @DisplayName("Should match postal code prefixes, ignoring case and spaces")
+  void shouldMatchPostalPrefixes() {
+    assertEquals(List.of("MUC", "BER", "NYC"),
+            codes(table.candidates(" germany ", null, "80 331")));
+  }
+
+  @Test
+  @DisplayName("Should fall back to priority order for unrouted addresses")
+  void shouldFallBackToPriority() {
+    assertEquals(List.of("NYC", "BER", "MUC"),
+            codes(table.candidates("France", "Alsace", "67000")));
+    assertEquals(List.of("NYC", "BER", "MUC"),
+            codes(table.candidates(null, null, null)));
+  }
+
+  @Test
+  @DisplayName("Should return no candidates without warehouses")
+  void shouldHandleEmptyTable() {
+    assertEquals(0, WarehouseRoutingTable.empty()
+            .candidates("Germany", null, null).length);
+  }
+
+  private List<String> codes(int[] candidates) {
+    return Arrays.stream(candidates)
+            .mapToObj(index -> table.sites().get(index).code())
+            .toList();
+  }
+}